@@ -0,0 +1,223 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.enums.DocumentType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Field extraction over the golden corpus (src/test/resources/ocr), both
+ * document types per text: {@link FieldExtractor} against the regex-per-call
+ * code it replaced. Run with the gc profiler to see bytes allocated per
+ * operation (gc.alloc.rate.norm):
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=FieldExtractorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldExtractorBenchmark {
+
+    private List<String> texts;
+
+    @Setup
+    public void loadCorpus() throws IOException {
+        texts = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream("/ocr/field-extraction-golden.json")) {
+            for (JsonNode entry : new ObjectMapper().readTree(in)) {
+                texts.add(entry.get("text").asText());
+            }
+        }
+    }
+
+    @Benchmark
+    public void precompiled(Blackhole blackhole) {
+        for (String text : texts) {
+            for (DocumentType type : DocumentType.values()) {
+                blackhole.consume(FieldExtractor.extract(text, type));
+            }
+        }
+    }
+
+    @Benchmark
+    public void regexPerCall(Blackhole blackhole) {
+        for (String text : texts) {
+            for (DocumentType type : DocumentType.values()) {
+                blackhole.consume(RegexPerCall.extractName(text, type));
+                blackhole.consume(RegexPerCall.extractDob(text, type));
+                blackhole.consume(RegexPerCall.extractDocumentNumber(text, type));
+            }
+        }
+    }
+
+    /** The extraction as OcrServiceImpl did it before {@link FieldExtractor}, kept as the baseline. */
+    static final class RegexPerCall {
+
+        static String extractName(String text, DocumentType type) {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            String[] lines = text.split("\\n");
+            if (type == DocumentType.PAN) {
+                for (int i = 0; i < lines.length; i++) {
+                    String line = lines[i].trim();
+                    if (line.toLowerCase().contains("father's name") || line.toLowerCase().contains("fathers name")) {
+                        if (i > 0) {
+                            String candidate = cleanName(lines[i - 1].trim());
+                            if (isValidName(candidate))
+                                return candidate;
+                        }
+                    }
+                }
+                boolean foundTitle = false;
+                for (String line : lines) {
+                    String trimmed = line.trim();
+                    if (trimmed.toLowerCase().contains("permanent account number card")) {
+                        foundTitle = true;
+                        continue;
+                    }
+                    if (foundTitle) {
+                        if (trimmed.matches("[A-Z0-9\\\\ ]+") && (trimmed.contains("1") || trimmed.contains("2"))) {
+                            continue;
+                        }
+                        String candidate = cleanName(trimmed);
+                        if (isValidName(candidate))
+                            return candidate;
+                    }
+                }
+            } else if (type == DocumentType.AADHAAR) {
+                for (int i = 0; i < lines.length; i++) {
+                    String line = lines[i].trim();
+                    if (line.toLowerCase().contains("dob") || line.toLowerCase().contains("birth")) {
+                        if (i > 0) {
+                            String candidate = cleanName(lines[i - 1].trim());
+                            if (isValidName(candidate))
+                                return candidate;
+                        }
+                    }
+                }
+            }
+            Pattern pLabeled = Pattern.compile("(?m)^(?:Name|Full Name)[:\\s]+([A-Za-z .]+)$", Pattern.CASE_INSENSITIVE);
+            Matcher mLabeled = pLabeled.matcher(text);
+            if (mLabeled.find()) {
+                return mLabeled.group(1).trim();
+            }
+            return null;
+        }
+
+        static boolean isValidName(String name) {
+            if (name == null || name.length() < 5)
+                return false;
+            if (name.matches(".*[0-9@#%&*+=].*"))
+                return false;
+            long alphaCount = name.chars().filter(Character::isAlphabetic).count();
+            if ((double) alphaCount / name.length() < 0.7)
+                return false;
+            String lower = name.toLowerCase();
+            if (lower.contains("india") || lower.contains("department") ||
+                    lower.contains("income") || lower.contains("card") ||
+                    lower.contains("permanent") || lower.contains("account") ||
+                    lower.contains("signature"))
+                return false;
+            if (lower.equals("lar ee"))
+                return false;
+            return name.contains(" ") || name.length() >= 6;
+        }
+
+        static String cleanName(String name) {
+            if (name == null)
+                return null;
+            return name.replaceAll("(?i)^(?:Name|Full Name)[:\\s]+", "")
+                    .replaceAll("[\\\\|©_—«-]", "")
+                    .replaceAll("\\s+[a-z]{2,3}$", "")
+                    .replaceAll("^[^A-Za-z]+|[^A-Za-z]+$", "")
+                    .trim();
+        }
+
+        static String extractDob(String text, DocumentType type) {
+            Pattern p = Pattern.compile(
+                    "(?:DOB|Date of Birth|Birth Date|Year of Birth)[:\\s]+(\\d{2,4}[-/]\\d{2}[-/]\\d{2,4}|\\d{4})",
+                    Pattern.CASE_INSENSITIVE);
+            Matcher m = p.matcher(text);
+            if (m.find()) {
+                String dob = m.group(1);
+                if (dob.length() == 4)
+                    return dob + "-01-01";
+                return convertDate(dob);
+            }
+            Pattern pFallback = Pattern.compile("(\\d{2}[-/]\\d{2}[-/]\\d{4})");
+            Matcher mFallback = pFallback.matcher(text);
+            if (mFallback.find()) {
+                return convertDate(mFallback.group(1));
+            }
+            if (type == DocumentType.AADHAAR) {
+                Pattern pYear = Pattern.compile("(?i)(?:Year of Birth|YOB|DOB).*?([1-2][0-9]{3})");
+                Matcher mYear = pYear.matcher(text);
+                if (mYear.find()) {
+                    return mYear.group(1) + "-01-01";
+                }
+            }
+            return null;
+        }
+
+        static String extractDocumentNumber(String text, DocumentType type) {
+            if (type == DocumentType.PAN) {
+                Matcher m = Pattern.compile("[A-Z]{5}[0-9]{4}[A-Z]{1}").matcher(text);
+                if (m.find())
+                    return m.group(0);
+            } else if (type == DocumentType.AADHAAR) {
+                Matcher m = Pattern.compile("\\d{4}\\s?\\d{4}\\s?\\d{4}").matcher(text);
+                if (m.find())
+                    return m.group(0).replaceAll("\\s", "");
+            }
+            Pattern p = Pattern.compile("(?:No|Number|ID\\s*NO|DOC\\s*NO)[:\\s]+([A-Z0-9-]+)", Pattern.CASE_INSENSITIVE);
+            Matcher m = p.matcher(text);
+            if (m.find()) {
+                return m.group(1).trim();
+            }
+            return null;
+        }
+
+        static String convertDate(String date) {
+            String[] parts = date.split("[-/]");
+            if (parts.length == 3) {
+                if (parts[0].length() == 4) {
+                    return date.replace('/', '-');
+                }
+                try {
+                    int v0 = Integer.parseInt(parts[0]);
+                    int v1 = Integer.parseInt(parts[1]);
+                    if (v1 > 12) {
+                        return parts[2] + "-" + String.format("%02d", v0) + "-" + String.format("%02d", v1);
+                    } else {
+                        return parts[2] + "-" + String.format("%02d", v1) + "-" + String.format("%02d", v0);
+                    }
+                } catch (NumberFormatException e) {
+                    return date;
+                }
+            }
+            return date;
+        }
+    }
+}
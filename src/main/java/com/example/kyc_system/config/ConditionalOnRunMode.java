@@ -0,0 +1,25 @@
+package com.example.kyc_system.config;
+
+import com.example.kyc_system.enums.KycRunMode;
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.*;
+
+/**
+ * Registers the bean only on nodes that run the given part of the system:
+ * when kyc.mode is that mode or ALL (the default).
+ *
+ * Example: {@code @ConditionalOnRunMode(KycRunMode.WORKER)} on the OCR worker
+ * pool keeps it off API-only nodes.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnRunModeCondition.class)
+public @interface ConditionalOnRunMode {
+
+    /**
+     * The part of the system the bean belongs to (API or WORKER).
+     */
+    KycRunMode value();
+}
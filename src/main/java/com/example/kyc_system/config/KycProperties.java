@@ -1,10 +1,20 @@
 package com.example.kyc_system.config;
 
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.enums.OcrEngineMode;
+import com.example.kyc_system.enums.OcrField;
 import lombok.*;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Maps custom properties from application.properties under the "kyc" prefix.
@@ -16,6 +26,12 @@ import java.util.List;
 @ConfigurationProperties(prefix = "kyc")
 public class KycProperties {
 
+    /**
+     * Which part of the system this node runs: ALL (default), API or WORKER.
+     * Split modes need a durable queue backend (postgres or redis).
+     */
+    private KycRunMode mode = KycRunMode.ALL;
+
     /**
      * Storage configuration settings.
      */
@@ -26,6 +42,26 @@ public class KycProperties {
      */
     private File file = new File();
 
+    /**
+     * Queue worker configuration settings.
+     */
+    private Worker worker = new Worker();
+
+    /**
+     * Processing queue configuration settings.
+     */
+    private Queue queue = new Queue();
+
+    /**
+     * Retry policy for transient processing failures.
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * OCR engine settings.
+     */
+    private Ocr ocr = new Ocr();
+
     /**
      * Inner class for storage related properties (e.g., base path for file storage).
      */
@@ -56,4 +92,746 @@ public class KycProperties {
         private List<String> allowedTypes;
 
     }
+
+    /**
+     * Inner class for the background worker pool that drains the KYC queue.
+     */
+    @Setter
+    @Getter
+    public static class Worker {
+        /**
+         * Number of worker threads polling the queue. Defaults to the number of
+         * available processors so OCR throughput scales with cores.
+         */
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Drain deadline on shutdown: how long in-flight requests may keep
+         * running after workers stop claiming new ones. Requests still
+         * unfinished then are handed back to the queue.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(20);
+
+        /**
+         * Requests of one tenant that may be PROCESSING at the same time, unless the
+         * tenant sets its own max-concurrent-processing. 0 = no limit.
+         */
+        private int maxConcurrentPerTenant = 0;
+
+        /**
+         * How long a request refused by its tenant's concurrency limit waits in the
+         * outbox before it is dispatched again (postgres and redis backends).
+         */
+        private Duration tenantLimitDelay = Duration.ofSeconds(5);
+
+        /**
+         * A PROCESSING request whose lease (processing_started_at) has not been renewed
+         * for this long is considered abandoned and re-queued by the reaper.
+         */
+        private Duration leaseTimeout = Duration.ofMinutes(5);
+
+        /**
+         * How often workers renew the leases of the requests they are processing.
+         * Must be well below lease-timeout.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+        /**
+         * How often the reaper looks for expired leases.
+         */
+        private Duration reaperInterval = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of requests re-queued by one reaper statement.
+         */
+        private int reaperBatchSize = 500;
+
+    }
+
+    /**
+     * Inner class for the processing queue backend.
+     */
+    @Setter
+    @Getter
+    public static class Queue {
+        /**
+         * Queue backend: "memory" (single JVM), "postgres" (kyc_jobs table) or
+         * "redis" (Redis Stream with a consumer group). The last two are shared by all nodes.
+         */
+        private String backend = "memory";
+
+        /**
+         * Maximum number of jobs a node claims from a shared backend in one round trip.
+         */
+        private int batchSize = 5;
+
+        /**
+         * How long an idle worker waits before polling a shared backend again.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Claims older than this are treated as abandoned (node crashed) and become claimable again.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(10);
+
+        /**
+         * Hard upper bound of the in-memory queue.
+         */
+        private int capacity = 10_000;
+
+        /**
+         * Backlog size at which new uploads are refused with 429 Too Many Requests.
+         */
+        private int highWatermark = 5_000;
+
+        /**
+         * Backlog size at which uploads are accepted again after throttling started.
+         */
+        private int lowWatermark = 2_500;
+
+        /**
+         * Retry-After used while the drain rate of the backlog is still unknown.
+         */
+        private Duration defaultRetryAfter = Duration.ofSeconds(30);
+
+        /**
+         * Upper bound for the computed Retry-After.
+         */
+        private Duration maxRetryAfter = Duration.ofMinutes(5);
+
+        /**
+         * Redis Stream key used by the "redis" backend.
+         */
+        private String streamKey = "kyc:queue";
+
+        /**
+         * Redis consumer group shared by all worker nodes.
+         */
+        private String consumerGroup = "kyc-workers";
+
+        /**
+         * Weighted round-robin share per tenant plan (Tenant.plan) for the in-memory queue.
+         * A tenant on a plan with weight 4 gets up to four requests per round before the next tenant.
+         */
+        private Map<String, Integer> planWeights = new HashMap<>(Map.of("BASIC", 1, "PREMIUM", 4));
+
+        /**
+         * Weight for plans missing from plan-weights and for requests without a tenant.
+         */
+        private int defaultWeight = 1;
+
+        /**
+         * How long a tenant's resolved weight and concurrency limit are cached before the tenant is read again.
+         */
+        private Duration tenantCacheTtl = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of outbox rows the relay pushes to the queue in one transaction.
+         */
+        private int outboxBatchSize = 100;
+
+        /**
+         * How often the outbox relay checks for rows when no submission has woken it up
+         * (rows left by other nodes or by a crash between commit and relay).
+         */
+        private Duration outboxPollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Number of SUBMITTED request IDs re-queued per chunk by startup recovery.
+         */
+        private int recoveryChunkSize = 1_000;
+
+    }
+
+    /**
+     * Inner class for retrying transient processing failures.
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+        /**
+         * Maximum number of automatic retries per request; after that the request
+         * is marked FAILED and dead-lettered. A processing lease that expired
+         * (worker died) uses up a retry as well.
+         */
+        private int maxRetries = 3;
+
+        /**
+         * Delay before the first retry.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(10);
+
+        /**
+         * Factor applied to the delay for every further retry.
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Upper bound for the delay between retries.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(10);
+
+    }
+
+    /**
+     * Inner class for the pool of initialised Tesseract engines.
+     */
+    @Getter
+    @Setter
+    public static class Ocr {
+        /**
+         * Maximum number of engines alive at once; each holds its own copy of the
+         * language model in native memory. 0 = one per worker thread
+         * (kyc.worker.pool-size).
+         */
+        private int poolSize = 0;
+
+        /**
+         * Tesseract language(s) the engines are initialised with.
+         */
+        private String language = "eng";
+
+        /**
+         * OCR implementation: "tesseract" (default) or "fake", which returns
+         * canned results without touching Tesseract (load tests of the rest of
+         * the pipeline).
+         */
+        private String engine = "tesseract";
+
+        /**
+         * Canned results, latency and errors of the "fake" engine.
+         */
+        private FakeOcr fake = new FakeOcr();
+
+        /**
+         * Run Tesseract inside this JVM or in child processes; see
+         * {@link OcrEngineMode}.
+         */
+        private OcrEngineMode engineMode = OcrEngineMode.IN_PROCESS;
+
+        /**
+         * Child processes used when engine-mode is PROCESS.
+         */
+        private OcrProcess process = new OcrProcess();
+
+        /**
+         * How long an OCR call waits for a free engine before failing (retryable).
+         */
+        private Duration borrowTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Documents an engine may process before it is replaced, which keeps
+         * native memory from creeping up over long uptimes. 0 = never.
+         */
+        private int maxUsesPerEngine = 1_000;
+
+        /**
+         * Pages of one multi-page document (PDF) OCR'd at the same time, each on
+         * its own engine.
+         */
+        private int pageParallelism = 4;
+
+        /**
+         * Deadline for the OCR of one document; past it the work is cancelled
+         * and the request retried or failed.
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+
+        /**
+         * Per-document-type deadlines overriding timeout, e.g. for multi-page PDFs.
+         */
+        private Map<DocumentType, Duration> timeouts = new EnumMap<>(DocumentType.class);
+
+        /**
+         * Treat a timeout as transient (retry with backoff, dead-letter once
+         * retries run out) rather than failing the request at once.
+         */
+        private boolean retryOnTimeout = true;
+
+        /**
+         * Image clean-up before OCR.
+         */
+        private Preprocess preprocess = new Preprocess();
+
+        /**
+         * Keywords that confirm the OCR text is the expected document type, per type.
+         */
+        private Map<DocumentType, DocumentKeywords> keywords = defaultKeywords();
+
+        /**
+         * Region-of-interest OCR for documents with a fixed layout.
+         */
+        private Roi roi = new Roi();
+
+        /**
+         * Cheap document-type check before the full OCR pass.
+         */
+        private Classify classify = new Classify();
+
+        /**
+         * Costlier second OCR pass for documents read with low confidence.
+         */
+        private SecondPass secondPass = new SecondPass();
+
+        /**
+         * Synthetic OCR at startup, before the node reports ready.
+         */
+        private WarmUp warmUp = new WarmUp();
+
+        /**
+         * Reuse of OCR results for byte-identical uploads.
+         */
+        private Cache cache = new Cache();
+
+        /**
+         * Effective pool size.
+         *
+         * @param workerPoolSize kyc.worker.pool-size
+         * @return configured pool size, or the worker pool size if unset
+         */
+        public int effectivePoolSize(int workerPoolSize) {
+            return Math.max(1, poolSize > 0 ? poolSize : workerPoolSize);
+        }
+
+        private static Map<DocumentType, DocumentKeywords> defaultKeywords() {
+            Map<DocumentType, DocumentKeywords> keywords = new EnumMap<>(DocumentType.class);
+            keywords.put(DocumentType.PAN, new DocumentKeywords(
+                    List.of("income tax department", "permanent account number card", "govt. of india"),
+                    List.of("income tax department", "permanent account number card")));
+            keywords.put(DocumentType.AADHAAR, new DocumentKeywords(
+                    List.of("authority of india", "aadhaar", "vid :", "male", "female", "enrollment no",
+                            "government of india"),
+                    List.of("authority of india", "aadhaar", "vid :", "government of india")));
+            return keywords;
+        }
+
+        /**
+         * @param type document type
+         * @return the type's OCR deadline, or timeout if it has none
+         */
+        public Duration timeoutFor(DocumentType type) {
+            return timeouts.getOrDefault(type, timeout);
+        }
+
+    }
+
+    /**
+     * Inner class for the OCR child processes (kyc.ocr.engine-mode=PROCESS).
+     * Each pooled engine is one child JVM holding a loaded model; images are
+     * handed over as file paths on its stdin.
+     */
+    @Getter
+    @Setter
+    public static class OcrProcess {
+        /**
+         * Command that starts a child, without its arguments. Empty = this JVM's
+         * java binary and classpath. From the executable jar, use Spring Boot's
+         * launcher: java -cp app.jar
+         * -Dloader.main=com.example.kyc_system.ocr.OcrWorkerProcess
+         * org.springframework.boot.loader.launch.PropertiesLauncher
+         */
+        private List<String> command = new ArrayList<>();
+
+        /**
+         * JVM options of a child when command is empty. The model lives in
+         * native memory, so the heap can stay small.
+         */
+        private List<String> jvmOptions = new ArrayList<>(List.of("-Xmx256m", "-XX:+UseSerialGC"));
+
+        /**
+         * How long a child may take to start and load its model.
+         */
+        private Duration startTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Extra time a child gets past the OCR deadline to stop on its own
+         * before it is killed.
+         */
+        private Duration killGrace = Duration.ofSeconds(5);
+
+        /**
+         * Directory for images handed to the children; a tmpfs such as /dev/shm
+         * keeps them off the disk. Empty = java.io.tmpdir.
+         */
+        private String imageDir = "";
+
+    }
+
+    /**
+     * Inner class for the fake OCR engine (kyc.ocr.engine=fake). Every random
+     * choice is drawn from the seed and the document, so a run can be repeated
+     * exactly and a given upload always behaves the same.
+     */
+    @Getter
+    @Setter
+    public static class FakeOcr {
+
+        /** Shape of the simulated OCR latency. */
+        public enum LatencyDistribution {
+            /** Always latency-median. */
+            FIXED,
+            /** Evenly spread between latency-min and 2 × latency-median − latency-min. */
+            UNIFORM,
+            /** latency-min plus a log-normal tail matching latency-median and latency-p99. */
+            LOG_NORMAL
+        }
+
+        /** Kind of failure injected. */
+        public enum InjectedError {
+            /** Engine failure; retried with backoff. */
+            TRANSIENT,
+            /** OCR deadline passed; retried unless kyc.ocr.retry-on-timeout is off. */
+            TIMEOUT,
+            /** Document rejected as unreadable; fails the request at once. */
+            INVALID
+        }
+
+        /**
+         * Seed of the random choices.
+         */
+        private long seed = 42;
+
+        /**
+         * Result returned per document type.
+         */
+        private Map<DocumentType, OcrResult> results = defaultResults();
+
+        /**
+         * How the simulated time per document is drawn.
+         */
+        private LatencyDistribution latencyDistribution = LatencyDistribution.FIXED;
+
+        /**
+         * Shortest simulated time (UNIFORM, LOG_NORMAL).
+         */
+        private Duration latencyMin = Duration.ZERO;
+
+        /**
+         * Typical simulated time per document.
+         */
+        private Duration latencyMedian = Duration.ZERO;
+
+        /**
+         * 99th percentile of the simulated time (LOG_NORMAL).
+         */
+        private Duration latencyP99 = Duration.ZERO;
+
+        /**
+         * Share of documents (0–1) that fail instead of returning a result.
+         */
+        private double errorRate = 0;
+
+        /**
+         * Relative weights of the injected failures.
+         */
+        private Map<InjectedError, Double> errorMix = new EnumMap<>(Map.of(InjectedError.TRANSIENT, 1.0));
+
+        private static Map<DocumentType, OcrResult> defaultResults() {
+            Map<DocumentType, OcrResult> results = new EnumMap<>(DocumentType.class);
+            results.put(DocumentType.PAN, OcrResult.builder()
+                    .name("RAHUL SHARMA").dob("1990-01-01").documentNumber("ABCDE1234F").build());
+            results.put(DocumentType.AADHAAR, OcrResult.builder()
+                    .name("RAHUL SHARMA").dob("1990-01-01").documentNumber("234567890123").build());
+            return results;
+        }
+
+    }
+
+    /**
+     * Inner class for the image preprocessing steps run before OCR. Uploads are
+     * decoded in any case; every other step can be switched off.
+     */
+    @Getter
+    @Setter
+    public static class Preprocess {
+        /**
+         * Master switch; when off the raw file goes straight to Tesseract.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Shrink large images (phone photos) to target-dpi. Never upscales.
+         */
+        private boolean downscale = true;
+
+        /**
+         * Resolution the document is scaled to and reported to Tesseract.
+         */
+        private int targetDpi = 300;
+
+        /**
+         * Physical width of the longer document edge, used to turn target-dpi into
+         * pixels. Default: ID-1 card (PAN, Aadhaar), 85.6 mm.
+         */
+        private double documentWidthInches = 3.37;
+
+        /**
+         * Convert to 8-bit grayscale.
+         */
+        private boolean grayscale = true;
+
+        /**
+         * Black-and-white conversion with a global Otsu threshold.
+         */
+        private boolean binarize = true;
+
+        /**
+         * Straighten rotated scans and photos.
+         */
+        private boolean deskew = true;
+
+        /**
+         * Skew angles (degrees) below this are left alone.
+         */
+        private double minDeskewAngle = 0.5;
+
+        /**
+         * PDF pages rendered for OCR, from the first. ID documents fit on one or two
+         * pages; the cap keeps a long PDF from tying up a worker.
+         */
+        private int maxPages = 2;
+
+    }
+
+    /**
+     * Inner class for the low-resolution pre-pass that reads only the header of
+     * the first page to catch a wrong document type (e.g. Aadhaar uploaded as
+     * PAN) before the full OCR pass.
+     */
+    @Getter
+    @Setter
+    public static class Classify {
+        /**
+         * Run the pre-pass and reject clear type mismatches.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Share of the page height, from the top, that holds the issuer header.
+         */
+        private double headerHeight = 0.3;
+
+        /**
+         * The header is scaled down to at most this width (pixels) before OCR.
+         */
+        private int thumbnailWidth = 800;
+
+    }
+
+    /**
+     * Inner class for the adaptive second OCR pass: a document with a required
+     * field missing or read below min-confidence is OCR'd again at a higher
+     * resolution, with local (adaptive) thresholding and another page
+     * segmentation mode. Each field keeps the more confident of the two reads,
+     * so only hard images pay for the second pass.
+     */
+    @Getter
+    @Setter
+    public static class SecondPass {
+        /**
+         * Run the second pass when the first one falls short.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Field confidence (0-100) below which a field counts as unreliable.
+         */
+        private float minConfidence = 60;
+
+        /**
+         * Resolution the document is scaled to for the second pass (upscaling
+         * allowed).
+         */
+        private int targetDpi = 450;
+
+        /**
+         * Tesseract page segmentation mode of the second pass; 11 = sparse text,
+         * which suits the scattered fields of an ID card.
+         */
+        private int pageSegMode = 11;
+
+        /**
+         * Side of the square window (pixels) the adaptive threshold is computed
+         * over; roughly two characters high at target-dpi.
+         */
+        private int thresholdWindow = 51;
+
+    }
+
+    /**
+     * Inner class for the startup warm-up: after the engine pool has loaded the
+     * language models, a bundled sample of each document type is OCR'd once
+     * per engine, so native structures are built and the Java path is
+     * compiled before real documents arrive. The node reports ready
+     * (/actuator/health/readiness) only after the warm-up.
+     */
+    @Getter
+    @Setter
+    public static class WarmUp {
+        /**
+         * Run the warm-up on nodes that OCR documents.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Sample document per type (Spring resource locations).
+         */
+        private Map<DocumentType, String> samples = new EnumMap<>(Map.of(
+                DocumentType.PAN, "classpath:ocr/warm-up/pan.png",
+                DocumentType.AADHAAR, "classpath:ocr/warm-up/aadhaar.png"));
+
+        /**
+         * Upper bound on the whole warm-up; the node goes ready when it passes.
+         */
+        private Duration timeout = Duration.ofMinutes(2);
+
+    }
+
+    /**
+     * Inner class for the OCR result cache keyed by document hash and type.
+     * Resubmissions of the same file (typically after a FAILED attempt) skip OCR.
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+        /**
+         * Look results up before running OCR and store them afterwards.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a result is reused. Also bounds how long a change to the OCR
+         * settings takes to reach documents seen before.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Entries held in memory by each node (least recently used evicted first).
+         */
+        private int localMaxEntries = 1_000;
+
+        /**
+         * Share results between nodes through Redis (encrypted, same TTL).
+         */
+        private boolean redis = true;
+
+    }
+
+    /**
+     * Inner class for region-of-interest OCR: instead of the whole page, only
+     * the areas where a document type prints its fields are recognised. A
+     * document whose regions don't yield every field is OCR'd in full.
+     * Compare kyc.ocr.pass{pass=regions} with {pass=full-page} when tuning
+     * the bands.
+     */
+    @Getter
+    @Setter
+    public static class Roi {
+        /**
+         * Use region profiles where one exists for the document type.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Regions of one document recognised at the same time (each on its
+         * own engine). 1 = one after another.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Regions per document type, relative to the (deskewed) first page.
+         */
+        private Map<DocumentType, List<Region>> profiles = defaultProfiles();
+
+        private static Map<DocumentType, List<Region>> defaultProfiles() {
+            String upperAlnum = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+            String letters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz .'/:";
+            String dateChars = "0123456789/-";
+
+            Map<DocumentType, List<Region>> profiles = new EnumMap<>(DocumentType.class);
+            // Current PAN layout: number, name and date of birth stacked in the left column
+            // under the header (about a quarter of the card in total). The header itself comes
+            // from the classify pre-pass; cards in the pre-2018 layout fall back to the full page.
+            profiles.put(DocumentType.PAN, List.of(
+                    new Region(OcrField.NAME, 0.0, 0.36, 0.65, 0.16, 6, letters),
+                    new Region(OcrField.DOB, 0.0, 0.62, 0.50, 0.16, 6, dateChars),
+                    new Region(OcrField.DOCUMENT_NUMBER, 0.0, 0.20, 0.55, 0.16, 6, upperAlnum)));
+            // Front side: photo on the left, name and date of birth to its right, number at the bottom
+            profiles.put(DocumentType.AADHAAR, List.of(
+                    new Region(OcrField.NAME, 0.28, 0.22, 0.60, 0.14, 6, letters),
+                    new Region(OcrField.DOB, 0.28, 0.38, 0.60, 0.14, 6, dateChars),
+                    new Region(OcrField.DOCUMENT_NUMBER, 0.20, 0.72, 0.60, 0.16, 6, "0123456789 ")));
+            return profiles;
+        }
+
+    }
+
+    /**
+     * Keywords of one document type, matched case-insensitively anywhere in
+     * the OCR text.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DocumentKeywords {
+        /**
+         * Any one of these confirms the text can be this type.
+         */
+        private List<String> accept = new ArrayList<>();
+
+        /**
+         * Any one of these shows the text is this type when another type was
+         * expected. Leave out words other documents print too (e.g. "male").
+         */
+        private List<String> identify = new ArrayList<>();
+
+    }
+
+    /**
+     * One rectangle of a region profile. Coordinates are fractions of the page
+     * width/height, so they hold for any scan resolution.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        /**
+         * What the region contains.
+         */
+        private OcrField field;
+
+        /**
+         * Left edge, 0.0–1.0.
+         */
+        private double x;
+
+        /**
+         * Top edge, 0.0–1.0.
+         */
+        private double y;
+
+        /**
+         * Width, 0.0–1.0.
+         */
+        private double width;
+
+        /**
+         * Height, 0.0–1.0.
+         */
+        private double height;
+
+        /**
+         * Tesseract page segmentation mode, e.g. 6 = single block, 7 = single line.
+         */
+        private int pageSegMode = 6;
+
+        /**
+         * Characters Tesseract may output for this region; empty = any.
+         */
+        private String whitelist;
+
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.kyc_system.config;
+
+import com.example.kyc_system.enums.KycRunMode;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.Map;
+
+/**
+ * Condition behind {@link ConditionalOnRunMode}. Reads kyc.mode with relaxed
+ * binding, so KYC_MODE=worker works as well as kyc.mode=WORKER.
+ */
+class OnRunModeCondition implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnRunMode.class.getName());
+        if (attributes == null) {
+            return true;
+        }
+        KycRunMode required = (KycRunMode) attributes.get("value");
+        KycRunMode configured = Binder.get(context.getEnvironment())
+                .bind("kyc.mode", KycRunMode.class)
+                .orElse(KycRunMode.ALL);
+        return configured == KycRunMode.ALL || configured == required;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.kyc_system.config;
 
+import com.example.kyc_system.enums.KycRunMode;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeIn;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
@@ -16,6 +17,7 @@ import org.springframework.context.annotation.Configuration;
  * 2. tenantId — Custom X-Tenant-ID header for multi-tenancy
  */
 @Configuration
+@ConditionalOnRunMode(KycRunMode.API)
 @OpenAPIDefinition(info = @Info(title = "KYC System API", version = "v1"), security = {
                 @SecurityRequirement(name = "bearerAuth"),
                 @SecurityRequirement(name = "tenantId")
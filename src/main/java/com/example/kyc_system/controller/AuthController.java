@@ -1,5 +1,7 @@
 package com.example.kyc_system.controller;
 
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.enums.KycRunMode;
 import com.example.kyc_system.dto.JwtAuthResponse;
 import com.example.kyc_system.dto.LoginDTO;
 import com.example.kyc_system.dto.UserDTO;
@@ -32,6 +34,7 @@ import org.springframework.util.*;
  * Integrated with JWT and Refresh Token mechanisms.
  */
 @RestController
+@ConditionalOnRunMode(KycRunMode.API)
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 @Slf4j
@@ -1,6 +1,9 @@
 package com.example.kyc_system.controller;
 
+import com.example.kyc_system.config.ConditionalOnRunMode;
 import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.queue.KycQueueBackpressure;
 import com.example.kyc_system.scheduler.KycReportScheduler;
 import com.example.kyc_system.service.impl.KycOrchestrationService;
 import com.example.kyc_system.service.KycRequestService;
@@ -36,6 +39,7 @@ import io.swagger.v3.oas.annotations.tags.*;
  * Secured with method-level (@PreAuthorize) access control.
  */
 @RestController
+@ConditionalOnRunMode(KycRunMode.API)
 @RequestMapping("/api/kyc")
 @RequiredArgsConstructor
 @Slf4j
@@ -45,6 +49,7 @@ public class KycController {
     private final KycOrchestrationService orchestrationService;
     private final KycRequestService requestService;
     private final KycReportScheduler reportScheduler;
+    private final KycQueueBackpressure queueBackpressure;
 
     /**
      * Uploads a KYC document and initiates the verification process.
@@ -55,6 +60,7 @@ public class KycController {
      * @param file the actual multipart file
      * @param documentNumber the identification number on the document
      * @return a response indicating acceptance and the generated Request ID
+     * @throws com.example.kyc_system.exception.QueueFullException when the processing backlog is full
      */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("@securityService.canAccessUser(#userId)")
@@ -64,12 +70,16 @@ public class KycController {
             @Parameter(description = "Document Type", required = true) @RequestParam("documentType") DocumentType documentType,
             @Parameter(description = "KYC Document File", required = true) @RequestParam("file") MultipartFile file,
             @Parameter(description = "Document Number", required = true) @RequestParam("documentNumber") String documentNumber) {
+        // Refuse before the file is stored — surfaces as 429 with Retry-After
+        queueBackpressure.checkAdmission();
         try {
             log.info("KYC upload: userId={}, docType={}, fileName={}", userId, documentType, file.getOriginalFilename());
             Long requestId = orchestrationService.submitKyc(userId, documentType, file, documentNumber);
             log.info("KYC upload successful: userId={}, requestId={}", userId, requestId);
             return ResponseEntity.accepted().body(Map.of("message", "KYC request submitted successfully", "requestId", requestId));
         } catch (Exception e) {
+            // Nothing was queued; don't let it count towards the backlog
+            queueBackpressure.cancelAdmission();
             log.warn("KYC upload failed: userId={}, error={}", userId, e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -0,0 +1,49 @@
+package com.example.kyc_system.controller;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.dto.KycDeadLetterDTO;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.service.KycDeadLetterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Super Admin-only controller for KYC requests that exhausted their automatic
+ * retries. Lists dead letters and replays them through the queue.
+ */
+@RestController
+@ConditionalOnRunMode(KycRunMode.API)
+@RequestMapping("/api/super/kyc/dead-letters")
+@PreAuthorize("hasRole('SUPER_ADMIN')")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Super Admin - KYC Dead Letters", description = "Endpoints for superadmin to inspect and replay failed KYC processing")
+public class KycDeadLetterController {
+
+    private final KycDeadLetterService deadLetterService;
+
+    @GetMapping
+    @Operation(summary = "List dead letters", description = "Returns paginated dead letters, pending ones only by default")
+    public ResponseEntity<Page<KycDeadLetterDTO>> getDeadLetters(
+            @RequestParam(defaultValue = "true") boolean pendingOnly,
+            @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(deadLetterService.getDeadLetters(pendingOnly, pageable));
+    }
+
+    /** Re-submits the request with a fresh retry budget. */
+    @PostMapping("/{id}/replay")
+    @Operation(summary = "Replay dead letter", description = "Puts the failed request back into the processing queue")
+    public ResponseEntity<KycDeadLetterDTO> replay(@PathVariable Long id) {
+        log.info("Replaying dead letter: id={}", id);
+        return ResponseEntity.ok(deadLetterService.replay(id));
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.kyc_system.controller;
 
+import com.example.kyc_system.config.ConditionalOnRunMode;
 import com.example.kyc_system.dto.*;
+import com.example.kyc_system.enums.KycRunMode;
 import com.example.kyc_system.service.TenantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,7 @@ import java.util.Map;
  * stats retrieval.
  */
 @RestController
+@ConditionalOnRunMode(KycRunMode.API)
 @RequestMapping("/api/tenants")
 @PreAuthorize("hasRole('SUPER_ADMIN')")
 @RequiredArgsConstructor
@@ -1,5 +1,7 @@
 package com.example.kyc_system.controller;
 
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.enums.KycRunMode;
 import com.example.kyc_system.dto.UserDTO;
 import com.example.kyc_system.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,7 @@ import org.springdoc.core.annotations.*;
  * - Access control via @PreAuthorize and @securityService.canAccessUser
  */
 @RestController
+@ConditionalOnRunMode(KycRunMode.API)
 @RequestMapping("/api/users")
 @Slf4j
 @Tag(name = "User Management", description = "Endpoints for managing user profiles (Admin and Self-service)")
@@ -0,0 +1,23 @@
+package com.example.kyc_system.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for a dead-lettered KYC request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KycDeadLetterDTO {
+    private Long id;
+    private Long requestId;
+    private String tenantId;
+    private String errorType;
+    private String errorMessage;
+    private Integer retryCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime replayedAt;
+    private String replayedBy;
+}
@@ -6,7 +6,8 @@ import java.util.Map;
 
 /**
  * Result of an OCR (Optical Character Recognition) process.
- * Contains extracted text fields from a document image.
+ * Contains extracted text fields from a document image and how confident
+ * the OCR engine was in each of them.
  */
 @Data
 @NoArgsConstructor
@@ -19,5 +20,12 @@ public class OcrResult {
     private String dob;
     @Schema(example = "ABCDE1234F")
     private String documentNumber;
+    /** Confidence (0-100) of each field; null if the field is missing or its confidence unknown. */
+    @Schema(example = "91.5")
+    private Float nameConfidence;
+    @Schema(example = "88.0")
+    private Float dobConfidence;
+    @Schema(example = "95.2")
+    private Float documentNumberConfidence;
     private Map<String, Object> rawResponse;
 }
@@ -36,6 +36,10 @@ public class TenantCreateDTO {
     @Schema(example = "5", description = "Max KYC attempts per user per day")
     private Integer maxDailyAttempts;
 
+    @Schema(example = "4", description = "Max KYC requests of this tenant processed at the same time")
+    @Min(value = 1, message = "Max concurrent processing must be at least 1")
+    private Integer maxConcurrentProcessing;
+
     @Schema(example = "[\"PAN\", \"AADHAAR\"]")
     private List<String> allowedDocumentTypes;
 
@@ -18,6 +18,7 @@ public class TenantDTO {
     private String plan;
     private Boolean isActive;
     private Integer maxDailyAttempts;
+    private Integer maxConcurrentProcessing;
     private String allowedDocumentTypes;
     private String apiKey;
     private LocalDateTime createdAt;
@@ -27,6 +27,10 @@ public class TenantUpdateDTO {
     @Min(value = 1, message = "Max daily attempts must be at least 1")
     private Integer maxDailyAttempts;
 
+    @Schema(example = "4", description = "Max KYC requests of this tenant processed at the same time")
+    @Min(value = 1, message = "Max concurrent processing must be at least 1")
+    private Integer maxConcurrentProcessing;
+
     @Schema(example = "[\"PAN\", \"AADHAAR\", \"PASSPORT\"]")
     private List<String> allowedDocumentTypes;
 }
\ No newline at end of file
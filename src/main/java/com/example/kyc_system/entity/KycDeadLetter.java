@@ -0,0 +1,77 @@
+package com.example.kyc_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A KYC request whose processing kept failing with a transient error until
+ * the retry budget ran out. Kept for inspection and manual replay.
+ */
+@Entity
+@Table(name = "kyc_dead_letters", indexes = {
+        @Index(name = "idx_kyc_dead_letters_request_id", columnList = "request_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KycDeadLetter {
+
+    /**
+     * Unique identifier for the dead letter.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The KYC request that could not be processed.
+     */
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    /**
+     * Tenant owning the request.
+     */
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    /**
+     * Class name of the last error.
+     */
+    @Column(name = "error_type")
+    private String errorType;
+
+    /**
+     * Message of the last error.
+     */
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    /**
+     * Automatic retries made before giving up.
+     */
+    @Column(name = "retry_count")
+    private Integer retryCount;
+
+    /**
+     * Timestamp when the request was dead-lettered.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of the manual replay, null while pending.
+     */
+    @Column(name = "replayed_at")
+    private LocalDateTime replayedAt;
+
+    /**
+     * Admin who replayed the request.
+     */
+    @Column(name = "replayed_by")
+    private String replayedBy;
+}
@@ -56,6 +56,24 @@ public class KycExtractedData {
     @Column(name = "extracted_document_number")
     private String extractedDocumentNumber;
 
+    /**
+     * OCR confidence (0-100) of the extracted name; null if unknown.
+     */
+    @Column(name = "name_confidence")
+    private Float nameConfidence;
+
+    /**
+     * OCR confidence (0-100) of the extracted date of birth; null if unknown.
+     */
+    @Column(name = "dob_confidence")
+    private Float dobConfidence;
+
+    /**
+     * OCR confidence (0-100) of the extracted document number; null if unknown.
+     */
+    @Column(name = "document_number_confidence")
+    private Float documentNumberConfidence;
+
     /**
      * The complete raw response from the OCR service in JSON format.
      */
@@ -0,0 +1,66 @@
+package com.example.kyc_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a queued unit of OCR work in the Postgres-backed KYC queue.
+ * Rows are inserted on push, claimed by workers with FOR UPDATE SKIP LOCKED,
+ * and deleted once the request has been processed.
+ */
+@Entity
+@Table(name = "kyc_jobs", indexes = {
+        @Index(name = "idx_kyc_jobs_status_available_at", columnList = "status, available_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KycJob {
+
+    /**
+     * Unique identifier for the job; also defines FIFO claim order.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The KYC request to process. At most one job exists per request.
+     */
+    @Column(name = "request_id", nullable = false, unique = true)
+    private Long requestId;
+
+    /**
+     * Job state: "READY" (waiting to be claimed) or "CLAIMED" (held by a worker).
+     */
+    @Column(length = 20, nullable = false)
+    private String status;
+
+    /**
+     * The job is not claimable before this time.
+     */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    /**
+     * Identifier of the node that claimed the job.
+     */
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    /**
+     * Timestamp when the job was last claimed.
+     */
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    /**
+     * Timestamp when the job was enqueued.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
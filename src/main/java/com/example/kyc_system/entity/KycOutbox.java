@@ -0,0 +1,54 @@
+package com.example.kyc_system.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row: a KYC request that has been committed but not yet
+ * handed to the processing queue. Written in the same transaction as the
+ * request itself and deleted by the relay once the request has been pushed.
+ * Rows with a future availableAt act as a durable delay queue for retries.
+ */
+@Entity
+@Table(name = "kyc_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KycOutbox {
+
+    /**
+     * Unique identifier for the outbox row; also defines relay order.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The KYC request to hand to the queue.
+     */
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    /**
+     * Tenant owning the request, used for fair scheduling in the queue.
+     */
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    /**
+     * The relay leaves the row alone before this time (retry backoff).
+     * Null means immediately.
+     */
+    @Column(name = "available_at")
+    private LocalDateTime availableAt;
+
+    /**
+     * Timestamp when the row was written (submission commit time).
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,9 @@ import java.util.*;
  * Entity representing a KYC verification request.
  */
 @Entity
-@Table(name = "kyc_requests")
+@Table(name = "kyc_requests", indexes = {
+        @Index(name = "idx_kyc_requests_status_processing_started_at", columnList = "status, processing_started_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -63,6 +65,14 @@ public class KycRequest extends BaseEntity {
     @Column(name = "failure_reason")
     private String failureReason;
 
+    /**
+     * Number of automatic retries after transient processing failures.
+     * Retries don't count as user attempts.
+     */
+    @Builder.Default
+    @Column(name = "retry_count")
+    private Integer retryCount = 0;
+
     /**
      * Timestamp when the request was submitted.
      */
@@ -70,11 +80,22 @@ public class KycRequest extends BaseEntity {
     private LocalDateTime submittedAt;
 
     /**
-     * Timestamp when the processing of the request started.
+     * Timestamp when the processing of the request started. Doubles as the
+     * processing lease: renewed by the worker's heartbeat while it is running,
+     * so an old value means the worker is gone.
      */
     @Column(name = "processing_started_at")
     private LocalDateTime processingStartedAt;
 
+    /**
+     * Incremented by every move to PROCESSING. The worker keeps the value it
+     * started with and only records an outcome while it still matches, so a
+     * stale attempt can't overwrite the result of a newer one.
+     */
+    @Builder.Default
+    @Column(name = "processing_attempt")
+    private Integer processingAttempt = 0;
+
     /**
      * Timestamp when the request was completed (verified or rejected).
      */
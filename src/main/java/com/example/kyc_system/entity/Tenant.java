@@ -61,6 +61,13 @@ public class Tenant extends BaseEntity {
     @Column(name = "max_daily_attempts", nullable = false)
     private Integer maxDailyAttempts = 5;
 
+    /**
+     * Maximum number of this tenant's KYC requests in PROCESSING at the same time.
+     * Null falls back to kyc.worker.max-concurrent-per-tenant.
+     */
+    @Column(name = "max_concurrent_processing")
+    private Integer maxConcurrentProcessing;
+
     /**
      * Comma-separated list of allowed document types (e.g., "PAN,AADHAAR").
      */
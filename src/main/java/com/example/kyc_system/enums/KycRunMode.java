@@ -0,0 +1,13 @@
+package com.example.kyc_system.enums;
+
+/**
+ * What a node runs, set with kyc.mode.
+ * ALL = HTTP API and OCR workers in one process (default)
+ * API = only the web tier; requests are handed to the queue for worker nodes
+ * WORKER = only the queue consumers; no API controllers
+ */
+public enum KycRunMode {
+    ALL,
+    API,
+    WORKER
+}
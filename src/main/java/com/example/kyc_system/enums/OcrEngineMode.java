@@ -0,0 +1,12 @@
+package com.example.kyc_system.enums;
+
+/**
+ * Where Tesseract runs, set with kyc.ocr.engine-mode.
+ * IN_PROCESS = engines are loaded into this JVM through JNA (default)
+ * PROCESS = each engine is a long-lived child process; a native crash only
+ * takes that child down, and its memory stays out of this JVM
+ */
+public enum OcrEngineMode {
+    IN_PROCESS,
+    PROCESS
+}
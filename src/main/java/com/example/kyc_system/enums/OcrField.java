@@ -0,0 +1,14 @@
+package com.example.kyc_system.enums;
+
+/**
+ * Areas of a document that region-of-interest OCR reads separately.
+ * HEADER = issuer line used to check the document type; only needed when the
+ * header pre-pass (kyc.ocr.classify) is off, which otherwise supplies it
+ * NAME, DOB, DOCUMENT_NUMBER = the fields extracted into OcrResult
+ */
+public enum OcrField {
+    HEADER,
+    NAME,
+    DOB,
+    DOCUMENT_NUMBER
+}
@@ -3,6 +3,7 @@ package com.example.kyc_system.exception;
 import com.example.kyc_system.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,8 +29,9 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
  * 1. Validation errors (400)
  * 2. Access denied (403)
  * 3. Business rule violations (409)
- * 4. Runtime exceptions (500)
- * 5. General exceptions (500)
+ * 4. Upload backpressure (429)
+ * 5. Runtime exceptions (500)
+ * 6. General exceptions (500)
  */
 @RestControllerAdvice(basePackages = "com.example.kyc_system.controller")
 @Slf4j
@@ -131,6 +133,28 @@ public class GlobalExceptionHandler {
                 return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
         }
 
+        /**
+         * Handles upload backpressure — the processing backlog is above its high
+         * watermark. Tells the client when to retry via the Retry-After header.
+         */
+        @ExceptionHandler(QueueFullException.class)
+        public ResponseEntity<ErrorResponse> handleQueueFullException(
+                        QueueFullException ex, HttpServletRequest request) {
+
+                ErrorResponse errorResponse = ErrorResponse.builder()
+                                .timestamp(LocalDateTime.now())
+                                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                                .error("Too Many Requests")
+                                .message(ex.getMessage())
+                                .path(request.getRequestURI())
+                                .build();
+
+                log.warn("Upload throttled on {}: retryAfter={}s", request.getRequestURI(), ex.getRetryAfterSeconds());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                                .body(errorResponse);
+        }
+
         // Add this handler BEFORE the RuntimeException handler
         /**
          * Handles Spring Security authentication failures (wrong password, bad
@@ -0,0 +1,20 @@
+package com.example.kyc_system.exception;
+
+import net.sourceforge.tess4j.TesseractException;
+
+/**
+ * Thrown when no OCR engine could take the document: none became free in
+ * time, no OCR thread was left, or the engine's child process exited during
+ * recognition. Says nothing about the document itself, so KycRetryPolicy
+ * treats it as retryable; other Tesseract failures fail the request at once.
+ */
+public class OcrEngineUnavailableException extends TesseractException {
+
+    public OcrEngineUnavailableException(String message) {
+        super(message);
+    }
+
+    public OcrEngineUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
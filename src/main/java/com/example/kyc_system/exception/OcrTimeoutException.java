@@ -0,0 +1,28 @@
+package com.example.kyc_system.exception;
+
+import com.example.kyc_system.enums.DocumentType;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when OCR of a document runs past its deadline (kyc.ocr.timeout or the
+ * document type's entry in kyc.ocr.timeouts) and is abandoned.
+ * KycRetryPolicy treats it as retryable unless kyc.ocr.retry-on-timeout is off.
+ */
+@Getter
+public class OcrTimeoutException extends RuntimeException {
+
+    /** Type of the document that timed out; null if cancelled below the service level. */
+    private final DocumentType documentType;
+
+    public OcrTimeoutException(DocumentType documentType, Duration timeout) {
+        super("OCR of " + documentType + " document did not finish within " + timeout);
+        this.documentType = documentType;
+    }
+
+    public OcrTimeoutException(String message) {
+        super(message);
+        this.documentType = null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.kyc_system.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the KYC processing backlog is above its high watermark and new
+ * uploads are temporarily refused.
+ * Handled by GlobalExceptionHandler and returned as HTTP 429 Too Many Requests
+ * with a Retry-After header.
+ */
+@Getter
+public class QueueFullException extends RuntimeException {
+
+    /** Suggested delay before the client retries, in seconds. */
+    private final long retryAfterSeconds;
+
+    public QueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-resolution pre-pass that tells PAN and Aadhaar cards apart from the
+ * issuer header alone: the top kyc.ocr.classify.header-height of the first
+ * page, scaled down to kyc.ocr.classify.thumbnail-width, is OCR'd and
+ * scanned for each type's identify keywords (kyc.ocr.keywords, via
+ * {@link DocumentTypeValidator#identify(String)}). A document that clearly belongs
+ * to another type can then be rejected without a full-resolution pass. The
+ * header text is handed back too, so region OCR can validate the document
+ * type without reading the header a second time.
+ *
+ * Outcomes are counted as kyc.ocr.classify tagged outcome=match|mismatch|unknown,
+ * the pre-pass CPU as kyc.ocr.classify.cpu. kyc.ocr.classify.cpu.saved
+ * estimates the CPU seconds saved so far: rejected documents × average CPU of
+ * a full pass, minus the CPU of all pre-passes.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class DocumentClassifier {
+
+    /**
+     * Outcome of the pre-pass.
+     *
+     * @param header recognised header text
+     * @param type   the type the header belongs to, or empty if it can't be
+     *               told (no keywords, or keywords of several types)
+     */
+    public record Classification(String header, Optional<DocumentType> type) {
+    }
+
+    private final TesseractEnginePool enginePool;
+    private final DocumentTypeValidator typeValidator;
+    private final KycProperties.Classify properties;
+
+    private final Counter matches;
+    private final Counter mismatches;
+    private final Counter unknown;
+    private final Timer cpuTimer;
+    private final LongAdder classifyCpuNanos = new LongAdder();
+
+    public DocumentClassifier(TesseractEnginePool enginePool, DocumentTypeValidator typeValidator,
+            KycProperties kycProperties, MeterRegistry meterRegistry) {
+        this.enginePool = enginePool;
+        this.typeValidator = typeValidator;
+        this.properties = kycProperties.getOcr().getClassify();
+        this.matches = outcomeCounter(meterRegistry, "match");
+        this.mismatches = outcomeCounter(meterRegistry, "mismatch");
+        this.unknown = outcomeCounter(meterRegistry, "unknown");
+        this.cpuTimer = Timer.builder("kyc.ocr.classify.cpu")
+                .description("CPU time of the document-type pre-pass")
+                .register(meterRegistry);
+        Gauge.builder("kyc.ocr.classify.cpu.saved", this, DocumentClassifier::estimatedCpuSavedSeconds)
+                .description("Estimated OCR CPU seconds saved by rejecting mismatched documents early")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("kyc.ocr.classify").tag("outcome", outcome)
+                .description("Document-type pre-pass results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false if documents go straight to the full pass
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Classifies a document by its header.
+     *
+     * @param page     first page, preprocessed
+     * @param expected type the user uploaded the document as
+     * @return the header text and the type it belongs to
+     * @throws TesseractException if the header cannot be recognised
+     */
+    public Classification classify(BufferedImage page, DocumentType expected) throws TesseractException {
+        long cpuStart = TesseractEnginePool.threadCpuNanos();
+        BufferedImage thumbnail = headerThumbnail(page);
+        String header;
+        try {
+            header = enginePool.execute(engine -> engine.doOCR(thumbnail));
+        } finally {
+            long cpu = TesseractEnginePool.threadCpuNanos() - cpuStart;
+            classifyCpuNanos.add(cpu);
+            cpuTimer.record(cpu, TimeUnit.NANOSECONDS);
+        }
+
+        Optional<DocumentType> detected = typeValidator.identify(header);
+        if (detected.isEmpty()) {
+            unknown.increment();
+        } else if (detected.get() == expected) {
+            matches.increment();
+        } else {
+            mismatches.increment();
+            log.info("Pre-pass classified document as {} instead of {}, skipping full OCR (~{} ms CPU)",
+                    detected.get(), expected, TimeUnit.NANOSECONDS.toMillis(averageFullPassCpuNanos()));
+        }
+        return new Classification(header, detected);
+    }
+
+    BufferedImage headerThumbnail(BufferedImage page) {
+        int headerHeight = Math.max(1, (int) Math.round(page.getHeight() * properties.getHeaderHeight()));
+        BufferedImage header = page.getSubimage(0, 0, page.getWidth(), Math.min(headerHeight, page.getHeight()));
+        if (header.getWidth() <= properties.getThumbnailWidth()) {
+            return header;
+        }
+        double scale = (double) properties.getThumbnailWidth() / header.getWidth();
+        return ImagePreprocessor.resize(header, properties.getThumbnailWidth(),
+                Math.max(1, (int) Math.round(header.getHeight() * scale)));
+    }
+
+    /**
+     * Average engine CPU of a document that went on to the full pass (match or
+     * unknown), excluding the pre-pass itself.
+     */
+    private long averageFullPassCpuNanos() {
+        long fullPasses = (long) (matches.count() + unknown.count());
+        if (fullPasses == 0) {
+            return 0;
+        }
+        return Math.max(0, enginePool.getCpuNanos() - classifyCpuNanos.sum()) / fullPasses;
+    }
+
+    private double estimatedCpuSavedSeconds() {
+        double saved = mismatches.count() * averageFullPassCpuNanos() - classifyCpuNanos.sum();
+        return Math.max(0, saved) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
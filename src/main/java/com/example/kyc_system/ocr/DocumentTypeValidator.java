@@ -0,0 +1,103 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Checks OCR text against the keywords of each document type
+ * (kyc.ocr.keywords). All types' keywords are compiled into one
+ * {@link KeywordMatcher}, so the text is scanned once however many types and
+ * keywords are configured; a new document type needs only configuration.
+ * The identify lists also drive the header pre-pass
+ * ({@link DocumentClassifier}).
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+public class DocumentTypeValidator {
+
+    /**
+     * Outcome of one check.
+     *
+     * @param matched   keywords found in the text (lower case)
+     * @param confirmed true if the text can be the expected type
+     * @param otherType the type the text appears to be instead, or null
+     */
+    public record KeywordMatch(Set<String> matched, boolean confirmed, DocumentType otherType) {
+    }
+
+    private final Map<DocumentType, KycProperties.DocumentKeywords> keywords;
+    private final KeywordMatcher matcher;
+
+    public DocumentTypeValidator(KycProperties kycProperties) {
+        this.keywords = new EnumMap<>(kycProperties.getOcr().getKeywords());
+        List<String> all = new ArrayList<>();
+        for (KycProperties.DocumentKeywords typeKeywords : keywords.values()) {
+            all.addAll(typeKeywords.getAccept());
+            all.addAll(typeKeywords.getIdentify());
+        }
+        this.matcher = new KeywordMatcher(all);
+    }
+
+    /**
+     * @param text     OCR text
+     * @param expected the document type that was uploaded
+     * @return keywords found, whether they confirm the expected type and, if
+     *         not, which other type they point to
+     */
+    public KeywordMatch check(String text, DocumentType expected) {
+        Set<String> matched = matcher.findAll(text);
+        KycProperties.DocumentKeywords expectedKeywords = keywords.get(expected);
+        // Nothing configured → nothing to check against
+        if (expectedKeywords == null || expectedKeywords.getAccept().isEmpty()
+                || containsAny(matched, expectedKeywords.getAccept())) {
+            return new KeywordMatch(matched, true, null);
+        }
+        for (Map.Entry<DocumentType, KycProperties.DocumentKeywords> entry : keywords.entrySet()) {
+            if (entry.getKey() != expected && containsAny(matched, entry.getValue().getIdentify())) {
+                return new KeywordMatch(matched, false, entry.getKey());
+            }
+        }
+        return new KeywordMatch(matched, false, null);
+    }
+
+    /**
+     * @param text OCR text, e.g. a document header
+     * @return the single type whose identify keywords appear in the text, or
+     *         empty if none or several do
+     */
+    public Optional<DocumentType> identify(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        Set<String> matched = matcher.findAll(text);
+        DocumentType found = null;
+        for (Map.Entry<DocumentType, KycProperties.DocumentKeywords> entry : keywords.entrySet()) {
+            if (containsAny(matched, entry.getValue().getIdentify())) {
+                if (found != null) {
+                    return Optional.empty();
+                }
+                found = entry.getKey();
+            }
+        }
+        return Optional.ofNullable(found);
+    }
+
+    private static boolean containsAny(Set<String> matched, List<String> keywords) {
+        for (String keyword : keywords) {
+            if (matched.contains(KeywordMatcher.lowerCase(keyword))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
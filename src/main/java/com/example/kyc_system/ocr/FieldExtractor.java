@@ -0,0 +1,527 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.enums.DocumentType;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads name, date of birth and document number out of OCR text.
+ *
+ * Every pattern is compiled once. The name heuristics — the line above
+ * "Father's Name" or a DOB label, the first name-like line below the PAN card
+ * title — are gathered in a single walk over the lines, without splitting the
+ * text or lower-casing it, and candidate names are cleaned character by
+ * character instead of through a chain of regex replacements. Only when the
+ * walk finds nothing do the cross-line label patterns run.
+ *
+ * Results are identical to the regex-per-call extraction this replaced; the
+ * golden corpus in the tests pins them down, quirks included.
+ */
+public final class FieldExtractor {
+
+    private static final Pattern LABELLED_NAME = Pattern.compile("(?m)^(?:Name|Full Name)[:\\s]+([A-Za-z .]+)$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LABELLED_DOB = Pattern.compile(
+            "(?:DOB|Date of Birth|Birth Date|Year of Birth)[:\\s]+(\\d{2,4}[-/]\\d{2}[-/]\\d{2,4}|\\d{4})",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE = Pattern.compile("(\\d{2}[-/]\\d{2}[-/]\\d{4})");
+    private static final Pattern LABELLED_YEAR = Pattern.compile("(?i)(?:Year of Birth|YOB|DOB).*?([1-2][0-9]{3})");
+    private static final Pattern YEAR = Pattern.compile("\\b((?:19|20)\\d{2})\\b");
+    private static final Pattern LABELLED_NUMBER = Pattern.compile(
+            "(?:No|Number|ID\\s*NO|DOC\\s*NO)[:\\s]+([A-Z0-9-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PAN_NUMBER = Pattern.compile("[A-Z]{5}[0-9]{4}[A-Z]{1}");
+    private static final Pattern AADHAAR_NUMBER = Pattern.compile("\\d{4}\\s?\\d{4}\\s?\\d{4}");
+
+    private static final String PAN_TITLE = "permanent account number card";
+    private static final String[] NOT_A_NAME = {
+            "india", "department", "income", "card", "permanent", "account", "signature" };
+    /** OCR misreadings of borders and separators, dropped from names. */
+    private static final String NAME_NOISE = "\\|©_—«-";
+    private static final String NAME_SYMBOLS = "@#%&*+=";
+
+    private FieldExtractor() {
+    }
+
+    /**
+     * Fields found in one text; null where not found. Each field also has the
+     * index of the line (0-based, lines split at '\n') it was read from, so it
+     * can be scored by that line's words alone; -1 where not found.
+     */
+    public record Fields(String name, String dob, String documentNumber,
+            int nameLine, int dobLine, int documentNumberLine) {
+    }
+
+    /** A value and the offset in the text of where it was read. */
+    private record Found(String value, int at) {
+    }
+
+    /**
+     * @param text full-page OCR text
+     * @param type the expected document type
+     * @return name, date of birth (yyyy-MM-dd) and document number, with their lines
+     */
+    public static Fields extract(String text, DocumentType type) {
+        Found name = findName(text, type);
+        Found dob = findDob(text, type);
+        Found number = findDocumentNumber(text, type);
+        return new Fields(value(name), value(dob), value(number),
+                lineOf(text, name), lineOf(text, dob), lineOf(text, number));
+    }
+
+    /**
+     * Name based on document layout heuristics, then a "Name:" label anywhere.
+     */
+    public static String name(String text, DocumentType type) {
+        return value(findName(text, type));
+    }
+
+    private static Found findName(String text, DocumentType type) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        Found name = null;
+        if (type == DocumentType.PAN) {
+            name = scanPanName(text);
+        } else if (type == DocumentType.AADHAAR) {
+            name = scanAadhaarName(text);
+        }
+        if (name != null) {
+            return name;
+        }
+        // The label may sit on its own line, so this can't be decided per line
+        Matcher labelled = LABELLED_NAME.matcher(text);
+        return labelled.find() ? new Found(labelled.group(1).trim(), labelled.start(1)) : null;
+    }
+
+    /**
+     * PAN cards print the name above "Father's Name"; failing that, the first
+     * name-like line below the card title, skipping the PAN number itself.
+     */
+    private static Found scanPanName(String text) {
+        Found belowTitle = null;
+        boolean foundTitle = false;
+        int previousStart = -1;
+        int previousEnd = -1;
+        for (int start = 0; start <= text.length(); ) {
+            int end = lineEnd(text, start);
+            if (previousStart >= 0 && (containsIgnoreCase(text, start, end, "father's name")
+                    || containsIgnoreCase(text, start, end, "fathers name"))) {
+                String candidate = nameCandidate(text, previousStart, previousEnd);
+                if (candidate != null) {
+                    return new Found(candidate, previousStart);
+                }
+            }
+            if (belowTitle == null) {
+                if (containsIgnoreCase(text, start, end, PAN_TITLE)) {
+                    foundTitle = true;
+                } else if (foundTitle && !isNumberLine(text, start, end)) {
+                    String candidate = nameCandidate(text, start, end);
+                    belowTitle = candidate == null ? null : new Found(candidate, start);
+                }
+            }
+            previousStart = start;
+            previousEnd = end;
+            start = end + 1;
+        }
+        return belowTitle;
+    }
+
+    /**
+     * Aadhaar cards print the name right above the DOB / year of birth line.
+     */
+    private static Found scanAadhaarName(String text) {
+        int previousStart = -1;
+        int previousEnd = -1;
+        for (int start = 0; start <= text.length(); ) {
+            int end = lineEnd(text, start);
+            if (previousStart >= 0 && (containsIgnoreCase(text, start, end, "dob")
+                    || containsIgnoreCase(text, start, end, "birth"))) {
+                String candidate = nameCandidate(text, previousStart, previousEnd);
+                if (candidate != null) {
+                    return new Found(candidate, previousStart);
+                }
+            }
+            previousStart = start;
+            previousEnd = end;
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * The name region holds the name plus, at most, labels such as "Name" or
+     * "Father's Name"; the first line that looks like a name wins.
+     */
+    public static String regionName(String text) {
+        if (text == null) {
+            return null;
+        }
+        for (int start = 0; start <= text.length(); ) {
+            int end = lineEnd(text, start);
+            String candidate = nameCandidate(text, start, end);
+            if (candidate != null && !containsIgnoreCase(candidate, 0, candidate.length(), "name")) {
+                return candidate;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Date of birth as yyyy-MM-dd: a labelled date, else the first full date,
+     * else (Aadhaar) a labelled year of birth.
+     */
+    public static String dob(String text, DocumentType type) {
+        return value(findDob(text, type));
+    }
+
+    private static Found findDob(String text, DocumentType type) {
+        Matcher labelled = LABELLED_DOB.matcher(text);
+        if (labelled.find()) {
+            String dob = labelled.group(1);
+            if (dob.length() == 4) {
+                return new Found(dob + "-01-01", labelled.start(1)); // Just year of birth
+            }
+            return new Found(convertDate(dob), labelled.start(1));
+        }
+        Matcher date = DATE.matcher(text);
+        if (date.find()) {
+            return new Found(convertDate(date.group(1)), date.start(1));
+        }
+        if (type == DocumentType.AADHAAR) {
+            Matcher year = LABELLED_YEAR.matcher(text);
+            if (year.find()) {
+                return new Found(year.group(1) + "-01-01", year.start(1));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The DOB region is whitelisted to digits and separators, so labels are gone;
+     * Aadhaar cards may print only the year of birth.
+     */
+    public static String regionDob(String text, DocumentType type) {
+        if (text == null) {
+            return null;
+        }
+        String dob = dob(text, type);
+        if (dob == null && type == DocumentType.AADHAAR) {
+            Matcher year = YEAR.matcher(text);
+            if (year.find()) {
+                return year.group(1) + "-01-01";
+            }
+        }
+        return dob;
+    }
+
+    /**
+     * Document number in the type's format, else whatever follows a "No:" label.
+     */
+    public static String documentNumber(String text, DocumentType type) {
+        return value(findDocumentNumber(text, type));
+    }
+
+    private static Found findDocumentNumber(String text, DocumentType type) {
+        Found number = findTypedDocumentNumber(text, type);
+        if (number != null) {
+            return number;
+        }
+        Matcher labelled = LABELLED_NUMBER.matcher(text);
+        return labelled.find() ? new Found(labelled.group(1).trim(), labelled.start(1)) : null;
+    }
+
+    /**
+     * Document number in the type's own format only, without the label-based fallback.
+     */
+    public static String typedDocumentNumber(String text, DocumentType type) {
+        return value(findTypedDocumentNumber(text, type));
+    }
+
+    private static Found findTypedDocumentNumber(String text, DocumentType type) {
+        if (type == DocumentType.PAN) {
+            // ABCDE1234F
+            Matcher pan = PAN_NUMBER.matcher(text);
+            if (pan.find()) {
+                return new Found(pan.group(), pan.start());
+            }
+        } else if (type == DocumentType.AADHAAR) {
+            // 1234 5678 9012
+            Matcher aadhaar = AADHAAR_NUMBER.matcher(text);
+            if (aadhaar.find()) {
+                return new Found(removeWhitespace(aadhaar.group()), aadhaar.start());
+            }
+        }
+        return null;
+    }
+
+    private static String value(Found found) {
+        return found == null ? null : found.value();
+    }
+
+    /** Index of the line holding the found value; -1 if nothing was found. */
+    private static int lineOf(String text, Found found) {
+        if (found == null) {
+            return -1;
+        }
+        int line = 0;
+        for (int i = 0; i < found.at(); i++) {
+            if (text.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * dd/MM/yyyy, MM/dd/yyyy (when the middle part can't be a month) and
+     * yyyy/MM/dd to yyyy-MM-dd. Input comes from the date patterns, so it
+     * always has three parts.
+     */
+    static String convertDate(String date) {
+        int first = separatorIndex(date, 0);
+        int second = first < 0 ? -1 : separatorIndex(date, first + 1);
+        if (second < 0) {
+            return date;
+        }
+        String day = date.substring(0, first);
+        String month = date.substring(first + 1, second);
+        String year = date.substring(second + 1);
+        if (day.length() == 4) {
+            return date.replace('/', '-');
+        }
+        int v0 = Integer.parseInt(day);
+        int v1 = Integer.parseInt(month);
+        if (v1 > 12) { // MM/DD/YYYY -> YYYY-MM-DD
+            return year + "-" + twoDigits(v0) + "-" + twoDigits(v1);
+        }
+        return year + "-" + twoDigits(v1) + "-" + twoDigits(v0);
+    }
+
+    /**
+     * Cleans the line [start, end) into a name and returns it if it looks like one.
+     */
+    private static String nameCandidate(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        String candidate = cleanName(text, start, end);
+        return isValidName(candidate) ? candidate : null;
+    }
+
+    /**
+     * Drops a leading "Name:" label, OCR noise characters and a trailing
+     * lowercase fragment like " ee" (common in ID scans), then anything that
+     * isn't a letter at either end.
+     */
+    static String cleanName(String text, int start, int end) {
+        StringBuilder name = new StringBuilder(end - start);
+        for (int i = start + labelLength(text, start, end); i < end; i++) {
+            char c = text.charAt(i);
+            if (NAME_NOISE.indexOf(c) < 0) {
+                name.append(c);
+            }
+        }
+        dropTrailingFragment(name);
+        int from = 0;
+        int to = name.length();
+        while (from < to && !isAsciiLetter(name.charAt(from))) {
+            from++;
+        }
+        while (to > from && !isAsciiLetter(name.charAt(to - 1))) {
+            to--;
+        }
+        return name.substring(from, to);
+    }
+
+    private static int labelLength(String text, int start, int end) {
+        int label;
+        if (startsWithIgnoreCase(text, start, end, "name")) {
+            label = 4;
+        } else if (startsWithIgnoreCase(text, start, end, "full name")) {
+            label = 9;
+        } else {
+            return 0;
+        }
+        int i = start + label;
+        if (i >= end || !isLabelSeparator(text.charAt(i))) {
+            return 0;
+        }
+        while (i < end && isLabelSeparator(text.charAt(i))) {
+            i++;
+        }
+        return i - start;
+    }
+
+    /**
+     * Removes whitespace + 2–3 lowercase letters at the end (or just before a
+     * final line terminator, as regex {@code $} would).
+     */
+    private static void dropTrailingFragment(StringBuilder name) {
+        int end = name.length();
+        if (end > 0 && isLineTerminator(name.charAt(end - 1))) {
+            end--;
+        }
+        int letters = end;
+        while (letters > 0 && name.charAt(letters - 1) >= 'a' && name.charAt(letters - 1) <= 'z') {
+            letters--;
+        }
+        int count = end - letters;
+        if (count < 2 || count > 3 || letters == 0 || !isWhitespace(name.charAt(letters - 1))) {
+            return;
+        }
+        int space = letters;
+        while (space > 0 && isWhitespace(name.charAt(space - 1))) {
+            space--;
+        }
+        name.delete(space, end);
+    }
+
+    private static boolean isValidName(String name) {
+        if (name == null || name.length() < 5) {
+            return false;
+        }
+        // Ignore lines with digits or some specific symbols
+        if (hasDigitOrSymbol(name)) {
+            return false;
+        }
+        // Count alphabetic characters vs total characters
+        int alphaCount = 0;
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isAlphabetic(name.charAt(i))) {
+                alphaCount++;
+            }
+        }
+        if ((double) alphaCount / name.length() < 0.7) {
+            return false;
+        }
+        // Ignore common header/footer text or small garbage fragments
+        for (String word : NOT_A_NAME) {
+            if (containsIgnoreCase(name, 0, name.length(), word)) {
+                return false;
+            }
+        }
+        // Blacklist known OCR noise
+        if (name.length() == 6 && startsWithIgnoreCase(name, 0, 6, "lar ee")) {
+            return false;
+        }
+        // Names on IDs usually have at least two words OR one reasonably long word
+        return name.indexOf(' ') >= 0 || name.length() >= 6;
+    }
+
+    /**
+     * Same answer as matching {@code .*[0-9@#%&*+=].*}, where {@code .} stops at
+     * line terminators: a name containing one never counts.
+     */
+    private static boolean hasDigitOrSymbol(String name) {
+        boolean found = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if ((c >= '0' && c <= '9') || NAME_SYMBOLS.indexOf(c) >= 0) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /** Whether [start, end) contains {@code word} (lowercase ASCII), ignoring ASCII case. */
+    private static boolean containsIgnoreCase(String text, int start, int end, String word) {
+        for (int i = start; i <= end - word.length(); i++) {
+            if (startsWithIgnoreCase(text, i, end, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithIgnoreCase(String text, int start, int end, String word) {
+        if (end - start < word.length()) {
+            return false;
+        }
+        for (int j = 0; j < word.length(); j++) {
+            char c = text.charAt(start + j);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != word.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** A line of all capitals, digits and spaces containing a 1 or 2: the PAN number. */
+    private static boolean isNumberLine(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+        boolean hasOneOrTwo = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '\\' || c == ' ')) {
+                return false;
+            }
+            hasOneOrTwo |= c == '1' || c == '2';
+        }
+        return hasOneOrTwo;
+    }
+
+    private static int lineEnd(String text, int start) {
+        int end = text.indexOf('\n', start);
+        return end < 0 ? text.length() : end;
+    }
+
+    private static int separatorIndex(String date, int from) {
+        for (int i = from; i < date.length(); i++) {
+            if (date.charAt(i) == '-' || date.charAt(i) == '/') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : Integer.toString(value);
+    }
+
+    private static String removeWhitespace(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            if (!isWhitespace(value.charAt(i))) {
+                digits.append(value.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isLabelSeparator(char c) {
+        return c == ':' || isWhitespace(c);
+    }
+
+    /** Regex {@code \s}. */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Line terminators as regex {@code .} and {@code $} see them. */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import com.recognition.software.jdeskew.ImageDeskew;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.util.ImageHelper;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cleans up uploaded documents before OCR: decode → downscale to
+ * kyc.ocr.preprocess.target-dpi → grayscale → binarize (Otsu) → deskew.
+ *
+ * A 12 MP phone photo of an ID card ends up at roughly 1000 px on the long
+ * edge, which is all Tesseract needs at 300 DPI — most of the OCR time went
+ * into the surplus pixels. PDFs are rendered straight at the target DPI in
+ * grayscale, so they skip the downscale step. A PDF is recognised by its
+ * %PDF- header, whatever the file is called, and only its first
+ * kyc.ocr.preprocess.max-pages pages are rendered.
+ *
+ * {@link #enhance(File)} is the heavier clean-up for the second OCR pass
+ * (kyc.ocr.second-pass): scale to its target DPI, upscaling too → grayscale →
+ * adaptive threshold → deskew.
+ *
+ * The upload is read into memory before decoding, so only reading it can
+ * fail with an {@link IOException} (worth retrying); a corrupt or
+ * unsupported file fails with {@link IllegalArgumentException} instead.
+ *
+ * Each step is timed as kyc.ocr.preprocess tagged with step=&lt;name&gt;.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class ImagePreprocessor {
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    /** PDF readers accept the header anywhere in the first 1024 bytes. */
+    private static final int PDF_HEADER_WINDOW = 1024;
+
+    private final KycProperties.Preprocess properties;
+    private final KycProperties.SecondPass secondPass;
+    private final MeterRegistry meterRegistry;
+
+    public ImagePreprocessor(KycProperties kycProperties, MeterRegistry meterRegistry) {
+        this.properties = kycProperties.getOcr().getPreprocess();
+        this.secondPass = kycProperties.getOcr().getSecondPass();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return false if uploads should go to Tesseract unprocessed
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Decodes the upload and runs the enabled clean-up steps on every page.
+     *
+     * @param file uploaded image or PDF
+     * @return one image per page, ready for OCR
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a decodable image or PDF
+     */
+    public List<BufferedImage> preprocess(File file) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        // PDF pages are already rendered at the target DPI
+        boolean rendered = isPdf(content);
+        List<BufferedImage> pages = timedDecode(file.getName(), content, properties.getTargetDpi());
+        List<BufferedImage> processed = new ArrayList<>(pages.size());
+        for (BufferedImage page : pages) {
+            BufferedImage image = page;
+            if (properties.isDownscale() && !rendered) {
+                image = timed("downscale", image, this::downscale);
+            }
+            if (properties.isGrayscale()) {
+                image = timed("grayscale", image, ImagePreprocessor::toGrayscale);
+            }
+            if (properties.isBinarize()) {
+                image = timed("binarize", image, ImagePreprocessor::binarize);
+            }
+            if (properties.isDeskew()) {
+                image = timed("deskew", image, this::deskew);
+            }
+            processed.add(image);
+        }
+        return processed;
+    }
+
+    /**
+     * Renders a PDF upload page by page without cleaning it up.
+     *
+     * @param file uploaded file
+     * @return one image per page, empty if the file is not a PDF
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the PDF cannot be parsed
+     */
+    public List<BufferedImage> decodePdf(File file) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        return isPdf(content) ? timedDecode(file.getName(), content, properties.getTargetDpi()) : List.of();
+    }
+
+    /**
+     * Heavier clean-up for documents the first pass read poorly: more pixels
+     * per character and a threshold that follows uneven lighting, glare and
+     * coloured backgrounds.
+     *
+     * @param file uploaded image or PDF
+     * @return one image per page, ready for the second OCR pass
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a decodable image or PDF
+     */
+    public List<BufferedImage> enhance(File file) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        boolean rendered = isPdf(content);
+        List<BufferedImage> pages = timedDecode(file.getName(), content, secondPass.getTargetDpi());
+        List<BufferedImage> enhanced = new ArrayList<>(pages.size());
+        for (BufferedImage page : pages) {
+            BufferedImage image = page;
+            if (!rendered) {
+                image = timed("rescale", image, this::rescale);
+            }
+            image = timed("grayscale", image, ImagePreprocessor::toGrayscale);
+            image = timed("adaptive-binarize", image,
+                    gray -> adaptiveBinarize(gray, secondPass.getThresholdWindow()));
+            if (properties.isDeskew()) {
+                image = timed("deskew", image, this::deskew);
+            }
+            enhanced.add(image);
+        }
+        return enhanced;
+    }
+
+    /**
+     * @param content the upload
+     * @return true if it is a PDF, judged by a %PDF- header within the first
+     *         1024 bytes, not by the file name
+     */
+    static boolean isPdf(byte[] content) {
+        int last = Math.min(content.length - PDF_MAGIC.length, PDF_HEADER_WINDOW);
+        for (int offset = 0; offset <= last; offset++) {
+            if (Arrays.equals(content, offset, offset + PDF_MAGIC.length, PDF_MAGIC, 0, PDF_MAGIC.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<BufferedImage> timedDecode(String name, byte[] content, int dpi) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return isPdf(content) ? renderPdf(name, content, dpi) : List.of(readImage(name, content));
+        } finally {
+            sample.stop(stepTimer("decode"));
+        }
+    }
+
+    private BufferedImage timed(String step, BufferedImage image, UnaryOperator<BufferedImage> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return operation.apply(image);
+        } finally {
+            sample.stop(stepTimer(step));
+        }
+    }
+
+    private Timer stepTimer(String step) {
+        return Timer.builder("kyc.ocr.preprocess")
+                .description("Time spent in one image preprocessing step")
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The content is already in memory, so any failure here is the file's own
+     * fault — retrying won't help.
+     */
+    private static BufferedImage readImage(String name, byte[] content) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt image: " + name, e);
+        }
+        if (image == null) {
+            throw new IllegalArgumentException("Unsupported image format: " + name);
+        }
+        return image;
+    }
+
+    private List<BufferedImage> renderPdf(String name, byte[] content, int dpi) {
+        try (PDDocument document = Loader.loadPDF(content)) {
+            PDFRenderer renderer = new PDFRenderer(document);
+            int pageCount = Math.min(document.getNumberOfPages(), Math.max(1, properties.getMaxPages()));
+            if (pageCount < document.getNumberOfPages()) {
+                log.info("Rendering the first {} of {} PDF pages: file={}", pageCount, document.getNumberOfPages(),
+                        name);
+            }
+            List<BufferedImage> pages = new ArrayList<>(pageCount);
+            for (int page = 0; page < pageCount; page++) {
+                pages.add(renderer.renderImageWithDPI(page, dpi, ImageType.GRAY));
+            }
+            return pages;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable PDF: " + name, e);
+        }
+    }
+
+    /**
+     * Scales the longer edge down to target-dpi × document-width-inches.
+     * Halves the image repeatedly first, so large reductions don't alias.
+     */
+    BufferedImage downscale(BufferedImage image) {
+        return downscale(image, (int) Math.round(properties.getTargetDpi() * properties.getDocumentWidthInches()));
+    }
+
+    private static BufferedImage downscale(BufferedImage image, int targetLongEdge) {
+        int longEdge = Math.max(image.getWidth(), image.getHeight());
+        if (targetLongEdge <= 0 || longEdge <= targetLongEdge) {
+            return image;
+        }
+        double scale = (double) targetLongEdge / longEdge;
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        while (width / 2 >= targetWidth && height / 2 >= targetHeight) {
+            width /= 2;
+            height /= 2;
+            current = resize(current, width, height);
+        }
+        return width == targetWidth && height == targetHeight ? current : resize(current, targetWidth, targetHeight);
+    }
+
+    /**
+     * Scales the longer edge to the second pass's target-dpi × document-width-inches,
+     * up or down.
+     */
+    BufferedImage rescale(BufferedImage image) {
+        int targetLongEdge = (int) Math.round(secondPass.getTargetDpi() * properties.getDocumentWidthInches());
+        int longEdge = Math.max(image.getWidth(), image.getHeight());
+        if (targetLongEdge <= 0 || longEdge == targetLongEdge) {
+            return image;
+        }
+        if (longEdge > targetLongEdge) {
+            return downscale(image, targetLongEdge);
+        }
+        double scale = (double) targetLongEdge / longEdge;
+        return resize(image, Math.max(1, (int) Math.round(image.getWidth() * scale)),
+                Math.max(1, (int) Math.round(image.getHeight() * scale)));
+    }
+
+    static BufferedImage resize(BufferedImage image, int width, int height) {
+        int type = image.getType() == BufferedImage.TYPE_BYTE_GRAY ? BufferedImage.TYPE_BYTE_GRAY
+                : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    static BufferedImage toGrayscale(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return gray;
+    }
+
+    /**
+     * Global Otsu threshold: picks the gray level that best separates ink from
+     * paper. Output stays TYPE_BYTE_GRAY (0 or 255) so later steps and
+     * Tesseract can read it without another conversion.
+     */
+    static BufferedImage binarize(BufferedImage image) {
+        BufferedImage gray = toGrayscale(image);
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int[] pixels = gray.getRaster().getPixels(0, 0, width, height, (int[]) null);
+
+        int[] histogram = new int[256];
+        for (int pixel : pixels) {
+            histogram[pixel]++;
+        }
+        int threshold = otsuThreshold(histogram, pixels.length);
+
+        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = pixels[i] > threshold ? 255 : 0;
+        }
+        WritableRaster raster = binary.getRaster();
+        raster.setPixels(0, 0, width, height, pixels);
+        return binary;
+    }
+
+    /**
+     * Local mean threshold (Bradley): a pixel is ink if it is more than 15%
+     * darker than the average of the window around it. Window sums come from
+     * an integral image, so the cost doesn't depend on the window size.
+     */
+    static BufferedImage adaptiveBinarize(BufferedImage image, int window) {
+        BufferedImage gray = toGrayscale(image);
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int[] pixels = gray.getRaster().getPixels(0, 0, width, height, (int[]) null);
+
+        long[] integral = new long[(width + 1) * (height + 1)];
+        for (int y = 0; y < height; y++) {
+            long row = 0;
+            for (int x = 0; x < width; x++) {
+                row += pixels[y * width + x];
+                integral[(y + 1) * (width + 1) + x + 1] = integral[y * (width + 1) + x + 1] + row;
+            }
+        }
+
+        int half = Math.max(1, window / 2);
+        int[] binary = new int[pixels.length];
+        for (int y = 0; y < height; y++) {
+            int top = Math.max(0, y - half);
+            int bottom = Math.min(height, y + half + 1);
+            for (int x = 0; x < width; x++) {
+                int left = Math.max(0, x - half);
+                int right = Math.min(width, x + half + 1);
+                long sum = integral[bottom * (width + 1) + right] - integral[top * (width + 1) + right]
+                        - integral[bottom * (width + 1) + left] + integral[top * (width + 1) + left];
+                long count = (long) (bottom - top) * (right - left);
+                // pixel * count < sum * 0.85, in integers
+                binary[y * width + x] = pixels[y * width + x] * count * 100 < sum * 85 ? 0 : 255;
+            }
+        }
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        result.getRaster().setPixels(0, 0, width, height, binary);
+        return result;
+    }
+
+    static int otsuThreshold(int[] histogram, int total) {
+        long sumAll = 0;
+        for (int level = 0; level < 256; level++) {
+            sumAll += (long) level * histogram[level];
+        }
+        long sumBackground = 0;
+        int weightBackground = 0;
+        double bestVariance = -1;
+        int threshold = 127;
+        for (int level = 0; level < 256; level++) {
+            weightBackground += histogram[level];
+            if (weightBackground == 0) {
+                continue;
+            }
+            int weightForeground = total - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (long) level * histogram[level];
+            double meanBackground = (double) sumBackground / weightBackground;
+            double meanForeground = (double) (sumAll - sumBackground) / weightForeground;
+            double variance = (double) weightBackground * weightForeground
+                    * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = level;
+            }
+        }
+        return threshold;
+    }
+
+    private BufferedImage deskew(BufferedImage image) {
+        double angle = new ImageDeskew(image).getSkewAngle();
+        if (Math.abs(angle) < properties.getMinDeskewAngle()) {
+            return image;
+        }
+        log.debug("Deskewing document image by {} degrees", angle);
+        return ImageHelper.rotateImage(image, -angle);
+    }
+
+}
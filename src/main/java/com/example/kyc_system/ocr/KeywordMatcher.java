@@ -0,0 +1,156 @@
+package com.example.kyc_system.ocr;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Finds which of a fixed set of keywords occur in a text, ignoring case, in a
+ * single pass (Aho-Corasick).
+ *
+ * The keywords are compiled into a state table once; scanning then costs one
+ * table lookup per character, however many keywords there are, and the text
+ * is never copied or lower-cased as a whole. Immutable and thread-safe.
+ */
+public final class KeywordMatcher {
+
+    private final String[] keywords;
+    /** Symbol of each ASCII character; 0 = appears in no keyword. */
+    private final int[] asciiSymbols = new int[128];
+    private final Map<Character, Integer> otherSymbols = new HashMap<>();
+    /** next[state][symbol]: complete transition table, failure links folded in. */
+    private final int[][] next;
+    /** Keywords (indexes) ending in each state, including via failure links. */
+    private final int[][] outputs;
+
+    /**
+     * @param keywords keywords to look for; case and duplicates don't matter
+     */
+    public KeywordMatcher(Collection<String> keywords) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) {
+                distinct.add(lowerCase(keyword));
+            }
+        }
+        this.keywords = distinct.toArray(String[]::new);
+
+        int symbolCount = 1;
+        for (String keyword : this.keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (symbol(c) == 0) {
+                    if (c < 128) {
+                        asciiSymbols[c] = symbolCount++;
+                    } else {
+                        otherSymbols.put(c, symbolCount++);
+                    }
+                }
+            }
+        }
+
+        // Trie of the keywords
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(newRow(symbolCount));
+        ends.add(new ArrayList<>());
+        for (int id = 0; id < this.keywords.length; id++) {
+            int state = 0;
+            for (int i = 0; i < this.keywords[id].length(); i++) {
+                int symbol = symbol(this.keywords[id].charAt(i));
+                if (children.get(state)[symbol] < 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(newRow(symbolCount));
+                    ends.add(new ArrayList<>());
+                }
+                state = children.get(state)[symbol];
+            }
+            ends.get(state).add(id);
+        }
+
+        // Breadth-first: failure links, folded into a complete transition table
+        int states = children.size();
+        this.next = new int[states][];
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        next[0] = new int[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int child = children.get(0)[symbol];
+            if (child > 0) {
+                next[0][symbol] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            next[state] = new int[symbolCount];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int child = children.get(state)[symbol];
+                if (child < 0) {
+                    next[state][symbol] = next[failure[state]][symbol];
+                } else {
+                    next[state][symbol] = child;
+                    failure[child] = next[failure[state]][symbol];
+                    ends.get(child).addAll(ends.get(failure[child]));
+                    queue.add(child);
+                }
+            }
+        }
+        this.outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            outputs[state] = ends.get(state).stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    /**
+     * @param text text to scan; null counts as empty
+     * @return the keywords (lower case) found in the text, in the order they were given
+     */
+    public Set<String> findAll(CharSequence text) {
+        if (text == null || keywords.length == 0) {
+            return Set.of();
+        }
+        boolean[] found = new boolean[keywords.length];
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next[state][symbol(Character.toLowerCase(text.charAt(i)))];
+            for (int id : outputs[state]) {
+                found[id] = true;
+            }
+        }
+        Set<String> matched = new LinkedHashSet<>();
+        for (int id = 0; id < keywords.length; id++) {
+            if (found[id]) {
+                matched.add(keywords[id]);
+            }
+        }
+        return matched;
+    }
+
+    private int symbol(char c) {
+        return c < 128 ? asciiSymbols[c] : otherSymbols.getOrDefault(c, 0);
+    }
+
+    private static int[] newRow(int symbolCount) {
+        int[] row = new int[symbolCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /** Per character, exactly as the text is folded while scanning. */
+    static String lowerCase(String keyword) {
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
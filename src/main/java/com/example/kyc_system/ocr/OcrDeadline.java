@@ -0,0 +1,80 @@
+package com.example.kyc_system.ocr;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Deadline of one document's OCR, shared by every engine call made for it.
+ *
+ * The deadline is bound to the thread running the extraction and handed on to
+ * region and page threads via {@link #propagate(Callable)}.
+ * {@link TesseractEnginePool} refuses to start work once it has passed and
+ * gives it to the engine, which checks it from inside Tesseract's recogniser
+ * and stops there — a native call can't be interrupted any other way.
+ */
+public final class OcrDeadline {
+
+    private static final ThreadLocal<OcrDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    public OcrDeadline(Duration timeout) {
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * @return the deadline bound to this thread, or null outside a supervised extraction
+     */
+    public static OcrDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code work} with this deadline bound to the current thread.
+     */
+    public <T> T call(Callable<T> work) throws Exception {
+        OcrDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Wraps {@code work} so it runs under the current thread's deadline on
+     * whichever thread executes it.
+     */
+    public static <T> Callable<T> propagate(Callable<T> work) {
+        OcrDeadline deadline = current();
+        return deadline == null ? work : () -> deadline.call(work);
+    }
+
+    /** Abandons the work: engines stop at their next check. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return true once cancelled or past the deadline
+     */
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return milliseconds left, 0 if expired
+     */
+    public long remainingMillis() {
+        if (cancelled) {
+            return 0;
+        }
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+}
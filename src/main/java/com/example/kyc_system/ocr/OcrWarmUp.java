@@ -0,0 +1,177 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.service.OcrService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup warm-up of the OCR path (kyc.ocr.warm-up).
+ *
+ * {@link TesseractEnginePool} loads the language models while the context
+ * starts, but each engine still builds its native recognition structures on
+ * its first image, and the Java side (preprocessing, field extraction) runs
+ * interpreted at first. Here the bundled sample of every document type goes
+ * through {@link OcrService} once per pooled engine, concurrently, so every
+ * engine has recognised an image before real documents arrive.
+ *
+ * As an {@link ApplicationRunner} this runs before Spring Boot marks the
+ * application ready, so /actuator/health/readiness refuses traffic until it
+ * finishes (or kyc.ocr.warm-up.timeout passes), and {@code KycWorker}, which
+ * starts on ApplicationReadyEvent, claims no queued request before then.
+ * Failures are logged and never stop startup. The duration is recorded as kyc.ocr.warm-up.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@ConditionalOnProperty(prefix = "kyc.ocr", name = "engine", havingValue = "tesseract", matchIfMissing = true)
+@Slf4j
+public class OcrWarmUp implements ApplicationRunner {
+
+    private final OcrService ocrService;
+    private final TesseractEnginePool enginePool;
+    private final KycProperties.WarmUp properties;
+    private final ResourceLoader resourceLoader;
+    private final Timer timer;
+
+    public OcrWarmUp(OcrService ocrService, TesseractEnginePool enginePool, KycProperties kycProperties,
+            ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+        this.ocrService = ocrService;
+        this.enginePool = enginePool;
+        this.properties = kycProperties.getOcr().getWarmUp();
+        this.resourceLoader = resourceLoader;
+        this.timer = Timer.builder("kyc.ocr.warm-up")
+                .description("Time to warm up the OCR path at startup")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * OCRs every sample once per engine; returns when all are done or the
+     * timeout passes.
+     */
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int engines = enginePool.getEngineCount();
+        if (engines == 0) {
+            log.warn("OCR warm-up skipped: no Tesseract engines loaded");
+            return;
+        }
+        Map<DocumentType, Path> samples = copySamples();
+        if (samples.isEmpty()) {
+            return;
+        }
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(engines, runnable -> {
+            Thread thread = new Thread(runnable, "kyc-ocr-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>(engines);
+            for (int i = 0; i < engines; i++) {
+                futures.add(executor.submit(() -> samples.forEach((type, sample) -> {
+                    if (extract(type, sample)) {
+                        succeeded.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            log.info("OCR warm-up complete: engines={}, documents={}, failed={}, took={}ms", engines,
+                    succeeded.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (TimeoutException e) {
+            log.warn("OCR warm-up not finished after {}, going ready anyway: documents={}, failed={}",
+                    properties.getTimeout(), succeeded.get(), failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("OCR warm-up interrupted");
+        } catch (ExecutionException e) {
+            log.warn("OCR warm-up failed: {}", e.getCause().toString());
+        } finally {
+            executor.shutdownNow();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            samples.values().forEach(OcrWarmUp::delete);
+        }
+    }
+
+    private boolean extract(DocumentType type, Path sample) {
+        try {
+            OcrResult result = ocrService.extract(sample.toFile(), type);
+            log.debug("OCR warm-up {}: name={}, documentNumber={}", type, result.getName() != null,
+                    result.getDocumentNumber() != null);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("OCR warm-up of the {} sample failed: {}", type, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Copies the samples to temporary files, as OcrService reads files.
+     * Missing samples are skipped.
+     */
+    private Map<DocumentType, Path> copySamples() {
+        Map<DocumentType, Path> samples = new EnumMap<>(DocumentType.class);
+        properties.getSamples().forEach((type, location) -> {
+            Resource resource = resourceLoader.getResource(location);
+            String name = resource.getFilename() == null ? "sample.png" : resource.getFilename();
+            try (InputStream in = resource.getInputStream()) {
+                Path file = Files.createTempFile("kyc-ocr-warm-up-", "-" + name);
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+                samples.put(type, file);
+            } catch (IOException e) {
+                log.warn("OCR warm-up sample for {} not readable ({}): {}", type, location, e.toString());
+            }
+        });
+        return samples;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete OCR warm-up sample {}: {}", file, e.toString());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.exception.OcrTimeoutException;
+import net.sourceforge.tess4j.TesseractException;
+
+import java.awt.Rectangle;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of an OCR child process (kyc.ocr.engine-mode=PROCESS), and the
+ * protocol it speaks with {@link ProcessTesseract} over stdin/stdout.
+ *
+ * The child loads one engine, answers "ready" and then serves requests until
+ * its stdin is closed. Request: image path, the rectangle of it to read (if
+ * not all of it), page segmentation mode, Tesseract variables and the
+ * milliseconds left until the deadline (0 = none).
+ * Response: a status byte, the recognised text or the error message, and
+ * the confidence of each word of the text.
+ * Everything else the child prints goes to stderr.
+ *
+ * Arguments: tessdata path, language.
+ */
+public final class OcrWorkerProcess {
+
+    static final byte OK = 0;
+    static final byte FAILED = 1;
+    static final byte TIMED_OUT = 2;
+
+    /** One image to recognise; region is the part of it to read, null = all of it. */
+    record Request(String path, Rectangle region, int pageSegMode, Map<String, String> variables,
+            long timeoutMillis) {
+    }
+
+    /** Outcome of a request; text is the error message unless status is OK. */
+    record Response(byte status, String text, float[] wordConfidences) {
+
+        Response(byte status, String text) {
+            this(status, text, new float[0]);
+        }
+    }
+
+    /** Does the actual recognition in the child. */
+    @FunctionalInterface
+    interface Recognizer {
+        RecognizedText recognize(Request request) throws Exception;
+    }
+
+    private OcrWorkerProcess() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        // Keep log output off the protocol stream
+        System.setOut(System.err);
+
+        PersistentTesseract engine = new PersistentTesseract(args[0], args[1]);
+        engine.setVariable("debug_file", "/dev/null");
+        engine.load();
+        serve(new DataInputStream(new BufferedInputStream(System.in)), out, request -> recognize(engine, request));
+    }
+
+    private static RecognizedText recognize(PersistentTesseract engine, Request request) throws TesseractException {
+        engine.setPageSegMode(request.pageSegMode());
+        request.variables().forEach(engine::setVariable);
+        engine.setDeadline(request.timeoutMillis() > 0
+                ? new OcrDeadline(Duration.ofMillis(request.timeoutMillis()))
+                : null);
+        try {
+            if (request.region() == null) {
+                return RecognizedText.recognize(engine, new File(request.path()));
+            }
+            String text = engine.doOCR(new File(request.path()), List.of(request.region()));
+            return RecognizedText.withConfidences(text, engine.wordConfidences());
+        } finally {
+            engine.setDeadline(null);
+        }
+    }
+
+    /**
+     * Answers requests until {@code in} ends. A failed request is reported and
+     * the child carries on; only the parent decides to replace it.
+     */
+    static void serve(DataInputStream in, DataOutputStream out, Recognizer recognizer) throws IOException {
+        writeResponse(out, new Response(OK, "ready"));
+        while (true) {
+            Request request;
+            try {
+                request = readRequest(in);
+            } catch (EOFException e) {
+                return;
+            }
+            Response response;
+            try {
+                RecognizedText recognised = recognizer.recognize(request);
+                float[] confidences = new float[recognised.words().size()];
+                for (int i = 0; i < confidences.length; i++) {
+                    confidences[i] = recognised.words().get(i).confidence();
+                }
+                response = new Response(OK, recognised.text(), confidences);
+            } catch (OcrTimeoutException e) {
+                response = new Response(TIMED_OUT, String.valueOf(e.getMessage()));
+            } catch (Exception e) {
+                response = new Response(FAILED, String.valueOf(e.getMessage()));
+            }
+            writeResponse(out, response);
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        writeString(out, request.path());
+        Rectangle region = request.region();
+        out.writeBoolean(region != null);
+        if (region != null) {
+            out.writeInt(region.x);
+            out.writeInt(region.y);
+            out.writeInt(region.width);
+            out.writeInt(region.height);
+        }
+        out.writeInt(request.pageSegMode());
+        out.writeInt(request.variables().size());
+        for (Map.Entry<String, String> variable : request.variables().entrySet()) {
+            writeString(out, variable.getKey());
+            writeString(out, variable.getValue());
+        }
+        out.writeLong(request.timeoutMillis());
+        out.flush();
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        String path = readString(in);
+        Rectangle region = in.readBoolean()
+                ? new Rectangle(in.readInt(), in.readInt(), in.readInt(), in.readInt())
+                : null;
+        int pageSegMode = in.readInt();
+        int count = in.readInt();
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            variables.put(readString(in), readString(in));
+        }
+        return new Request(path, region, pageSegMode, variables, in.readLong());
+    }
+
+    static void writeResponse(DataOutputStream out, Response response) throws IOException {
+        out.writeByte(response.status());
+        writeString(out, response.text());
+        out.writeInt(response.wordConfidences().length);
+        for (float confidence : response.wordConfidences()) {
+            out.writeFloat(confidence);
+        }
+        out.flush();
+    }
+
+    static Response readResponse(DataInputStream in) throws IOException {
+        byte status = in.readByte();
+        String text = readString(in);
+        float[] confidences = new float[in.readInt()];
+        for (int i = 0; i < confidences.length; i++) {
+            confidences[i] = in.readFloat();
+        }
+        return new Response(status, text, confidences);
+    }
+
+    // Length-prefixed UTF-8; writeUTF stops at 64 KB, which a dense page can exceed
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * OCRs the pages of a multi-page document concurrently on a bounded
+ * fork-join pool (kyc.ocr.page-parallelism threads), each page on its own
+ * pooled engine.
+ *
+ * Text is merged in page order, with each page's word confidences. As soon as the pages recognised so far,
+ * counted from the first one without gaps, satisfy the caller's completion
+ * check, pages that haven't started are cancelled and their text is left out.
+ * Pages are counted as kyc.ocr.pages tagged outcome=recognised|skipped.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class PageRecognizer {
+
+    private final TesseractEnginePool enginePool;
+    private final ForkJoinPool pool;
+    private final Counter recognised;
+    private final Counter skipped;
+
+    public PageRecognizer(TesseractEnginePool enginePool, KycProperties kycProperties, MeterRegistry meterRegistry) {
+        this.enginePool = enginePool;
+        this.pool = new ForkJoinPool(Math.max(1, kycProperties.getOcr().getPageParallelism()), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("kyc-ocr-page-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.recognised = Counter.builder("kyc.ocr.pages").tag("outcome", "recognised")
+                .description("Document pages, by whether they were OCR'd or skipped after an early stop")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("kyc.ocr.pages").tag("outcome", "skipped")
+                .description("Document pages, by whether they were OCR'd or skipped after an early stop")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param pages    page images in document order
+     * @param complete true once the merged text holds everything the caller needs
+     * @return text of the recognised pages, in page order
+     * @throws TesseractException if a page that is needed cannot be recognised
+     */
+    public RecognizedText recognize(List<BufferedImage> pages, Predicate<String> complete) throws TesseractException {
+        return recognize(pages, -1, complete);
+    }
+
+    /**
+     * @param pages       page images in document order
+     * @param pageSegMode page segmentation mode for these pages; -1 = the engine's default
+     * @param complete    true once the merged text holds everything the caller needs
+     * @return text of the recognised pages, in page order
+     * @throws TesseractException if a page that is needed cannot be recognised
+     */
+    public RecognizedText recognize(List<BufferedImage> pages, int pageSegMode, Predicate<String> complete)
+            throws TesseractException {
+        if (pages.size() == 1) {
+            recognised.increment();
+            return recognizePage(pages.get(0), pageSegMode);
+        }
+
+        CompletionService<PageText> completion = new ExecutorCompletionService<>(pool);
+        List<Future<PageText>> futures = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            int index = i;
+            BufferedImage page = pages.get(i);
+            futures.add(completion.submit(OcrDeadline.propagate(
+                    () -> new PageText(index, recognizePage(page, pageSegMode)))));
+        }
+
+        RecognizedText[] texts = new RecognizedText[pages.size()];
+        List<RecognizedText> merged = new ArrayList<>(pages.size());
+        StringBuilder mergedText = new StringBuilder();
+        int prefix = 0;
+        try {
+            for (int done = 0; done < pages.size(); done++) {
+                PageText page = completion.take().get();
+                texts[page.index()] = page.text();
+                recognised.increment();
+
+                boolean grown = false;
+                while (prefix < texts.length && texts[prefix] != null) {
+                    merged.add(texts[prefix]);
+                    mergedText.append(texts[prefix++].text());
+                    grown = true;
+                }
+                if (grown && prefix < texts.length && complete.test(mergedText.toString())) {
+                    int cancelled = cancel(futures);
+                    log.debug("All fields found in the first {} of {} pages, skipped {}", prefix, pages.size(),
+                            cancelled);
+                    return RecognizedText.join(merged, "");
+                }
+            }
+            return RecognizedText.join(merged, "");
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new TesseractException(e);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            // Fork-join wraps task exceptions in RuntimeExceptions; find the engine's own
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof OcrTimeoutException timeout) {
+                    throw timeout;
+                }
+                if (cause instanceof TesseractException tesseractException) {
+                    throw tesseractException;
+                }
+            }
+            throw new TesseractException(e.getCause());
+        }
+    }
+
+    private RecognizedText recognizePage(BufferedImage page, int pageSegMode) throws TesseractException {
+        if (pageSegMode < 0) {
+            return enginePool.execute(engine -> RecognizedText.recognize(engine, page));
+        }
+        return enginePool.execute(engine -> {
+            engine.setPageSegMode(pageSegMode);
+            try {
+                return RecognizedText.recognize(engine, page);
+            } finally {
+                engine.setPageSegMode(-1);
+            }
+        });
+    }
+
+    /**
+     * Cancels the pages that haven't started; pages already running finish on
+     * their own (a Tesseract call can't be interrupted).
+     */
+    private int cancel(List<Future<PageText>> futures) {
+        int cancelled = 0;
+        for (Future<PageText> future : futures) {
+            if (future.cancel(false)) {
+                cancelled++;
+            }
+        }
+        skipped.increment(cancelled);
+        return cancelled;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Page OCR threads still busy at shutdown");
+            pool.shutdownNow();
+        }
+    }
+
+    private record PageText(int index, RecognizedText text) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.exception.OcrTimeoutException;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+import javax.imageio.IIOImage;
+import java.awt.Rectangle;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tesseract whose native handle outlives a single call.
+ *
+ * Plain {@link Tesseract} creates a TessBaseAPI and loads the traineddata in
+ * every doOCR call, then frees it again. Here the handle is created on first
+ * use and kept until {@link #close()}, so only the first document pays for
+ * loading the model. An instance is not thread-safe — {@link TesseractEnginePool}
+ * lends it to one thread at a time.
+ *
+ * While an {@link OcrDeadline} is set, recognition runs with a Tesseract
+ * monitor whose cancel callback checks it, so a document that takes too long
+ * is stopped inside the native call.
+ *
+ * The confidence of every word of the last doOCR call is kept for
+ * {@link RecognizedText}; Tesseract computes it anyway, so reading it costs
+ * no second recognition.
+ */
+class PersistentTesseract extends Tesseract {
+
+    private boolean initialised;
+    private int pageSegMode = -1;
+    private int defaultPageSegMode = -1;
+    private volatile OcrDeadline deadline;
+    private float[] wordConfidences = new float[0];
+
+    PersistentTesseract(String dataPath, String language) {
+        setDatapath(dataPath);
+        setLanguage(language);
+    }
+
+    @Override
+    protected void init() {
+        if (!initialised) {
+            super.init();
+            defaultPageSegMode = getAPI().TessBaseAPIGetPageSegMode(getHandle());
+            initialised = true;
+        }
+    }
+
+    /**
+     * @param mode page segmentation mode for the next calls; -1 = the engine's default
+     */
+    @Override
+    public void setPageSegMode(int mode) {
+        super.setPageSegMode(mode);
+        pageSegMode = mode;
+    }
+
+    /**
+     * Tesseract applies the page segmentation mode only in init(), which runs
+     * once here, so it is re-applied with the other variables on every call.
+     */
+    @Override
+    protected void setVariables() {
+        super.setVariables();
+        getAPI().TessBaseAPISetPageSegMode(getHandle(), pageSegMode >= 0 ? pageSegMode : defaultPageSegMode);
+    }
+
+    /**
+     * Keeps the handle alive between calls; see {@link #close()}.
+     */
+    @Override
+    protected void dispose() {
+        // intentionally empty
+    }
+
+    /**
+     * @param deadline deadline for the following calls; null = none
+     */
+    void setDeadline(OcrDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public String doOCR(File inputFile, List<Rectangle> rects) throws TesseractException {
+        wordConfidences = new float[0];
+        return super.doOCR(inputFile, rects);
+    }
+
+    @Override
+    public String doOCR(List<IIOImage> imageList, String filename, List<List<Rectangle>> rects)
+            throws TesseractException {
+        wordConfidences = new float[0];
+        return super.doOCR(imageList, filename, rects);
+    }
+
+    /**
+     * @return confidence (0-100) of each word of the last doOCR call, in text order
+     */
+    float[] wordConfidences() {
+        return wordConfidences;
+    }
+
+    /**
+     * For engines that recognise elsewhere: the word confidences they got back.
+     */
+    void setWordConfidences(float[] confidences) {
+        wordConfidences = confidences;
+    }
+
+    private void addWordConfidences(float[] confidences) {
+        float[] joined = Arrays.copyOf(wordConfidences, wordConfidences.length + confidences.length);
+        System.arraycopy(confidences, 0, joined, wordConfidences.length, confidences.length);
+        wordConfidences = joined;
+    }
+
+    /**
+     * Recognises the current image under the deadline before the text is read;
+     * Tesseract then returns the finished result instead of recognising again.
+     */
+    @Override
+    protected String getOCRText(String filename, int pageNum) {
+        OcrDeadline current = deadline;
+        if (current != null) {
+            recognizeWithin(current);
+        }
+        String text = super.getOCRText(filename, pageNum);
+        addWordConfidences(readWordConfidences());
+        return text;
+    }
+
+    /**
+     * Word confidences of the recognition that just ran, from the -1
+     * terminated array Tesseract returns.
+     */
+    private float[] readWordConfidences() {
+        IntByReference array = getAPI().TessBaseAPIAllWordConfidences(getHandle());
+        if (array == null || array.getPointer() == null) {
+            return new float[0];
+        }
+        Pointer pointer = array.getPointer();
+        int count = 0;
+        while (pointer.getInt(4L * count) >= 0) {
+            count++;
+        }
+        float[] confidences = new float[count];
+        for (int i = 0; i < count; i++) {
+            confidences[i] = pointer.getInt(4L * i);
+        }
+        getAPI().TessDeleteIntArray(pointer.getByteBuffer(0, 4L * (count + 1)).asIntBuffer());
+        return confidences;
+    }
+
+    private void recognizeWithin(OcrDeadline current) {
+        if (current.isExpired()) {
+            throw new OcrTimeoutException("OCR deadline passed before recognition started");
+        }
+        ITessAPI.TessCancelFunc cancel = (cancelThis, words) -> current.isExpired();
+        ITessAPI.ETEXT_DESC monitor = getAPI().TessMonitorCreate();
+        try {
+            getAPI().TessMonitorSetCancelFunc(monitor, cancel);
+            getAPI().TessMonitorSetDeadlineMSecs(monitor, (int) Math.min(Integer.MAX_VALUE, current.remainingMillis()));
+            int status = getAPI().TessBaseAPIRecognize(getHandle(), monitor);
+            if (status != 0 || current.isExpired()) {
+                throw new OcrTimeoutException("OCR cancelled at its deadline");
+            }
+        } finally {
+            getAPI().TessMonitorDelete(monitor);
+        }
+    }
+
+    /**
+     * Loads the model now instead of on the first document.
+     */
+    void load() {
+        init();
+    }
+
+    /**
+     * Frees the native handle and the model it holds.
+     */
+    void close() {
+        if (initialised) {
+            super.dispose();
+            initialised = false;
+        }
+    }
+}
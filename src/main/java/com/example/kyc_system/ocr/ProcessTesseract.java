@@ -0,0 +1,324 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.TesseractException;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Engine that runs Tesseract in a child process ({@link OcrWorkerProcess})
+ * instead of this JVM, for kyc.ocr.engine-mode=PROCESS.
+ *
+ * {@link TesseractEnginePool} lends it like any other engine: {@link #load()}
+ * starts the child and {@link #close()} stops it. Images go over by path —
+ * uploads as they are, in-memory pages as a temporary PNG in
+ * kyc.ocr.process.image-dir, and regions as a rectangle on their page's PNG.
+ * The PNG of the last page is kept until the engine reads another page or is
+ * closed; pages must not be drawn on once handed to OCR. A child found dead
+ * before a call is restarted; one that dies during a call fails just that
+ * call. Under an {@link OcrDeadline} the child gets the time left, and is
+ * killed if it still hasn't answered kill-grace later.
+ *
+ * Only doOCR(File) and doOCR(BufferedImage) are forwarded; everything else
+ * would need the native engine and fails.
+ */
+@Slf4j
+class ProcessTesseract extends PersistentTesseract {
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kyc-ocr-process-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<String> command;
+    private final KycProperties.OcrProcess properties;
+    private final Counter restarts;
+    private final Map<String, String> variables = new LinkedHashMap<>();
+    private int pageSegMode = -1;
+    private volatile OcrDeadline deadline;
+
+    /** Last page written for the child, kept weakly so it can be told apart from a new one. */
+    private WeakReference<Raster> writtenPage;
+    private Path pageFile;
+
+    private Process process;
+    private DataOutputStream requests;
+    private DataInputStream responses;
+
+    ProcessTesseract(String dataPath, String language, KycProperties.OcrProcess properties, Counter restarts) {
+        super(dataPath, language);
+        this.command = command(properties, dataPath, language);
+        this.properties = properties;
+        this.restarts = restarts;
+    }
+
+    /**
+     * @return kyc.ocr.process.command, or this JVM's java and classpath running
+     *         {@link OcrWorkerProcess}, followed by the child's arguments
+     */
+    static List<String> command(KycProperties.OcrProcess properties, String dataPath, String language) {
+        List<String> command = new ArrayList<>();
+        if (properties.getCommand().isEmpty()) {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(properties.getJvmOptions());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(OcrWorkerProcess.class.getName());
+        } else {
+            command.addAll(properties.getCommand());
+        }
+        command.add(dataPath);
+        command.add(language);
+        return command;
+    }
+
+    @Override
+    protected void init() {
+        throw new IllegalStateException("Tesseract runs in the OCR child process");
+    }
+
+    @Override
+    public void setPageSegMode(int mode) {
+        pageSegMode = mode;
+    }
+
+    @Override
+    public void setVariable(String key, String value) {
+        variables.put(key, value);
+    }
+
+    @Override
+    void setDeadline(OcrDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public String doOCR(File imageFile) throws TesseractException {
+        return recognize(imageFile.getAbsolutePath(), null);
+    }
+
+    /**
+     * Writes the page {@code image} belongs to as a PNG, unless this engine
+     * wrote it for the previous call, and sends the child the rectangle
+     * {@code image} covers on it. Regions cut from a page with getSubimage
+     * share its raster, so all regions an engine reads from one page are
+     * served from a single file.
+     */
+    @Override
+    public String doOCR(BufferedImage image) throws TesseractException {
+        WritableRaster raster = image.getRaster();
+        WritableRaster page = raster;
+        while (page.getParent() instanceof WritableRaster parent
+                && parent.getMinX() == 0 && parent.getMinY() == 0) {
+            page = parent;
+        }
+        if (page == raster) {
+            return recognize(pageFile(image, page).toString(), null);
+        }
+        // Offset of the region on its page, both measured from the shared data buffer
+        Rectangle region = new Rectangle(
+                raster.getMinX() - raster.getSampleModelTranslateX() + page.getSampleModelTranslateX(),
+                raster.getMinY() - raster.getSampleModelTranslateY() + page.getSampleModelTranslateY(),
+                image.getWidth(), image.getHeight());
+        BufferedImage whole = new BufferedImage(image.getColorModel(), page, image.isAlphaPremultiplied(), null);
+        return recognize(pageFile(whole, page).toString(), region);
+    }
+
+    /**
+     * @return the file holding {@code page}, written now if it isn't the one
+     *         written last; the previous file is deleted
+     */
+    private Path pageFile(BufferedImage image, Raster page) throws TesseractException {
+        if (pageFile != null && writtenPage.get() == page) {
+            return pageFile;
+        }
+        deletePageFile();
+        try {
+            pageFile = properties.getImageDir().isBlank()
+                    ? Files.createTempFile("kyc-ocr-", ".png")
+                    : Files.createTempFile(Path.of(properties.getImageDir()), "kyc-ocr-", ".png");
+            ImageIO.write(image, "png", pageFile.toFile());
+        } catch (IOException e) {
+            deletePageFile();
+            throw new TesseractException(e);
+        }
+        writtenPage = new WeakReference<>(page);
+        return pageFile;
+    }
+
+    private void deletePageFile() {
+        if (pageFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pageFile);
+        } catch (IOException e) {
+            log.warn("Could not delete OCR image {}: {}", pageFile, e.toString());
+        }
+        pageFile = null;
+        writtenPage = null;
+    }
+
+    /**
+     * Starts the child and waits until its model is loaded.
+     */
+    @Override
+    void load() {
+        ensureRunning();
+    }
+
+    /**
+     * Closes the child's stdin, which ends it; kills it if it doesn't exit.
+     */
+    @Override
+    void close() {
+        stop();
+        deletePageFile();
+    }
+
+    /**
+     * @return pid of the running child, -1 if none
+     */
+    long pid() {
+        return process != null && process.isAlive() ? process.pid() : -1;
+    }
+
+    private String recognize(String path, Rectangle region) throws TesseractException {
+        setWordConfidences(new float[0]);
+        OcrDeadline current = deadline;
+        long timeoutMillis = 0;
+        if (current != null) {
+            if (current.isExpired()) {
+                throw new OcrTimeoutException("OCR deadline passed before recognition started");
+            }
+            timeoutMillis = Math.max(1, current.remainingMillis());
+        }
+        ensureRunning();
+
+        Process child = process;
+        ScheduledFuture<?> kill = current == null ? null
+                : WATCHDOG.schedule(child::destroyForcibly, timeoutMillis + properties.getKillGrace().toMillis(),
+                        TimeUnit.MILLISECONDS);
+        OcrWorkerProcess.Response response;
+        try {
+            OcrWorkerProcess.writeRequest(requests,
+                    new OcrWorkerProcess.Request(path, region, pageSegMode, variables, timeoutMillis));
+            response = OcrWorkerProcess.readResponse(responses);
+        } catch (IOException e) {
+            // Crashed or killed; the next call starts a new child
+            kill(child);
+            if (current != null && current.isExpired()) {
+                throw new OcrTimeoutException("OCR process killed at its deadline");
+            }
+            throw new OcrEngineUnavailableException("OCR process " + child.pid() + " exited during recognition", e);
+        } finally {
+            if (kill != null) {
+                kill.cancel(false);
+            }
+        }
+
+        if (response.status() == OcrWorkerProcess.TIMED_OUT) {
+            throw new OcrTimeoutException(response.text());
+        }
+        if (response.status() != OcrWorkerProcess.OK) {
+            throw new TesseractException(response.text());
+        }
+        setWordConfidences(response.wordConfidences());
+        return response.text();
+    }
+
+    private void ensureRunning() {
+        if (process != null) {
+            if (process.isAlive()) {
+                return;
+            }
+            log.warn("OCR process {} exited with code {}, restarting it", process.pid(), process.exitValue());
+            restarts.increment();
+            stop();
+        }
+        start();
+    }
+
+    private void start() {
+        Process child;
+        try {
+            child = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start OCR process: " + command, e);
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(child.getInputStream()));
+        ScheduledFuture<?> kill = WATCHDOG.schedule(child::destroyForcibly,
+                properties.getStartTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            OcrWorkerProcess.Response ready = OcrWorkerProcess.readResponse(in);
+            if (ready.status() != OcrWorkerProcess.OK) {
+                throw new IOException(ready.text());
+            }
+        } catch (IOException e) {
+            kill(child);
+            throw new IllegalStateException("OCR process did not start within " + properties.getStartTimeout(), e);
+        } finally {
+            kill.cancel(false);
+        }
+        process = child;
+        requests = new DataOutputStream(new BufferedOutputStream(child.getOutputStream()));
+        responses = in;
+        log.debug("Started OCR process {}", child.pid());
+    }
+
+    private void stop() {
+        if (process == null) {
+            return;
+        }
+        Process child = process;
+        process = null;
+        try {
+            requests.close();
+        } catch (IOException ignored) {
+            // already gone
+        }
+        try {
+            if (!child.waitFor(1, TimeUnit.SECONDS)) {
+                kill(child);
+            }
+        } catch (InterruptedException e) {
+            child.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Kills the child and waits briefly until the OS has it gone. */
+    private static void kill(Process child) {
+        try {
+            child.destroyForcibly().waitFor(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
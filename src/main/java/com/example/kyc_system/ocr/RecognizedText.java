@@ -0,0 +1,209 @@
+package com.example.kyc_system.ocr;
+
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text recognised by Tesseract together with the confidence (0-100) of each
+ * of its words, so extracted fields can be scored.
+ *
+ * Engines from {@link TesseractEnginePool} report the confidences of the
+ * recognition that produced the text; any other {@link ITesseract} is asked
+ * for its words separately, which recognises the image a second time.
+ *
+ * @param text  recognised text
+ * @param words its words in text order; empty if confidences are unknown
+ */
+public record RecognizedText(String text, List<Word> words) {
+
+    /** Shortest word (letters and digits) that counts towards a field's confidence. */
+    private static final int MIN_WORD_LENGTH = 3;
+
+    /**
+     * @param text       word as recognised
+     * @param confidence Tesseract's confidence in it, 0-100
+     */
+    public record Word(String text, float confidence) {
+    }
+
+    /**
+     * @param text recognised text, confidences unknown
+     */
+    public static RecognizedText of(String text) {
+        return new RecognizedText(text == null ? "" : text, List.of());
+    }
+
+    /**
+     * Recognises an image.
+     */
+    public static RecognizedText recognize(ITesseract engine, BufferedImage image) throws TesseractException {
+        String text = engine.doOCR(image);
+        if (engine instanceof PersistentTesseract persistent) {
+            return withConfidences(text, persistent.wordConfidences());
+        }
+        List<Word> words = new ArrayList<>();
+        List<net.sourceforge.tess4j.Word> recognised = engine.getWords(image,
+                ITessAPI.TessPageIteratorLevel.RIL_WORD);
+        if (recognised != null) {
+            for (net.sourceforge.tess4j.Word word : recognised) {
+                words.add(new Word(word.getText().strip(), word.getConfidence()));
+            }
+        }
+        return new RecognizedText(text == null ? "" : text, words);
+    }
+
+    /**
+     * Recognises an image file; confidences are only known for pooled engines.
+     */
+    public static RecognizedText recognize(ITesseract engine, File file) throws TesseractException {
+        String text = engine.doOCR(file);
+        if (engine instanceof PersistentTesseract persistent) {
+            return withConfidences(text, persistent.wordConfidences());
+        }
+        return of(text);
+    }
+
+    /**
+     * Pairs Tesseract's per-word confidences with the whitespace-separated
+     * words of its text; if the counts differ they can't be paired and the
+     * confidences are dropped.
+     */
+    static RecognizedText withConfidences(String text, float[] confidences) {
+        if (text == null || text.isBlank()) {
+            return of(text);
+        }
+        String[] tokens = text.strip().split("\\s+");
+        if (tokens.length != confidences.length) {
+            return of(text);
+        }
+        List<Word> words = new ArrayList<>(tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            words.add(new Word(tokens[i], confidences[i]));
+        }
+        return new RecognizedText(text, words);
+    }
+
+    /**
+     * @param parts     texts in order
+     * @param separator put between the texts
+     * @return the texts joined, with all their words
+     */
+    public static RecognizedText join(List<RecognizedText> parts, String separator) {
+        StringBuilder text = new StringBuilder();
+        List<Word> words = new ArrayList<>();
+        for (RecognizedText part : parts) {
+            if (!text.isEmpty()) {
+                text.append(separator);
+            }
+            text.append(part.text());
+            words.addAll(part.words());
+        }
+        return new RecognizedText(text.toString(), words);
+    }
+
+    /**
+     * Confidence of an extracted field: the lowest confidence among the words
+     * the value was read from. Extraction normalises values (dates become
+     * yyyy-MM-dd, number groups are joined), so a word counts if each of its
+     * letter/digit runs occurs in the value; words shorter than three
+     * characters are ignored, they match too easily.
+     *
+     * @param value extracted value
+     * @return 0-100, or null if there is no value or no word could be matched
+     */
+    public Float confidence(String value) {
+        return lowest(words, value);
+    }
+
+    /**
+     * Confidence of a field read from one line of the text (see
+     * {@link FieldExtractor.Fields}): as {@link #confidence(String)}, but only
+     * that line's words count, so a better or worse read of the same value
+     * elsewhere on the page doesn't decide it. If the words can't be placed
+     * on lines (their count differs from the text's), all of them count.
+     *
+     * @param value extracted value
+     * @param line  index of the line it was read from, lines split at '\n'
+     * @return 0-100, or null if there is no value or no word could be matched
+     */
+    public Float confidence(String value, int line) {
+        if (line < 0) {
+            return null;
+        }
+        return lowest(lineWords(line), value);
+    }
+
+    private List<Word> lineWords(int line) {
+        String[] lines = text.split("\n", -1);
+        if (line >= lines.length) {
+            return List.of();
+        }
+        int first = 0;
+        int count = 0;
+        int total = 0;
+        for (int i = 0; i < lines.length; i++) {
+            int tokens = tokenCount(lines[i]);
+            if (i < line) {
+                first += tokens;
+            } else if (i == line) {
+                count = tokens;
+            }
+            total += tokens;
+        }
+        return total == words.size() ? words.subList(first, first + count) : words;
+    }
+
+    private static int tokenCount(String line) {
+        String stripped = line.strip();
+        return stripped.isEmpty() ? 0 : stripped.split("\\s+").length;
+    }
+
+    private static Float lowest(List<Word> words, String value) {
+        if (value == null || words.isEmpty()) {
+            return null;
+        }
+        String compact = alphanumeric(value);
+        if (compact.isEmpty()) {
+            return null;
+        }
+        Float lowest = null;
+        for (Word word : words) {
+            if (belongsTo(word.text(), compact) && (lowest == null || word.confidence() < lowest)) {
+                lowest = word.confidence();
+            }
+        }
+        return lowest;
+    }
+
+    private static boolean belongsTo(String word, String compactValue) {
+        String[] runs = word.toUpperCase().split("[^\\p{L}\\p{N}]+");
+        int length = 0;
+        for (String run : runs) {
+            if (run.isEmpty()) {
+                continue;
+            }
+            if (!compactValue.contains(run)) {
+                return false;
+            }
+            length += run.length();
+        }
+        return length >= MIN_WORD_LENGTH || length > 0 && length == compactValue.length();
+    }
+
+    private static String alphanumeric(String value) {
+        StringBuilder compact = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                compact.append(Character.toUpperCase(c));
+            }
+        }
+        return compact.toString();
+    }
+}
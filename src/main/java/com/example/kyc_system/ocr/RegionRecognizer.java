@@ -0,0 +1,183 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.enums.OcrField;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.springframework.stereotype.Component;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Region-of-interest OCR: recognises only the rectangles of a document
+ * type's profile (kyc.ocr.roi.profiles), each with its own page segmentation
+ * mode and character whitelist, instead of the whole page.
+ *
+ * Regions of one document run in parallel, each on an engine borrowed from
+ * {@link TesseractEnginePool}; the engine's settings are restored before it
+ * goes back to the pool. Time per region is recorded as kyc.ocr.region
+ * tagged with field=&lt;name&gt;.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class RegionRecognizer {
+
+    private static final String WHITELIST = "tessedit_char_whitelist";
+
+    private final TesseractEnginePool enginePool;
+    private final KycProperties.Roi properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    public RegionRecognizer(TesseractEnginePool enginePool, KycProperties kycProperties,
+            MeterRegistry meterRegistry) {
+        this.enginePool = enginePool;
+        this.properties = kycProperties.getOcr().getRoi();
+        this.meterRegistry = meterRegistry;
+        this.executor = properties.getParallelism() > 1
+                ? Executors.newFixedThreadPool(properties.getParallelism(), daemonThreads())
+                : null;
+    }
+
+    /**
+     * @param type document type
+     * @return the type's regions, or an empty list if ROI OCR is off or the
+     *         type has no profile
+     */
+    public List<KycProperties.Region> profile(DocumentType type) {
+        if (!properties.isEnabled()) {
+            return List.of();
+        }
+        return properties.getProfiles().getOrDefault(type, List.of());
+    }
+
+    /**
+     * Recognises every region of {@code regions} on {@code page}.
+     *
+     * @param page    preprocessed page image
+     * @param regions regions to read; see {@link #profile(DocumentType)}
+     * @return recognised text per field, with word confidences; regions of the
+     *         same field are joined in profile order
+     * @throws TesseractException if a region cannot be recognised
+     */
+    public Map<OcrField, RecognizedText> recognize(BufferedImage page, List<KycProperties.Region> regions)
+            throws TesseractException {
+        List<Future<RecognizedText>> futures = new ArrayList<>(regions.size());
+        List<RecognizedText> texts = new ArrayList<>(regions.size());
+        if (executor == null) {
+            for (KycProperties.Region region : regions) {
+                texts.add(recognizeRegion(page, region));
+            }
+        } else {
+            for (KycProperties.Region region : regions) {
+                futures.add(executor.submit(OcrDeadline.propagate(() -> recognizeRegion(page, region))));
+            }
+            try {
+                for (Future<RecognizedText> future : futures) {
+                    texts.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new TesseractException(e);
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof OcrTimeoutException timeout) {
+                    throw timeout;
+                }
+                if (e.getCause() instanceof TesseractException tesseractException) {
+                    throw tesseractException;
+                }
+                throw new TesseractException(e.getCause());
+            }
+        }
+
+        Map<OcrField, RecognizedText> result = new EnumMap<>(OcrField.class);
+        for (int i = 0; i < regions.size(); i++) {
+            result.merge(regions.get(i).getField(), texts.get(i), (a, b) -> RecognizedText.join(List.of(a, b), "\n"));
+        }
+        return result;
+    }
+
+    private RecognizedText recognizeRegion(BufferedImage page, KycProperties.Region region)
+            throws TesseractException {
+        Rectangle bounds = toPixels(region, page.getWidth(), page.getHeight());
+        if (bounds.isEmpty()) {
+            return RecognizedText.of("");
+        }
+        BufferedImage crop = page.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return enginePool.execute(engine -> {
+                apply(engine, region.getPageSegMode(), region.getWhitelist());
+                try {
+                    return RecognizedText.recognize(engine, crop);
+                } finally {
+                    apply(engine, -1, null);
+                }
+            });
+        } finally {
+            sample.stop(Timer.builder("kyc.ocr.region")
+                    .description("Time to recognise one region of interest")
+                    .tag("field", region.getField().name())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static void apply(ITesseract engine, int pageSegMode, String whitelist) {
+        engine.setPageSegMode(pageSegMode);
+        engine.setVariable(WHITELIST, whitelist == null ? "" : whitelist);
+    }
+
+    /**
+     * Converts relative region coordinates to a pixel rectangle clipped to the page.
+     */
+    static Rectangle toPixels(KycProperties.Region region, int pageWidth, int pageHeight) {
+        int x = (int) Math.round(region.getX() * pageWidth);
+        int y = (int) Math.round(region.getY() * pageHeight);
+        int width = (int) Math.round(region.getWidth() * pageWidth);
+        int height = (int) Math.round(region.getHeight() * pageHeight);
+        return new Rectangle(x, y, width, height).intersection(new Rectangle(0, 0, pageWidth, pageHeight));
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "kyc-ocr-region-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Region OCR threads still busy at shutdown");
+                executor.shutdownNow();
+            }
+        }
+    }
+}
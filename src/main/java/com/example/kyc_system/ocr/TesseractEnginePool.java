@@ -0,0 +1,339 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.enums.OcrEngineMode;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of initialised Tesseract engines.
+ *
+ * - At most kyc.ocr.pool-size engines exist at once (default: one per worker
+ * thread), so native memory is predictable: pool size × one loaded model.
+ * - Only nodes that run workers have a pool (like the rest of the OCR stack);
+ * engines are loaded when the application starts, so the first documents
+ * don't pay for loading the model either.
+ * - A thread gets back the engine it used last whenever that one is idle
+ * (per-thread affinity), which keeps the engine's memory warm in that
+ * thread's CPU cache.
+ * - After a failed OCR call the engine is probed with a blank image and
+ * replaced if the probe fails too; engines are also replaced after
+ * kyc.ocr.max-uses-per-engine documents.
+ * - Under an {@link OcrDeadline}, no engine is lent once it has passed, and
+ * the waiting for one ends with it.
+ * - With kyc.ocr.engine-mode=PROCESS every engine is a child process
+ * ({@link ProcessTesseract}); a child that crashed is started again before
+ * its engine's next call. kyc.ocr.engine.cpu then only covers this JVM's side.
+ *
+ * Metrics: kyc.ocr.pool.engines / kyc.ocr.pool.idle gauges,
+ * kyc.ocr.pool.wait (time to get an engine), kyc.ocr.pool.borrow (tagged
+ * affinity=hit|miss), kyc.ocr.engine.load (model load time),
+ * kyc.ocr.engine.cpu (CPU time per OCR call) and kyc.ocr.engine.replaced
+ * (tagged reason=unhealthy|max-uses), plus kyc.ocr.process.restarts in
+ * PROCESS mode.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class TesseractEnginePool {
+
+    /**
+     * Work done with a borrowed engine. The engine must not escape the call.
+     */
+    @FunctionalInterface
+    public interface EngineTask<T> {
+        T run(ITesseract engine) throws TesseractException;
+    }
+
+    private static final ThreadMXBean THREAD_MX = ManagementFactory.getThreadMXBean();
+    private static final BufferedImage PROBE_IMAGE = new BufferedImage(32, 32, BufferedImage.TYPE_BYTE_GRAY);
+
+    private final Supplier<PersistentTesseract> engineFactory;
+    private final KycProperties.Ocr properties;
+    private final int poolSize;
+
+    /** Permits = engines that may be lent out; bounds the number of live engines. */
+    private final Semaphore permits;
+    private final BlockingDeque<Engine> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger liveEngines = new AtomicInteger();
+    private final AtomicInteger nextEngineId = new AtomicInteger();
+    private final ThreadLocal<Engine> lastUsed = new ThreadLocal<>();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    private final Timer waitTimer;
+    private final Timer loadTimer;
+    private final Timer cpuTimer;
+    private final Counter affinityHits;
+    private final Counter affinityMisses;
+    private final Counter replacedUnhealthy;
+    private final Counter replacedMaxUses;
+
+    @Autowired
+    public TesseractEnginePool(@Value("${tesseract.datapath}") String dataPath, KycProperties kycProperties,
+            MeterRegistry meterRegistry) {
+        this(engineFactory(dataPath, kycProperties.getOcr(), meterRegistry), kycProperties, meterRegistry);
+    }
+
+    private static Supplier<PersistentTesseract> engineFactory(String dataPath, KycProperties.Ocr properties,
+            MeterRegistry meterRegistry) {
+        Counter restarts = Counter.builder("kyc.ocr.process.restarts")
+                .description("OCR child processes restarted after crashing or being killed")
+                .register(meterRegistry);
+        return () -> {
+            PersistentTesseract tesseract = properties.getEngineMode() == OcrEngineMode.PROCESS
+                    ? new ProcessTesseract(dataPath, properties.getLanguage(), properties.getProcess(), restarts)
+                    : new PersistentTesseract(dataPath, properties.getLanguage());
+            // Preprocessed images carry no resolution metadata
+            tesseract.setVariable("user_defined_dpi", String.valueOf(properties.getPreprocess().getTargetDpi()));
+            return tesseract;
+        };
+    }
+
+    TesseractEnginePool(Supplier<PersistentTesseract> engineFactory, KycProperties kycProperties,
+            MeterRegistry meterRegistry) {
+        this.engineFactory = engineFactory;
+        this.properties = kycProperties.getOcr();
+        this.poolSize = properties.effectivePoolSize(kycProperties.getWorker().getPoolSize());
+        this.permits = new Semaphore(poolSize, true);
+
+        Gauge.builder("kyc.ocr.pool.engines", liveEngines, AtomicInteger::get)
+                .description("Initialised Tesseract engines")
+                .register(meterRegistry);
+        Gauge.builder("kyc.ocr.pool.idle", idle, BlockingDeque::size)
+                .description("Tesseract engines waiting for work")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("kyc.ocr.pool.wait")
+                .description("Time spent waiting for a free Tesseract engine")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("kyc.ocr.engine.load")
+                .description("Time to create a Tesseract engine and load its model")
+                .register(meterRegistry);
+        this.cpuTimer = Timer.builder("kyc.ocr.engine.cpu")
+                .description("CPU time spent in OCR calls on a borrowed engine")
+                .register(meterRegistry);
+        this.affinityHits = Counter.builder("kyc.ocr.pool.borrow").tag("affinity", "hit")
+                .description("Engine borrows, by whether the thread got its previous engine back")
+                .register(meterRegistry);
+        this.affinityMisses = Counter.builder("kyc.ocr.pool.borrow").tag("affinity", "miss")
+                .description("Engine borrows, by whether the thread got its previous engine back")
+                .register(meterRegistry);
+        this.replacedUnhealthy = Counter.builder("kyc.ocr.engine.replaced").tag("reason", "unhealthy")
+                .description("Tesseract engines discarded and replaced")
+                .register(meterRegistry);
+        this.replacedMaxUses = Counter.builder("kyc.ocr.engine.replaced").tag("reason", "max-uses")
+                .description("Tesseract engines discarded and replaced")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the whole pool up front when the Tesseract engine is configured.
+     * Failure (e.g. native library missing) is not fatal: engines are then
+     * created on first use and the error surfaces there.
+     */
+    @PostConstruct
+    public void warmUp() {
+        if (!"tesseract".equals(properties.getEngine())) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            while (liveEngines.get() < poolSize) {
+                idle.offerLast(createEngine());
+            }
+            log.info("Tesseract engine pool warmed up: engines={}, language={}, took={}ms", poolSize,
+                    properties.getLanguage(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Throwable t) {
+            log.warn("Could not pre-load Tesseract engines, they will be created on first use: {}", t.toString());
+        }
+    }
+
+    /**
+     * Runs {@code task} with an engine from the pool.
+     *
+     * @param task OCR work to run
+     * @return the task's result
+     * @throws TesseractException if the task fails or no engine frees up within
+     *                            kyc.ocr.borrow-timeout
+     */
+    public <T> T execute(EngineTask<T> task) throws TesseractException {
+        OcrDeadline deadline = OcrDeadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            throw new OcrTimeoutException("OCR deadline passed before an engine was borrowed");
+        }
+        Engine engine = borrow(deadline);
+        boolean failed = true;
+        long cpuStart = threadCpuNanos();
+        engine.tesseract.setDeadline(deadline);
+        try {
+            T result = task.run(engine.tesseract);
+            failed = false;
+            return result;
+        } finally {
+            engine.tesseract.setDeadline(null);
+            long cpu = threadCpuNanos() - cpuStart;
+            cpuNanos.add(cpu);
+            cpuTimer.record(cpu, TimeUnit.NANOSECONDS);
+            release(engine, failed);
+        }
+    }
+
+    /**
+     * CPU time of the calling thread; the engine runs on it, so the difference
+     * around a task is the OCR's own CPU cost. 0 where the JVM can't tell.
+     */
+    static long threadCpuNanos() {
+        return THREAD_MX.isCurrentThreadCpuTimeSupported() ? THREAD_MX.getCurrentThreadCpuTime() : 0;
+    }
+
+    private Engine borrow(OcrDeadline deadline) throws TesseractException {
+        long start = System.nanoTime();
+        long waitMillis = properties.getBorrowTimeout().toMillis();
+        if (deadline != null) {
+            waitMillis = Math.min(waitMillis, deadline.remainingMillis());
+        }
+        try {
+            if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                if (deadline != null && deadline.isExpired()) {
+                    throw new OcrTimeoutException("OCR deadline passed while waiting for an engine");
+                }
+                throw new OcrEngineUnavailableException("No OCR engine became free within " + properties.getBorrowTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrEngineUnavailableException("Interrupted while waiting for an OCR engine", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            Engine preferred = lastUsed.get();
+            if (preferred != null && idle.remove(preferred)) {
+                affinityHits.increment();
+                return preferred;
+            }
+            affinityMisses.increment();
+            Engine engine = idle.pollFirst();
+            return engine != null ? engine : createEngine();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(Engine engine, boolean failed) {
+        try {
+            engine.uses++;
+            if (failed && !isHealthy(engine)) {
+                replacedUnhealthy.increment();
+                destroy(engine);
+            } else if (properties.getMaxUsesPerEngine() > 0 && engine.uses >= properties.getMaxUsesPerEngine()) {
+                replacedMaxUses.increment();
+                destroy(engine);
+            } else {
+                lastUsed.set(engine);
+                idle.offerFirst(engine);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * A failed call may just be a bad document; only an engine that can't OCR
+     * a blank image either is considered broken.
+     */
+    private boolean isHealthy(Engine engine) {
+        try {
+            engine.tesseract.doOCR(PROBE_IMAGE);
+            return true;
+        } catch (Throwable t) {
+            log.warn("Tesseract engine {} failed its health check, replacing it: {}", engine.id, t.toString());
+            return false;
+        }
+    }
+
+    private Engine createEngine() {
+        long start = System.nanoTime();
+        PersistentTesseract tesseract = engineFactory.get();
+        tesseract.load();
+        loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Engine engine = new Engine(nextEngineId.incrementAndGet(), tesseract);
+        liveEngines.incrementAndGet();
+        log.debug("Created Tesseract engine {}", engine.id);
+        return engine;
+    }
+
+    private void destroy(Engine engine) {
+        liveEngines.decrementAndGet();
+        try {
+            engine.tesseract.close();
+        } catch (Throwable t) {
+            log.warn("Failed to close Tesseract engine {}: {}", engine.id, t.toString());
+        }
+    }
+
+    /** Number of engines currently alive. */
+    public int getEngineCount() {
+        return liveEngines.get();
+    }
+
+    /** CPU time (ns) spent in OCR calls since start. */
+    public long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    /** Number of engines waiting for work. */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Frees idle engines. Engines still lent out belong to threads that missed
+     * the worker drain deadline and are left to the JVM.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Engine> engines = new ArrayList<>();
+        idle.drainTo(engines);
+        engines.forEach(this::destroy);
+        log.info("Tesseract engine pool closed: engines={}", engines.size());
+    }
+
+    private static final class Engine {
+        private final int id;
+        private final PersistentTesseract tesseract;
+        private int uses;
+
+        private Engine(int id, PersistentTesseract tesseract) {
+            this.id = id;
+            this.tesseract = tesseract;
+        }
+    }
+}
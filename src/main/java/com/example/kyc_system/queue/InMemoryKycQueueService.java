@@ -0,0 +1,123 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory queue for KYC request processing.
+ * Queued IDs only live in this JVM — lost work is recovered from the
+ * database on startup by {@link KycQueueRecoveryService}.
+ *
+ * Requests are kept in one sub-queue per tenant and handed out by weighted
+ * round-robin ({@link WeightedFairQueue}), weights coming from the tenant's
+ * plan. A bulk submission of one tenant no longer starves everybody else.
+ * Each tenant is also held to its concurrency limit
+ * ({@link TenantConcurrencyLimiter}) when requests are dispatched.
+ */
+@Service
+@ConditionalOnProperty(prefix = "kyc.queue", name = "backend", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryKycQueueService implements KycQueueService {
+
+    /**
+     * Bounded, thread-safe per-tenant queue — stores KYC request IDs waiting to
+     * be processed. Uploads are throttled by {@link KycQueueBackpressure} well
+     * before this bound is reached.
+     */
+    private final WeightedFairQueue queue;
+    private final TenantQueuePolicy tenantQueuePolicy;
+    private final TenantConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * Concurrency limit of every tenant with queued work, resolved on push so
+     * that dispatch never reads tenant settings under the queue lock.
+     */
+    private final Map<String, Integer> concurrencyLimits = new ConcurrentHashMap<>();
+
+    /**
+     * Tenant of every request handed to a worker and not yet completed. A list,
+     * because a re-queued duplicate may be dispatched while the original runs.
+     */
+    private final Map<Long, List<String>> dispatched = new ConcurrentHashMap<>();
+
+    public InMemoryKycQueueService(KycProperties kycProperties, TenantQueuePolicy tenantQueuePolicy,
+            TenantConcurrencyLimiter concurrencyLimiter) {
+        // API and worker would sit in different JVMs with separate queues — nothing would ever be processed
+        if (kycProperties.getMode() != KycRunMode.ALL) {
+            throw new IllegalStateException("kyc.mode=" + kycProperties.getMode()
+                    + " needs a durable queue backend, set kyc.queue.backend to postgres or redis");
+        }
+        this.queue = new WeightedFairQueue(kycProperties.getQueue().getCapacity());
+        this.tenantQueuePolicy = tenantQueuePolicy;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Pushes a KYC request ID onto its tenant's sub-queue.
+     * This is a non-blocking operation; a full queue refuses the ID.
+     *
+     * @param requestId the ID of the request to process
+     * @param tenantId tenant owning the request
+     * @return false if the queue is full
+     */
+    @Override
+    public boolean push(Long requestId, String tenantId) {
+        log.info("Pushing request to queue: requestId={}, tenantId={}", requestId, tenantId);
+        // Both may hit the database on a cache miss — resolve them before taking the queue lock
+        int weight = tenantQueuePolicy.weightOf(tenantId);
+        concurrencyLimits.put(TenantConcurrencyLimiter.key(tenantId), tenantQueuePolicy.maxConcurrentOf(tenantId));
+        if (!queue.offer(tenantId, requestId, weight)) {
+            log.warn("Queue full, request not queued: requestId={}, size={}", requestId, queue.size());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Blocks until a request ID is available, then returns it. Used by worker
+     * threads. Tenants at their concurrency limit are skipped; their requests
+     * stay queued until {@link #complete(Long)} frees a slot. A tenant's limit
+     * is the one resolved at its latest push.
+     */
+    @Override
+    public Long poll() throws InterruptedException {
+        String[] tenant = new String[1];
+        Long requestId = queue.take(tenantId -> {
+            tenant[0] = tenantId;
+            return concurrencyLimiter.tryAcquire(tenantId, concurrencyLimits.getOrDefault(tenantId, 0));
+        });
+        dispatched.compute(requestId, (id, tenants) -> {
+            List<String> list = tenants != null ? tenants : new ArrayList<>(1);
+            list.add(tenant[0]);
+            return list;
+        });
+        log.info("Polled request from queue: requestId={}, remainingSize={}", requestId, queue.size());
+        return requestId;
+    }
+
+    @Override
+    public void complete(Long requestId) {
+        String[] tenant = new String[1];
+        dispatched.computeIfPresent(requestId, (id, tenants) -> {
+            tenant[0] = tenants.remove(0);
+            return tenants.isEmpty() ? null : tenants;
+        });
+        if (tenant[0] != null) {
+            concurrencyLimiter.release(tenant[0]);
+            queue.wakeUp();
+        }
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+}
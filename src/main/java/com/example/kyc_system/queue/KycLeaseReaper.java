@@ -0,0 +1,119 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.enums.KycStatus;
+import com.example.kyc_system.repository.KycRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Keeps PROCESSING requests honest across nodes using a lease on
+ * {@code KycRequest.processingStartedAt}.
+ *
+ * - Heartbeat: every kyc.worker.heartbeat-interval this node renews the
+ * lease of every request its workers are still processing.
+ * - Reaper: every kyc.worker.reaper-interval, requests whose lease is older
+ * than kyc.worker.lease-timeout are reset to SUBMITTED and written to the
+ * queue outbox, in bulk. Each reap uses up one retry of kyc.retry.max-retries;
+ * a request without retries left is marked FAILED and dead-lettered instead,
+ * so a document that crashes its worker doesn't take down node after node.
+ * Requests held by live workers on other nodes are left alone.
+ *
+ * Exposes kyc.lease.reaped (requests re-queued by the reaper) and
+ * kyc.lease.dead-lettered (requests given up on).
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class KycLeaseReaper {
+
+    private final KycRequestRepository repository;
+    private final KycWorker worker;
+    private final KycQueueOutbox queueOutbox;
+    private final KycProperties.Worker properties;
+    private final KycProperties.Retry retryProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reapedCounter;
+    private final Counter deadLetteredCounter;
+
+    public KycLeaseReaper(KycRequestRepository repository, KycWorker worker, KycQueueOutbox queueOutbox,
+            KycProperties kycProperties, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.worker = worker;
+        this.queueOutbox = queueOutbox;
+        this.properties = kycProperties.getWorker();
+        this.retryProperties = kycProperties.getRetry();
+        this.transactionTemplate = transactionTemplate;
+        this.reapedCounter = Counter.builder("kyc.lease.reaped")
+                .description("PROCESSING requests re-queued after their lease expired")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("kyc.lease.dead-lettered")
+                .description("PROCESSING requests failed and dead-lettered after their lease expired with no retries left")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renews the leases of the requests being processed on this node.
+     */
+    @Scheduled(fixedDelayString = "#{@kycProperties.worker.heartbeatInterval.toMillis()}")
+    public void renewLeases() {
+        List<Long> inFlight = worker.getInFlightRequestIds();
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        Integer renewed = transactionTemplate.execute(status -> repository.renewProcessingLeases(inFlight));
+        log.debug("Renewed processing leases: inFlight={}, renewed={}", inFlight.size(), renewed);
+    }
+
+    /**
+     * Re-queues every request whose lease has expired, one bounded batch per
+     * transaction; requests out of retries are dead-lettered instead.
+     *
+     * @return number of requests re-queued
+     */
+    @Scheduled(fixedDelayString = "#{@kycProperties.worker.reaperInterval.toMillis()}")
+    public int reapExpiredLeases() {
+        int batchSize = Math.max(1, properties.getReaperBatchSize());
+        int maxRetries = retryProperties.getMaxRetries();
+        // Leases are stamped by the database, so the cutoff is computed there too
+        long leaseSeconds = properties.getLeaseTimeout().toSeconds();
+        int requeued = 0;
+        int deadLettered = 0;
+        while (true) {
+            List<String> reaped = transactionTemplate.execute(
+                    status -> repository.reapExpiredProcessingLeases(leaseSeconds, maxRetries, batchSize));
+            if (reaped == null) {
+                break;
+            }
+            for (String status : reaped) {
+                if (KycStatus.FAILED.name().equals(status)) {
+                    deadLettered++;
+                } else {
+                    requeued++;
+                }
+            }
+            if (reaped.size() < batchSize) {
+                break;
+            }
+        }
+        if (requeued > 0) {
+            reapedCounter.increment(requeued);
+            queueOutbox.wakeUp();
+            log.warn("Re-queued {} PROCESSING request(s) with expired lease (older than {}s)", requeued, leaseSeconds);
+        }
+        if (deadLettered > 0) {
+            deadLetteredCounter.increment(deadLettered);
+            log.error("Dead-lettered {} PROCESSING request(s) whose lease expired with no retries left",
+                    deadLettered);
+        }
+        return requeued;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.exception.QueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for KYC uploads based on the processing backlog.
+ *
+ * The queue depth is sampled once per second (cheap for every backend, and
+ * exported as the kyc.queue.depth gauge). Uploads are refused once the depth
+ * reaches kyc.queue.high-watermark and accepted again only after it has fallen
+ * to kyc.queue.low-watermark, so clients don't flap around a single threshold.
+ *
+ * Retry-After is the time needed to drain the backlog down to the low
+ * watermark, using an exponentially weighted drain rate observed between
+ * samples.
+ */
+@Component
+@ConditionalOnRunMode(KycRunMode.API)
+@RequiredArgsConstructor
+@Slf4j
+public class KycQueueBackpressure {
+
+    static final long SAMPLE_INTERVAL_MS = 1000;
+
+    /** Weight of the newest drain-rate observation. */
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final KycQueueService queueService;
+    private final KycProperties kycProperties;
+    private final MeterRegistry meterRegistry;
+
+    /** Uploads admitted since the last sample — not yet visible in the sampled depth; failed ones are taken back. */
+    private final AtomicInteger admittedSinceSample = new AtomicInteger();
+
+    private volatile int depth;
+    private volatile boolean throttling;
+    private volatile double drainRatePerSecond;
+    private long lastSampleNanos;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("kyc.queue.depth", this, KycQueueBackpressure::getDepth)
+                .description("KYC requests waiting in the processing queue")
+                .register(meterRegistry);
+        Gauge.builder("kyc.queue.throttling", this, b -> b.isThrottling() ? 1 : 0)
+                .description("1 while uploads are refused because of the backlog")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("kyc.queue.rejected")
+                .description("Uploads refused with 429 because of the backlog")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Samples the queue depth and updates the drain rate and throttling state.
+     */
+    @Scheduled(fixedDelay = SAMPLE_INTERVAL_MS)
+    public void sample() {
+        update(queueService.size(), System.nanoTime());
+    }
+
+    synchronized void update(int newDepth, long nowNanos) {
+        if (lastSampleNanos != 0) {
+            double elapsedSeconds = (nowNanos - lastSampleNanos) / 1e9;
+            int drained = depth + admittedSinceSample.get() - newDepth;
+            if (elapsedSeconds > 0 && drained >= 0) {
+                double observed = drained / elapsedSeconds;
+                drainRatePerSecond = drainRatePerSecond == 0
+                        ? observed
+                        : EWMA_ALPHA * observed + (1 - EWMA_ALPHA) * drainRatePerSecond;
+            }
+        }
+        lastSampleNanos = nowNanos;
+        admittedSinceSample.set(0);
+        depth = newDepth;
+
+        KycProperties.Queue properties = kycProperties.getQueue();
+        if (!throttling && newDepth >= properties.getHighWatermark()) {
+            throttling = true;
+            log.warn("KYC backlog above high watermark, throttling uploads: depth={}, highWatermark={}",
+                    newDepth, properties.getHighWatermark());
+        } else if (throttling && newDepth <= properties.getLowWatermark()) {
+            throttling = false;
+            log.info("KYC backlog drained below low watermark, accepting uploads: depth={}", newDepth);
+        }
+    }
+
+    /**
+     * Admits an upload or refuses it while the backlog is above the limit.
+     * Uploads admitted between two samples count towards the depth, so a
+     * burst is cut off before the next sample.
+     *
+     * @throws QueueFullException with the computed Retry-After when throttling
+     */
+    public void checkAdmission() {
+        if (!throttling) {
+            int estimated = depth + admittedSinceSample.incrementAndGet();
+            if (estimated < kycProperties.getQueue().getHighWatermark()) {
+                return;
+            }
+            admittedSinceSample.decrementAndGet();
+            throttling = true;
+        }
+        rejectedCounter.increment();
+        throw new QueueFullException("KYC processing backlog is full. Please retry later.", retryAfterSeconds());
+    }
+
+    /**
+     * Takes back an admission whose upload then failed (validation, already
+     * verified, storage error) and so never reached the queue; otherwise it
+     * would count towards the depth and the drain rate as a queued request.
+     * Never goes below zero, in case a sample reset the count in between.
+     */
+    public void cancelAdmission() {
+        admittedSinceSample.updateAndGet(admitted -> Math.max(0, admitted - 1));
+    }
+
+    /**
+     * @return seconds until the backlog is expected to reach the low watermark
+     */
+    public long retryAfterSeconds() {
+        KycProperties.Queue properties = kycProperties.getQueue();
+        long max = Math.max(1, properties.getMaxRetryAfter().toSeconds());
+        if (drainRatePerSecond <= 0) {
+            return Math.min(max, Math.max(1, properties.getDefaultRetryAfter().toSeconds()));
+        }
+        int excess = Math.max(0, depth - properties.getLowWatermark());
+        long seconds = (long) Math.ceil(excess / drainRatePerSecond);
+        return Math.min(max, Math.max(1, seconds));
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public boolean isThrottling() {
+        return throttling;
+    }
+
+    double getDrainRatePerSecond() {
+        return drainRatePerSecond;
+    }
+}
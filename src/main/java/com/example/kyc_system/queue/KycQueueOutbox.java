@@ -0,0 +1,210 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.entity.KycOutbox;
+import com.example.kyc_system.repository.KycOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox between KYC submission and the processing queue.
+ *
+ * {@link #add(Long, String)} writes a kyc_outbox row in the submitting
+ * transaction, so a committed request is always either in the outbox or
+ * already in the queue — a crash right after commit no longer strands it in
+ * SUBMITTED until the next restart.
+ *
+ * A single relay thread per node moves rows to the queue in batches
+ * (lock with SKIP LOCKED → push → delete, one transaction). Rows the queue
+ * has no room for stay in the outbox for the next relay tick. It is woken right
+ * after each submitting commit, so hand-off stays in the millisecond range,
+ * and otherwise checks every kyc.queue.outbox-poll-interval for rows left by
+ * other nodes. Delivery is at-least-once; the CAS in processAsync makes a
+ * duplicate push harmless.
+ *
+ * Rows added with {@link #addDelayed(Long, String, Duration)} are only
+ * relayed once due, which makes the outbox the delay queue for retries.
+ *
+ * Metrics: kyc.outbox.relayed (pushed rows), kyc.outbox.handoff (commit or
+ * due time → push latency), kyc.outbox.batch (duration of one relay
+ * transaction).
+ */
+@Component
+@Slf4j
+public class KycQueueOutbox {
+
+    private final KycOutboxRepository outboxRepository;
+    private final KycQueueService queueService;
+    private final KycProperties.Queue properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Counter relayedCounter;
+    private final Timer handoffTimer;
+    private final Timer batchTimer;
+
+    private volatile boolean running = true;
+    private Thread relay;
+
+    public KycQueueOutbox(KycOutboxRepository outboxRepository, KycQueueService queueService,
+            KycProperties kycProperties, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.queueService = queueService;
+        this.properties = kycProperties.getQueue();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayedCounter = Counter.builder("kyc.outbox.relayed")
+                .description("KYC requests moved from the outbox to the queue")
+                .register(meterRegistry);
+        this.handoffTimer = Timer.builder("kyc.outbox.handoff")
+                .description("Time from submission commit to queue push")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("kyc.outbox.batch")
+                .description("Duration of one outbox relay batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a submitted request for hand-off to the queue. Must run inside
+     * the transaction that creates the request; the relay is woken once that
+     * transaction commits.
+     *
+     * @param requestId the ID of the request to process
+     * @param tenantId  tenant owning the request
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long requestId, String tenantId) {
+        outboxRepository.save(KycOutbox.builder()
+                .requestId(requestId)
+                .tenantId(tenantId)
+                .createdAt(LocalDateTime.now())
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    /**
+     * Records a request for hand-off once {@code delay} has passed. The row
+     * survives restarts, so this is the delay queue for retries. The delay
+     * is measured on the database clock, like the relay's due check.
+     *
+     * @param requestId the ID of the request to process
+     * @param tenantId  tenant owning the request
+     * @param delay     how long the relay must leave the row alone
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addDelayed(Long requestId, String tenantId, Duration delay) {
+        outboxRepository.insertDelayed(requestId, tenantId, delay.toMillis() / 1000.0);
+    }
+
+    /**
+     * Makes the relay check the outbox now instead of at the next poll.
+     */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        relay = new Thread(this::runLoop);
+        relay.setName("kyc-outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+        log.info("Started KYC outbox relay: batchSize={}", properties.getOutboxBatchSize());
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                // A full batch means more rows are probably waiting — go again right away
+                if (relayBatch() < properties.getOutboxBatchSize()) {
+                    wakeUps.tryAcquire(properties.getOutboxPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("KYC outbox relay failed, retrying", e);
+                try {
+                    Thread.sleep(properties.getOutboxPollInterval().toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pushes one batch of outbox rows to the queue and deletes the pushed
+     * ones. Stops at the first row the queue refuses; it and the rest of the
+     * batch are retried on the next tick.
+     *
+     * @return number of rows relayed
+     */
+    int relayBatch() {
+        long start = System.nanoTime();
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<KycOutbox> batch = outboxRepository.lockBatch(Math.max(1, properties.getOutboxBatchSize()));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<KycOutbox> pushed = new ArrayList<>(batch.size());
+            for (KycOutbox entry : batch) {
+                if (!queueService.push(entry.getRequestId(), entry.getTenantId())) {
+                    log.warn("Queue full, {} outbox row(s) left for the next relay",
+                            batch.size() - pushed.size());
+                    break;
+                }
+                pushed.add(entry);
+                LocalDateTime due = entry.getAvailableAt() != null ? entry.getAvailableAt() : entry.getCreatedAt();
+                handoffTimer.record(Duration.between(due, now));
+            }
+            if (!pushed.isEmpty()) {
+                outboxRepository.deleteAllInBatch(pushed);
+            }
+            return pushed.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        if (count > 0) {
+            relayedCounter.increment(count);
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Relayed {} outbox row(s) to the queue", count);
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (relay != null) {
+            relay.interrupt();
+        }
+    }
+}
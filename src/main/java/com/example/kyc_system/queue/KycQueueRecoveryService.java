@@ -1,68 +1,115 @@
 package com.example.kyc_system.queue;
 
-import com.example.kyc_system.entity.KycRequest;
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
 import com.example.kyc_system.enums.KycStatus;
 import com.example.kyc_system.repository.KycRequestRepository;
 
-import com.example.kyc_system.service.impl.KycOrchestrationService;
+import com.example.kyc_system.service.impl.KycProcessingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 /**
  * Recovers KYC requests that were lost from the in-memory queue due to a
  * JVM crash or system restart.
+ * With a durable queue backend only the PROCESSING check is needed.
  *
- * On application startup, queries the database for requests stuck in
- * SUBMITTED or PROCESSING status and re-queues them for the worker to pick up.
- *
+ * Runs asynchronously after startup, so the application is ready (and
+ * accepting uploads) right away:
  * - SUBMITTED requests are re-queued as-is (the CAS in processAsync will
- * transition them to PROCESSING).
- * - PROCESSING requests are reset back to SUBMITTED first (the crash
- * interrupted mid-OCR, so the CAS needs to succeed again).
+ * transition them to PROCESSING). IDs are streamed with a keyset scan in
+ * chunks of kyc.queue.recovery-chunk-size — no entities are loaded, and a
+ * chunk is only pushed once the in-memory queue has room for it.
+ * - PROCESSING requests whose lease has expired are handed to
+ * {@link KycLeaseReaper}, which resets them to SUBMITTED and re-queues them
+ * in bulk. Requests with a live lease belong to a worker on another node and
+ * are left alone; the periodic reaper picks them up if that node dies.
  *
  * This is idempotent: even if a request is already in the queue, the CAS
  * in
- * {@link KycOrchestrationService#processAsync}
+ * {@link KycProcessingService#processAsync}
  * guarantees only one execution proceeds.
  */
 @Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
 @RequiredArgsConstructor
 @Slf4j
 public class KycQueueRecoveryService {
 
     private final KycRequestRepository repository;
     private final KycQueueService queueService;
+    private final KycLeaseReaper leaseReaper;
+    private final KycProperties kycProperties;
 
+    @Async
     @EventListener(ApplicationReadyEvent.class)
-    @Transactional
     public void recoverStuckRequests() {
-        // 1. Re-queue SUBMITTED requests (no status change needed)
-        List<KycRequest> submitted = repository.findByStatus(KycStatus.SUBMITTED.name());
-        for (KycRequest req : submitted) {
-            queueService.push(req.getId());
-            log.info("Recovered SUBMITTED request id={} back into queue", req.getId());
+        try {
+            // 1. Re-queue SUBMITTED requests (no status change needed).
+            // Durable backends still hold them, so the rescan is skipped.
+            int submitted = queueService.isDurable() ? 0 : requeueSubmitted();
+
+            // 2. PROCESSING requests are only taken back once their lease has expired;
+            // requests still being worked on by live nodes keep running.
+            int reaped = leaseReaper.reapExpiredLeases();
+
+            int total = submitted + reaped;
+            if (total > 0) {
+                log.info("Queue recovery complete: re-queued {} request(s)", total);
+            } else {
+                log.info("Queue recovery: no stuck requests found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Queue recovery interrupted");
         }
+    }
 
-        // 2. Reset PROCESSING → SUBMITTED and re-queue
-        // These were mid-OCR when the crash happened; CAS needs SUBMITTED to proceed.
-        List<KycRequest> processing = repository.findByStatus(KycStatus.PROCESSING.name());
-        for (KycRequest req : processing) {
-            req.setStatus(KycStatus.SUBMITTED.name());
-            queueService.push(req.getId());
-            log.info("Reset PROCESSING→SUBMITTED and recovered request id={}", req.getId());
+    /**
+     * Streams the IDs of all SUBMITTED requests into the queue chunk by chunk.
+     *
+     * @return number of requests re-queued
+     */
+    int requeueSubmitted() throws InterruptedException {
+        int chunkSize = Math.max(1, kycProperties.getQueue().getRecoveryChunkSize());
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            awaitQueueCapacity(chunkSize);
+            List<Object[]> chunk = repository.findIdsByStatusAfter(KycStatus.SUBMITTED.name(), afterId,
+                    PageRequest.of(0, chunkSize));
+            for (Object[] row : chunk) {
+                // Workers are draining the queue — wait for room rather than lose the request
+                while (!queueService.push((Long) row[0], (String) row[1])) {
+                    Thread.sleep(kycProperties.getQueue().getPollInterval().toMillis());
+                }
+            }
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+            afterId = (Long) chunk.get(chunk.size() - 1)[0];
+            log.info("Queue recovery: re-queued {} SUBMITTED request(s) so far", total);
         }
+    }
 
-        int total = submitted.size() + processing.size();
-        if (total > 0) {
-            log.info("Queue recovery complete: re-queued {} request(s)", total);
-        } else {
-            log.info("Queue recovery: no stuck requests found");
+    /**
+     * Waits until the queue can take another chunk without hitting its
+     * capacity, so a large backlog is fed in as workers drain it.
+     */
+    private void awaitQueueCapacity(int chunkSize) throws InterruptedException {
+        KycProperties.Queue properties = kycProperties.getQueue();
+        int limit = Math.max(0, properties.getCapacity() - chunkSize);
+        while (queueService.size() > limit) {
+            Thread.sleep(properties.getPollInterval().toMillis());
         }
     }
 }
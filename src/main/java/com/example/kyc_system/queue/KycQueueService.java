@@ -1,50 +1,67 @@
 package com.example.kyc_system.queue;
 
-import org.springframework.stereotype.Service;
-import lombok.extern.slf4j.Slf4j;
-
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-
 /**
- * In-memory queue for KYC request processing.
+ * Queue of KYC request IDs waiting for OCR processing.
  * Decouples the document upload (synchronous) from the heavy OCR processing
- * (asynchronous).
- * KycWorker threads poll from this queue to process requests.
+ * (asynchronous). KycWorker threads poll from this queue to process requests.
+ *
+ * The backend is selected with {@code kyc.queue.backend}:
+ * - memory (default): {@link InMemoryKycQueueService}, single JVM only,
+ * weighted fair across tenants
+ * - postgres: {@link PostgresKycQueueService}, shared by every node
+ * - redis: {@link RedisStreamKycQueueService}, shared by every node
  */
-@Service
-@Slf4j
-public class KycQueueService {
+public interface KycQueueService {
 
     /**
-     * Unbounded, thread-safe blocking queue — stores KYC request IDs waiting to be
-     * processed.
+     * Pushes a KYC request ID onto the processing queue (non-blocking).
+     *
+     * @param requestId the ID of the request to process
+     * @param tenantId tenant owning the request, used for fair scheduling (may be null)
+     * @return false if the queue had no room and the ID was not queued — the
+     *         caller still owns the request and must retry later
      */
-    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+    boolean push(Long requestId, String tenantId);
 
-    /** Adds a KYC request ID to the queue (non-blocking). */
     /**
-     * Pushes a KYC request ID onto the processing queue.
-     * This is a non-blocking operation (uses offer()).
+     * Blocks until a request ID is available, then returns it. Used by worker
+     * threads.
      *
-     * @param requestId the ID of the request to process
+     * @return the next request ID to process
+     * @throws InterruptedException if the worker is interrupted while waiting
+     */
+    Long poll() throws InterruptedException;
+
+    /**
+     * Confirms that a polled request has been fully processed and can be
+     * removed from the backend for good.
+     *
+     * @param requestId the ID returned by {@link #poll()}
      */
-    public void push(Long requestId) {
-        log.info("Pushing request to queue: requestId={}", requestId);
-        queue.offer(requestId);
+    default void acknowledge(Long requestId) {
     }
 
     /**
-     * Blocks until a request ID is available, then returns it. Used by worker
-     * threads.
+     * Tells the queue that a worker has stopped working on a polled request,
+     * whether it succeeded or not. Frees the tenant's concurrency slot.
+     *
+     * @param requestId the ID returned by {@link #poll()}
      */
-    public Long poll() throws InterruptedException {
-        Long requestId = queue.take();
-        log.info("Polled request from queue: requestId={}, remainingSize={}", requestId, queue.size());
-        return requestId;
+    default void complete(Long requestId) {
     }
 
-    public int size() {
-        return queue.size();
+    /**
+     * @return number of requests waiting to be polled
+     */
+    int size();
+
+    /**
+     * Whether queued work survives a JVM restart. Durable backends don't need
+     * the startup rescan in {@link KycQueueRecoveryService}.
+     *
+     * @return true if the backend persists queued IDs outside the JVM
+     */
+    default boolean isDurable() {
+        return false;
     }
 }
@@ -0,0 +1,132 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.imageio.IIOException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed processing attempt is worth retrying and how long
+ * to wait before the next one.
+ *
+ * Retryable (anywhere in the cause chain):
+ * - storage and file-access errors while reading an upload (locked file,
+ * storage I/O errors and timeouts)
+ * - no OCR engine available: none free in time, no OCR thread left, or the
+ * engine's child process exited ({@link OcrEngineUnavailableException})
+ * - OCR timeouts, unless kyc.ocr.retry-on-timeout is off
+ * - transient database errors: deadlocks, lock timeouts, optimistic locking
+ * conflicts, lost connections
+ *
+ * Everything else — invalid documents, validation errors, missing native
+ * libraries, any other Tesseract failure — fails the request straight away.
+ * A missing file or an image decoder error anywhere in the chain makes a
+ * failure permanent, even when a retryable exception wraps it. {@link com.example.kyc_system.ocr.ImagePreprocessor}
+ * reports corrupt uploads as IllegalArgumentException.
+ *
+ * Backoff grows exponentially from kyc.retry.initial-backoff by
+ * kyc.retry.multiplier up to kyc.retry.max-backoff, with ±20% jitter so
+ * requests that failed together don't retry together.
+ */
+@Component
+@RequiredArgsConstructor
+public class KycRetryPolicy {
+
+    /** Guards against cyclic cause chains. */
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    private final KycProperties kycProperties;
+
+    /**
+     * @param error the failure thrown by processing
+     * @return true if the same request may succeed when simply run again
+     */
+    public boolean isRetryable(Throwable error) {
+        // A timeout decides on its own, even when wrapped in another OCR failure
+        Throwable cause = error;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (cause instanceof OcrTimeoutException) {
+                return kycProperties.getOcr().isRetryOnTimeout();
+            }
+            cause = cause.getCause();
+        }
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (isPermanent(current)) {
+                return false;
+            }
+            current = current.getCause();
+        }
+        current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (isTransient(current)) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    private static boolean isPermanent(Throwable error) {
+        return error instanceof FileNotFoundException
+                || error instanceof NoSuchFileException
+                || error instanceof IIOException;
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return isStorageError(error)
+                || error instanceof OcrEngineUnavailableException
+                || error instanceof TransientDataAccessException
+                || error instanceof RecoverableDataAccessException
+                || error instanceof CannotCreateTransactionException
+                || error instanceof SQLTransientException;
+    }
+
+    /**
+     * I/O errors from reaching the stored upload. Decoders throw subclasses or
+     * are wrapped before they get here, so a plain IOException is the file
+     * system's EIO and friends.
+     */
+    private static boolean isStorageError(Throwable error) {
+        return error instanceof FileSystemException
+                || error instanceof InterruptedIOException
+                || error instanceof SocketException
+                || error.getClass() == IOException.class;
+    }
+
+    /**
+     * @param retriesSoFar automatic retries already made for the request
+     * @return true if another retry is allowed
+     */
+    public boolean canRetry(int retriesSoFar) {
+        return retriesSoFar < kycProperties.getRetry().getMaxRetries();
+    }
+
+    /**
+     * @param retryNumber 1 for the first retry, 2 for the second, ...
+     * @return delay before that retry
+     */
+    public Duration backoff(int retryNumber) {
+        KycProperties.Retry properties = kycProperties.getRetry();
+        double base = properties.getInitialBackoff().toMillis()
+                * Math.pow(properties.getMultiplier(), Math.max(0, retryNumber - 1));
+        double capped = Math.min(base, properties.getMaxBackoff().toMillis());
+        double jittered = capped * ThreadLocalRandom.current().nextDouble(0.8, 1.2);
+        return Duration.ofMillis((long) Math.min(jittered, properties.getMaxBackoff().toMillis()));
+    }
+}
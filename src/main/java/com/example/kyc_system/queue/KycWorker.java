@@ -1,62 +1,236 @@
 package com.example.kyc_system.queue;
 
-import com.example.kyc_system.service.impl.KycOrchestrationService;
-import jakarta.annotation.PostConstruct;
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.repository.KycRequestRepository;
+import com.example.kyc_system.service.impl.KycProcessingService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Background worker that continuously polls the KYC queue for pending requests
- * and triggers asynchronous OCR + verification processing.
+ * Background worker pool that continuously polls the KYC queue for pending
+ * requests and triggers asynchronous OCR + verification processing.
  *
- * Runs on a dedicated daemon thread — starts automatically when the application
- * boots.
+ * Runs {@code kyc.worker.pool-size} daemon threads (default: available
+ * processors), named kyc-worker-0..N — started once the application is
+ * ready, i.e. after every ApplicationRunner (OCR warm-up among them) has
+ * finished, so a new node claims nothing while its engines are still cold.
  * If processing fails, the error is caught and logged (won't crash the worker
  * loop).
+ *
+ * Exposes kyc.worker.busy / kyc.worker.idle gauges so saturation of the pool
+ * is visible in Prometheus.
+ *
+ * Claimed requests pass {@link TenantDispatchGate} first, which holds the
+ * shared queue backends to the per-tenant concurrency limit.
+ *
+ * Shutdown drains the pool: workers stop claiming, in-flight requests get
+ * until {@code kyc.worker.shutdown-timeout} to finish, and whatever is still
+ * unfinished is handed back to the queue, so a rolling
+ * deploy neither loses work nor leaves it in PROCESSING until the lease
+ * expires.
  */
 @Component
+@ConditionalOnRunMode(KycRunMode.WORKER)
 @RequiredArgsConstructor
 @Slf4j
 public class KycWorker {
 
     private final KycQueueService queueService;
-    private final KycOrchestrationService orchestrationService;
+    private final TenantDispatchGate tenantDispatchGate;
+    private final KycProcessingService processingService;
+    private final KycRequestRepository kycRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KycProperties kycProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Thread> workers = new ArrayList<>();
+    /** Threads blocked in poll(); guards the running → draining transition. */
+    private final Set<Thread> idleWorkers = new HashSet<>();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    /** Requests currently being processed on this node — their leases are renewed. */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
     private volatile boolean running = true;
 
     /**
-     * Spawns a daemon thread that continuously polls requests from the queue.
-     * Daemon thread = automatically stopped when the JVM shuts down.
+     * Spawns the worker threads and registers the pool gauges.
+     * Daemon threads = automatically stopped when the JVM shuts down.
      */
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void start() {
-        Thread worker = new Thread(() -> {
-            while (running) {
+        int poolSize = Math.max(1, kycProperties.getWorker().getPoolSize());
+        for (int i = 0; i < poolSize; i++) {
+            Thread worker = new Thread(this::runLoop);
+            worker.setName("kyc-worker-" + i);
+            worker.setDaemon(true); // Won't prevent JVM shutdown
+            workers.add(worker);
+            worker.start();
+        }
+
+        Gauge.builder("kyc.worker.busy", busyWorkers, AtomicInteger::get)
+                .description("KYC worker threads currently processing a request")
+                .register(meterRegistry);
+        Gauge.builder("kyc.worker.idle", this, w -> w.getPoolSize() - w.busyWorkers.get())
+                .description("KYC worker threads waiting for work")
+                .register(meterRegistry);
+
+        log.info("Started KYC worker pool: size={}", poolSize);
+    }
+
+    /**
+     * Poll → process loop executed by every worker thread.
+     */
+    private void runLoop() {
+        Thread self = Thread.currentThread();
+        while (true) {
+            try {
+                synchronized (idleWorkers) {
+                    if (!running) {
+                        break;
+                    }
+                    idleWorkers.add(self);
+                }
+                // Blocks until a request ID becomes available in the queue
+                Long requestId = queueService.poll();
+                if (!claimedWhileRunning(self)) {
+                    // Claimed just as draining started — give it straight back, then release the claim
+                    if (handBack(List.of(requestId))) {
+                        queueService.acknowledge(requestId);
+                    }
+                    queueService.complete(requestId);
+                    break;
+                }
+                if (!tenantDispatchGate.admit(requestId)) {
+                    // Tenant at its limit — the gate re-queued it with a delay, drop this claim
+                    queueService.acknowledge(requestId);
+                    continue;
+                }
+                busyWorkers.incrementAndGet();
+                inFlight.add(requestId);
                 try {
-                    // Blocks until a request ID becomes available in the queue
-                    Long requestId = queueService.poll();
                     log.info("Processing KYC request from queue: {}", requestId);
-                    // Delegates to orchestration service for OCR → extract → verify pipeline
-                    orchestrationService.processAsync(requestId);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.info("KYC worker interrupted, shutting down.");
-                    break;
-                } catch (Throwable t) {
-                    log.error("Fatal error in KYC worker while processing request", t);
-                    // Don't break — keep the worker alive for the next request
+                    // Delegates to processing service for OCR → extract → verify pipeline
+                    processingService.processAsync(requestId);
+                    // Only acknowledged work leaves a durable backend; if processAsync throws,
+                    // the claim expires and the request is picked up again
+                    queueService.acknowledge(requestId);
+                } finally {
+                    inFlight.remove(requestId);
+                    queueService.complete(requestId);
+                    busyWorkers.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.info("KYC worker {} interrupted, shutting down.", Thread.currentThread().getName());
+                break;
+            } catch (Throwable t) {
+                log.error("Fatal error in KYC worker while processing request", t);
+                // Don't break — keep the worker alive for the next request
+            } finally {
+                synchronized (idleWorkers) {
+                    idleWorkers.remove(self);
                 }
             }
-        });
-        worker.setName("kyc-worker");
-        worker.setDaemon(true); // Won't prevent JVM shutdown
-        worker.start();
+        }
     }
 
-    @PreDestroy // ← add this method
+    /**
+     * Leaves the idle set after poll() returned. Once a thread is out of the
+     * set, draining won't interrupt it, so it may safely start processing.
+     */
+    private boolean claimedWhileRunning(Thread self) {
+        synchronized (idleWorkers) {
+            idleWorkers.remove(self);
+            return running;
+        }
+    }
+
+    /** Number of worker threads in the pool. */
+    public int getPoolSize() {
+        return workers.size();
+    }
+
+    /** Number of worker threads currently processing a request. */
+    public int getBusyCount() {
+        return busyWorkers.get();
+    }
+
+    /** Snapshot of the request IDs currently being processed on this node. */
+    public List<Long> getInFlightRequestIds() {
+        return List.copyOf(inFlight);
+    }
+
+    /**
+     * Drains the pool: stops claiming new requests (idle threads blocked on the
+     * queue are interrupted, busy ones are not), waits up to
+     * {@code kyc.worker.shutdown-timeout} for in-flight requests to finish and
+     * hands the rest back to the queue.
+     */
+    @PreDestroy
     public void stop() {
-        running = false;
+        synchronized (idleWorkers) {
+            running = false;
+            idleWorkers.forEach(Thread::interrupt);
+        }
+        log.info("Draining KYC worker pool: inFlight={}", inFlight.size());
+
+        long deadline = System.nanoTime() + kycProperties.getWorker().getShutdownTimeout().toNanos();
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                break;
+            }
+            try {
+                worker.join(remainingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<Long> unfinished = getInFlightRequestIds();
+        if (!unfinished.isEmpty()) {
+            handBack(unfinished);
+        }
+        log.info("KYC worker pool stopped: busyAtShutdown={}, handedBack={}", busyWorkers.get(), unfinished.size());
+    }
+
+    /**
+     * Resets unfinished requests to SUBMITTED and re-queues them (see
+     * {@link KycRequestRepository#handBackUnfinished}). Threads still running
+     * them are left alone; the processing service discards their result
+     * once it no longer owns the request, and their late acknowledge no longer
+     * matches the re-queued job.
+     *
+     * @return false if the hand-back failed and the claims must stay in place
+     */
+    private boolean handBack(List<Long> requestIds) {
+        try {
+            Integer viaOutbox = transactionTemplate.execute(
+                    status -> kycRequestRepository.handBackUnfinished(requestIds));
+            log.warn("Handed unfinished KYC request(s) back to the queue: {}, viaOutbox={}", requestIds, viaOutbox);
+            return true;
+        } catch (Exception e) {
+            // Lease and claim expiry still recover them, just later
+            log.error("Failed to hand back unfinished KYC requests {}", requestIds, e);
+            return false;
+        }
     }
 
 }
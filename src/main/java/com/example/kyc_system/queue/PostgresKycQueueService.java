@@ -0,0 +1,132 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.repository.KycJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Durable queue backed by the kyc_jobs table.
+ *
+ * - push inserts a READY job (idempotent per request ID)
+ * - workers claim jobs in batches with SELECT ... FOR UPDATE SKIP LOCKED, so
+ * several nodes can drain the same backlog without double processing
+ * - acknowledge deletes the job while this node still holds the claim
+ * - a claim older than kyc.queue.claim-timeout is reclaimable, so jobs held
+ * by a crashed node are not lost
+ *
+ * Claimed jobs are buffered locally and handed to worker threads one by one.
+ * Every statement runs in its own transaction (REQUIRES_NEW), independent of
+ * the outbox relay transaction that invokes push.
+ */
+@Service
+@ConditionalOnProperty(prefix = "kyc.queue", name = "backend", havingValue = "postgres")
+@Slf4j
+public class PostgresKycQueueService implements KycQueueService {
+
+    private final KycJobRepository jobRepository;
+    private final KycProperties.Queue properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    /** Jobs claimed by this node but not yet handed to a worker thread. */
+    private final BlockingQueue<Long> claimed = new LinkedBlockingQueue<>();
+
+    public PostgresKycQueueService(KycJobRepository jobRepository, KycProperties kycProperties,
+            PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.properties = kycProperties.getQueue();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Jobs are claimed in ID order; the tenant isn't used by this backend.
+     */
+    @Override
+    public boolean push(Long requestId, String tenantId) {
+        Integer inserted = transactionTemplate.execute(status -> jobRepository.enqueue(requestId));
+        log.info("Pushing request to queue: requestId={}, alreadyQueued={}", requestId,
+                inserted == null || inserted == 0);
+        return true;
+    }
+
+    /**
+     * Returns the next locally claimed job, claiming a new batch from the
+     * database when the local buffer is empty. Sleeps for
+     * kyc.queue.poll-interval between empty claims.
+     */
+    @Override
+    public Long poll() throws InterruptedException {
+        while (true) {
+            Long requestId = claimed.poll();
+            if (requestId != null) {
+                return requestId;
+            }
+            if (claimBatch() == 0) {
+                Thread.sleep(properties.getPollInterval().toMillis());
+            }
+        }
+    }
+
+    /**
+     * Claims the next batch if no other worker thread has refilled the buffer
+     * in the meantime.
+     *
+     * @return number of jobs available in the local buffer
+     */
+    private synchronized int claimBatch() {
+        if (!claimed.isEmpty()) {
+            return claimed.size();
+        }
+        List<Long> batch = transactionTemplate.execute(status -> jobRepository.claimBatch(nodeId,
+                Math.max(1, properties.getBatchSize()), properties.getClaimTimeout().toSeconds()));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        claimed.addAll(batch);
+        log.info("Claimed {} job(s) from kyc_jobs: node={}", batch.size(), nodeId);
+        return batch.size();
+    }
+
+    @Override
+    public void acknowledge(Long requestId) {
+        transactionTemplate.execute(status -> jobRepository.deleteClaimed(requestId, nodeId));
+    }
+
+    @Override
+    public int size() {
+        Long ready = transactionTemplate.execute(status -> jobRepository.countReady());
+        return (ready == null ? 0 : ready.intValue()) + claimed.size();
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    /**
+     * Hands locally buffered (claimed but never started) jobs back so other
+     * nodes don't have to wait for the claim timeout.
+     */
+    @PreDestroy
+    public void releaseBuffered() {
+        List<Long> pending = new ArrayList<>();
+        claimed.drainTo(pending);
+        if (!pending.isEmpty()) {
+            transactionTemplate.execute(status -> jobRepository.release(pending));
+            log.info("Released {} buffered job(s) on shutdown: node={}", pending.size(), nodeId);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XAutoClaimArgs;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import io.lettuce.core.models.stream.ClaimedMessages;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Durable queue backed by a Redis Stream with a consumer group.
+ *
+ * - push appends an entry (XADD) to kyc.queue.stream-key
+ * - every node reads as its own consumer (XREADGROUP), so entries fan out
+ * across nodes and each entry is delivered to exactly one consumer
+ * - acknowledge runs after processAsync has committed (XACK + XDEL)
+ * - entries left pending by a crashed consumer for longer than
+ * kyc.queue.claim-timeout are taken over with XAUTOCLAIM
+ *
+ * Delivered entries are buffered locally and handed to worker threads one by
+ * one; the record ID of every delivery is kept for the acknowledgement. A
+ * request pushed again while an older entry of it is still pending (re-queued
+ * by the lease reaper or a retry) is delivered once per entry, and each
+ * acknowledgement acks the oldest of its deliveries, so no entry is left in
+ * the pending list.
+ */
+@Service
+@ConditionalOnProperty(prefix = "kyc.queue", name = "backend", havingValue = "redis")
+@Slf4j
+public class RedisStreamKycQueueService implements KycQueueService {
+
+    /** Stream entry field holding the KYC request ID. */
+    private static final String REQUEST_ID_FIELD = "requestId";
+
+    /** Stream entry field holding the owning tenant. */
+    private static final String TENANT_ID_FIELD = "tenantId";
+
+    /** Initial / wrap-around cursor for XAUTOCLAIM scans. */
+    private static final String AUTOCLAIM_START = "0-0";
+
+    private final StringRedisTemplate redisTemplate;
+    private final KycProperties.Queue properties;
+    private final String consumerName = ManagementFactory.getRuntimeMXBean().getName();
+
+    /** Entries delivered to this consumer but not yet handed to a worker thread. */
+    private final BlockingQueue<Long> delivered = new LinkedBlockingQueue<>();
+
+    /** Stream record IDs of every delivered, not yet acknowledged request, oldest delivery first. */
+    private final Map<Long, Deque<RecordId>> inFlight = new ConcurrentHashMap<>();
+
+    private String autoClaimCursor = AUTOCLAIM_START;
+
+    public RedisStreamKycQueueService(StringRedisTemplate redisTemplate, KycProperties kycProperties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = kycProperties.getQueue();
+    }
+
+    /**
+     * Creates the stream and consumer group if they don't exist yet.
+     */
+    @PostConstruct
+    public void createConsumerGroup() {
+        byte[] key = properties.getStreamKey().getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(key, properties.getConsumerGroup(), ReadOffset.from("0"), true));
+            log.info("Created Redis consumer group: stream={}, group={}", properties.getStreamKey(),
+                    properties.getConsumerGroup());
+        } catch (RedisSystemException e) {
+            // BUSYGROUP — another node already created it
+            log.debug("Redis consumer group already exists: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Entries are delivered in stream order; the tenant is only recorded on
+     * the entry for inspection.
+     */
+    @Override
+    public boolean push(Long requestId, String tenantId) {
+        Map<String, String> fields = tenantId == null
+                ? Map.of(REQUEST_ID_FIELD, requestId.toString())
+                : Map.of(REQUEST_ID_FIELD, requestId.toString(), TENANT_ID_FIELD, tenantId);
+        RecordId recordId = redisTemplate.opsForStream().add(properties.getStreamKey(), fields);
+        log.info("Pushing request to queue: requestId={}, recordId={}", requestId, recordId);
+        return true;
+    }
+
+    /**
+     * Returns the next delivered entry. When the local buffer is empty, first
+     * takes over entries abandoned by dead consumers, then blocks on
+     * XREADGROUP for up to kyc.queue.poll-interval.
+     */
+    @Override
+    public Long poll() throws InterruptedException {
+        while (true) {
+            Long requestId = delivered.poll();
+            if (requestId != null) {
+                return requestId;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            fetchBatch();
+        }
+    }
+
+    /**
+     * Refills the local buffer. Taking over abandoned entries is serialised
+     * (it advances a shared cursor); the blocking XREADGROUP is not, so other
+     * worker threads aren't held up for the block timeout. Spring Data runs
+     * blocking reads on a dedicated connection each.
+     */
+    private void fetchBatch() {
+        synchronized (this) {
+            if (!delivered.isEmpty() || reclaimAbandoned() > 0) {
+                return;
+            }
+        }
+        List<MapRecord<String, Object, Object>> records = readNew();
+        if (records == null) {
+            return;
+        }
+        for (MapRecord<String, Object, Object> record : records) {
+            accept(record.getId(), (String) record.getValue().get(REQUEST_ID_FIELD));
+        }
+    }
+
+    /**
+     * XREADGROUP of entries not yet delivered to any consumer, blocking for up
+     * to kyc.queue.poll-interval.
+     */
+    private List<MapRecord<String, Object, Object>> readNew() {
+        return redisTemplate.opsForStream().read(
+                Consumer.from(properties.getConsumerGroup(), consumerName),
+                StreamReadOptions.empty()
+                        .count(Math.max(1, properties.getBatchSize()))
+                        .block(properties.getPollInterval()),
+                offsets(StreamOffset.create(properties.getStreamKey(), ReadOffset.lastConsumed())));
+    }
+
+    /**
+     * The read takes generic varargs; building the array here keeps the call
+     * free of generic array creation.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    private static <K> StreamOffset<K>[] offsets(StreamOffset<K>... offsets) {
+        return offsets;
+    }
+
+    /**
+     * Moves entries that have been pending on any consumer for longer than the
+     * claim timeout to this consumer (XAUTOCLAIM). The scan cursor wraps
+     * around once the whole pending list has been visited.
+     *
+     * @return number of entries taken over
+     */
+    private int reclaimAbandoned() {
+        byte[] key = properties.getStreamKey().getBytes(StandardCharsets.UTF_8);
+        XAutoClaimArgs<byte[]> args = XAutoClaimArgs.Builder.<byte[]>xautoclaim(
+                io.lettuce.core.Consumer.from(
+                        properties.getConsumerGroup().getBytes(StandardCharsets.UTF_8),
+                        consumerName.getBytes(StandardCharsets.UTF_8)),
+                properties.getClaimTimeout(), autoClaimCursor)
+                .count(Math.max(1, properties.getBatchSize()));
+
+        ClaimedMessages<byte[], byte[]> claimed = redisTemplate.execute(
+                (RedisCallback<ClaimedMessages<byte[], byte[]>>) connection -> autoClaim(connection, key, args));
+        if (claimed == null) {
+            return 0;
+        }
+        autoClaimCursor = claimed.getId();
+
+        int count = 0;
+        for (StreamMessage<byte[], byte[]> message : claimed.getMessages()) {
+            String requestId = requestIdOf(message);
+            if (requestId == null) {
+                // Entry was deleted while pending — just drop it from the pending list
+                redisTemplate.opsForStream().acknowledge(properties.getStreamKey(),
+                        properties.getConsumerGroup(), message.getId());
+                continue;
+            }
+            accept(RecordId.of(message.getId()), requestId);
+            count++;
+        }
+        if (count > 0) {
+            log.warn("Reclaimed {} abandoned stream entries: consumer={}", count, consumerName);
+        }
+        return count;
+    }
+
+    /**
+     * Spring Data Redis has no XAUTOCLAIM binding, so the command goes through
+     * the native Lettuce connection.
+     */
+    @SuppressWarnings("unchecked")
+    private ClaimedMessages<byte[], byte[]> autoClaim(RedisConnection connection, byte[] key,
+            XAutoClaimArgs<byte[]> args) {
+        var commands = (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+        try {
+            return commands.xautoclaim(key, args).get(properties.getPollInterval().toMillis() + 5_000,
+                    TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RedisSystemException("XAUTOCLAIM failed", e);
+        }
+    }
+
+    private static String requestIdOf(StreamMessage<byte[], byte[]> message) {
+        if (message.getBody() == null) {
+            return null;
+        }
+        // byte[] keys have identity equality, so the body can't be looked up directly
+        for (Map.Entry<byte[], byte[]> field : message.getBody().entrySet()) {
+            if (REQUEST_ID_FIELD.equals(new String(field.getKey(), StandardCharsets.UTF_8))) {
+                return new String(field.getValue(), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Buffers a delivery. An entry reclaimed after its earlier delivery failed
+     * is tracked only once.
+     */
+    private void accept(RecordId recordId, String requestIdValue) {
+        Long requestId = Long.valueOf(requestIdValue);
+        inFlight.compute(requestId, (id, recordIds) -> {
+            Deque<RecordId> deliveries = recordIds == null ? new ArrayDeque<>() : recordIds;
+            if (!deliveries.contains(recordId)) {
+                deliveries.addLast(recordId);
+            }
+            return deliveries;
+        });
+        delivered.offer(requestId);
+    }
+
+    /**
+     * Acknowledges and deletes the oldest delivered stream entry of the
+     * request once it has been processed, so the stream only holds
+     * outstanding work.
+     */
+    @Override
+    public void acknowledge(Long requestId) {
+        AtomicReference<RecordId> oldest = new AtomicReference<>();
+        inFlight.computeIfPresent(requestId, (id, recordIds) -> {
+            oldest.set(recordIds.pollFirst());
+            return recordIds.isEmpty() ? null : recordIds;
+        });
+        RecordId recordId = oldest.get();
+        if (recordId == null) {
+            return;
+        }
+        redisTemplate.opsForStream().acknowledge(properties.getStreamKey(), properties.getConsumerGroup(), recordId);
+        redisTemplate.opsForStream().delete(properties.getStreamKey(), recordId);
+    }
+
+    /**
+     * @return stream entries not yet delivered to any consumer
+     */
+    @Override
+    public int size() {
+        Long length = redisTemplate.opsForStream().size(properties.getStreamKey());
+        PendingMessagesSummary pending = redisTemplate.opsForStream()
+                .pending(properties.getStreamKey(), properties.getConsumerGroup());
+        long total = length == null ? 0 : length;
+        long inProgress = pending == null ? 0 : pending.getTotalPendingMessages();
+        return (int) Math.max(0, total - inProgress) + delivered.size();
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.kyc_system.queue;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the requests of each tenant currently handed to a worker and refuses
+ * new ones once the tenant's limit is reached. Refused requests are not
+ * dropped — the dispatcher simply leaves them queued and serves another
+ * tenant.
+ *
+ * Purely in-memory: callers resolve the limit ({@link TenantQueuePolicy})
+ * beforehand, so this is safe to call under the queue lock.
+ */
+@Component
+public class TenantConcurrencyLimiter {
+
+    private final Map<String, Integer> inFlight = new HashMap<>();
+
+    /**
+     * Takes a processing slot for the tenant if one is free.
+     *
+     * @param tenantId tenant owning the request, may be null
+     * @param limit    maximum requests of the tenant in flight, 0 = no limit
+     * @return true if the request may be dispatched now
+     */
+    public boolean tryAcquire(String tenantId, int limit) {
+        String key = key(tenantId);
+        synchronized (inFlight) {
+            int current = inFlight.getOrDefault(key, 0);
+            if (limit > 0 && current >= limit) {
+                return false;
+            }
+            inFlight.put(key, current + 1);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the slot taken by {@link #tryAcquire(String, int)}.
+     */
+    public void release(String tenantId) {
+        String key = key(tenantId);
+        synchronized (inFlight) {
+            inFlight.computeIfPresent(key, (k, current) -> current > 1 ? current - 1 : null);
+        }
+    }
+
+    /**
+     * @return requests of the tenant currently being processed
+     */
+    public int inFlight(String tenantId) {
+        synchronized (inFlight) {
+            return inFlight.getOrDefault(key(tenantId), 0);
+        }
+    }
+
+    static String key(String tenantId) {
+        return tenantId == null ? WeightedFairQueue.DEFAULT_TENANT : tenantId;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycStatus;
+import com.example.kyc_system.repository.KycRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Holds the shared queue backends (postgres, redis) to the per-tenant
+ * concurrency limit from {@link TenantQueuePolicy}. Those backends hand out
+ * jobs in arrival order, so the limit is checked by the worker right after it
+ * claims a request: the tenant's PROCESSING requests are counted across all
+ * nodes, and a request over the limit is put back into the outbox with a
+ * delay of kyc.worker.tenant-limit-delay instead of being processed.
+ *
+ * The count and the later CAS to PROCESSING are separate statements, so
+ * nodes admitting the same tenant at the same instant can briefly exceed the
+ * limit by one request each.
+ *
+ * The memory backend enforces the limit itself when dispatching
+ * ({@link TenantConcurrencyLimiter}); every request is admitted here.
+ *
+ * Exposes kyc.worker.tenant-deferred (requests put back because their tenant
+ * was at its limit).
+ */
+@Component
+@Slf4j
+public class TenantDispatchGate {
+
+    private final KycQueueService queueService;
+    private final KycQueueOutbox queueOutbox;
+    private final KycRequestRepository kycRequestRepository;
+    private final TenantQueuePolicy tenantQueuePolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final KycProperties.Worker properties;
+    private final Counter deferredCounter;
+
+    public TenantDispatchGate(KycQueueService queueService, KycQueueOutbox queueOutbox,
+            KycRequestRepository kycRequestRepository, TenantQueuePolicy tenantQueuePolicy,
+            TransactionTemplate transactionTemplate, KycProperties kycProperties, MeterRegistry meterRegistry) {
+        this.queueService = queueService;
+        this.queueOutbox = queueOutbox;
+        this.kycRequestRepository = kycRequestRepository;
+        this.tenantQueuePolicy = tenantQueuePolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = kycProperties.getWorker();
+        this.deferredCounter = Counter.builder("kyc.worker.tenant-deferred")
+                .description("Claimed KYC requests put back because their tenant was at its concurrency limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a claimed request may be processed now. A refused
+     * request has already been written to the outbox when this returns; the
+     * caller only has to acknowledge the claim.
+     *
+     * @param requestId the ID returned by {@link KycQueueService#poll()}
+     * @return true if the request may be processed
+     */
+    public boolean admit(Long requestId) {
+        if (!queueService.isDurable()) {
+            return true;
+        }
+        String tenantId = kycRequestRepository.findTenantIdById(requestId).orElse(null);
+        int limit = tenantQueuePolicy.maxConcurrentOf(tenantId);
+        if (limit <= 0) {
+            return true;
+        }
+        long processing = kycRequestRepository.countByTenantIdAndStatus(tenantId, KycStatus.PROCESSING.name());
+        if (processing < limit) {
+            return true;
+        }
+        Duration delay = properties.getTenantLimitDelay();
+        transactionTemplate.executeWithoutResult(status -> queueOutbox.addDelayed(requestId, tenantId, delay));
+        deferredCounter.increment();
+        log.debug("Tenant at its concurrency limit, request deferred: requestId={}, tenantId={}, processing={}, "
+                + "limit={}, delay={}", requestId, tenantId, processing, limit, delay);
+        return false;
+    }
+}
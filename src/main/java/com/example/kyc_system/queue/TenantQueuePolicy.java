@@ -0,0 +1,90 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.entity.Tenant;
+import com.example.kyc_system.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant scheduling settings used by the queue:
+ * - weight: share in the weighted round-robin, from {@code Tenant.plan} and
+ * {@code kyc.queue.plan-weights}
+ * - concurrency limit: {@code Tenant.maxConcurrentProcessing}, falling back to
+ * {@code kyc.worker.max-concurrent-per-tenant}
+ *
+ * Both are read on the hot path (push, and dispatch on the shared backends
+ * through {@link TenantDispatchGate}), so they are cached per
+ * tenant for {@code kyc.queue.tenant-cache-ttl}; a tenant change takes effect
+ * after that.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantQueuePolicy {
+
+    private final TenantRepository tenantRepository;
+    private final KycProperties kycProperties;
+
+    private final Map<String, CachedPolicy> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param tenantId business tenant ID, may be null
+     * @return weight of the tenant's plan, or the default weight
+     */
+    public int weightOf(String tenantId) {
+        if (tenantId == null) {
+            return kycProperties.getQueue().getDefaultWeight();
+        }
+        return policyOf(tenantId).weight();
+    }
+
+    /**
+     * @param tenantId business tenant ID, may be null
+     * @return maximum requests of the tenant in PROCESSING at once, 0 = no limit
+     */
+    public int maxConcurrentOf(String tenantId) {
+        if (tenantId == null) {
+            return kycProperties.getWorker().getMaxConcurrentPerTenant();
+        }
+        return policyOf(tenantId).maxConcurrent();
+    }
+
+    private CachedPolicy policyOf(String tenantId) {
+        long now = System.nanoTime();
+        CachedPolicy cached = cache.get(tenantId);
+        if (cached != null && now - cached.loadedAt() < kycProperties.getQueue().getTenantCacheTtl().toNanos()) {
+            return cached;
+        }
+        Tenant tenant = tenantRepository.findByTenantId(tenantId).orElse(null);
+        CachedPolicy policy = new CachedPolicy(resolveWeight(tenant), resolveMaxConcurrent(tenant), now);
+        cache.put(tenantId, policy);
+        log.debug("Resolved queue policy: tenantId={}, weight={}, maxConcurrent={}", tenantId, policy.weight(),
+                policy.maxConcurrent());
+        return policy;
+    }
+
+    private int resolveWeight(Tenant tenant) {
+        KycProperties.Queue properties = kycProperties.getQueue();
+        if (tenant == null || tenant.getPlan() == null) {
+            return properties.getDefaultWeight();
+        }
+        Integer weight = properties.getPlanWeights().get(tenant.getPlan().toUpperCase(Locale.ROOT));
+        return weight != null ? weight : properties.getDefaultWeight();
+    }
+
+    private int resolveMaxConcurrent(Tenant tenant) {
+        if (tenant == null || tenant.getMaxConcurrentProcessing() == null) {
+            return kycProperties.getWorker().getMaxConcurrentPerTenant();
+        }
+        return tenant.getMaxConcurrentProcessing();
+    }
+
+    private record CachedPolicy(int weight, int maxConcurrent, long loadedAt) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.kyc_system.queue;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Bounded blocking queue that keeps one FIFO sub-queue per tenant and serves
+ * them by weighted round-robin: in every round a tenant with weight w gets up
+ * to w consecutive takes before the next tenant is served. A tenant with a
+ * large backlog therefore can't delay another tenant's request by more than
+ * one round.
+ *
+ * Tenants without queued work leave the rotation and rejoin at its end.
+ * Dispatch can be restricted per tenant (concurrency limits) — see
+ * {@link #take(Predicate)}.
+ */
+class WeightedFairQueue {
+
+    /** Sub-queue key for requests without a tenant. */
+    static final String DEFAULT_TENANT = "";
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled when a request is queued or admission may have changed. */
+    private final Condition changed = lock.newCondition();
+
+    private final Map<String, TenantQueue> queues = new HashMap<>();
+    /** Tenants with queued work, in service order. The head is being served. */
+    private final ArrayDeque<TenantQueue> rotation = new ArrayDeque<>();
+    private int size;
+
+    WeightedFairQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Appends a request to its tenant's sub-queue.
+     *
+     * @param tenantId tenant owning the request, may be null
+     * @param requestId the request to queue
+     * @param weight share of the tenant per round, at least 1
+     * @return false if the queue is full
+     */
+    boolean offer(String tenantId, Long requestId, int weight) {
+        lock.lock();
+        try {
+            if (size >= capacity) {
+                return false;
+            }
+            String key = tenantId == null ? DEFAULT_TENANT : tenantId;
+            TenantQueue queue = queues.computeIfAbsent(key, TenantQueue::new);
+            queue.weight = Math.max(1, weight);
+            queue.requests.addLast(requestId);
+            if (queue.requests.size() == 1) {
+                queue.credit = queue.weight;
+                rotation.addLast(queue);
+            }
+            size++;
+            // Waiters are interchangeable — one is enough to take the new request
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a request is available and returns the next one in
+     * weighted round-robin order.
+     */
+    Long take() throws InterruptedException {
+        return take(tenantId -> true);
+    }
+
+    /**
+     * Blocks until a request of an admitted tenant is available and returns
+     * the next one in weighted round-robin order. Tenants refused by
+     * {@code admit} are skipped without losing their place in the rotation;
+     * their requests stay queued. Callers whose admission state changes must
+     * call {@link #wakeUp()}.
+     *
+     * @param admit called under the queue lock with the tenant about to be
+     *        served; a true result commits the take
+     */
+    Long take(Predicate<String> admit) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                for (Iterator<TenantQueue> it = rotation.iterator(); it.hasNext();) {
+                    TenantQueue queue = it.next();
+                    if (admit.test(queue.tenantId)) {
+                        return next(queue, it);
+                    }
+                }
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-evaluates admission in blocked {@link #take(Predicate)} calls.
+     */
+    void wakeUp() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Long next(TenantQueue queue, Iterator<TenantQueue> position) {
+        Long requestId = queue.requests.pollFirst();
+        size--;
+        queue.credit--;
+        if (queue.requests.isEmpty()) {
+            position.remove();
+            queues.remove(queue.tenantId);
+        } else if (queue.credit <= 0) {
+            // Round used up — go to the back of the rotation
+            queue.credit = queue.weight;
+            position.remove();
+            rotation.addLast(queue);
+        }
+        return requestId;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class TenantQueue {
+        private final String tenantId;
+        private final ArrayDeque<Long> requests = new ArrayDeque<>();
+        private int weight = 1;
+        private int credit;
+
+        private TenantQueue(String tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.kyc_system.repository;
+
+import com.example.kyc_system.entity.KycDeadLetter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for KycDeadLetter entity.
+ */
+@Repository
+public interface KycDeadLetterRepository extends JpaRepository<KycDeadLetter, Long> {
+
+    /**
+     * Finds dead letters that have not been replayed yet.
+     *
+     * @param pageable pagination information
+     * @return page of pending dead letters
+     */
+    Page<KycDeadLetter> findByReplayedAtIsNull(Pageable pageable);
+}
@@ -0,0 +1,101 @@
+package com.example.kyc_system.repository;
+
+import com.example.kyc_system.entity.KycJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for KycJob entity.
+ * Backs the Postgres queue; all queue operations are single native statements
+ * so that concurrent nodes never double-claim a job.
+ */
+@Repository
+public interface KycJobRepository extends JpaRepository<KycJob, Long> {
+
+    /**
+     * Enqueues a request. Pushing a request that is already queued is a no-op.
+     *
+     * @param requestId the KYC request ID
+     * @return number of rows inserted (0 if already queued)
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO kyc_jobs (request_id, status, available_at, created_at)
+            VALUES (:requestId, 'READY', now(), now())
+            ON CONFLICT (request_id) DO NOTHING
+            """, nativeQuery = true)
+    int enqueue(@Param("requestId") Long requestId);
+
+    /**
+     * Atomically claims up to {@code batchSize} jobs in FIFO order.
+     * SKIP LOCKED lets concurrent nodes claim disjoint batches without waiting.
+     * CLAIMED jobs whose claim is older than {@code claimSeconds} (the claiming
+     * node died) are claimable again; the age is measured on the database
+     * clock that wrote claimed_at.
+     *
+     * @param owner        identifier of the claiming node
+     * @param batchSize    maximum number of jobs to claim
+     * @param claimSeconds claims older than this many seconds are considered abandoned
+     * @return request IDs of the claimed jobs
+     */
+    @Query(value = """
+            UPDATE kyc_jobs
+            SET status = 'CLAIMED', claimed_by = :owner, claimed_at = now()
+            WHERE id IN (
+                SELECT id FROM kyc_jobs
+                WHERE (status = 'READY' AND available_at <= now())
+                   OR (status = 'CLAIMED' AND claimed_at < now() - make_interval(secs => :claimSeconds))
+                ORDER BY id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING request_id
+            """, nativeQuery = true)
+    List<Long> claimBatch(@Param("owner") String owner,
+            @Param("batchSize") int batchSize,
+            @Param("claimSeconds") long claimSeconds);
+
+    /**
+     * Removes a processed job, but only while {@code owner} still holds the
+     * claim: a job handed back (READY again) or reclaimed by another node
+     * after its claim went stale belongs to the next attempt.
+     *
+     * @param requestId the KYC request ID
+     * @param owner     identifier of the node that claimed the job
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM kyc_jobs
+            WHERE request_id = :requestId AND status = 'CLAIMED' AND claimed_by = :owner
+            """, nativeQuery = true)
+    int deleteClaimed(@Param("requestId") Long requestId, @Param("owner") String owner);
+
+    /**
+     * Returns claimed jobs to READY so any node can claim them again.
+     *
+     * @param requestIds the KYC request IDs to release
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE kyc_jobs
+            SET status = 'READY', claimed_by = NULL, claimed_at = NULL
+            WHERE request_id IN (:requestIds)
+            """, nativeQuery = true)
+    int release(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Counts jobs waiting to be claimed.
+     *
+     * @return number of READY jobs
+     */
+    @Query(value = "SELECT COUNT(*) FROM kyc_jobs WHERE status = 'READY'", nativeQuery = true)
+    long countReady();
+}
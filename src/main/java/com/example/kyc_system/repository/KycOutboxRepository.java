@@ -0,0 +1,53 @@
+package com.example.kyc_system.repository;
+
+import com.example.kyc_system.entity.KycOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for KycOutbox entity.
+ */
+@Repository
+public interface KycOutboxRepository extends JpaRepository<KycOutbox, Long> {
+
+    /**
+     * Locks the oldest due outbox rows for relaying. SKIP LOCKED lets relays on
+     * several nodes work on disjoint batches; the locks are held until the
+     * surrounding transaction deletes the rows and commits.
+     *
+     * @param batchSize maximum number of rows to lock
+     * @return locked rows in insertion order
+     */
+    @Query(value = """
+            SELECT * FROM kyc_outbox
+            WHERE available_at IS NULL OR available_at <= now()
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<KycOutbox> lockBatch(@Param("batchSize") int batchSize);
+
+    /**
+     * Writes an outbox row the relay leaves alone for {@code delaySeconds}.
+     * The due time is computed from the database clock, the one
+     * {@link #lockBatch} compares it with, so JVM clock skew can't shorten or
+     * stretch the delay.
+     *
+     * @param requestId    the KYC request ID
+     * @param tenantId     tenant owning the request
+     * @param delaySeconds delay before the row is due, fractions allowed
+     * @return number of rows inserted
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO kyc_outbox (request_id, tenant_id, available_at, created_at)
+            VALUES (:requestId, :tenantId, now() + make_interval(secs => :delaySeconds), now())
+            """, nativeQuery = true)
+    int insertDelayed(@Param("requestId") Long requestId, @Param("tenantId") String tenantId,
+            @Param("delaySeconds") double delaySeconds);
+}
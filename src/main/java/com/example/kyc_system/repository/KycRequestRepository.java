@@ -1,14 +1,18 @@
 package com.example.kyc_system.repository;
 
 import com.example.kyc_system.entity.KycRequest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,6 +57,15 @@ public interface KycRequestRepository extends JpaRepository<KycRequest, Long>, J
      */
     long countByTenantIdAndStatus(String tenantId, String status);
 
+    /**
+     * Looks up the tenant owning a request without loading the request.
+     *
+     * @param id the ID of the request
+     * @return the tenant ID, empty if the request doesn't exist or has no tenant
+     */
+    @Query("SELECT k.tenantId FROM KycRequest k WHERE k.id = :id")
+    Optional<String> findTenantIdById(@Param("id") Long id);
+
     /**
      * Finds KYC requests created within a specific time range.
      *
@@ -183,6 +196,19 @@ public interface KycRequestRepository extends JpaRepository<KycRequest, Long>, J
      */
     List<KycRequest> findByStatus(String status);
 
+    /**
+     * Keyset-paginated scan of the IDs (and tenants) of requests in a status.
+     * Loads no entities, so it stays cheap for very large backlogs.
+     *
+     * @param status   the status to scan
+     * @param afterId  only IDs greater than this are returned (0 to start)
+     * @param pageable page size; the page number must stay 0
+     * @return rows of [id, tenantId] in ascending ID order
+     */
+    @Query("SELECT k.id, k.tenantId FROM KycRequest k WHERE k.status = :status AND k.id > :afterId ORDER BY k.id")
+    List<Object[]> findIdsByStatusAfter(@Param("status") String status, @Param("afterId") Long afterId,
+            Pageable pageable);
+
     /**
      * Updates the status and updatedAt timestamp of a specific KYC request.
      *
@@ -212,6 +238,147 @@ public interface KycRequestRepository extends JpaRepository<KycRequest, Long>, J
     int updateStatusIfPending(@Param("id") Long id, @Param("newStatus") String newStatus,
             @Param("oldStatus") String oldStatus);
 
+    /**
+     * Atomically moves a SUBMITTED request to PROCESSING, starts its
+     * processing lease and bumps its processing attempt.
+     *
+     * @param id the ID of the request
+     * @return number of rows affected (0 if another worker got there first)
+     */
+    @Modifying
+    @Query("""
+            UPDATE KycRequest k
+            SET k.status = 'PROCESSING',
+            k.processingStartedAt = CURRENT_TIMESTAMP,
+            k.processingAttempt = COALESCE(k.processingAttempt, 0) + 1,
+            k.updatedAt = CURRENT_TIMESTAMP
+            WHERE k.id = :id AND k.status = 'SUBMITTED'
+            """)
+    int startProcessing(@Param("id") Long id);
+
+    /**
+     * Reads the processing attempt set by {@link #startProcessing(Long)}; in
+     * the same transaction it is the caller's ownership token.
+     *
+     * @param id the ID of the request
+     * @return the current processing attempt
+     */
+    @Query("SELECT k.processingAttempt FROM KycRequest k WHERE k.id = :id")
+    Integer findProcessingAttemptById(@Param("id") Long id);
+
+    /**
+     * Loads a request and locks its row until the transaction ends, so the
+     * reaper and a draining worker can't take it over between an ownership
+     * check and the writes that follow.
+     *
+     * @param id the ID of the request
+     * @return the locked request
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT k FROM KycRequest k WHERE k.id = :id")
+    Optional<KycRequest> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Renews the processing lease of requests a worker is still handling.
+     *
+     * @param ids IDs of the in-flight requests
+     * @return number of leases renewed
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE kyc_requests
+            SET processing_started_at = now()
+            WHERE id IN (:ids) AND status = 'PROCESSING'
+            """, nativeQuery = true)
+    int renewProcessingLeases(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Takes over up to {@code batchSize} PROCESSING requests whose lease
+     * expired (worker died). Each one counts as a retry: while retry_count is
+     * below {@code maxRetries} it is incremented, the request is reset to
+     * SUBMITTED and written to the queue outbox; otherwise the request is
+     * marked FAILED and dead-lettered, so a document that keeps killing its
+     * worker is not re-dispatched forever. One statement, so a reaped request
+     * can't get lost in between.
+     * Rows without a lease at all (processed before leases existed) count as
+     * expired. SKIP LOCKED keeps reapers on several nodes out of each other's
+     * way. The cutoff is computed from the database clock, the same clock
+     * that wrote the leases, so JVM clock skew can't reap live work.
+     *
+     * @param leaseSeconds leases older than this many seconds are expired
+     * @param maxRetries   kyc.retry.max-retries
+     * @param batchSize    maximum number of requests to reap
+     * @return new status of every reaped request: SUBMITTED (re-queued) or
+     *         FAILED (dead-lettered)
+     */
+    @Query(value = """
+            WITH reaped AS (
+                UPDATE kyc_requests
+                SET status = CASE WHEN COALESCE(retry_count, 0) < :maxRetries THEN 'SUBMITTED' ELSE 'FAILED' END,
+                    retry_count = CASE WHEN COALESCE(retry_count, 0) < :maxRetries
+                        THEN COALESCE(retry_count, 0) + 1 ELSE retry_count END,
+                    failure_reason = CASE WHEN COALESCE(retry_count, 0) < :maxRetries
+                        THEN 'Retry ' || (COALESCE(retry_count, 0) + 1) || ' scheduled after processing lease expired'
+                        ELSE 'Processing lease expired, retries exhausted' END,
+                    processing_started_at = NULL,
+                    updated_at = now()
+                WHERE id IN (
+                    SELECT id FROM kyc_requests
+                    WHERE status = 'PROCESSING'
+                      AND (processing_started_at < now() - make_interval(secs => :leaseSeconds) OR processing_started_at IS NULL)
+                    ORDER BY id
+                    LIMIT :batchSize
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, tenant_id, status, retry_count
+            ),
+            requeued AS (
+                INSERT INTO kyc_outbox (request_id, tenant_id, created_at)
+                SELECT id, tenant_id, now() FROM reaped WHERE status = 'SUBMITTED'
+            ),
+            dead_lettered AS (
+                INSERT INTO kyc_dead_letters (request_id, tenant_id, error_type, error_message, retry_count, created_at)
+                SELECT id, tenant_id, 'ProcessingLeaseExpired',
+                       'Processing lease expired (worker died or stopped responding)', COALESCE(retry_count, 0), now()
+                FROM reaped WHERE status = 'FAILED'
+            )
+            SELECT status FROM reaped
+            """, nativeQuery = true)
+    List<String> reapExpiredProcessingLeases(@Param("leaseSeconds") long leaseSeconds,
+            @Param("maxRetries") int maxRetries,
+            @Param("batchSize") int batchSize);
+
+    /**
+     * Hands requests a draining worker could not finish back to the queue, so
+     * another node picks them up without waiting for the lease to expire:
+     * PROCESSING ones are reset to SUBMITTED, a kyc_jobs row still claimed
+     * for them (postgres backend) is reset to READY, and requests without such
+     * a row get an outbox row instead — pushing through the outbox would be a
+     * no-op while the claimed job exists. One statement, so nothing is lost in
+     * between. Finished requests are left alone.
+     *
+     * @param ids IDs of the unfinished requests
+     * @return number of requests handed back through the outbox
+     */
+    @Modifying
+    @Query(value = """
+            WITH released AS (
+                UPDATE kyc_requests
+                SET status = 'SUBMITTED', processing_started_at = NULL, updated_at = now()
+                WHERE id IN (:ids) AND status IN ('SUBMITTED', 'PROCESSING')
+                RETURNING id, tenant_id
+            ), reset AS (
+                UPDATE kyc_jobs
+                SET status = 'READY', claimed_by = NULL, claimed_at = NULL, available_at = now()
+                WHERE request_id IN (SELECT id FROM released)
+                RETURNING request_id
+            )
+            INSERT INTO kyc_outbox (request_id, tenant_id, created_at)
+            SELECT id, tenant_id, now() FROM released
+            WHERE id NOT IN (SELECT request_id FROM reset)
+            """, nativeQuery = true)
+    int handBackUnfinished(@Param("ids") Collection<Long> ids);
+
     /**
      * Returns a breakdown of request counts grouped by status for a global time range.
      * Used for management dashboards and global reporting.
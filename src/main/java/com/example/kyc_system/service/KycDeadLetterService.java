@@ -0,0 +1,39 @@
+package com.example.kyc_system.service;
+
+import com.example.kyc_system.dto.KycDeadLetterDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service interface for KYC requests that exhausted their automatic retries.
+ */
+public interface KycDeadLetterService {
+
+    /**
+     * Records a request as dead-lettered. Runs inside the caller's transaction.
+     *
+     * @param requestId  ID of the failed request
+     * @param tenantId   tenant owning the request
+     * @param error      the last processing error
+     * @param retryCount automatic retries made before giving up
+     */
+    void record(Long requestId, String tenantId, Throwable error, int retryCount);
+
+    /**
+     * Lists dead letters, newest first unless the pageable sorts otherwise.
+     *
+     * @param pendingOnly true to hide already replayed entries
+     * @param pageable    pagination information
+     * @return page of dead letters
+     */
+    Page<KycDeadLetterDTO> getDeadLetters(boolean pendingOnly, Pageable pageable);
+
+    /**
+     * Puts a dead-lettered request back into SUBMITTED with a fresh retry budget
+     * and hands it to the queue.
+     *
+     * @param id dead letter ID
+     * @return the updated dead letter
+     */
+    KycDeadLetterDTO replay(Long id);
+}
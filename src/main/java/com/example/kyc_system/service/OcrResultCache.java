@@ -0,0 +1,18 @@
+package com.example.kyc_system.service;
+
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+
+import java.util.Optional;
+
+/**
+ * Service interface for reusing OCR results of byte-identical uploads.
+ * Entries are keyed by the document's SHA-256 content hash and its type and
+ * expire after kyc.ocr.cache.ttl.
+ */
+public interface OcrResultCache {
+
+    Optional<OcrResult> get(String documentHash, DocumentType type);
+
+    void put(String documentHash, DocumentType type, OcrResult result);
+}
@@ -8,6 +8,10 @@ import java.io.File;
 /**
  * Service interface for extracting text data from KYC document images using
  * OCR.
+ *
+ * The implementation is picked with kyc.ocr.engine: "tesseract" (default,
+ * SupervisedOcrService around OcrServiceImpl) or "fake" (FakeOcrService,
+ * canned results for load tests).
  */
 public interface OcrService {
     /**
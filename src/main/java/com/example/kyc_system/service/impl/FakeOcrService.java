@@ -0,0 +1,132 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties.FakeOcr.InjectedError;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import com.example.kyc_system.service.OcrService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OcrService that returns canned results instead of running Tesseract, for
+ * load tests of the queue, database and verification stages
+ * (kyc.ocr.engine=fake).
+ *
+ * Each document waits for a simulated latency and then either gets the
+ * result configured for its type or fails with one of the injected errors,
+ * at kyc.ocr.fake.error-rate. Both are drawn from kyc.ocr.fake.seed and the
+ * document's file name and type, so runs are repeatable and a retried
+ * document fails the same way again.
+ */
+@Service
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@ConditionalOnProperty(prefix = "kyc.ocr", name = "engine", havingValue = "fake")
+@Slf4j
+public class FakeOcrService implements OcrService {
+
+    /** z-score of the 99th percentile of a standard normal distribution. */
+    private static final double Z_99 = 2.3263;
+
+    private final KycProperties.FakeOcr properties;
+
+    public FakeOcrService(KycProperties kycProperties) {
+        this.properties = kycProperties.getOcr().getFake();
+    }
+
+    /**
+     * Returns the canned result for the document type after the simulated latency.
+     *
+     * @param file the image/PDF file; only its name is used
+     * @param type the expected document type
+     * @return copy of the configured result
+     * @throws RuntimeException for injected errors, shaped like the real engine's
+     */
+    @Override
+    public OcrResult extract(File file, DocumentType type) {
+        SplittableRandom random = new SplittableRandom(
+                properties.getSeed() ^ (31L * file.getName().hashCode() + type.ordinal()));
+        long latencyNanos = latencyNanos(random);
+        sleep(latencyNanos);
+
+        if (random.nextDouble() < properties.getErrorRate()) {
+            InjectedError error = pickError(random);
+            log.debug("Fake OCR injecting {}: file={}, docType={}", error, file.getName(), type);
+            throw toException(error, type, latencyNanos);
+        }
+
+        OcrResult canned = properties.getResults().get(type);
+        if (canned == null) {
+            throw new IllegalStateException("No fake OCR result configured for " + type);
+        }
+        return OcrResult.builder()
+                .name(canned.getName())
+                .dob(canned.getDob())
+                .documentNumber(canned.getDocumentNumber())
+                .nameConfidence(canned.getNameConfidence())
+                .dobConfidence(canned.getDobConfidence())
+                .documentNumberConfidence(canned.getDocumentNumberConfidence())
+                .rawResponse(Map.of("engine", "fake", "latencyMillis", TimeUnit.NANOSECONDS.toMillis(latencyNanos)))
+                .build();
+    }
+
+    long latencyNanos(SplittableRandom random) {
+        long min = properties.getLatencyMin().toNanos();
+        long median = properties.getLatencyMedian().toNanos();
+        return switch (properties.getLatencyDistribution()) {
+            case FIXED -> median;
+            case UNIFORM -> median <= min ? min : min + (long) (random.nextDouble() * 2 * (median - min));
+            case LOG_NORMAL -> {
+                if (median <= min) {
+                    yield min;
+                }
+                long p99 = properties.getLatencyP99().toNanos();
+                double sigma = p99 > median ? Math.log((double) (p99 - min) / (median - min)) / Z_99 : 0;
+                yield min + (long) ((median - min) * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    private InjectedError pickError(SplittableRandom random) {
+        double total = properties.getErrorMix().values().stream().mapToDouble(Double::doubleValue).sum();
+        double pick = random.nextDouble() * total;
+        for (Map.Entry<InjectedError, Double> entry : properties.getErrorMix().entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        return InjectedError.TRANSIENT;
+    }
+
+    private static RuntimeException toException(InjectedError error, DocumentType type, long latencyNanos) {
+        return switch (error) {
+            case TRANSIENT -> new RuntimeException("OCR failed", new OcrEngineUnavailableException("Injected engine failure"));
+            case TIMEOUT -> new OcrTimeoutException(type, Duration.ofNanos(latencyNanos));
+            case INVALID -> new RuntimeException("Invalid document: Injected rejection of this " + type + " document.");
+        };
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("OCR interrupted", e);
+        }
+    }
+}
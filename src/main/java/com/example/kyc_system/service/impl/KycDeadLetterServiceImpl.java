@@ -0,0 +1,124 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.dto.KycDeadLetterDTO;
+import com.example.kyc_system.entity.KycDeadLetter;
+import com.example.kyc_system.entity.KycRequest;
+import com.example.kyc_system.enums.KycStatus;
+import com.example.kyc_system.exception.BusinessException;
+import com.example.kyc_system.queue.KycQueueOutbox;
+import com.example.kyc_system.repository.KycDeadLetterRepository;
+import com.example.kyc_system.repository.KycRequestRepository;
+import com.example.kyc_system.service.AuditLogService;
+import com.example.kyc_system.service.KycDeadLetterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of KycDeadLetterService.
+ * Dead letters are written by the processing service once a transient
+ * failure has used up kyc.retry.max-retries; replaying one goes through the
+ * queue outbox like a fresh submission.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KycDeadLetterServiceImpl implements KycDeadLetterService {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final KycDeadLetterRepository deadLetterRepository;
+    private final KycRequestRepository kycRequestRepository;
+    private final KycQueueOutbox queueOutbox;
+    private final AuditLogService auditLogService;
+
+    /** Helper to get current principal name from SecurityContext. */
+    private String getCurrentUser() {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return SecurityContextHolder.getContext().getAuthentication().getName();
+        }
+        return "SYSTEM";
+    }
+
+    @Override
+    @Transactional
+    public void record(Long requestId, String tenantId, Throwable error, int retryCount) {
+        String message = error.getMessage();
+        if (message != null && message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        deadLetterRepository.save(KycDeadLetter.builder()
+                .requestId(requestId)
+                .tenantId(tenantId)
+                .errorType(error.getClass().getName())
+                .errorMessage(message)
+                .retryCount(retryCount)
+                .createdAt(LocalDateTime.now())
+                .build());
+        log.warn("KYC request dead-lettered: requestId={}, retries={}, error={}", requestId, retryCount,
+                error.getClass().getSimpleName());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<KycDeadLetterDTO> getDeadLetters(boolean pendingOnly, Pageable pageable) {
+        Page<KycDeadLetter> page = pendingOnly
+                ? deadLetterRepository.findByReplayedAtIsNull(pageable)
+                : deadLetterRepository.findAll(pageable);
+        return page.map(this::mapToDTO);
+    }
+
+    /**
+     * Replays a dead letter. Only allowed while the request is still FAILED —
+     * if the user has already resubmitted, the replay would race their attempt.
+     */
+    @Override
+    @Transactional
+    public KycDeadLetterDTO replay(Long id) {
+        KycDeadLetter deadLetter = deadLetterRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Dead letter not found: " + id));
+        if (deadLetter.getReplayedAt() != null) {
+            throw new BusinessException("Dead letter " + id + " was already replayed");
+        }
+        KycRequest request = kycRequestRepository.findById(deadLetter.getRequestId())
+                .orElseThrow(() -> new RuntimeException("KYC request not found with id: " + deadLetter.getRequestId()));
+        if (!KycStatus.FAILED.name().equals(request.getStatus())) {
+            throw new BusinessException("KYC request " + request.getId() + " is " + request.getStatus()
+                    + ", only FAILED requests can be replayed");
+        }
+
+        request.setStatus(KycStatus.SUBMITTED.name());
+        request.setRetryCount(0);
+        request.setFailureReason(null);
+        request.setProcessingStartedAt(null);
+        queueOutbox.add(request.getId(), request.getTenantId());
+
+        String performedBy = getCurrentUser();
+        deadLetter.setReplayedAt(LocalDateTime.now());
+        deadLetter.setReplayedBy(performedBy);
+        auditLogService.logAction("REPLAY_DEAD_LETTER", "KycRequest", request.getId(),
+                "Replayed dead letter " + id, performedBy);
+        log.info("Dead letter replayed: id={}, requestId={}", id, request.getId());
+        return mapToDTO(deadLetter);
+    }
+
+    private KycDeadLetterDTO mapToDTO(KycDeadLetter deadLetter) {
+        return KycDeadLetterDTO.builder()
+                .id(deadLetter.getId())
+                .requestId(deadLetter.getRequestId())
+                .tenantId(deadLetter.getTenantId())
+                .errorType(deadLetter.getErrorType())
+                .errorMessage(deadLetter.getErrorMessage())
+                .retryCount(deadLetter.getRetryCount())
+                .createdAt(deadLetter.getCreatedAt())
+                .replayedAt(deadLetter.getReplayedAt())
+                .replayedBy(deadLetter.getReplayedBy())
+                .build();
+    }
+}
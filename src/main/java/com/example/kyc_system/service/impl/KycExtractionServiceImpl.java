@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 
 /**
  * Implementation of KycExtractionService.
- * Maps raw OCR fields (name, DOB, document number) to the database entities.
+ * Maps raw OCR fields (name, DOB, document number) and their confidences to the database entities.
  * Includes defensive parsing for OCR-extracted date strings.
  */
 @Service
@@ -43,6 +43,9 @@ public class KycExtractionServiceImpl implements KycExtractionService {
                 .extractedName(ocrResult.getName())
                 .extractedDob(safeParseDate(ocrResult.getDob()))
                 .extractedDocumentNumber(ocrResult.getDocumentNumber())
+                .nameConfidence(ocrResult.getNameConfidence())
+                .dobConfidence(ocrResult.getDobConfidence())
+                .documentNumberConfidence(ocrResult.getDocumentNumberConfidence())
                 .rawOcrResponse(ocrResult.getRawResponse())
                 .createdAt(LocalDateTime.now())
                 .build();
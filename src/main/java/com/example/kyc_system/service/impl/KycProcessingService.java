@@ -0,0 +1,168 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.entity.*;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.enums.KycStatus;
+import com.example.kyc_system.queue.KycQueueOutbox;
+import com.example.kyc_system.queue.KycRetryPolicy;
+import com.example.kyc_system.repository.KycRequestRepository;
+import com.example.kyc_system.service.*;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.time.Duration;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Asynchronous half of the KYC lifecycle, run by {@link com.example.kyc_system.queue.KycWorker}
+ * for requests submitted through {@link KycOrchestrationService}.
+ * Implements a check-and-set (CAS) pattern for state safety. Worker nodes only.
+ */
+@Service
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@RequiredArgsConstructor
+@Slf4j
+public class KycProcessingService {
+
+        private final TransactionTemplate transactionTemplate;
+        private final KycQueueOutbox queueOutbox;
+        private final KycRequestRepository kycRequestRepository; // Direct repo access for CAS
+        private final KycRequestService requestService;
+        private final OcrService ocrService;
+        private final OcrResultCache ocrResultCache;
+        private final KycExtractionService extractionService;
+        private final KycVerificationService verificationService;
+        private final KycRetryPolicy retryPolicy;
+        private final KycDeadLetterService deadLetterService;
+
+        /**
+         * Processes a queued KYC request. Uses TransactionTemplate to manage short locks
+         * while keeping slow OCR operations outside the database transaction.
+         *
+         * @param requestId ID of the request to process
+         */
+        public void processAsync(Long requestId) {
+                // 1. Atomic Check-And-Set (CAS) - Short Transaction
+                // Also starts the processing lease kept alive by KycLeaseReaper's heartbeat and hands out
+                // this attempt's ownership token, required by every later write
+                //noinspection DataFlowIssue
+                int attempt = transactionTemplate.execute(status -> kycRequestRepository.startProcessing(requestId) == 0
+                                ? 0 : kycRequestRepository.findProcessingAttemptById(requestId));
+
+                if (attempt == 0) {
+                        log.debug("Request {} already processing or finished, skipping", requestId);
+                        return; // Already processed
+                }
+
+                log.info("Async processing started for request: {}", requestId);
+                // 2. Retrieve Data - Short Transaction
+                // We fetch necessary data to perform OCR outside the transaction
+                var processingData = transactionTemplate.execute(status -> {
+                        KycRequest request = kycRequestRepository.findById(requestId).orElseThrow();
+                        // Initialize what we need
+                        KycDocument document = request.getKycDocuments().iterator().next();
+                        return new Object() {
+                                final Long reqId = request.getId();
+                                // User not needed here, fetched inside verifyAndSave
+                                final String docPath = document.getDocumentPath();
+                                final DocumentType docType = DocumentType.valueOf(document.getDocumentType());
+                                final Long docId = document.getId();
+                                final String docHash = document.getDocumentHash();
+                        };
+                });
+
+                try {
+                        // 3. Heavy OCR - NO TRANSACTION HERE
+                        // This prevents holding a DB connection during slow I/O.
+                        // Identical content (e.g. resubmitted after FAILED) reuses the earlier result.
+                        OcrResult ocrResult = ocrResultCache.get(processingData.docHash, processingData.docType)
+                                .orElse(null);
+                        if (ocrResult != null) {
+                                log.info("OCR result reused from cache for request {}", requestId);
+                        } else {
+                                ocrResult = ocrService.extract(new File(processingData.docPath), processingData.docType);
+                                ocrResultCache.put(processingData.docHash, processingData.docType, ocrResult);
+                        }
+                        OcrResult extractedResult = ocrResult;
+
+                        // 4. Save & Verify - Short Transaction
+                        transactionTemplate.execute(status -> {
+                                KycRequest request = kycRequestRepository.findByIdForUpdate(processingData.reqId).orElseThrow();
+                                if (!ownsProcessing(request, attempt)) {
+                                        return null;
+                                }
+                                KycExtractedData extracted = extractionService.save(processingData.docId, extractedResult);
+                                KycVerificationResult result = verificationService.verifyAndSave(processingData.reqId, extracted);
+
+                                // Update Request
+                                request.setFailureReason(result.getDecisionReason());
+                                requestService.updateStatus(request.getId(), KycStatus.valueOf(result.getFinalStatus()));
+                                return null;
+                        });
+
+                } catch (Throwable t) {
+                        log.error("Serious error during OCR processing for request {}: {}", requestId, t.getMessage(), t);
+                        handleProcessingFailure(requestId, attempt, t);
+                }
+        }
+
+        /**
+         * Transient failures go back to SUBMITTED and are re-queued through the outbox after a backoff;
+         * anything else, or a transient failure that used up its retries, marks the request FAILED.
+         * Exhausted retries are also dead-lettered for manual replay.
+         */
+        private void handleProcessingFailure(Long requestId, int attempt, Throwable t) {
+                boolean retryable = retryPolicy.isRetryable(t);
+                // Handle errors in a separate transaction
+                transactionTemplate.execute(status -> {
+                        KycRequest request = kycRequestRepository.findByIdForUpdate(requestId).orElseThrow();
+                        if (!ownsProcessing(request, attempt)) {
+                                return null;
+                        }
+                        int retries = request.getRetryCount() == null ? 0 : request.getRetryCount();
+
+                        if (retryable && retryPolicy.canRetry(retries)) {
+                                int retry = retries + 1;
+                                Duration delay = retryPolicy.backoff(retry);
+                                request.setRetryCount(retry);
+                                request.setProcessingStartedAt(null);
+                                request.setFailureReason("Retry " + retry + " scheduled after processing error: " + t.getMessage());
+                                requestService.updateStatus(request.getId(), KycStatus.SUBMITTED);
+                                queueOutbox.addDelayed(request.getId(), request.getTenantId(), delay);
+                                log.warn("Request {} scheduled for retry {} in {}", requestId, retry, delay);
+                                return null;
+                        }
+
+                        request.setFailureReason("Processing error: " + t.getMessage());
+                        requestService.updateStatus(request.getId(), KycStatus.FAILED);
+                        if (retryable) {
+                                deadLetterService.record(request.getId(), request.getTenantId(), t, retries);
+                        }
+                        log.warn("Request {} marked as FAILED due to processing error", requestId);
+                        return null;
+                });
+        }
+
+        /**
+         * A request handed back by a draining worker (or reaped after its lease expired) is no longer
+         * PROCESSING, or is PROCESSING again under a newer attempt; whoever still runs the old attempt
+         * must not overwrite the outcome of the next one. Callers hold the row lock, so ownership
+         * can't change before their writes commit.
+         */
+        private boolean ownsProcessing(KycRequest request, int attempt) {
+                if (KycStatus.PROCESSING.name().equals(request.getStatus())
+                                && request.getProcessingAttempt() != null && request.getProcessingAttempt() == attempt) {
+                        return true;
+                }
+                log.warn("Request {} is {} under attempt {} now, discarding the result of attempt {}", request.getId(),
+                                request.getStatus(), request.getProcessingAttempt(), attempt);
+                return false;
+        }
+}
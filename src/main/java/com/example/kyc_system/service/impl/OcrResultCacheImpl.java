@@ -0,0 +1,204 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.service.OcrResultCache;
+import com.example.kyc_system.util.EncryptionUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of OcrResultCache with two levels:
+ * - L1: per-node LRU map of up to kyc.ocr.cache.local-max-entries results
+ * - L2: Redis/Valkey, shared by all nodes, written with the same TTL
+ *
+ * Results contain the holder's name, DOB and document number, so the Redis
+ * copy is encrypted with {@link EncryptionUtil} like the database columns.
+ * The cache never fails a request: Redis or (de)serialisation errors count
+ * as a miss.
+ *
+ * Metrics: kyc.ocr.cache.hits (tagged level=l1|l2), kyc.ocr.cache.misses and
+ * the kyc.ocr.cache.size gauge (L1 entries).
+ */
+@Service
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@Slf4j
+public class OcrResultCacheImpl implements OcrResultCache {
+
+    /** Key prefix for cached OCR results in Redis. */
+    private static final String CACHE_PREFIX = "OCR:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final EncryptionUtil encryptionUtil;
+    private final ObjectMapper objectMapper;
+    private final KycProperties.Cache properties;
+
+    /** JSON per key; a fresh copy is deserialised on every hit. Guarded by itself. */
+    private final Map<String, LocalEntry> local;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    public OcrResultCacheImpl(StringRedisTemplate redisTemplate, EncryptionUtil encryptionUtil,
+            ObjectMapper objectMapper, KycProperties kycProperties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.encryptionUtil = encryptionUtil;
+        this.objectMapper = objectMapper;
+        this.properties = kycProperties.getOcr().getCache();
+        int maxEntries = properties.getLocalMaxEntries();
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        Gauge.builder("kyc.ocr.cache.size", this, OcrResultCacheImpl::localSize)
+                .description("OCR results held in this node's memory")
+                .register(meterRegistry);
+        this.l1Hits = Counter.builder("kyc.ocr.cache.hits").tag("level", "l1")
+                .description("OCR results served from the cache instead of running OCR")
+                .register(meterRegistry);
+        this.l2Hits = Counter.builder("kyc.ocr.cache.hits").tag("level", "l2")
+                .description("OCR results served from the cache instead of running OCR")
+                .register(meterRegistry);
+        this.misses = Counter.builder("kyc.ocr.cache.misses")
+                .description("Documents that had to be OCR'd")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a result, first in memory, then in Redis.
+     *
+     * @param documentHash SHA-256 of the uploaded file
+     * @param type         document type the result was extracted for
+     * @return the cached result, or empty if there is none (or caching is off)
+     */
+    @Override
+    public Optional<OcrResult> get(String documentHash, DocumentType type) {
+        if (!properties.isEnabled() || !StringUtils.hasText(documentHash)) {
+            return Optional.empty();
+        }
+        String key = key(documentHash, type);
+
+        String json = getLocal(key);
+        if (json != null) {
+            Optional<OcrResult> result = deserialize(json);
+            if (result.isPresent()) {
+                l1Hits.increment();
+                return result;
+            }
+        }
+
+        if (properties.isRedis()) {
+            try {
+                String encrypted = redisTemplate.opsForValue().get(key);
+                if (encrypted != null) {
+                    json = encryptionUtil.decrypt(encrypted);
+                    Optional<OcrResult> result = deserialize(json);
+                    if (result.isPresent()) {
+                        putLocal(key, json);
+                        l2Hits.increment();
+                        return result;
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("OCR cache lookup in Redis failed, running OCR: {}", e.getMessage());
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a result in memory and in Redis, both expiring after kyc.ocr.cache.ttl.
+     *
+     * @param documentHash SHA-256 of the uploaded file
+     * @param type         document type the result was extracted for
+     * @param result       OCR result to reuse
+     */
+    @Override
+    public void put(String documentHash, DocumentType type, OcrResult result) {
+        if (!properties.isEnabled() || !StringUtils.hasText(documentHash) || result == null) {
+            return;
+        }
+        String key = key(documentHash, type);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise OCR result for caching: {}", e.getMessage());
+            return;
+        }
+        putLocal(key, json);
+
+        if (properties.isRedis()) {
+            try {
+                redisTemplate.opsForValue().set(key, encryptionUtil.encrypt(json), properties.getTtl());
+            } catch (Exception e) {
+                log.warn("Could not store OCR result in Redis: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String key(String documentHash, DocumentType type) {
+        return CACHE_PREFIX + type.name() + ":" + documentHash;
+    }
+
+    private String getLocal(String key) {
+        synchronized (local) {
+            LocalEntry entry = local.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= System.nanoTime()) {
+                local.remove(key);
+                return null;
+            }
+            return entry.json();
+        }
+    }
+
+    private void putLocal(String key, String json) {
+        if (properties.getLocalMaxEntries() <= 0) {
+            return;
+        }
+        synchronized (local) {
+            local.put(key, new LocalEntry(json, System.nanoTime() + properties.getTtl().toNanos()));
+        }
+    }
+
+    private int localSize() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    private Optional<OcrResult> deserialize(String json) {
+        try {
+            return Optional.of(objectMapper.readValue(json, OcrResult.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached OCR result: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private record LocalEntry(String json, long expiresAt) {
+    }
+}
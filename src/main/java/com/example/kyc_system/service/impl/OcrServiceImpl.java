@@ -1,43 +1,75 @@
 package com.example.kyc_system.service.impl;
 
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
 import com.example.kyc_system.dto.OcrResult;
 import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.enums.OcrField;
 import com.example.kyc_system.service.OcrService;
-import net.sourceforge.tess4j.ITesseract;
-import net.sourceforge.tess4j.Tesseract;
+import com.example.kyc_system.ocr.DocumentClassifier;
+import com.example.kyc_system.ocr.DocumentTypeValidator;
+import com.example.kyc_system.ocr.FieldExtractor;
+import com.example.kyc_system.ocr.ImagePreprocessor;
+import com.example.kyc_system.ocr.PageRecognizer;
+import com.example.kyc_system.ocr.RecognizedText;
+import com.example.kyc_system.ocr.RegionRecognizer;
+import com.example.kyc_system.ocr.TesseractEnginePool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import net.sourceforge.tess4j.TesseractException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
 
 /**
  * Implementation of OcrService using Tesseract OCR (Tess4J).
- * Handles document validation (PAN vs Aadhaar) and regex-based field extraction.
+ * Uploads are cleaned up by {@link ImagePreprocessor} and recognised by engines
+ * borrowed from {@link TesseractEnginePool}, so the language model is loaded once
+ * per engine rather than once per document. Fixed-layout documents are read
+ * region by region through {@link RegionRecognizer} (kyc.ocr.pass times the
+ * region and full-page passes); the pages of a PDF are
+ * OCR'd in parallel by {@link PageRecognizer}. A low-resolution header pass
+ * ({@link DocumentClassifier}) rejects the wrong document type up front.
+ * Handles document validation (PAN vs Aadhaar); fields are read by {@link FieldExtractor}
+ * and scored with Tesseract's word confidences. A document with a required
+ * field missing or below kyc.ocr.second-pass.min-confidence is OCR'd a second
+ * time with heavier preprocessing and another page segmentation mode.
  * Optimized for Indian KYC document formats.
  */
 @Service
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@ConditionalOnProperty(prefix = "kyc.ocr", name = "engine", havingValue = "tesseract", matchIfMissing = true)
+@RequiredArgsConstructor
 @Slf4j
 public class OcrServiceImpl implements OcrService {
 
-    @Value("${tesseract.datapath}")
-    private String dataPath;
-
-    /** Configures and returns a Tesseract instance with the specified datapath. */
-    public ITesseract getTesseractInstance() {
-        Tesseract t = new Tesseract();
-        t.setDatapath(dataPath);
-        return t;
-    }
+    private final TesseractEnginePool enginePool;
+    private final ImagePreprocessor preprocessor;
+    private final RegionRecognizer regionRecognizer;
+    private final PageRecognizer pageRecognizer;
+    private final DocumentClassifier documentClassifier;
+    private final DocumentTypeValidator documentTypeValidator;
+    private final KycProperties kycProperties;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Executes OCR on the provided file and maps the resulting text to an OcrResult.
      * Enforces document type validation to ensure correct document upload.
+     * Document types with a region profile are read region by region first; the
+     * whole page is only recognised if that doesn't yield every field. Fields
+     * still missing or unreliable after that trigger the second pass.
      *
      * @param file the image/PDF file
      * @param type the expected document type (PAN/AADHAAR)
@@ -47,259 +79,344 @@ public class OcrServiceImpl implements OcrService {
     public OcrResult extract(File file, DocumentType type) {
         try {
             log.info("OCR extraction started: file={}, docType={}", file.getName(), type);
-            ITesseract tesseract = getTesseractInstance();
-            tesseract.setLanguage("eng");
-
-            String result = tesseract.doOCR(file);
-            validateDocumentType(result, type);
-            Map<String, Object> raw = new HashMap<>();
-            raw.put("text", result);
-
-            OcrResult ocrResult = OcrResult.builder()
-                    .name(extractName(result, type))
-                    .dob(extractDob(result, type))
-                    .documentNumber(extractDocumentNumber(result, type))
-                    .rawResponse(raw)
-                    .build();
-            log.info("OCR extraction complete: docType={}, nameExtracted={}, docNumberExtracted={}",
-                    type, ocrResult.getName() != null, ocrResult.getDocumentNumber() != null);
+            List<BufferedImage> pages = decode(file);
+            String header = rejectOtherDocumentType(pages, type);
+
+            OcrResult regionResult = pages != null && !pages.isEmpty()
+                    ? extractRegions(pages.get(0), type, header)
+                    : null;
+            OcrResult ocrResult = regionResult;
+            if (!isComplete(regionResult)) {
+                ocrResult = merge(regionResult, extractFullPage(file, pages, type));
+            }
+            if (needsSecondPass(ocrResult)) {
+                ocrResult = secondPass(file, type, ocrResult);
+            }
+            log.info("OCR extraction complete: docType={}, nameExtracted={}, docNumberExtracted={}, regionsOnly={}",
+                    type, ocrResult.getName() != null, ocrResult.getDocumentNumber() != null,
+                    ocrResult == regionResult);
             return ocrResult;
-        } catch (TesseractException e) {
+        } catch (TesseractException | IOException e) {
             log.error("OCR extraction failed: file={}, docType={}", file.getName(), type, e);
             throw new RuntimeException("OCR failed", e);
         }
     }
 
-    /**
-     * Heuristic-based validation to ensure the OCR text contains keywords 
-     * relevant to the expected document type. Throws exception if mismatch found.
-     */
-    private void validateDocumentType(String text, DocumentType type) {
-        if (text == null || text.isBlank()) {
-            return;
+    private OcrResult extractFullPage(File file, List<BufferedImage> pages, DocumentType type)
+            throws TesseractException {
+        Timer.Sample fullPagePass = Timer.start(meterRegistry);
+        RecognizedText result;
+        try {
+            result = recognize(file, pages, type);
+        } finally {
+            fullPagePass.stop(passTimer("full-page"));
         }
+        List<String> keywords = validateDocumentType(result.text(), type);
+        Map<String, Object> raw = new HashMap<>();
+        raw.put("text", result.text());
+        raw.put("keywords", keywords);
+        return scored(result, type, raw);
+    }
 
-        String lowerText = text.toLowerCase();
-        if (type == DocumentType.PAN) {
-            boolean hasPanKeywords = lowerText.contains("income tax department") || lowerText.contains("permanent account number card") ||
-                    lowerText.contains("govt. of india");
-
-            if (!hasPanKeywords) {
-                // Check for Aadhaar keywords to give a better error message
-                if (lowerText.contains("authority of india") || lowerText.contains("aadhaar")
-                        || lowerText.contains("vid :") || lowerText.contains("government of india")) {
-                    throw new RuntimeException("Invalid document: Uploaded document appears to be an Aadhaar card, but PAN was expected.");
-                }
-                throw new RuntimeException("Invalid document: Could not verify this is a PAN card. Please ensure the image is clear.");
-            }
-        } else if (type == DocumentType.AADHAAR) {
-            boolean hasAadhaarKeywords = lowerText.contains("authority of india") ||
-                    lowerText.contains("aadhaar") ||
-                    lowerText.contains("vid :") ||
-                    lowerText.contains("male") ||
-                    lowerText.contains("female") ||
-                    lowerText.contains("enrollment no") ||
-                    lowerText.contains("government of india");
-
-            if (!hasAadhaarKeywords) {
-                // Check for PAN keywords to give a better error message
-                if (lowerText.contains("income tax department") || lowerText.contains("permanent account number card")) {
-                    throw new RuntimeException("Invalid document: Uploaded document appears to be a PAN card, but Aadhaar was expected.");
-                }
-                throw new RuntimeException("Invalid document: Could not verify this is an Aadhaar card. Please ensure the image is clear.");
-            }
-        }
+    /**
+     * Extracts the fields of a full-page text, each scored by the words of the line it was read from.
+     */
+    private static OcrResult scored(RecognizedText text, DocumentType type, Map<String, Object> raw) {
+        FieldExtractor.Fields fields = FieldExtractor.extract(text.text(), type);
+        return OcrResult.builder()
+                .name(fields.name())
+                .nameConfidence(text.confidence(fields.name(), fields.nameLine()))
+                .dob(fields.dob())
+                .dobConfidence(text.confidence(fields.dob(), fields.dobLine()))
+                .documentNumber(fields.documentNumber())
+                .documentNumberConfidence(text.confidence(fields.documentNumber(), fields.documentNumberLine()))
+                .rawResponse(raw)
+                .build();
     }
 
     /**
-     * Extracts name based on document layout heuristics.
+     * Reads only the regions of the type's profile. Returns null if there is no
+     * profile or the regions don't look like the expected document — the full
+     * page then decides, with the usual validation errors. The document type
+     * is validated against the pre-pass's header text plus the regions, so
+     * the header needs no region of its own.
+     *
+     * @param header header text from {@link DocumentClassifier}, null if the
+     *               pre-pass didn't run
      */
-    private String extractName(String text, DocumentType type) {
-        if (text == null || text.isBlank()) {
+    private OcrResult extractRegions(BufferedImage page, DocumentType type, String header)
+            throws TesseractException {
+        List<KycProperties.Region> regions = regionRecognizer.profile(type);
+        if (regions.isEmpty()) {
             return null;
         }
-
-        String[] lines = text.split("\\n");
-        if (type == DocumentType.PAN) {
-            // PAN card name is usually in all caps, above "Father's Name"
-            for (int i = 0; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (line.toLowerCase().contains("father's name") || line.toLowerCase().contains("fathers name")) {
-                    if (i > 0) {
-                        String candidate = cleanName(lines[i - 1].trim());
-                        if (isValidName(candidate))
-                            return candidate;
-                    }
-                }
-            }
-
-            // Fallback for PAN: Look for lines that look like names (all caps, alphabetic)
-            // usually after "Permanent Account Number Card" and before DOB
-            boolean foundTitle = false;
-            for (String line : lines) {
-                String trimmed = line.trim();
-                if (trimmed.toLowerCase().contains("permanent account number card")) {
-                    foundTitle = true;
-                    continue;
-                }
-                if (foundTitle) {
-                    // Skip the PAN number line if it appears right after title
-                    if (trimmed.matches("[A-Z0-9\\\\ ]+") && (trimmed.contains("1") || trimmed.contains("2"))) {
-                        continue;
-                    }
-                    String candidate = cleanName(trimmed);
-                    if (isValidName(candidate))
-                        return candidate;
-                }
-            }
-        } else if (type == DocumentType.AADHAAR) {
-            // Aadhaar name is usually at the top, before "DOB" or "Year of Birth"
-            for (int i = 0; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (line.toLowerCase().contains("dob") || line.toLowerCase().contains("birth")) {
-                    if (i > 0) {
-                        String candidate = cleanName(lines[i - 1].trim());
-                        if (isValidName(candidate))
-                            return candidate;
-                    }
-                }
-            }
+        Timer.Sample regionPass = Timer.start(meterRegistry);
+        Map<OcrField, RecognizedText> texts;
+        try {
+            texts = regionRecognizer.recognize(page, regions);
+        } finally {
+            regionPass.stop(passTimer("regions"));
         }
-
-        // Try labeled regex across entire text
-        Pattern pLabeled = Pattern.compile("(?m)^(?:Name|Full Name)[:\\s]+([A-Za-z .]+)$", Pattern.CASE_INSENSITIVE);
-        Matcher mLabeled = pLabeled.matcher(text);
-        if (mLabeled.find()) {
-            return mLabeled.group(1).trim();
+        String allText = String.join("\n", texts.values().stream().map(RecognizedText::text).toList());
+        List<String> keywords;
+        try {
+            keywords = validateDocumentType(header == null ? allText : header + "\n" + allText, type);
+        } catch (RuntimeException e) {
+            log.debug("Regions did not validate as {}, falling back to full page: {}", type, e.getMessage());
+            return null;
         }
+        Map<String, Object> raw = new HashMap<>();
+        raw.put("text", allText);
+        raw.put("keywords", keywords);
+        if (header != null) {
+            raw.put("header", header);
+        }
+        Map<String, String> regionTexts = new HashMap<>();
+        texts.forEach((field, text) -> regionTexts.put(field.name(), text.text()));
+        raw.put("regions", regionTexts);
+
+        RecognizedText nameText = texts.get(OcrField.NAME);
+        RecognizedText dobText = texts.get(OcrField.DOB);
+        RecognizedText numberText = texts.getOrDefault(OcrField.DOCUMENT_NUMBER, RecognizedText.of(""));
+        String name = FieldExtractor.regionName(nameText != null ? nameText.text() : null);
+        String dob = FieldExtractor.regionDob(dobText != null ? dobText.text() : null, type);
+        String documentNumber = FieldExtractor.typedDocumentNumber(numberText.text(), type);
+        return OcrResult.builder()
+                .name(name)
+                .nameConfidence(nameText != null ? nameText.confidence(name) : null)
+                .dob(dob)
+                .dobConfidence(dobText != null ? dobText.confidence(dob) : null)
+                .documentNumber(documentNumber)
+                .documentNumberConfidence(numberText.confidence(documentNumber))
+                .rawResponse(raw)
+                .build();
+    }
 
-        return null;
+    private static boolean isComplete(OcrResult result) {
+        return result != null && result.getName() != null && result.getDob() != null
+                && result.getDocumentNumber() != null;
     }
 
-    private boolean isValidName(String name) {
-        if (name == null || name.length() < 5)
-            return false;
-        // Ignore lines with digits or some specific symbols
-        if (name.matches(".*[0-9@#%&*+=].*"))
+    /**
+     * @return true if a required field is missing or read with low confidence;
+     *         a field whose confidence is unknown counts as reliable
+     */
+    private boolean needsSecondPass(OcrResult result) {
+        KycProperties.SecondPass properties = kycProperties.getOcr().getSecondPass();
+        if (!properties.isEnabled()) {
             return false;
+        }
+        return !isComplete(result) || isLow(result.getNameConfidence(), properties)
+                || isLow(result.getDobConfidence(), properties)
+                || isLow(result.getDocumentNumberConfidence(), properties);
+    }
 
-        // Count alphabetic characters vs total characters
-        long alphaCount = name.chars().filter(Character::isAlphabetic).count();
-        if ((double) alphaCount / name.length() < 0.7)
-            return false;
+    private static boolean isLow(Float confidence, KycProperties.SecondPass properties) {
+        return confidence != null && confidence < properties.getMinConfidence();
+    }
 
-        // Ignore common header/footer text or small garbage fragments
-        String lower = name.toLowerCase();
-        if (lower.contains("india") || lower.contains("department") ||
-                lower.contains("income") || lower.contains("card") ||
-                lower.contains("permanent") || lower.contains("account") ||
-                lower.contains("signature"))
-            return false;
+    /**
+     * OCRs the document again from the enhanced images with the second pass's
+     * page segmentation mode. Each field keeps the more confident of the two
+     * reads; the first result stands if the second text doesn't validate.
+     */
+    private OcrResult secondPass(File file, DocumentType type, OcrResult first)
+            throws TesseractException, IOException {
+        List<BufferedImage> pages = preprocessor.enhance(file);
+        if (pages == null || pages.isEmpty()) {
+            return first;
+        }
+        RecognizedText text = pageRecognizer.recognize(pages,
+                kycProperties.getOcr().getSecondPass().getPageSegMode(), t -> hasAllFields(t, type));
+        try {
+            validateDocumentType(text.text(), type);
+        } catch (RuntimeException e) {
+            log.debug("Second pass did not validate as {}, keeping the first: {}", type, e.getMessage());
+            secondPassCounter("rejected").increment();
+            return first;
+        }
+        OcrResult second = scored(text, type, Map.of());
+
+        List<String> improved = new ArrayList<>();
+        OcrResult.OcrResultBuilder merged = OcrResult.builder();
+        if (isBetter(second.getName(), second.getNameConfidence(), first.getName(), first.getNameConfidence())) {
+            merged.name(second.getName()).nameConfidence(second.getNameConfidence());
+            improved.add(OcrField.NAME.name());
+        } else {
+            merged.name(first.getName()).nameConfidence(first.getNameConfidence());
+        }
+        if (isBetter(second.getDob(), second.getDobConfidence(), first.getDob(), first.getDobConfidence())) {
+            merged.dob(second.getDob()).dobConfidence(second.getDobConfidence());
+            improved.add(OcrField.DOB.name());
+        } else {
+            merged.dob(first.getDob()).dobConfidence(first.getDobConfidence());
+        }
+        if (isBetter(second.getDocumentNumber(), second.getDocumentNumberConfidence(),
+                first.getDocumentNumber(), first.getDocumentNumberConfidence())) {
+            merged.documentNumber(second.getDocumentNumber())
+                    .documentNumberConfidence(second.getDocumentNumberConfidence());
+            improved.add(OcrField.DOCUMENT_NUMBER.name());
+        } else {
+            merged.documentNumber(first.getDocumentNumber())
+                    .documentNumberConfidence(first.getDocumentNumberConfidence());
+        }
+        log.info("Second OCR pass: docType={}, improved={}", type, improved);
+        secondPassCounter(improved.isEmpty() ? "unchanged" : "improved").increment();
 
-        // Blacklist known OCR noise
-        if (lower.equals("lar ee"))
-            return false;
+        Map<String, Object> raw = new HashMap<>(first.getRawResponse());
+        raw.put("secondPass", Map.of("text", text.text(), "improved", improved));
+        return merged.rawResponse(raw).build();
+    }
 
-        // Names on IDs usually have at least two words OR one reasonably long word
-        if (!name.contains(" ") && name.length() < 6)
+    /**
+     * A second read wins if the first found nothing, or if both are scored
+     * and the second is more confident.
+     */
+    private static boolean isBetter(String value, Float confidence, String firstValue, Float firstConfidence) {
+        if (value == null) {
             return false;
+        }
+        if (firstValue == null) {
+            return true;
+        }
+        return confidence != null && firstConfidence != null && confidence > firstConfidence;
+    }
 
-        return true;
+    /**
+     * Recognition time of the region pass and of the full-page pass, so the
+     * saving of region OCR can be measured.
+     */
+    private Timer passTimer(String pass) {
+        return Timer.builder("kyc.ocr.pass").tag("pass", pass)
+                .description("Time to OCR one document, by pass")
+                .register(meterRegistry);
     }
 
-    private String cleanName(String name) {
-        if (name == null)
-            return null;
-        // Remove common labels and noise like backslashes often seen in OCR
-        // Also remove leading/trailing noise characters that might be misread as
-        // letters
-        // Specifically handle trailing fragments like " ee", " ae" which are common in
-        // ID scans
-        return name.replaceAll("(?i)^(?:Name|Full Name)[:\\s]+", "")
-                .replaceAll("[\\\\|©_—«-]", "")
-                .replaceAll("\\s+[a-z]{2,3}$", "") // Remove trailing lowercase noise like 'ee', 'ae'
-                .replaceAll("^[^A-Za-z]+|[^A-Za-z]+$", "")
-                .trim();
+    private Counter secondPassCounter(String outcome) {
+        return Counter.builder("kyc.ocr.second-pass").tag("outcome", outcome)
+                .description("Second OCR passes, by whether they improved a field")
+                .register(meterRegistry);
     }
 
-    private String extractDob(String text, DocumentType type) {
-        // Look for common date patterns with labels
-        Pattern p = Pattern.compile(
-                "(?:DOB|Date of Birth|Birth Date|Year of Birth)[:\\s]+(\\d{2,4}[-/]\\d{2}[-/]\\d{2,4}|\\d{4})",
-                Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(text);
-        if (m.find()) {
-            String dob = m.group(1);
-            if (dob.length() == 4)
-                return dob + "-01-01"; // Just year of birth
-            return convertDate(dob);
+    /**
+     * Keeps the fields the regions found and fills the rest from the full page.
+     */
+    private static OcrResult merge(OcrResult regions, OcrResult fullPage) {
+        if (regions == null) {
+            return fullPage;
         }
-
-        // Fallback: Look for any date pattern DD/MM/YYYY or DD-MM-YYYY
-        Pattern pFallback = Pattern.compile("(\\d{2}[-/]\\d{2}[-/]\\d{4})");
-        Matcher mFallback = pFallback.matcher(text);
-        if (mFallback.find()) {
-            return convertDate(mFallback.group(1));
+        Map<String, Object> raw = new HashMap<>(fullPage.getRawResponse());
+        raw.put("regions", regions.getRawResponse().get("regions"));
+        OcrResult.OcrResultBuilder merged = OcrResult.builder().rawResponse(raw);
+        if (regions.getName() != null) {
+            merged.name(regions.getName()).nameConfidence(regions.getNameConfidence());
+        } else {
+            merged.name(fullPage.getName()).nameConfidence(fullPage.getNameConfidence());
         }
-
-        // Fallback for Aadhaar "Year of Birth: YYYY"
-        if (type == DocumentType.AADHAAR) {
-            Pattern pYear = Pattern.compile("(?i)(?:Year of Birth|YOB|DOB).*?([1-2][0-9]{3})");
-            Matcher mYear = pYear.matcher(text);
-            if (mYear.find()) {
-                return mYear.group(1) + "-01-01";
-            }
+        if (regions.getDob() != null) {
+            merged.dob(regions.getDob()).dobConfidence(regions.getDobConfidence());
+        } else {
+            merged.dob(fullPage.getDob()).dobConfidence(fullPage.getDobConfidence());
+        }
+        if (regions.getDocumentNumber() != null) {
+            merged.documentNumber(regions.getDocumentNumber())
+                    .documentNumberConfidence(regions.getDocumentNumberConfidence());
+        } else {
+            merged.documentNumber(fullPage.getDocumentNumber())
+                    .documentNumberConfidence(fullPage.getDocumentNumberConfidence());
         }
-        return null;
+        return merged.build();
     }
 
-    private String extractDocumentNumber(String text, DocumentType type) {
-        if (type == DocumentType.PAN) {
-            // ABCDE1234F
-            Pattern p = Pattern.compile("[A-Z]{5}[0-9]{4}[A-Z]{1}");
-            Matcher m = p.matcher(text);
-            if (m.find())
-                return m.group(0);
-        } else if (type == DocumentType.AADHAAR) {
-            // 1234 5678 9012
-            Pattern p = Pattern.compile("\\d{4}\\s?\\d{4}\\s?\\d{4}");
-            Matcher m = p.matcher(text);
-            if (m.find())
-                return m.group(0).replaceAll("\\s", "");
+    /**
+     * Low-resolution header pre-pass: a document that clearly is another type is
+     * rejected before the full-resolution OCR. Undecided documents go on.
+     *
+     * @return the header text, or null if the pre-pass didn't run
+     */
+    private String rejectOtherDocumentType(List<BufferedImage> pages, DocumentType type) throws TesseractException {
+        if (pages == null || pages.isEmpty() || !documentClassifier.isEnabled()) {
+            return null;
         }
+        DocumentClassifier.Classification classification = documentClassifier.classify(pages.get(0), type);
+        Optional<DocumentType> detected = classification.type();
+        if (detected.isPresent() && detected.get() != type) {
+            throw typeMismatch(detected.get(), type);
+        }
+        return classification.header();
+    }
 
-        // Generic Fallback
-        Pattern p = Pattern.compile("(?:No|Number|ID\\s*NO|DOC\\s*NO)[:\\s]+([A-Z0-9-]+)", Pattern.CASE_INSENSITIVE);
-        Matcher m = p.matcher(text);
-        if (m.find()) {
-            return m.group(1).trim();
+    private static RuntimeException typeMismatch(DocumentType detected, DocumentType expected) {
+        return new RuntimeException("Invalid document: Uploaded document appears to be " + withArticle(detected)
+                + " card, but " + displayName(expected) + " was expected.");
+    }
+
+    private static String withArticle(DocumentType type) {
+        return (type == DocumentType.AADHAAR ? "an " : "a ") + displayName(type);
+    }
+
+    private static String displayName(DocumentType type) {
+        return type == DocumentType.AADHAAR ? "Aadhaar" : type.name();
+    }
+
+    /**
+     * Preprocesses the upload before any engine is borrowed, so no engine sits
+     * idle while images are decoded. With preprocessing off, PDFs are still
+     * rendered so their pages can be OCR'd in parallel; other files go to
+     * Tesseract as they are (null).
+     */
+    private List<BufferedImage> decode(File file) throws IOException {
+        if (preprocessor.isEnabled()) {
+            return preprocessor.preprocess(file);
         }
-        return null;
+        List<BufferedImage> pages = preprocessor.decodePdf(file);
+        return pages.isEmpty() ? null : pages;
     }
 
-    private String convertDate(String date) {
-        if (date == null)
-            return null;
-        String[] parts = date.split("[-/]");
-        if (parts.length == 3) {
-            // YYYY-MM-DD
-            if (parts[0].length() == 4) {
-                return date.replace('/', '-');
-            }
+    /**
+     * Runs Tesseract on the page images, or on the raw file if there are none.
+     * Pages are recognised in parallel and merged in page order; recognition
+     * stops early once the pages so far hold every field of the document type.
+     * Engines come pre-loaded with the kyc.ocr.language model.
+     */
+    private RecognizedText recognize(File file, List<BufferedImage> pages, DocumentType type)
+            throws TesseractException {
+        if (pages == null) {
+            return enginePool.execute(tesseract -> RecognizedText.recognize(tesseract, file));
+        }
+        return pageRecognizer.recognize(pages, text -> hasAllFields(text, type));
+    }
 
-            try {
-                int v0 = Integer.parseInt(parts[0]);
-                int v1 = Integer.parseInt(parts[1]);
+    private boolean hasAllFields(String text, DocumentType type) {
+        try {
+            validateDocumentType(text, type);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return FieldExtractor.name(text, type) != null && FieldExtractor.dob(text, type) != null
+                && FieldExtractor.documentNumber(text, type) != null;
+    }
 
-                if (v1 > 12) { // MM/DD/YYYY -> YYYY-MM-DD
-                    return parts[2] + "-" + String.format("%02d", v0) + "-" + String.format("%02d", v1);
-                } else { // DD/MM/YYYY -> YYYY-MM-DD
-                    return parts[2] + "-" + String.format("%02d", v1) + "-" + String.format("%02d", v0);
-                }
-            } catch (NumberFormatException e) {
-                return date;
+    /**
+     * Checks that the OCR text carries a keyword of the expected document type
+     * (one pass for all types' keywords). Throws if it doesn't, naming the type
+     * it looks like where the keywords tell.
+     *
+     * @return keywords found, for the raw response
+     */
+    private List<String> validateDocumentType(String text, DocumentType type) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        DocumentTypeValidator.KeywordMatch match = documentTypeValidator.check(text, type);
+        log.debug("Document keywords: docType={}, matched={}", type, match.matched());
+        if (!match.confirmed()) {
+            if (match.otherType() != null) {
+                throw typeMismatch(match.otherType(), type);
             }
+            throw new RuntimeException("Invalid document: Could not verify this is " + withArticle(type)
+                    + " card. Please ensure the image is clear.");
         }
-        return date;
+        return List.copyOf(match.matched());
     }
 }
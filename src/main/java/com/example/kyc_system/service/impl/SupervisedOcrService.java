@@ -0,0 +1,155 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.ConditionalOnRunMode;
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import com.example.kyc_system.ocr.OcrDeadline;
+import com.example.kyc_system.service.OcrService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OcrService that bounds how long OCR of one document may take.
+ *
+ * Extraction runs on a supervised executor under an {@link OcrDeadline} of
+ * kyc.ocr.timeout (or the document type's entry in kyc.ocr.timeouts). When
+ * it passes, the deadline is cancelled — engines stop inside Tesseract at
+ * their next check — the thread is interrupted and the caller gets an
+ * {@link OcrTimeoutException}, which the retry policy routes to retry or
+ * failure. The worker is free again at once, even if a native call ignores
+ * the cancellation.
+ *
+ * The executor has room for twice the worker pool, so abandoned extractions
+ * still finishing don't block new ones. Metrics: kyc.ocr.timeouts (tagged
+ * documentType) and the kyc.ocr.abandoned gauge (timed-out extractions still
+ * running).
+ */
+@Service
+@ConditionalOnRunMode(KycRunMode.WORKER)
+@ConditionalOnProperty(prefix = "kyc.ocr", name = "engine", havingValue = "tesseract", matchIfMissing = true)
+@Primary
+@Slf4j
+public class SupervisedOcrService implements OcrService {
+
+    /** States of one extraction; only the side that moves it off RUNNING decides on the abandoned count. */
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int ABANDONED = 2;
+
+    private final OcrService delegate;
+    private final KycProperties.Ocr properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    public SupervisedOcrService(OcrServiceImpl delegate, KycProperties kycProperties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = kycProperties.getOcr();
+        this.meterRegistry = meterRegistry;
+        int maxThreads = 2 * Math.max(1, kycProperties.getWorker().getPoolSize());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "kyc-ocr-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("kyc.ocr.abandoned", abandoned, AtomicInteger::get)
+                .description("Timed-out OCR extractions still running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Extracts the document within its deadline.
+     *
+     * @param file the image/PDF file
+     * @param type the expected document type
+     * @return OcrResult from the underlying OCR service
+     * @throws OcrTimeoutException if OCR doesn't finish within the deadline
+     */
+    @Override
+    public OcrResult extract(File file, DocumentType type) {
+        Duration timeout = properties.timeoutFor(type);
+        OcrDeadline deadline = new OcrDeadline(timeout);
+        AtomicInteger state = new AtomicInteger(RUNNING);
+
+        Future<OcrResult> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return deadline.call(() -> delegate.extract(file, type));
+                } finally {
+                    // Lost the race to the caller's timeout: it counted this extraction as abandoned
+                    if (!state.compareAndSet(RUNNING, DONE)) {
+                        abandoned.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Every thread is taken by abandoned extractions; try again later
+            throw new RuntimeException("OCR failed",
+                    new OcrEngineUnavailableException("No OCR thread free, " + abandoned.get() + " still running past their deadline"));
+        }
+
+        try {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (!state.compareAndSet(RUNNING, ABANDONED)) {
+                    // Finished right after the timeout; its outcome stands
+                    return future.get();
+                }
+                abandoned.incrementAndGet();
+                deadline.cancel();
+                future.cancel(true);
+                Counter.builder("kyc.ocr.timeouts")
+                        .description("OCR extractions abandoned at their deadline")
+                        .tag("documentType", type.name())
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("OCR timed out: file={}, docType={}, timeout={}", file.getName(), type, timeout);
+                throw new OcrTimeoutException(type, timeout);
+            }
+        } catch (InterruptedException e) {
+            deadline.cancel();
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("OCR interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("OCR failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -49,6 +49,7 @@ public class TenantServiceImpl implements TenantService {
                 .plan("BASIC")
                 .isActive(true)
                 .maxDailyAttempts(dto.getMaxDailyAttempts() != null ? dto.getMaxDailyAttempts() : 5)
+                .maxConcurrentProcessing(dto.getMaxConcurrentProcessing())
                 .allowedDocumentTypes(
                         dto.getAllowedDocumentTypes() != null
                                 ? String.join(",", dto.getAllowedDocumentTypes())
@@ -98,6 +99,8 @@ public class TenantServiceImpl implements TenantService {
             tenant.setEmail(dto.getEmail());
         if (dto.getMaxDailyAttempts() != null)
             tenant.setMaxDailyAttempts(dto.getMaxDailyAttempts());
+        if (dto.getMaxConcurrentProcessing() != null)
+            tenant.setMaxConcurrentProcessing(dto.getMaxConcurrentProcessing());
         if (dto.getAllowedDocumentTypes() != null)
             tenant.setAllowedDocumentTypes(String.join(",", dto.getAllowedDocumentTypes()));
 
@@ -203,6 +206,7 @@ public class TenantServiceImpl implements TenantService {
                 .plan(tenant.getPlan())
                 .isActive(tenant.getIsActive())
                 .maxDailyAttempts(tenant.getMaxDailyAttempts())
+                .maxConcurrentProcessing(tenant.getMaxConcurrentProcessing())
                 .allowedDocumentTypes(tenant.getAllowedDocumentTypes())
                 .apiKey(tenant.getApiKey())
                 .createdAt(tenant.getCreatedAt())
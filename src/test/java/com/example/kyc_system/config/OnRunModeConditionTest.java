@@ -0,0 +1,112 @@
+package com.example.kyc_system.config;
+
+import com.example.kyc_system.enums.KycRunMode;
+import com.example.kyc_system.ocr.DocumentClassifier;
+import com.example.kyc_system.ocr.DocumentTypeValidator;
+import com.example.kyc_system.ocr.ImagePreprocessor;
+import com.example.kyc_system.ocr.PageRecognizer;
+import com.example.kyc_system.ocr.RegionRecognizer;
+import com.example.kyc_system.ocr.TesseractEnginePool;
+import com.example.kyc_system.service.OcrResultCache;
+import com.example.kyc_system.service.OcrService;
+import com.example.kyc_system.service.impl.KycOrchestrationService;
+import com.example.kyc_system.service.impl.KycProcessingService;
+import com.example.kyc_system.service.impl.OcrResultCacheImpl;
+import com.example.kyc_system.service.impl.OcrServiceImpl;
+import com.example.kyc_system.service.impl.SupervisedOcrService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ConditionalOnRunMode}.
+ *
+ * Covers:
+ * - kyc.mode unset or ALL → API and worker beans both registered
+ * - kyc.mode=api → worker beans skipped
+ * - kyc.mode=worker (relaxed case) → API beans skipped
+ * - kyc.mode=api → no OCR stack and no request processing
+ * - kyc.mode=worker → no submission side
+ */
+class OnRunModeConditionTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ModeBeans.class);
+
+    @Test
+    @DisplayName("Mode unset → both parts registered")
+    void modeUnset_AllBeans() {
+        contextRunner.run(context -> assertThat(context)
+                .hasBean("apiBean")
+                .hasBean("workerBean"));
+    }
+
+    @Test
+    @DisplayName("kyc.mode=ALL → both parts registered")
+    void modeAll_AllBeans() {
+        contextRunner.withPropertyValues("kyc.mode=ALL").run(context -> assertThat(context)
+                .hasBean("apiBean")
+                .hasBean("workerBean"));
+    }
+
+    @Test
+    @DisplayName("kyc.mode=api → worker beans skipped")
+    void modeApi_WorkerBeansSkipped() {
+        contextRunner.withPropertyValues("kyc.mode=api").run(context -> assertThat(context)
+                .hasBean("apiBean")
+                .doesNotHaveBean("workerBean"));
+    }
+
+    @Test
+    @DisplayName("kyc.mode=worker → API beans skipped")
+    void modeWorker_ApiBeansSkipped() {
+        contextRunner.withPropertyValues("kyc.mode=worker").run(context -> assertThat(context)
+                .doesNotHaveBean("apiBean")
+                .hasBean("workerBean"));
+    }
+
+    @Test
+    @DisplayName("kyc.mode=api → OCR stack and request processing skipped")
+    void modeApi_OcrStackSkipped() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(TesseractEnginePool.class, ImagePreprocessor.class,
+                        DocumentTypeValidator.class, DocumentClassifier.class, PageRecognizer.class,
+                        RegionRecognizer.class, OcrServiceImpl.class, SupervisedOcrService.class,
+                        OcrResultCacheImpl.class, KycProcessingService.class)
+                .withPropertyValues("kyc.mode=api")
+                .run(context -> assertThat(context)
+                        .doesNotHaveBean(TesseractEnginePool.class)
+                        .doesNotHaveBean(OcrService.class)
+                        .doesNotHaveBean(OcrResultCache.class)
+                        .doesNotHaveBean(KycProcessingService.class));
+    }
+
+    @Test
+    @DisplayName("kyc.mode=worker → submission side skipped")
+    void modeWorker_SubmissionSkipped() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(KycOrchestrationService.class)
+                .withPropertyValues("kyc.mode=worker")
+                .run(context -> assertThat(context).doesNotHaveBean(KycOrchestrationService.class));
+    }
+
+    @Configuration
+    static class ModeBeans {
+
+        @Bean
+        @ConditionalOnRunMode(KycRunMode.API)
+        String apiBean() {
+            return "api";
+        }
+
+        @Bean
+        @ConditionalOnRunMode(KycRunMode.WORKER)
+        String workerBean() {
+            return "worker";
+        }
+    }
+}
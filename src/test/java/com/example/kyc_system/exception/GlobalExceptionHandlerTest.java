@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -106,6 +107,25 @@ class GlobalExceptionHandlerTest {
         assertEquals("/api/test-endpoint", response.getPath());
     }
 
+    @Test
+    @DisplayName("Should handle QueueFullException (429 Too Many Requests) with Retry-After")
+    void handleQueueFullException_ReturnsTooManyRequests() {
+        // Arrange
+        QueueFullException ex = new QueueFullException("KYC processing backlog is full. Please retry later.", 42);
+
+        // Act
+        ResponseEntity<ErrorResponse> responseEntity = exceptionHandler.handleQueueFullException(ex, request);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, responseEntity.getStatusCode());
+        assertEquals("42", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorResponse response = responseEntity.getBody();
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("Too Many Requests", response.getError());
+        assertEquals("/api/test-endpoint", response.getPath());
+    }
+
     @Test
     @DisplayName("Should handle generic RuntimeException (500 Internal Server Error)")
     void handleRuntimeException_ReturnsInternalServerError() {
@@ -0,0 +1,118 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DocumentClassifier}.
+ *
+ * Covers:
+ * - Header classified by the configured identify keywords, header text handed back
+ * - Only the header band is OCR'd, scaled down to the thumbnail width
+ * - Outcome counters and the CPU-saved estimate
+ */
+class DocumentClassifierTest {
+
+    private ITesseract engine;
+    private TesseractEnginePool pool;
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentClassifier classifier;
+
+    @BeforeEach
+    void setUp() throws TesseractException {
+        engine = mock(ITesseract.class);
+        pool = mock(TesseractEnginePool.class);
+        when(pool.execute(any())).thenAnswer(invocation -> invocation
+                .<TesseractEnginePool.EngineTask<?>>getArgument(0).run(engine));
+        kycProperties = new KycProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = new DocumentClassifier(pool, new DocumentTypeValidator(kycProperties), kycProperties,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should classify by the configured identify keywords")
+    void classify_ConfiguredKeywords() throws Exception {
+        kycProperties.getOcr().getKeywords().put(DocumentType.PAN,
+                new KycProperties.DocumentKeywords(List.of("e-pan"), List.of("e-pan")));
+        classifier = new DocumentClassifier(pool, new DocumentTypeValidator(kycProperties), kycProperties,
+                meterRegistry);
+        BufferedImage page = new BufferedImage(400, 300, BufferedImage.TYPE_BYTE_GRAY);
+        when(engine.doOCR(any(BufferedImage.class))).thenReturn("e-PAN", "INCOME TAX DEPARTMENT");
+
+        assertEquals(Optional.of(DocumentType.PAN), classifier.classify(page, DocumentType.PAN).type());
+        // The old PAN header no longer identifies anything
+        assertEquals(Optional.empty(), classifier.classify(page, DocumentType.PAN).type());
+    }
+
+    @Test
+    @DisplayName("Should hand back the header text with the type")
+    void classify_ReturnsHeaderText() throws Exception {
+        BufferedImage page = new BufferedImage(400, 300, BufferedImage.TYPE_BYTE_GRAY);
+        when(engine.doOCR(any(BufferedImage.class))).thenReturn("INCOME TAX DEPARTMENT GOVT. OF INDIA");
+
+        DocumentClassifier.Classification classification = classifier.classify(page, DocumentType.PAN);
+
+        assertEquals("INCOME TAX DEPARTMENT GOVT. OF INDIA", classification.header());
+        assertEquals(Optional.of(DocumentType.PAN), classification.type());
+    }
+
+    @Test
+    @DisplayName("Should OCR only the header band, scaled down to the thumbnail width")
+    void classify_OcrsScaledHeader() throws Exception {
+        BufferedImage page = new BufferedImage(1600, 1000, BufferedImage.TYPE_BYTE_GRAY);
+        when(engine.doOCR(any(BufferedImage.class))).thenReturn("INCOME TAX DEPARTMENT");
+
+        classifier.classify(page, DocumentType.PAN);
+
+        verify(engine).doOCR(argThat((BufferedImage image) -> image.getWidth() == 800 && image.getHeight() == 150));
+    }
+
+    @Test
+    @DisplayName("Should count matches, mismatches and undecided documents")
+    void classify_CountsOutcomes() throws Exception {
+        BufferedImage page = new BufferedImage(400, 300, BufferedImage.TYPE_BYTE_GRAY);
+        when(engine.doOCR(any(BufferedImage.class)))
+                .thenReturn("INCOME TAX DEPARTMENT", "Government of India", "smudge");
+
+        assertEquals(Optional.of(DocumentType.PAN), classifier.classify(page, DocumentType.PAN).type());
+        assertEquals(Optional.of(DocumentType.AADHAAR), classifier.classify(page, DocumentType.PAN).type());
+        assertEquals(Optional.empty(), classifier.classify(page, DocumentType.PAN).type());
+
+        for (String outcome : new String[] { "match", "mismatch", "unknown" }) {
+            assertEquals(1, meterRegistry.get("kyc.ocr.classify").tag("outcome", outcome).counter().count(), outcome);
+        }
+        assertEquals(3, meterRegistry.get("kyc.ocr.classify.cpu").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should estimate CPU saved as rejected documents × average full-pass CPU")
+    void cpuSaved_Estimate() throws Exception {
+        BufferedImage page = new BufferedImage(400, 300, BufferedImage.TYPE_BYTE_GRAY);
+        when(engine.doOCR(any(BufferedImage.class))).thenReturn("INCOME TAX DEPARTMENT", "Government of India");
+        // Two seconds of engine CPU in total, almost all of it the full pass of the first document
+        when(pool.getCpuNanos()).thenReturn(2_000_000_000L);
+
+        classifier.classify(page, DocumentType.PAN);
+        assertEquals(0.0, meterRegistry.get("kyc.ocr.classify.cpu.saved").gauge().value());
+
+        classifier.classify(page, DocumentType.PAN);
+        double saved = meterRegistry.get("kyc.ocr.classify.cpu.saved").gauge().value();
+        assertTrue(saved > 1.5 && saved <= 2.0, "saved " + saved);
+    }
+}
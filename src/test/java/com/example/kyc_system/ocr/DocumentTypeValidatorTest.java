@@ -0,0 +1,89 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DocumentTypeValidator}.
+ *
+ * Covers:
+ * - Accept keyword of the expected type → confirmed, keywords reported
+ * - Only another type's identify keywords → not confirmed, other type named
+ * - No keywords → not confirmed, no other type
+ * - Keywords from configuration, including a type without accept keywords
+ * - identify: the single type whose identify keywords appear; none or several → empty
+ */
+class DocumentTypeValidatorTest {
+
+    private final DocumentTypeValidator validator = new DocumentTypeValidator(new KycProperties());
+
+    @Test
+    @DisplayName("PAN header on a PAN → confirmed")
+    void check_ExpectedType_Confirmed() {
+        DocumentTypeValidator.KeywordMatch match =
+                validator.check("INCOME TAX DEPARTMENT\nGOVT. OF INDIA\nRAHUL SHARMA", DocumentType.PAN);
+
+        assertTrue(match.confirmed());
+        assertNull(match.otherType());
+        assertEquals(Set.of("income tax department", "govt. of india"), match.matched());
+    }
+
+    @Test
+    @DisplayName("Aadhaar text uploaded as PAN → not confirmed, Aadhaar named")
+    void check_OtherType_Named() {
+        DocumentTypeValidator.KeywordMatch match =
+                validator.check("Unique Identification Authority of India\n1234 5678 9012", DocumentType.PAN);
+
+        assertFalse(match.confirmed());
+        assertEquals(DocumentType.AADHAAR, match.otherType());
+    }
+
+    @Test
+    @DisplayName("No keywords at all → not confirmed, no other type")
+    void check_NoKeywords() {
+        DocumentTypeValidator.KeywordMatch match = validator.check("some random text", DocumentType.AADHAAR);
+
+        assertFalse(match.confirmed());
+        assertNull(match.otherType());
+        assertTrue(match.matched().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Configured keywords → used; type without accept keywords always confirmed")
+    void check_ConfiguredKeywords() {
+        KycProperties properties = new KycProperties();
+        properties.getOcr().getKeywords().put(DocumentType.PAN,
+                new KycProperties.DocumentKeywords(List.of("e-pan"), List.of("e-pan")));
+        properties.getOcr().getKeywords().put(DocumentType.AADHAAR,
+                new KycProperties.DocumentKeywords(List.of(), List.of()));
+        DocumentTypeValidator configured = new DocumentTypeValidator(properties);
+
+        assertTrue(configured.check("e-PAN card", DocumentType.PAN).confirmed());
+        assertFalse(configured.check("Income Tax Department", DocumentType.PAN).confirmed());
+        assertTrue(configured.check("anything", DocumentType.AADHAAR).confirmed());
+    }
+
+    @Test
+    @DisplayName("identify → the type whose identify keywords appear in the header")
+    void identify_HeaderKeywords() {
+        assertEquals(Optional.of(DocumentType.PAN), validator.identify("INCOME TAX DEPARTMENT  GOVT. OF INDIA"));
+        assertEquals(Optional.of(DocumentType.AADHAAR), validator.identify("Unique Identification Authority of India"));
+        assertEquals(Optional.of(DocumentType.AADHAAR), validator.identify("Government of India"));
+    }
+
+    @Test
+    @DisplayName("identify → empty without keywords or with keywords of several types")
+    void identify_NoneOrBoth_Empty() {
+        assertTrue(validator.identify("").isEmpty());
+        assertTrue(validator.identify("blurry noise").isEmpty());
+        assertTrue(validator.identify("Income Tax Department ... Aadhaar").isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.enums.DocumentType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FieldExtractor}.
+ *
+ * Covers:
+ * - Golden corpus: every field of every text (hand-written layouts plus
+ * seeded token soup) exactly as the former regex-per-call extraction read it
+ * - Date conversion: dd/MM, MM/dd when the middle can't be a month, yyyy/MM/dd
+ * - Name clean-up: label, OCR noise and trailing lowercase fragment removed
+ * - Every extracted field comes with the index of the line it was read from
+ */
+class FieldExtractorTest {
+
+    private static final String GOLDEN = "/ocr/field-extraction-golden.json";
+
+    @TestFactory
+    @DisplayName("Golden corpus → same fields as before")
+    List<DynamicTest> goldenCorpus() throws IOException {
+        JsonNode corpus;
+        try (InputStream in = getClass().getResourceAsStream(GOLDEN)) {
+            corpus = new ObjectMapper().readTree(in);
+        }
+        List<DynamicTest> tests = new ArrayList<>();
+        for (JsonNode entry : corpus) {
+            String text = entry.get("text").asText();
+            JsonNode expected = entry.get("expected");
+            tests.add(DynamicTest.dynamicTest(entry.get("id").asText(), () -> {
+                for (DocumentType type : DocumentType.values()) {
+                    JsonNode fields = expected.get(type.name());
+                    FieldExtractor.Fields actual = FieldExtractor.extract(text, type);
+                    assertEquals(textOrNull(fields, "name"), actual.name(), type + " name");
+                    assertEquals(textOrNull(fields, "dob"), actual.dob(), type + " dob");
+                    assertEquals(textOrNull(fields, "documentNumber"), actual.documentNumber(), type + " number");
+                    assertEquals(actual.name() == null, actual.nameLine() < 0, type + " name line");
+                    assertEquals(actual.dob() == null, actual.dobLine() < 0, type + " dob line");
+                    assertEquals(actual.documentNumber() == null, actual.documentNumberLine() < 0,
+                            type + " number line");
+                    assertEquals(textOrNull(fields, "typedDocumentNumber"),
+                            FieldExtractor.typedDocumentNumber(text, type), type + " typed number");
+                    assertEquals(textOrNull(fields, "regionDob"), FieldExtractor.regionDob(text, type),
+                            type + " region dob");
+                }
+                assertEquals(textOrNull(expected, "regionName"), FieldExtractor.regionName(text), "region name");
+            }));
+        }
+        assertTrue(tests.size() > 250);
+        return tests;
+    }
+
+    @Test
+    @DisplayName("Fields → index of the line each was read from")
+    void extract_LineIndices() {
+        String pan = "INCOME TAX DEPARTMENT\nRAHUL SHARMA\nFather's Name\nDOB: 01/01/1990\nABCDE1234F\n";
+        FieldExtractor.Fields fields = FieldExtractor.extract(pan, DocumentType.PAN);
+        assertEquals(1, fields.nameLine());
+        assertEquals(3, fields.dobLine());
+        assertEquals(4, fields.documentNumberLine());
+
+        String labelled = "Name:\nPRIYA PATEL\nDate of Birth\n1988\nID No: X123\n";
+        fields = FieldExtractor.extract(labelled, DocumentType.AADHAAR);
+        assertEquals(1, fields.nameLine());
+        assertEquals(3, fields.dobLine());
+        assertEquals(4, fields.documentNumberLine());
+
+        fields = FieldExtractor.extract("nothing here", DocumentType.PAN);
+        assertEquals(-1, fields.nameLine());
+        assertEquals(-1, fields.dobLine());
+        assertEquals(-1, fields.documentNumberLine());
+    }
+
+    @Test
+    @DisplayName("Dates → yyyy-MM-dd")
+    void convertDate() {
+        assertEquals("1990-08-15", FieldExtractor.convertDate("15/08/1990"));
+        assertEquals("1990-03-25", FieldExtractor.convertDate("03-25-1990"));
+        assertEquals("1988-03-21", FieldExtractor.convertDate("1988/03/21"));
+        assertEquals("6789-123-45", FieldExtractor.convertDate("123/45/6789"));
+    }
+
+    @Test
+    @DisplayName("Name clean-up → label, noise and trailing fragment gone")
+    void cleanName() {
+        String line = "Name: | PRIYA  VERMA ee";
+        assertEquals("PRIYA  VERMA", FieldExtractor.cleanName(line, 0, line.length()));
+        String noisy = "— RAJESH VERMA —";
+        assertEquals("RAJESH VERMA", FieldExtractor.cleanName(noisy, 0, noisy.length()));
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ImagePreprocessor}. Deskew is switched off unless a
+ * test needs it, so results don't depend on the skew detector.
+ *
+ * Covers:
+ * - Downscale to target-dpi × document-width-inches, never upscale
+ * - Grayscale and Otsu binarization produce 8-bit 0/255 images
+ * - Otsu threshold splits a bimodal histogram between the two peaks
+ * - PDFs rendered at target-dpi, no downscale step
+ * - PDFs recognised by their header, not their name; only max-pages rendered
+ * - Second-pass enhancement: upscaled to its target DPI, adaptive threshold
+ * keeps text on an uneven background that Otsu loses
+ * - Undecodable, corrupt or unparsable upload → IllegalArgumentException, not retried
+ * - Each step recorded under kyc.ocr.preprocess{step}
+ */
+class ImagePreprocessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ImagePreprocessor preprocessor;
+
+    @BeforeEach
+    void setUp() {
+        kycProperties = new KycProperties();
+        kycProperties.getOcr().getPreprocess().setDeskew(false);
+        meterRegistry = new SimpleMeterRegistry();
+        preprocessor = new ImagePreprocessor(kycProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should shrink a phone photo to the target long edge, keeping aspect ratio")
+    void preprocess_LargePhoto_Downscaled() throws Exception {
+        File photo = writePng(4000, 2500, Color.WHITE);
+
+        BufferedImage result = preprocessor.preprocess(photo).get(0);
+
+        // 300 DPI × 3.37 in = 1011 px
+        assertEquals(1011, result.getWidth());
+        assertEquals(632, result.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should never upscale a small image")
+    void preprocess_SmallImage_SizeKept() throws Exception {
+        File scan = writePng(600, 400, Color.WHITE);
+
+        BufferedImage result = preprocessor.preprocess(scan).get(0);
+
+        assertEquals(600, result.getWidth());
+        assertEquals(400, result.getHeight());
+    }
+
+    @Test
+    @DisplayName("Should produce a black-and-white 8-bit image")
+    void preprocess_ColourImage_Binarized() throws Exception {
+        BufferedImage colour = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = colour.createGraphics();
+        g.setColor(new Color(230, 220, 200));
+        g.fillRect(0, 0, 200, 100);
+        g.setColor(new Color(40, 40, 90));
+        g.fillRect(20, 20, 60, 30);
+        g.dispose();
+        File file = tempDir.resolve("colour.png").toFile();
+        ImageIO.write(colour, "png", file);
+
+        BufferedImage result = preprocessor.preprocess(file).get(0);
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+        int[] pixels = result.getRaster().getPixels(0, 0, 200, 100, (int[]) null);
+        for (int pixel : pixels) {
+            assertTrue(pixel == 0 || pixel == 255, "pixel not binary: " + pixel);
+        }
+        assertEquals(0, result.getRaster().getSample(30, 30, 0));
+        assertEquals(255, result.getRaster().getSample(150, 80, 0));
+    }
+
+    @Test
+    @DisplayName("Should keep gray levels when binarization is off")
+    void preprocess_BinarizeOff_GrayscaleOnly() throws Exception {
+        kycProperties.getOcr().getPreprocess().setBinarize(false);
+        File file = writePng(100, 100, new Color(128, 128, 128));
+
+        BufferedImage result = preprocessor.preprocess(file).get(0);
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+        int sample = result.getRaster().getSample(50, 50, 0);
+        assertTrue(sample > 0 && sample < 255);
+    }
+
+    @Test
+    @DisplayName("Otsu threshold should fall between the ink and paper peaks")
+    void otsuThreshold_Bimodal_BetweenPeaks() {
+        int[] histogram = new int[256];
+        histogram[40] = 300;
+        histogram[210] = 700;
+
+        int threshold = ImagePreprocessor.otsuThreshold(histogram, 1000);
+
+        assertTrue(threshold >= 40 && threshold < 210, "threshold " + threshold);
+    }
+
+    @Test
+    @DisplayName("Should render every PDF page at the target DPI without downscaling")
+    void preprocess_Pdf_RenderedAtTargetDpi() throws Exception {
+        File pdf = tempDir.resolve("doc.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            // 1 × 2 inches
+            document.addPage(new PDPage(new PDRectangle(72, 144)));
+            document.addPage(new PDPage(new PDRectangle(72, 144)));
+            document.save(pdf);
+        }
+
+        List<BufferedImage> pages = preprocessor.preprocess(pdf);
+
+        assertEquals(2, pages.size());
+        assertEquals(300, pages.get(0).getWidth());
+        assertEquals(600, pages.get(0).getHeight());
+        assertNull(meterRegistry.find("kyc.ocr.preprocess").tag("step", "downscale").timer());
+    }
+
+    @Test
+    @DisplayName("Should recognise a PDF uploaded without the .pdf extension")
+    void preprocess_PdfWithoutExtension_Rendered() throws Exception {
+        File pdf = writePdf("upload", 1);
+
+        assertTrue(ImagePreprocessor.isPdf(Files.readAllBytes(pdf.toPath())));
+        List<BufferedImage> pages = preprocessor.preprocess(pdf);
+
+        assertEquals(1, pages.size());
+        assertEquals(300, pages.get(0).getWidth());
+    }
+
+    @Test
+    @DisplayName("Should not take an image named .pdf for a PDF")
+    void isPdf_ImageNamedPdf_False() throws Exception {
+        File png = writePng(20, 10, Color.WHITE);
+        File renamed = tempDir.resolve("scan.pdf").toFile();
+        assertTrue(png.renameTo(renamed));
+
+        assertFalse(ImagePreprocessor.isPdf(Files.readAllBytes(renamed.toPath())));
+        assertEquals(1, preprocessor.preprocess(renamed).size());
+    }
+
+    @Test
+    @DisplayName("Should render only the first max-pages pages of a long PDF")
+    void preprocess_LongPdf_CappedAtMaxPages() throws Exception {
+        kycProperties.getOcr().getPreprocess().setMaxPages(2);
+        File pdf = writePdf("long.pdf", 5);
+
+        assertEquals(2, preprocessor.preprocess(pdf).size());
+        assertEquals(2, preprocessor.enhance(pdf).size());
+    }
+
+    @Test
+    @DisplayName("Second pass should upscale a small scan to its target DPI")
+    void enhance_SmallImage_Upscaled() throws Exception {
+        File scan = writePng(600, 400, Color.WHITE);
+
+        BufferedImage result = preprocessor.enhance(scan).get(0);
+
+        // 450 DPI × 3.37 in = 1517 px
+        assertEquals(1517, result.getWidth());
+        assertEquals(1011, result.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+    }
+
+    @Test
+    @DisplayName("Adaptive threshold should keep text on a shadowed background that Otsu loses")
+    void adaptiveBinarize_UnevenLighting_TextKept() {
+        // Paper darkens from 250 on the left to 90 on the right; ink is 60 below the paper
+        BufferedImage image = new BufferedImage(300, 60, BufferedImage.TYPE_BYTE_GRAY);
+        for (int x = 0; x < 300; x++) {
+            int paper = 250 - x * 160 / 300;
+            for (int y = 0; y < 60; y++) {
+                boolean ink = y >= 25 && y < 35 && x % 20 < 4;
+                image.getRaster().setSample(x, y, 0, ink ? paper - 60 : paper);
+            }
+        }
+
+        BufferedImage adaptive = ImagePreprocessor.adaptiveBinarize(image, 51);
+        BufferedImage global = ImagePreprocessor.binarize(image);
+
+        // Stroke and paper both in the bright and the shadowed part
+        assertEquals(0, adaptive.getRaster().getSample(22, 30, 0));
+        assertEquals(255, adaptive.getRaster().getSample(30, 10, 0));
+        assertEquals(0, adaptive.getRaster().getSample(282, 30, 0));
+        assertEquals(255, adaptive.getRaster().getSample(290, 10, 0));
+        // One global threshold can't separate both: the shadowed paper turns black
+        assertEquals(0, global.getRaster().getSample(290, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject a file that is not an image")
+    void preprocess_NotAnImage_Throws() throws Exception {
+        Path file = tempDir.resolve("notes.jpg");
+        Files.writeString(file, "not an image");
+
+        assertThrows(IllegalArgumentException.class, () -> preprocessor.preprocess(file.toFile()));
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated image as a permanent error")
+    void preprocess_TruncatedImage_Throws() throws Exception {
+        File png = writePng(200, 100, Color.WHITE);
+        byte[] content = Files.readAllBytes(png.toPath());
+        Files.write(png.toPath(), Arrays.copyOf(content, content.length / 2));
+
+        assertThrows(IllegalArgumentException.class, () -> preprocessor.preprocess(png));
+    }
+
+    @Test
+    @DisplayName("Should reject a corrupt PDF as a permanent error")
+    void preprocess_CorruptPdf_Throws() throws Exception {
+        Path pdf = tempDir.resolve("doc.pdf");
+        Files.writeString(pdf, "%PDF-1.7 this is not really a PDF");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> preprocessor.preprocess(pdf.toFile()));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Should report a missing file as an I/O error")
+    void preprocess_MissingFile_ThrowsIOException() {
+        File missing = tempDir.resolve("missing.png").toFile();
+
+        assertThrows(NoSuchFileException.class, () -> preprocessor.preprocess(missing));
+    }
+
+    @Test
+    @DisplayName("Should time every step it runs")
+    void preprocess_RecordsStepTimers() throws Exception {
+        kycProperties.getOcr().getPreprocess().setDeskew(true);
+        File file = writePng(2000, 1200, Color.WHITE);
+
+        preprocessor.preprocess(file);
+
+        for (String step : List.of("decode", "downscale", "grayscale", "binarize", "deskew")) {
+            assertEquals(1, meterRegistry.get("kyc.ocr.preprocess").tag("step", step).timer().count(), step);
+        }
+    }
+
+    /** Writes a PDF of 1 × 2 inch pages. */
+    private File writePdf(String name, int pageCount) throws Exception {
+        File pdf = tempDir.resolve(name).toFile();
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pageCount; i++) {
+                document.addPage(new PDPage(new PDRectangle(72, 144)));
+            }
+            document.save(pdf);
+        }
+        return pdf;
+    }
+
+    private File writePng(int width, int height, Color fill) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(fill);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        File file = tempDir.resolve("image-" + width + "x" + height + ".png").toFile();
+        ImageIO.write(image, "png", file);
+        return file;
+    }
+}
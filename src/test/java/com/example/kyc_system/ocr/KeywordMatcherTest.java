@@ -0,0 +1,76 @@
+package com.example.kyc_system.ocr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeywordMatcher}.
+ *
+ * Covers:
+ * - Case-insensitive matches, reported lower case in the order given
+ * - Overlapping keywords and keywords inside other keywords
+ * - Matches across line breaks, non-ASCII characters
+ * - Null/empty text and no keywords → nothing found
+ */
+class KeywordMatcherTest {
+
+    @Test
+    @DisplayName("Keywords in any case → found, lower case, in the order given")
+    void findAll_IgnoresCase() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("Income Tax Department", "govt. of india", "aadhaar"));
+
+        Set<String> found = matcher.findAll("GOVT. OF INDIA\nINCOME TAX DEPARTMENT");
+
+        assertEquals(List.of("income tax department", "govt. of india"), List.copyOf(found));
+    }
+
+    @Test
+    @DisplayName("Keyword inside another keyword → both found")
+    void findAll_NestedKeywords() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("male", "female", "authority of india", "of india"));
+
+        assertEquals(Set.of("male", "female"), matcher.findAll("Sex: FEMALE"));
+        assertEquals(Set.of("authority of india", "of india"),
+                matcher.findAll("Unique Identification Authority of India"));
+    }
+
+    @Test
+    @DisplayName("Partial match that fails → later match still found (failure links)")
+    void findAll_RestartsAfterPartialMatch() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("aadhaar", "vid :"));
+
+        assertEquals(Set.of("aadhaar"), matcher.findAll("aadhaadhaar"));
+        assertEquals(Set.of("vid :"), matcher.findAll("vivid : 1234"));
+    }
+
+    @Test
+    @DisplayName("Keyword split across a line break → not found")
+    void findAll_LineBreakInside_NotFound() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("income tax department"));
+
+        assertTrue(matcher.findAll("income tax\ndepartment").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Non-ASCII keywords → matched case-insensitively")
+    void findAll_NonAscii() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("भारत सरकार", "ÉTAT"));
+
+        assertEquals(Set.of("भारत सरकार", "état"), matcher.findAll("भारत सरकार / État"));
+    }
+
+    @Test
+    @DisplayName("Null or empty text, or no keywords → nothing found")
+    void findAll_Empty() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("aadhaar"));
+
+        assertTrue(matcher.findAll(null).isEmpty());
+        assertTrue(matcher.findAll("").isEmpty());
+        assertTrue(new KeywordMatcher(List.of()).findAll("aadhaar").isEmpty());
+    }
+}
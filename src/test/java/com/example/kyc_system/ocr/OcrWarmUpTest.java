@@ -0,0 +1,132 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.service.OcrService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OcrWarmUp}, with a mocked OcrService.
+ *
+ * Covers:
+ * - Bundled sample of every document type OCR'd once per engine, on
+ * concurrent threads; temporary copies deleted afterwards
+ * - Failing sample → logged, warm-up completes
+ * - Missing sample → skipped
+ * - Disabled, or no engines loaded → nothing OCR'd
+ * - Timeout → returns without waiting for the OCR
+ */
+class OcrWarmUpTest {
+
+    private OcrService ocrService;
+    private TesseractEnginePool enginePool;
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<File> files = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ocrService = mock(OcrService.class);
+        enginePool = mock(TesseractEnginePool.class);
+        when(enginePool.getEngineCount()).thenReturn(2);
+        kycProperties = new KycProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        when(ocrService.extract(any(), any())).thenAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            files.add(file);
+            assertNotNull(ImageIO.read(file));
+            return new OcrResult();
+        });
+    }
+
+    private OcrWarmUp newWarmUp() {
+        return new OcrWarmUp(ocrService, enginePool, kycProperties, new DefaultResourceLoader(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Bundled samples → each type OCR'd once per engine, copies deleted")
+    void warmUp_EverySampleOncePerEngine() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName() + "@" + Thread.currentThread().threadId());
+            return new OcrResult();
+        }).when(ocrService).extract(any(), eq(DocumentType.AADHAAR));
+
+        newWarmUp().warmUp();
+
+        verify(ocrService, times(2)).extract(any(), eq(DocumentType.PAN));
+        verify(ocrService, times(2)).extract(any(), eq(DocumentType.AADHAAR));
+        assertEquals(2, threads.size());
+        assertFalse(files.isEmpty());
+        assertTrue(files.stream().noneMatch(File::exists));
+        assertEquals(1, meterRegistry.get("kyc.ocr.warm-up").timer().count());
+    }
+
+    @Test
+    @DisplayName("Sample fails to OCR → warm-up still completes")
+    void warmUp_SampleFails_Completes() {
+        doThrow(new RuntimeException("Invalid document: Could not verify this is a PAN card."))
+                .when(ocrService).extract(any(), eq(DocumentType.PAN));
+
+        assertDoesNotThrow(() -> newWarmUp().warmUp());
+        verify(ocrService, times(2)).extract(any(), eq(DocumentType.AADHAAR));
+    }
+
+    @Test
+    @DisplayName("Sample missing → that type skipped")
+    void warmUp_MissingSample_Skipped() {
+        kycProperties.getOcr().getWarmUp().getSamples().put(DocumentType.PAN, "classpath:ocr/warm-up/none.png");
+
+        newWarmUp().warmUp();
+
+        verify(ocrService, never()).extract(any(), eq(DocumentType.PAN));
+        verify(ocrService, times(2)).extract(any(), eq(DocumentType.AADHAAR));
+    }
+
+    @Test
+    @DisplayName("Disabled or no engines loaded → nothing OCR'd")
+    void warmUp_DisabledOrNoEngines_Nothing() {
+        kycProperties.getOcr().getWarmUp().setEnabled(false);
+        newWarmUp().warmUp();
+
+        kycProperties.getOcr().getWarmUp().setEnabled(true);
+        when(enginePool.getEngineCount()).thenReturn(0);
+        newWarmUp().warmUp();
+
+        verifyNoInteractions(ocrService);
+    }
+
+    @Test
+    @DisplayName("Warm-up slower than its timeout → returns anyway")
+    void warmUp_Timeout_Returns() {
+        kycProperties.getOcr().getWarmUp().setTimeout(Duration.ofMillis(100));
+        kycProperties.getOcr().getWarmUp().setSamples(Map.of(DocumentType.PAN, "classpath:ocr/warm-up/pan.png"));
+        doAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return new OcrResult();
+        }).when(ocrService).extract(any(), any());
+
+        long start = System.nanoTime();
+        newWarmUp().warmUp();
+
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+}
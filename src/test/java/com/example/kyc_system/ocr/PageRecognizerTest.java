@@ -0,0 +1,151 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PageRecognizer}. The pool lends a mocked engine that
+ * answers with a fixed text per page image.
+ *
+ * Covers:
+ * - Text merged in page order whatever order pages finish in
+ * - Early stop: pages after the complete prefix are skipped
+ * - Pages run concurrently
+ * - Failing page → TesseractException
+ * - Page counters
+ */
+class PageRecognizerTest {
+
+    private ITesseract engine;
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private PageRecognizer recognizer;
+
+    @BeforeEach
+    void setUp() throws TesseractException {
+        engine = mock(ITesseract.class);
+        kycProperties = new KycProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        recognizer = newRecognizer();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recognizer.shutdown();
+    }
+
+    private PageRecognizer newRecognizer() throws TesseractException {
+        TesseractEnginePool pool = mock(TesseractEnginePool.class);
+        when(pool.execute(any())).thenAnswer(invocation -> invocation
+                .<TesseractEnginePool.EngineTask<?>>getArgument(0).run(engine));
+        return new PageRecognizer(pool, kycProperties, meterRegistry);
+    }
+
+    private static List<BufferedImage> pages(int count) {
+        List<BufferedImage> pages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pages.add(new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY));
+        }
+        return pages;
+    }
+
+    private double pageCount(String outcome) {
+        return meterRegistry.get("kyc.ocr.pages").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should merge page text in page order even if later pages finish first")
+    void recognize_MergesInPageOrder() throws Exception {
+        List<BufferedImage> pages = pages(3);
+        CountDownLatch lastPageDone = new CountDownLatch(1);
+        when(engine.doOCR(pages.get(0))).thenAnswer(invocation -> {
+            lastPageDone.await(5, TimeUnit.SECONDS);
+            return "one ";
+        });
+        when(engine.doOCR(pages.get(1))).thenReturn("two ");
+        when(engine.doOCR(pages.get(2))).thenAnswer(invocation -> {
+            lastPageDone.countDown();
+            return "three";
+        });
+
+        String text = recognizer.recognize(pages, t -> false).text();
+
+        assertEquals("one two three", text);
+        assertEquals(3, pageCount("recognised"));
+    }
+
+    @Test
+    @DisplayName("Should skip the remaining pages once the first pages hold every field")
+    void recognize_CompleteEarly_SkipsRemainingPages() throws Exception {
+        kycProperties.getOcr().setPageParallelism(1);
+        recognizer = newRecognizer();
+        List<BufferedImage> pages = pages(5);
+        CountDownLatch returned = new CountDownLatch(1);
+        when(engine.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == pages.get(0)) {
+                return "name number ";
+            }
+            // Keep the only pool thread busy on page 2 until the result is in
+            returned.await(5, TimeUnit.SECONDS);
+            return "noise ";
+        });
+
+        String text = recognizer.recognize(pages, t -> t.contains("name") && t.contains("number")).text();
+        returned.countDown();
+
+        assertEquals("name number ", text);
+        for (BufferedImage page : pages.subList(2, 5)) {
+            verify(engine, never()).doOCR(page);
+        }
+        // Page 2 is skipped too if the pool thread hadn't picked it up yet
+        assertTrue(pageCount("skipped") >= 3);
+    }
+
+    @Test
+    @DisplayName("Should OCR pages at the same time")
+    void recognize_RunsPagesConcurrently() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(engine.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+            allStarted.countDown();
+            return allStarted.await(5, TimeUnit.SECONDS) ? "ok" : "timeout";
+        });
+
+        assertEquals("okokok", recognizer.recognize(pages(3), t -> false).text());
+    }
+
+    @Test
+    @DisplayName("Should OCR a single page without the fork-join pool")
+    void recognize_SinglePage() throws Exception {
+        List<BufferedImage> pages = pages(1);
+        when(engine.doOCR(pages.get(0))).thenReturn("only");
+
+        assertEquals("only", recognizer.recognize(pages, t -> true).text());
+    }
+
+    @Test
+    @DisplayName("Should surface a failing page as TesseractException")
+    void recognize_PageFails_Throws() throws Exception {
+        List<BufferedImage> pages = pages(2);
+        when(engine.doOCR(pages.get(0))).thenReturn("fine");
+        when(engine.doOCR(pages.get(1))).thenThrow(new TesseractException("corrupt page"));
+
+        TesseractException ex = assertThrows(TesseractException.class, () -> recognizer.recognize(pages, t -> false));
+        assertEquals("corrupt page", ex.getMessage());
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ProcessTesseract}, against a child JVM running
+ * {@link FakeWorker} instead of Tesseract.
+ *
+ * Covers:
+ * - File passed by path; page segmentation mode and variables forwarded
+ * - Word confidences sent back by the child
+ * - In-memory page handed over as a temporary file, kept for its regions, deleted on close
+ * - Regions of a page (also nested) → rectangles on the page's one file
+ * - Next page → previous page's file replaced
+ * - Failed request → TesseractException, child keeps serving
+ * - Child crashing during a call → that call fails (engine unavailable), next call restarts it
+ * - Child ignoring its deadline → killed, OcrTimeoutException
+ */
+class ProcessTesseractTest {
+
+    /**
+     * Stand-in child: answers with what it was asked. Paths containing
+     * "crash", "fail" or "hang" make it exit, report an error or never answer.
+     */
+    public static final class FakeWorker {
+        public static void main(String[] args) throws IOException {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+            OcrWorkerProcess.serve(new DataInputStream(new BufferedInputStream(System.in)), out, request -> {
+                String name = new File(request.path()).getName();
+                if (name.contains("crash")) {
+                    Runtime.getRuntime().halt(134);
+                }
+                if (name.contains("fail")) {
+                    throw new IllegalStateException("cannot read " + name);
+                }
+                if (name.contains("hang")) {
+                    Thread.sleep(Long.MAX_VALUE);
+                }
+                Rectangle region = request.region();
+                String bounds = region == null ? ""
+                        : "|region=" + region.x + "," + region.y + "," + region.width + "," + region.height;
+                return RecognizedText.withConfidences(request.path() + bounds + "|psm=" + request.pageSegMode() + "|"
+                        + request.variables() + "|exists=" + new File(request.path()).exists(), new float[] {87.5f});
+            });
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private KycProperties.OcrProcess properties;
+    private Counter restarts;
+    private ProcessTesseract engine;
+
+    @BeforeEach
+    void setUp() {
+        properties = new KycProperties.OcrProcess();
+        properties.setCommand(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), FakeWorker.class.getName()));
+        properties.setImageDir(tempDir.toString());
+        properties.setKillGrace(Duration.ofMillis(200));
+        restarts = new SimpleMeterRegistry().counter("restarts");
+        engine = new ProcessTesseract("tessdata", "eng", properties, restarts);
+        engine.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("Default command → this JVM's java and classpath, then datapath and language")
+    void command_Default() {
+        List<String> command = ProcessTesseract.command(new KycProperties.OcrProcess(), "/tessdata", "eng+hin");
+
+        assertTrue(command.get(0).endsWith("java"));
+        assertTrue(command.contains("-Xmx256m"));
+        assertEquals(List.of(OcrWorkerProcess.class.getName(), "/tessdata", "eng+hin"),
+                command.subList(command.size() - 3, command.size()));
+    }
+
+    @Test
+    @DisplayName("File → passed by path with the current mode and variables")
+    void doOCR_File_ForwardedByPath() throws TesseractException {
+        engine.setPageSegMode(7);
+        engine.setVariable("tessedit_char_whitelist", "0123456789");
+
+        String text = engine.doOCR(new File("/uploads/pan.png"));
+
+        assertEquals("/uploads/pan.png|psm=7|{tessedit_char_whitelist=0123456789}|exists=false", text);
+    }
+
+    @Test
+    @DisplayName("Word confidences from the child → reported for the text")
+    void recognize_WordConfidencesFromChild() throws TesseractException {
+        RecognizedText text = RecognizedText.recognize(engine, new File("/uploads/pan.png"));
+
+        assertEquals(1, text.words().size());
+        assertEquals(87.5f, text.words().get(0).confidence());
+    }
+
+    @Test
+    @DisplayName("In-memory page → temporary file the child can read, deleted when the engine closes")
+    void doOCR_Image_TemporaryFile() throws Exception {
+        String text = engine.doOCR(new BufferedImage(8, 8, BufferedImage.TYPE_BYTE_GRAY));
+
+        assertTrue(text.startsWith(tempDir.toString()));
+        assertFalse(text.contains("region="));
+        assertTrue(text.endsWith("exists=true"));
+        assertEquals(1, fileCount());
+
+        engine.close();
+
+        assertEquals(0, fileCount());
+    }
+
+    @Test
+    @DisplayName("Regions of one page → page written once, each region sent as a rectangle on it")
+    void doOCR_Regions_RectanglesOnPageFile() throws Exception {
+        BufferedImage page = new BufferedImage(100, 60, BufferedImage.TYPE_BYTE_GRAY);
+
+        String first = engine.doOCR(page.getSubimage(10, 5, 30, 20));
+        String second = engine.doOCR(page.getSubimage(50, 30, 40, 25).getSubimage(5, 5, 10, 10));
+
+        String file = first.substring(0, first.indexOf('|'));
+        assertTrue(first.startsWith(file + "|region=10,5,30,20|"));
+        assertTrue(second.startsWith(file + "|region=55,35,10,10|"));
+        assertTrue(second.endsWith("exists=true"));
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    @DisplayName("Next page → written to a new file, the previous page's file deleted")
+    void doOCR_NextPage_PreviousFileDeleted() throws Exception {
+        String first = engine.doOCR(new BufferedImage(8, 8, BufferedImage.TYPE_BYTE_GRAY));
+        String second = engine.doOCR(new BufferedImage(8, 8, BufferedImage.TYPE_BYTE_GRAY).getSubimage(0, 0, 4, 4));
+
+        assertNotEquals(first.substring(0, first.indexOf('|')), second.substring(0, second.indexOf('|')));
+        assertFalse(Files.exists(Path.of(first.substring(0, first.indexOf('|')))));
+        assertEquals(1, fileCount());
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Request fails in the child → TesseractException, same child serves the next")
+    void doOCR_ChildError_KeepsServing() throws TesseractException {
+        long pid = engine.pid();
+
+        TesseractException ex = assertThrows(TesseractException.class, () -> engine.doOCR(new File("fail.png")));
+
+        assertEquals("cannot read fail.png", ex.getMessage());
+        assertTrue(engine.doOCR(new File("ok.png")).startsWith(new File("ok.png").getAbsolutePath()));
+        assertEquals(pid, engine.pid());
+        assertEquals(0, restarts.count());
+    }
+
+    @Test
+    @DisplayName("Child crashes during a call → call fails, child restarted for the next")
+    void doOCR_ChildCrash_Restarted() throws TesseractException {
+        long pid = engine.pid();
+
+        assertThrows(OcrEngineUnavailableException.class, () -> engine.doOCR(new File("crash.png")));
+        String text = engine.doOCR(new File("ok.png"));
+
+        assertTrue(text.contains("ok.png"));
+        assertNotEquals(pid, engine.pid());
+        assertEquals(1, restarts.count());
+    }
+
+    @Test
+    @DisplayName("Child ignores its deadline → killed after the grace period, OcrTimeoutException")
+    void doOCR_PastDeadline_Killed() throws Exception {
+        OcrDeadline deadline = new OcrDeadline(Duration.ofMillis(200));
+        engine.setDeadline(deadline);
+
+        long start = System.nanoTime();
+        assertThrows(OcrTimeoutException.class, () -> engine.doOCR(new File("hang.png")));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+        assertEquals(-1, engine.pid());
+
+        engine.setDeadline(null);
+        assertTrue(engine.doOCR(new File("ok.png")).contains("ok.png"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.kyc_system.ocr;
+
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.Word;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RecognizedText}.
+ *
+ * Covers:
+ * - Tesseract's word confidences paired with the words of the text
+ * - Count mismatch → confidences dropped
+ * - Field confidence = lowest matching word, across normalised values
+ * (dates, grouped numbers); short and unrelated words ignored
+ * - Field read from one line → only that line's words count
+ * - Engines outside the pool → words asked for separately
+ * - Joined texts keep all words
+ */
+class RecognizedTextTest {
+
+    private static final String PAN_TEXT =
+            "INCOME TAX DEPARTMENT\nRAHUL SHARMA\nDOB: 01/01/1990\nABCDE1234F\n";
+
+    @Test
+    @DisplayName("Confidences paired with the words of the text")
+    void withConfidences_PairsWords() {
+        RecognizedText text = RecognizedText.withConfidences(PAN_TEXT,
+                new float[] {95, 94, 96, 88, 61, 90, 85, 42});
+
+        assertEquals(8, text.words().size());
+        assertEquals(new RecognizedText.Word("SHARMA", 61), text.words().get(4));
+    }
+
+    @Test
+    @DisplayName("Word count differs from the text → confidences unknown")
+    void withConfidences_CountMismatch_Dropped() {
+        RecognizedText text = RecognizedText.withConfidences(PAN_TEXT, new float[] {95, 94});
+
+        assertEquals(PAN_TEXT, text.text());
+        assertTrue(text.words().isEmpty());
+        assertNull(text.confidence("ABCDE1234F"));
+    }
+
+    @Test
+    @DisplayName("Field confidence → lowest of the words it was read from")
+    void confidence_LowestMatchingWord() {
+        RecognizedText text = RecognizedText.withConfidences(PAN_TEXT,
+                new float[] {95, 94, 96, 88, 61, 90, 85, 42});
+
+        assertEquals(61f, text.confidence("RAHUL SHARMA"));
+        assertEquals(85f, text.confidence("1990-01-01"));
+        assertEquals(42f, text.confidence("ABCDE1234F"));
+        assertNull(text.confidence("PRIYA PATEL"));
+        assertNull(text.confidence(null));
+    }
+
+    @Test
+    @DisplayName("Field read from one line → a poor read of the same value elsewhere doesn't count")
+    void confidence_SourceLineOnly() {
+        // Signature strip repeats the name, badly
+        RecognizedText text = RecognizedText.withConfidences(
+                "INCOME TAX DEPARTMENT\nRAHUL SHARMA\nDOB: 01/01/1990\nABCDE1234F\n\nRAHUL SHARMA\n",
+                new float[] {95, 94, 96, 88, 91, 90, 85, 42, 30, 25});
+
+        assertEquals(25f, text.confidence("RAHUL SHARMA"));
+        assertEquals(88f, text.confidence("RAHUL SHARMA", 1));
+        assertEquals(25f, text.confidence("RAHUL SHARMA", 5));
+        assertEquals(42f, text.confidence("ABCDE1234F", 3));
+        assertNull(text.confidence("ABCDE1234F", 1));
+        assertNull(text.confidence("ABCDE1234F", -1));
+        assertNull(text.confidence("ABCDE1234F", 42));
+    }
+
+    @Test
+    @DisplayName("Words not placeable on lines → the whole text counts")
+    void confidence_SourceLine_WordsNotPlaceable() {
+        RecognizedText text = new RecognizedText("RAHUL SHARMA\nABCDE1234F",
+                List.of(new RecognizedText.Word("RAHUL", 70), new RecognizedText.Word("SHARMA", 60)));
+
+        assertEquals(60f, text.confidence("RAHUL SHARMA", 1));
+    }
+
+    @Test
+    @DisplayName("Number printed in groups → every group counts")
+    void confidence_GroupedNumber() {
+        RecognizedText text = RecognizedText.withConfidences("2345 6789 0123\nof",
+                new float[] {93, 57, 91, 20});
+
+        assertEquals(57f, text.confidence("234567890123"));
+    }
+
+    @Test
+    @DisplayName("Engine outside the pool → words asked for separately")
+    void recognize_OtherEngine_AsksForWords() throws Exception {
+        ITesseract engine = mock(ITesseract.class);
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_BYTE_GRAY);
+        when(engine.doOCR(image)).thenReturn("ABCDE1234F");
+        when(engine.getWords(image, ITessAPI.TessPageIteratorLevel.RIL_WORD))
+                .thenReturn(List.of(new Word("ABCDE1234F ", 77f, new Rectangle())));
+
+        RecognizedText text = RecognizedText.recognize(engine, image);
+
+        assertEquals(List.of(new RecognizedText.Word("ABCDE1234F", 77f)), text.words());
+    }
+
+    @Test
+    @DisplayName("Joined texts → separator between texts, all words kept")
+    void join_KeepsWords() {
+        RecognizedText joined = RecognizedText.join(List.of(
+                RecognizedText.withConfidences("RAHUL", new float[] {80}),
+                RecognizedText.of("page two")), "\n");
+
+        assertEquals("RAHUL\npage two", joined.text());
+        assertEquals(1, joined.words().size());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.OcrField;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RegionRecognizer}. The pool lends a mocked engine
+ * that reports the size of the image it was given.
+ *
+ * Covers:
+ * - Relative coordinates → pixel rectangle, clipped to the page
+ * - Only the profile's regions are recognised, results keyed by field
+ * - Per-region PSM and whitelist applied, then reset
+ * - Regions run in parallel
+ * - ROI disabled or type without profile → empty profile
+ * - Default profiles: no header region, well under half of the page
+ * - Region failure → TesseractException
+ */
+class RegionRecognizerTest {
+
+    private ITesseract engine;
+    private KycProperties kycProperties;
+    private RegionRecognizer recognizer;
+
+    @BeforeEach
+    void setUp() throws TesseractException {
+        engine = mock(ITesseract.class);
+        when(engine.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+            BufferedImage image = invocation.getArgument(0);
+            return image.getWidth() + "x" + image.getHeight();
+        });
+        kycProperties = new KycProperties();
+        recognizer = newRecognizer(engine);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recognizer.shutdown();
+    }
+
+    private RegionRecognizer newRecognizer(ITesseract lent) throws TesseractException {
+        TesseractEnginePool pool = mock(TesseractEnginePool.class);
+        when(pool.execute(any())).thenAnswer(invocation -> invocation
+                .<TesseractEnginePool.EngineTask<?>>getArgument(0).run(lent));
+        return new RegionRecognizer(pool, kycProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should convert relative coordinates and clip them to the page")
+    void toPixels_ClipsToPage() {
+        KycProperties.Region region = new KycProperties.Region(OcrField.NAME, 0.5, 0.25, 0.75, 0.5, 6, null);
+
+        Rectangle bounds = RegionRecognizer.toPixels(region, 1000, 600);
+
+        assertEquals(new Rectangle(500, 150, 500, 300), bounds);
+    }
+
+    @Test
+    @DisplayName("Should OCR only the profile's regions and key the text by field")
+    void recognize_ReturnsTextPerField() throws Exception {
+        BufferedImage page = new BufferedImage(1000, 600, BufferedImage.TYPE_BYTE_GRAY);
+        List<KycProperties.Region> regions = List.of(
+                new KycProperties.Region(OcrField.HEADER, 0, 0, 1, 0.2, 6, null),
+                new KycProperties.Region(OcrField.DOCUMENT_NUMBER, 0.1, 0.7, 0.5, 0.1, 7, "0123456789"));
+
+        Map<OcrField, RecognizedText> texts = recognizer.recognize(page, regions);
+
+        assertEquals(Set.of(OcrField.HEADER, OcrField.DOCUMENT_NUMBER), texts.keySet());
+        assertEquals("1000x120", texts.get(OcrField.HEADER).text());
+        assertEquals("500x60", texts.get(OcrField.DOCUMENT_NUMBER).text());
+        verify(engine, never()).doOCR(page);
+    }
+
+    @Test
+    @DisplayName("Should apply the region's PSM and whitelist, then restore the engine defaults")
+    void recognize_AppliesAndResetsEngineSettings() throws Exception {
+        kycProperties.getOcr().getRoi().setParallelism(1);
+        recognizer = newRecognizer(engine);
+        BufferedImage page = new BufferedImage(100, 100, BufferedImage.TYPE_BYTE_GRAY);
+
+        recognizer.recognize(page, List.of(
+                new KycProperties.Region(OcrField.DOB, 0, 0, 1, 1, 7, "0123456789/")));
+
+        InOrder inOrder = inOrder(engine);
+        inOrder.verify(engine).setPageSegMode(7);
+        inOrder.verify(engine).setVariable("tessedit_char_whitelist", "0123456789/");
+        inOrder.verify(engine).doOCR(any(BufferedImage.class));
+        inOrder.verify(engine).setPageSegMode(-1);
+        inOrder.verify(engine).setVariable("tessedit_char_whitelist", "");
+    }
+
+    @Test
+    @DisplayName("Should recognise the regions of one document at the same time")
+    void recognize_RunsRegionsInParallel() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        ITesseract blocking = mock(ITesseract.class);
+        when(blocking.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.countDown();
+            // Only returns if all three regions are in flight together
+            return allStarted.await(5, TimeUnit.SECONDS) ? "ok" : "timeout";
+        });
+        recognizer = newRecognizer(blocking);
+        BufferedImage page = new BufferedImage(100, 100, BufferedImage.TYPE_BYTE_GRAY);
+
+        Map<OcrField, RecognizedText> texts = recognizer.recognize(page, List.of(
+                new KycProperties.Region(OcrField.NAME, 0, 0, 1, 0.3, 6, null),
+                new KycProperties.Region(OcrField.DOB, 0, 0.3, 1, 0.3, 6, null),
+                new KycProperties.Region(OcrField.DOCUMENT_NUMBER, 0, 0.6, 1, 0.3, 6, null)));
+
+        assertTrue(texts.values().stream().allMatch(text -> text.text().equals("ok")));
+        assertEquals(3, threads.size());
+    }
+
+    @Test
+    @DisplayName("Should return no regions when ROI OCR is disabled")
+    void profile_Disabled_Empty() {
+        assertFalse(recognizer.profile(DocumentType.PAN).isEmpty());
+
+        kycProperties.getOcr().getRoi().setEnabled(false);
+
+        assertTrue(recognizer.profile(DocumentType.PAN).isEmpty());
+        assertTrue(recognizer.profile(DocumentType.AADHAAR).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Default profiles leave the header to the pre-pass and cover well under half of the page")
+    void profile_Defaults_SmallerThanPage() {
+        for (DocumentType type : DocumentType.values()) {
+            List<KycProperties.Region> regions = recognizer.profile(type);
+            double area = regions.stream().mapToDouble(region -> region.getWidth() * region.getHeight()).sum();
+
+            assertTrue(regions.stream().noneMatch(region -> region.getField() == OcrField.HEADER), type.name());
+            assertTrue(area < 0.35, type + " covers " + area);
+        }
+    }
+
+    @Test
+    @DisplayName("Should surface a failing region as TesseractException")
+    void recognize_RegionFails_Throws() throws Exception {
+        when(engine.doOCR(any(BufferedImage.class))).thenThrow(new TesseractException("boom"));
+        BufferedImage page = new BufferedImage(100, 100, BufferedImage.TYPE_BYTE_GRAY);
+
+        assertThrows(TesseractException.class, () -> recognizer.recognize(page, List.of(
+                new KycProperties.Region(OcrField.NAME, 0, 0, 1, 0.5, 6, null),
+                new KycProperties.Region(OcrField.DOB, 0, 0.5, 1, 0.5, 6, null))));
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.kyc_system.ocr;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TesseractEnginePool}, with engines that don't touch
+ * the native library.
+ *
+ * Covers:
+ * - Warm-up loads the whole pool, nothing with the fake OCR engine
+ * - A thread gets its previous engine back
+ * - No free engine within the borrow timeout → OcrEngineUnavailableException
+ * - Failed call: healthy engine kept, engine failing the probe replaced
+ * - Engine replaced after max-uses-per-engine documents
+ * - Under a deadline: engine gets it for the call; expired → no engine lent
+ */
+class TesseractEnginePoolTest {
+
+    /** Engine double: counts loads/closes, the probe fails while {@code broken}. */
+    static class FakeTesseract extends PersistentTesseract {
+        int loads;
+        boolean closed;
+        boolean broken;
+        private OcrDeadline deadline;
+
+        FakeTesseract() {
+            super("unused", "eng");
+        }
+
+        @Override
+        void load() {
+            loads++;
+        }
+
+        @Override
+        void close() {
+            closed = true;
+        }
+
+        @Override
+        void setDeadline(OcrDeadline deadline) {
+            this.deadline = deadline;
+        }
+
+        OcrDeadline deadline() {
+            return deadline;
+        }
+
+        @Override
+        public String doOCR(BufferedImage image) throws TesseractException {
+            if (broken) {
+                throw new TesseractException("engine broken");
+            }
+            return "";
+        }
+    }
+
+    private KycProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<FakeTesseract> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new KycProperties();
+        properties.getOcr().setPoolSize(2);
+        properties.getOcr().setBorrowTimeout(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private TesseractEnginePool newPool() {
+        return new TesseractEnginePool(() -> {
+            FakeTesseract engine = new FakeTesseract();
+            created.add(engine);
+            return engine;
+        }, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Warm-up → every engine loaded before the first document")
+    void warmUp_LoadsWholePool() {
+        TesseractEnginePool pool = newPool();
+        pool.warmUp();
+
+        assertEquals(2, pool.getEngineCount());
+        assertEquals(2, pool.getIdleCount());
+        assertTrue(created.stream().allMatch(engine -> engine.loads == 1));
+        assertEquals(2, meterRegistry.get("kyc.ocr.engine.load").timer().count());
+    }
+
+    @Test
+    @DisplayName("Fake OCR engine configured → no engines loaded")
+    void warmUp_FakeEngine_NothingLoaded() {
+        properties.getOcr().setEngine("fake");
+        TesseractEnginePool pool = newPool();
+        pool.warmUp();
+
+        assertEquals(0, pool.getEngineCount());
+        assertTrue(created.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Same thread → gets its previous engine back")
+    void execute_SameThread_SameEngine() throws TesseractException {
+        TesseractEnginePool pool = newPool();
+        pool.warmUp();
+
+        ITesseract first = pool.execute(engine -> engine);
+        ITesseract second = pool.execute(engine -> engine);
+
+        assertSame(first, second);
+        assertEquals(1, meterRegistry.get("kyc.ocr.pool.borrow").tag("affinity", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("All engines busy past the borrow timeout → OcrEngineUnavailableException")
+    void execute_PoolExhausted_TimesOut() throws Exception {
+        properties.getOcr().setPoolSize(1);
+        TesseractEnginePool pool = newPool();
+        CountDownLatch borrowed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                pool.execute(engine -> {
+                    borrowed.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (TesseractException ignored) {
+                // not expected
+            }
+        });
+        holder.start();
+        assertTrue(borrowed.await(1, TimeUnit.SECONDS));
+
+        assertThrows(OcrEngineUnavailableException.class, () -> pool.execute(engine -> "never"));
+
+        release.countDown();
+        holder.join(1_000);
+        assertEquals(1, pool.getEngineCount());
+    }
+
+    @Test
+    @DisplayName("Failed call, engine still passes the probe → kept")
+    void execute_FailureHealthyEngine_Kept() {
+        TesseractEnginePool pool = newPool();
+        pool.warmUp();
+
+        assertThrows(TesseractException.class, () -> pool.execute(engine -> {
+            throw new TesseractException("unreadable image");
+        }));
+
+        assertEquals(2, pool.getEngineCount());
+        assertTrue(created.stream().noneMatch(engine -> engine.closed));
+    }
+
+    @Test
+    @DisplayName("Failed call, engine fails the probe → closed and replaced on demand")
+    void execute_FailureBrokenEngine_Replaced() throws TesseractException {
+        properties.getOcr().setPoolSize(1);
+        TesseractEnginePool pool = newPool();
+        pool.warmUp();
+
+        assertThrows(TesseractException.class, () -> pool.execute(engine -> {
+            ((FakeTesseract) engine).broken = true;
+            throw new TesseractException("native crash");
+        }));
+
+        assertTrue(created.get(0).closed);
+        assertEquals(0, pool.getEngineCount());
+
+        ITesseract replacement = pool.execute(engine -> engine);
+        assertNotSame(created.get(0), replacement);
+        assertEquals(1, pool.getEngineCount());
+        assertEquals(1, meterRegistry.get("kyc.ocr.engine.replaced").tag("reason", "unhealthy").counter().count());
+    }
+
+    @Test
+    @DisplayName("Engine reaching max uses → replaced")
+    void execute_MaxUses_Replaced() throws TesseractException {
+        properties.getOcr().setPoolSize(1);
+        properties.getOcr().setMaxUsesPerEngine(2);
+        TesseractEnginePool pool = newPool();
+
+        ITesseract first = pool.execute(engine -> engine);
+        pool.execute(engine -> engine);
+        ITesseract third = pool.execute(engine -> engine);
+
+        assertTrue(created.get(0).closed);
+        assertNotSame(first, third);
+        assertEquals(1, meterRegistry.get("kyc.ocr.engine.replaced").tag("reason", "max-uses").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deadline → handed to the engine for the call, cleared afterwards")
+    void execute_UnderDeadline_EngineSeesDeadline() throws Exception {
+        TesseractEnginePool pool = newPool();
+        OcrDeadline deadline = new OcrDeadline(Duration.ofMinutes(1));
+
+        OcrDeadline seen = deadline.call(() -> pool.execute(engine -> ((FakeTesseract) engine).deadline()));
+
+        assertSame(deadline, seen);
+        assertNull(created.get(0).deadline());
+    }
+
+    @Test
+    @DisplayName("Deadline already passed → OcrTimeoutException, no engine lent")
+    void execute_DeadlinePassed_Throws() {
+        TesseractEnginePool pool = newPool();
+        OcrDeadline deadline = new OcrDeadline(Duration.ofMinutes(1));
+        deadline.cancel();
+
+        assertThrows(OcrTimeoutException.class,
+                () -> deadline.call(() -> pool.execute(engine -> engine)));
+        assertTrue(created.isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.KycRunMode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link InMemoryKycQueueService}.
+ *
+ * Covers:
+ * - Tenant at its concurrency limit → its requests stay queued, other tenants served
+ * - complete() frees the slot → the waiting request is dispatched
+ * - Tenant policy resolved on push → dispatch doesn't read it under the queue lock
+ * - Full queue → push refuses the request instead of dropping it silently
+ * - Split run mode (API or WORKER) → refuses to start
+ */
+@ExtendWith(MockitoExtension.class)
+class InMemoryKycQueueServiceTest {
+
+    @Mock
+    private TenantQueuePolicy tenantQueuePolicy;
+
+    private InMemoryKycQueueService queueService;
+    private TenantConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(tenantQueuePolicy.weightOf(any())).thenReturn(1);
+        limiter = new TenantConcurrencyLimiter();
+        queueService = new InMemoryKycQueueService(new KycProperties(), tenantQueuePolicy, limiter);
+    }
+
+    @Test
+    @DisplayName("Tenant at its limit → skipped, other tenant served, request stays queued")
+    void poll_TenantAtLimit_OtherTenantServed() throws Exception {
+        when(tenantQueuePolicy.maxConcurrentOf("NOISY")).thenReturn(1);
+        when(tenantQueuePolicy.maxConcurrentOf("QUIET")).thenReturn(0);
+        queueService.push(1L, "NOISY");
+        queueService.push(2L, "NOISY");
+        queueService.push(3L, "QUIET");
+
+        assertEquals(1L, queueService.poll());
+        assertEquals(3L, queueService.poll());
+        assertEquals(1, queueService.size());
+        assertEquals(1, limiter.inFlight("NOISY"));
+    }
+
+    @Test
+    @DisplayName("complete() frees the slot → blocked poll gets the waiting request")
+    void complete_FreesSlot_WaitingRequestDispatched() throws Exception {
+        when(tenantQueuePolicy.maxConcurrentOf("NOISY")).thenReturn(1);
+        queueService.push(1L, "NOISY");
+        queueService.push(2L, "NOISY");
+        assertEquals(1L, queueService.poll());
+
+        CompletableFuture<Long> next = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queueService.poll();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> next.get(200, TimeUnit.MILLISECONDS));
+
+        queueService.complete(1L);
+
+        assertEquals(2L, next.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.inFlight("NOISY"));
+    }
+
+    @Test
+    @DisplayName("Tenant policy resolved on push → poll doesn't consult it")
+    void poll_PolicyResolvedOnPush_NotReadOnDispatch() throws Exception {
+        when(tenantQueuePolicy.maxConcurrentOf("T1")).thenReturn(1);
+        queueService.push(1L, "T1");
+        clearInvocations(tenantQueuePolicy);
+
+        assertEquals(1L, queueService.poll());
+
+        verifyNoInteractions(tenantQueuePolicy);
+    }
+
+    @Test
+    @DisplayName("Full queue → push returns false, queued requests untouched")
+    void push_QueueFull_ReturnsFalse() {
+        KycProperties properties = new KycProperties();
+        properties.getQueue().setCapacity(1);
+        queueService = new InMemoryKycQueueService(properties, tenantQueuePolicy, limiter);
+
+        assertTrue(queueService.push(1L, "T1"));
+        assertFalse(queueService.push(2L, "T1"));
+        assertEquals(1, queueService.size());
+    }
+
+    @Test
+    @DisplayName("Split run mode → refuses to start, API and workers would not share the queue")
+    void constructor_SplitRunMode_Throws() {
+        KycProperties properties = new KycProperties();
+        properties.setMode(KycRunMode.API);
+
+        assertThrows(IllegalStateException.class,
+                () -> new InMemoryKycQueueService(properties, tenantQueuePolicy, limiter));
+    }
+}
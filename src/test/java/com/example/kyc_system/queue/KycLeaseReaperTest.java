@@ -0,0 +1,121 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.repository.KycRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link KycLeaseReaper}.
+ *
+ * Covers:
+ * - Expired leases → re-queued in batches until a short batch, relay woken
+ * - Expired leases out of retries → dead-lettered, counted separately
+ * - Nothing expired → relay not woken
+ * - Heartbeat renews in-flight leases only when there are any
+ */
+@ExtendWith(MockitoExtension.class)
+class KycLeaseReaperTest {
+
+    @Mock
+    private KycRequestRepository repository;
+
+    @Mock
+    private KycWorker worker;
+
+    @Mock
+    private KycQueueOutbox queueOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KycLeaseReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        KycProperties properties = new KycProperties();
+        properties.getWorker().setReaperBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        reaper = new KycLeaseReaper(repository, worker, queueOutbox, properties,
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Expired leases → re-queued batch by batch, relay woken")
+    void reapExpiredLeases_Expired_RequeuedInBatches() {
+        when(repository.reapExpiredProcessingLeases(anyLong(), anyInt(), eq(2)))
+                .thenReturn(List.of("SUBMITTED", "SUBMITTED"))
+                .thenReturn(List.of("SUBMITTED"));
+
+        assertEquals(3, reaper.reapExpiredLeases());
+
+        verify(repository, times(2)).reapExpiredProcessingLeases(anyLong(), anyInt(), eq(2));
+        verify(queueOutbox).wakeUp();
+        assertEquals(3, meterRegistry.get("kyc.lease.reaped").counter().count());
+        assertEquals(0, meterRegistry.get("kyc.lease.dead-lettered").counter().count());
+    }
+
+    @Test
+    @DisplayName("Expired leases without retries left → dead-lettered, not counted as re-queued")
+    void reapExpiredLeases_RetriesExhausted_DeadLettered() {
+        when(repository.reapExpiredProcessingLeases(anyLong(), anyInt(), eq(2)))
+                .thenReturn(List.of("FAILED", "SUBMITTED"))
+                .thenReturn(List.of("FAILED"));
+
+        assertEquals(1, reaper.reapExpiredLeases());
+
+        verify(repository, times(2)).reapExpiredProcessingLeases(anyLong(), anyInt(), eq(2));
+        verify(queueOutbox).wakeUp();
+        assertEquals(1, meterRegistry.get("kyc.lease.reaped").counter().count());
+        assertEquals(2, meterRegistry.get("kyc.lease.dead-lettered").counter().count());
+    }
+
+    @Test
+    @DisplayName("Lease timeout passed in seconds, cutoff left to the database clock, retry budget passed")
+    void reapExpiredLeases_UsesLeaseTimeout() {
+        reaper = new KycLeaseReaper(repository, worker, queueOutbox, propertiesWithLeaseTimeout(Duration.ofMinutes(3)),
+                new TransactionTemplate(transactionManager), meterRegistry);
+        when(repository.reapExpiredProcessingLeases(anyLong(), anyInt(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, reaper.reapExpiredLeases());
+
+        verify(repository).reapExpiredProcessingLeases(180L, 4, 2);
+        verifyNoInteractions(queueOutbox);
+    }
+
+    @Test
+    @DisplayName("Heartbeat → renews leases of in-flight requests, skips when idle")
+    void renewLeases_InFlightOnly() {
+        when(worker.getInFlightRequestIds()).thenReturn(List.of()).thenReturn(List.of(7L, 8L));
+
+        reaper.renewLeases();
+        verify(repository, never()).renewProcessingLeases(any());
+
+        reaper.renewLeases();
+        verify(repository).renewProcessingLeases(List.of(7L, 8L));
+    }
+
+    private static KycProperties propertiesWithLeaseTimeout(Duration leaseTimeout) {
+        KycProperties properties = new KycProperties();
+        properties.getWorker().setReaperBatchSize(2);
+        properties.getWorker().setLeaseTimeout(leaseTimeout);
+        properties.getRetry().setMaxRetries(4);
+        return properties;
+    }
+}
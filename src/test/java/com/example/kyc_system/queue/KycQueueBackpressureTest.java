@@ -0,0 +1,137 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.exception.QueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KycQueueBackpressure}.
+ *
+ * Covers:
+ * - Below the high watermark → uploads admitted
+ * - Depth at the high watermark → 429 until the low watermark is reached
+ * - Burst between two samples → cut off at the high watermark
+ * - Failed uploads taken back → count neither towards the depth nor the drain rate
+ * - Retry-After derived from the observed drain rate, default without one
+ */
+@ExtendWith(MockitoExtension.class)
+class KycQueueBackpressureTest {
+
+    @Mock
+    private KycQueueService queueService;
+
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private KycQueueBackpressure backpressure;
+
+    @BeforeEach
+    void setUp() {
+        kycProperties = new KycProperties();
+        kycProperties.getQueue().setHighWatermark(100);
+        kycProperties.getQueue().setLowWatermark(50);
+        kycProperties.getQueue().setDefaultRetryAfter(Duration.ofSeconds(30));
+        kycProperties.getQueue().setMaxRetryAfter(Duration.ofMinutes(5));
+        meterRegistry = new SimpleMeterRegistry();
+        backpressure = new KycQueueBackpressure(queueService, kycProperties, meterRegistry);
+        backpressure.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("Depth below high watermark → upload admitted")
+    void checkAdmission_BelowHighWatermark_Admitted() {
+        backpressure.update(10, seconds(1));
+
+        assertDoesNotThrow(backpressure::checkAdmission);
+        assertFalse(backpressure.isThrottling());
+        assertEquals(10, meterRegistry.get("kyc.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("High watermark reached → rejected until depth falls to low watermark")
+    void checkAdmission_Hysteresis() {
+        backpressure.update(100, seconds(1));
+        assertThrows(QueueFullException.class, backpressure::checkAdmission);
+
+        // Between the watermarks: still throttling
+        backpressure.update(70, seconds(2));
+        assertThrows(QueueFullException.class, backpressure::checkAdmission);
+
+        backpressure.update(50, seconds(3));
+        assertDoesNotThrow(backpressure::checkAdmission);
+        assertEquals(2, meterRegistry.get("kyc.queue.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Burst between samples → cut off at the high watermark")
+    void checkAdmission_BurstBetweenSamples_CutOff() {
+        backpressure.update(95, seconds(1));
+
+        for (int i = 0; i < 4; i++) {
+            backpressure.checkAdmission();
+        }
+        assertThrows(QueueFullException.class, backpressure::checkAdmission);
+        assertTrue(backpressure.isThrottling());
+    }
+
+    @Test
+    @DisplayName("Failed uploads between samples → admission taken back, no cut-off")
+    void cancelAdmission_FailedUploads_NotCounted() {
+        backpressure.update(95, seconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            backpressure.checkAdmission();
+            backpressure.cancelAdmission();
+        }
+        assertDoesNotThrow(backpressure::checkAdmission);
+        assertFalse(backpressure.isThrottling());
+    }
+
+    @Test
+    @DisplayName("Failed upload taken back → not seen as drained at the next sample")
+    void cancelAdmission_NotCountedAsDrained() {
+        backpressure.update(95, seconds(1));
+        backpressure.checkAdmission();
+        backpressure.cancelAdmission();
+        backpressure.cancelAdmission(); // never below zero
+
+        backpressure.update(95, seconds(2));
+
+        assertEquals(0.0, backpressure.getDrainRatePerSecond(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Retry-After = backlog above low watermark / drain rate")
+    void retryAfter_FromDrainRate() {
+        backpressure.update(200, seconds(1));
+        backpressure.update(180, seconds(2)); // 20 req/s
+
+        assertEquals(20.0, backpressure.getDrainRatePerSecond(), 0.001);
+        QueueFullException ex = assertThrows(QueueFullException.class, backpressure::checkAdmission);
+        assertEquals(7, ex.getRetryAfterSeconds()); // (180 - 50) / 20 = 6.5 → 7
+    }
+
+    @Test
+    @DisplayName("No drain observed yet → default Retry-After")
+    void retryAfter_NoDrainRate_Default() {
+        backpressure.update(150, seconds(1));
+
+        QueueFullException ex = assertThrows(QueueFullException.class, backpressure::checkAdmission);
+        assertEquals(30, ex.getRetryAfterSeconds());
+    }
+
+    private static long seconds(long s) {
+        return TimeUnit.SECONDS.toNanos(s);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.entity.KycOutbox;
+import com.example.kyc_system.repository.KycOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link KycQueueOutbox} relaying (the relay thread itself is
+ * not started).
+ *
+ * Covers:
+ * - Rows in the outbox → pushed in order, then deleted, counted
+ * - Queue full mid-batch → only pushed rows deleted, the rest kept for the next tick
+ * - Empty outbox → queue not touched
+ * - Delayed row → inserted with the delay in seconds, due time left to the database clock
+ */
+@ExtendWith(MockitoExtension.class)
+class KycQueueOutboxTest {
+
+    @Mock
+    private KycOutboxRepository outboxRepository;
+
+    @Mock
+    private KycQueueService queueService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KycQueueOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = new KycQueueOutbox(outboxRepository, queueService, new KycProperties(), transactionManager,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Outbox rows → pushed in order and deleted in one batch")
+    void relayBatch_Rows_PushedThenDeleted() {
+        List<KycOutbox> rows = List.of(
+                KycOutbox.builder().id(1L).requestId(10L).tenantId("T1").createdAt(LocalDateTime.now()).build(),
+                KycOutbox.builder().id(2L).requestId(11L).tenantId("T2").createdAt(LocalDateTime.now()).build());
+        when(outboxRepository.lockBatch(100)).thenReturn(rows);
+        when(queueService.push(anyLong(), any())).thenReturn(true);
+
+        assertEquals(2, outbox.relayBatch());
+
+        InOrder inOrder = inOrder(queueService, outboxRepository);
+        inOrder.verify(queueService).push(10L, "T1");
+        inOrder.verify(queueService).push(11L, "T2");
+        inOrder.verify(outboxRepository).deleteAllInBatch(rows);
+        assertEquals(2, meterRegistry.get("kyc.outbox.relayed").counter().count());
+        assertEquals(2, meterRegistry.get("kyc.outbox.handoff").timer().count());
+    }
+
+    @Test
+    @DisplayName("Delayed row → delay passed in seconds, due time computed by the database")
+    void addDelayed_DelayInSeconds() {
+        outbox.addDelayed(7L, "T1", Duration.ofMillis(2_500));
+
+        verify(outboxRepository).insertDelayed(7L, "T1", 2.5);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Queue full mid-batch → pushed rows deleted, refused and later rows kept")
+    void relayBatch_QueueFull_RemainingRowsKept() {
+        KycOutbox first = KycOutbox.builder().id(1L).requestId(10L).tenantId("T1").createdAt(LocalDateTime.now()).build();
+        KycOutbox refused = KycOutbox.builder().id(2L).requestId(11L).tenantId("T1").createdAt(LocalDateTime.now()).build();
+        KycOutbox last = KycOutbox.builder().id(3L).requestId(12L).tenantId("T2").createdAt(LocalDateTime.now()).build();
+        when(outboxRepository.lockBatch(100)).thenReturn(List.of(first, refused, last));
+        when(queueService.push(10L, "T1")).thenReturn(true);
+        when(queueService.push(11L, "T1")).thenReturn(false);
+
+        assertEquals(1, outbox.relayBatch());
+
+        verify(queueService, never()).push(12L, "T2");
+        verify(outboxRepository).deleteAllInBatch(List.of(first));
+        assertEquals(1, meterRegistry.get("kyc.outbox.relayed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Queue refuses the first row → nothing deleted")
+    void relayBatch_QueueFull_NothingDeleted() {
+        when(outboxRepository.lockBatch(100)).thenReturn(List.of(
+                KycOutbox.builder().id(1L).requestId(10L).tenantId("T1").createdAt(LocalDateTime.now()).build()));
+
+        assertEquals(0, outbox.relayBatch());
+
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Empty outbox → nothing pushed")
+    void relayBatch_Empty_NothingPushed() {
+        when(outboxRepository.lockBatch(anyInt())).thenReturn(List.of());
+
+        assertEquals(0, outbox.relayBatch());
+
+        verifyNoInteractions(queueService);
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+}
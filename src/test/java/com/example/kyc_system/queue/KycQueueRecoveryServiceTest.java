@@ -1,6 +1,6 @@
 package com.example.kyc_system.queue;
 
-import com.example.kyc_system.entity.KycRequest;
+import com.example.kyc_system.config.KycProperties;
 import com.example.kyc_system.enums.KycStatus;
 import com.example.kyc_system.repository.KycRequestRepository;
 
@@ -10,11 +10,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -22,96 +28,92 @@ import static org.mockito.Mockito.*;
  *
  * Covers:
  * - No stuck requests → nothing queued
- * - Only SUBMITTED requests → re-queued without status change
- * - Only PROCESSING requests → reset to SUBMITTED + re-queued
- * - Mixed SUBMITTED + PROCESSING → both handled correctly
+ * - SUBMITTED requests → streamed into the queue in keyset chunks, no status change
+ * - PROCESSING requests → left to the lease reaper (expired leases only)
+ * - Durable queue backend → SUBMITTED rescan skipped, expired leases still reaped
  */
 @ExtendWith(MockitoExtension.class)
 class KycQueueRecoveryServiceTest {
 
+    private static final String SUBMITTED = KycStatus.SUBMITTED.name();
+
     @Mock
     private KycRequestRepository repository;
 
     @Mock
     private KycQueueService queueService;
 
+    @Mock
+    private KycLeaseReaper leaseReaper;
+
+    @Spy
+    private KycProperties kycProperties = new KycProperties();
+
     @InjectMocks
     private KycQueueRecoveryService recoveryService;
 
-    private KycRequest submittedRequest;
-    private KycRequest processingRequest;
-
     @BeforeEach
     void setUp() {
-        submittedRequest = new KycRequest();
-        submittedRequest.setId(1L);
-        submittedRequest.setStatus(KycStatus.SUBMITTED.name());
-
-        processingRequest = new KycRequest();
-        processingRequest.setId(2L);
-        processingRequest.setStatus(KycStatus.PROCESSING.name());
+        kycProperties.getQueue().setRecoveryChunkSize(2);
     }
 
     @Test
     @DisplayName("No stuck requests → queue is not touched")
     void recoverStuckRequests_NoStuck_NothingQueued() {
-        when(repository.findByStatus(KycStatus.SUBMITTED.name()))
-                .thenReturn(Collections.emptyList());
-        when(repository.findByStatus(KycStatus.PROCESSING.name()))
+        when(repository.findIdsByStatusAfter(eq(SUBMITTED), eq(0L), any(Pageable.class)))
                 .thenReturn(Collections.emptyList());
 
         recoveryService.recoverStuckRequests();
 
-        verifyNoInteractions(queueService);
+        verify(queueService, never()).push(anyLong(), any());
+        verify(leaseReaper).reapExpiredLeases();
     }
 
     @Test
-    @DisplayName("SUBMITTED requests are re-queued without status change")
-    void recoverStuckRequests_SubmittedOnly_ReQueued() {
-        when(repository.findByStatus(KycStatus.SUBMITTED.name()))
-                .thenReturn(List.of(submittedRequest));
-        when(repository.findByStatus(KycStatus.PROCESSING.name()))
-                .thenReturn(Collections.emptyList());
+    @DisplayName("SUBMITTED requests → streamed in keyset chunks until a short chunk")
+    void recoverStuckRequests_Submitted_StreamedInChunks() {
+        when(repository.findIdsByStatusAfter(SUBMITTED, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(row(1L, "T1"), row(3L, "T2")));
+        when(repository.findIdsByStatusAfter(SUBMITTED, 3L, PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(row(4L, "T1")));
+        when(queueService.push(anyLong(), any())).thenReturn(true);
 
         recoveryService.recoverStuckRequests();
 
-        verify(queueService).push(1L);
-        verifyNoMoreInteractions(queueService);
-        // Status should remain SUBMITTED
-        assert submittedRequest.getStatus().equals(KycStatus.SUBMITTED.name());
+        verify(queueService).push(1L, "T1");
+        verify(queueService).push(3L, "T2");
+        verify(queueService).push(4L, "T1");
+        verify(repository, never()).findByStatus(any());
+        verify(repository, never()).updateStatus(anyLong(), any());
     }
 
     @Test
-    @DisplayName("PROCESSING requests are reset to SUBMITTED and re-queued")
-    void recoverStuckRequests_ProcessingOnly_ResetAndReQueued() {
-        when(repository.findByStatus(KycStatus.SUBMITTED.name()))
+    @DisplayName("PROCESSING requests are left to the lease reaper, not reset blindly")
+    void recoverStuckRequests_Processing_DelegatedToLeaseReaper() {
+        when(repository.findIdsByStatusAfter(eq(SUBMITTED), eq(0L), any(Pageable.class)))
                 .thenReturn(Collections.emptyList());
-        when(repository.findByStatus(KycStatus.PROCESSING.name()))
-                .thenReturn(List.of(processingRequest));
+        when(leaseReaper.reapExpiredLeases()).thenReturn(1);
 
         recoveryService.recoverStuckRequests();
 
-        verify(queueService).push(2L);
-        verifyNoMoreInteractions(queueService);
-        // Status should be reset to SUBMITTED
-        assert processingRequest.getStatus().equals(KycStatus.SUBMITTED.name());
+        verify(leaseReaper).reapExpiredLeases();
+        verify(repository, never()).findByStatus(KycStatus.PROCESSING.name());
+        verify(queueService, never()).push(anyLong(), any());
     }
 
     @Test
-    @DisplayName("Mixed SUBMITTED + PROCESSING → both handled correctly")
-    void recoverStuckRequests_Mixed_AllRecovered() {
-        when(repository.findByStatus(KycStatus.SUBMITTED.name()))
-                .thenReturn(List.of(submittedRequest));
-        when(repository.findByStatus(KycStatus.PROCESSING.name()))
-                .thenReturn(List.of(processingRequest));
+    @DisplayName("Durable backend → SUBMITTED rows are not rescanned, expired leases still reaped")
+    void recoverStuckRequests_DurableBackend_SkipsSubmittedRescan() {
+        when(queueService.isDurable()).thenReturn(true);
 
         recoveryService.recoverStuckRequests();
 
-        verify(queueService).push(1L);
-        verify(queueService).push(2L);
-        verifyNoMoreInteractions(queueService);
-        // Submitted stays SUBMITTED, Processing reset to SUBMITTED
-        assert submittedRequest.getStatus().equals(KycStatus.SUBMITTED.name());
-        assert processingRequest.getStatus().equals(KycStatus.SUBMITTED.name());
+        verify(repository, never()).findIdsByStatusAfter(any(), anyLong(), any());
+        verify(queueService, never()).push(anyLong(), any());
+        verify(leaseReaper).reapExpiredLeases();
+    }
+
+    private static Object[] row(Long id, String tenantId) {
+        return new Object[] { id, tenantId };
     }
 }
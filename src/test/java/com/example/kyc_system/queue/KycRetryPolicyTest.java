@@ -0,0 +1,121 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.exception.OcrEngineUnavailableException;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import javax.imageio.IIOException;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.AccessDeniedException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KycRetryPolicy}.
+ *
+ * Covers:
+ * - Transient errors (storage I/O, no OCR engine available, lock conflicts), also when wrapped → retryable
+ * - Other Tesseract failures → not retryable
+ * - Missing file, validation errors, native Errors → not retryable
+ * - Decoder I/O errors → not retryable, also when wrapped in a retryable exception
+ * - OCR timeouts retryable unless kyc.ocr.retry-on-timeout is off, even when wrapped
+ * - Retry budget honours kyc.retry.max-retries
+ * - Backoff grows exponentially within the jitter band and stops at the cap
+ */
+class KycRetryPolicyTest {
+
+    private KycProperties kycProperties;
+    private KycRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        kycProperties = new KycProperties();
+        kycProperties.getRetry().setMaxRetries(3);
+        kycProperties.getRetry().setInitialBackoff(Duration.ofSeconds(10));
+        kycProperties.getRetry().setMultiplier(2.0);
+        kycProperties.getRetry().setMaxBackoff(Duration.ofSeconds(60));
+        retryPolicy = new KycRetryPolicy(kycProperties);
+    }
+
+    @Test
+    @DisplayName("Transient errors → retryable, also deep in the cause chain")
+    void isRetryable_TransientErrors_True() {
+        assertTrue(retryPolicy.isRetryable(new IOException("disk busy")));
+        assertTrue(retryPolicy.isRetryable(new OcrEngineUnavailableException("No OCR engine became free within PT30S")));
+        assertTrue(retryPolicy.isRetryable(new TesseractException("OCR failed",
+                new OcrEngineUnavailableException("OCR process 42 exited during recognition", new EOFException()))));
+        assertTrue(retryPolicy.isRetryable(new CannotAcquireLockException("lock timeout")));
+        assertTrue(retryPolicy.isRetryable(
+                new RuntimeException("wrapper", new IllegalStateException(new IOException("locked")))));
+        assertTrue(retryPolicy.isRetryable(new AccessDeniedException("uploads/locked.jpg")));
+        assertTrue(retryPolicy.isRetryable(new SocketTimeoutException("storage read timed out")));
+    }
+
+    @Test
+    @DisplayName("Corrupt upload → not retryable, even inside a Tesseract failure")
+    void isRetryable_DecodeErrors_False() {
+        assertFalse(retryPolicy.isRetryable(new IIOException("Unsupported Image Type")));
+        assertFalse(retryPolicy.isRetryable(new TesseractException(new IIOException("Error reading PNG"))));
+        assertFalse(retryPolicy.isRetryable(new EOFException("truncated stream")));
+        assertFalse(retryPolicy.isRetryable(
+                new RuntimeException("OCR failed", new IllegalArgumentException("Unreadable PDF: doc.pdf"))));
+    }
+
+    @Test
+    @DisplayName("Tesseract failure with an engine at hand → not retryable")
+    void isRetryable_OtherTesseractFailures_False() {
+        assertFalse(retryPolicy.isRetryable(new TesseractException("Image too small to scale")));
+        assertFalse(retryPolicy.isRetryable(new RuntimeException("OCR failed", new TesseractException("native error"))));
+    }
+
+    @Test
+    @DisplayName("Permanent errors → not retryable")
+    void isRetryable_PermanentErrors_False() {
+        assertFalse(retryPolicy.isRetryable(new FileNotFoundException("uploads/missing.jpg")));
+        assertFalse(retryPolicy.isRetryable(new IllegalArgumentException("bad document")));
+        assertFalse(retryPolicy.isRetryable(new UnsatisfiedLinkError("no tesseract")));
+    }
+
+    @Test
+    @DisplayName("OCR timeout → retryable by default, failed at once when retry-on-timeout is off")
+    void isRetryable_OcrTimeout_FollowsSetting() {
+        OcrTimeoutException timeout = new OcrTimeoutException(DocumentType.PAN, Duration.ofSeconds(60));
+        assertTrue(retryPolicy.isRetryable(timeout));
+
+        kycProperties.getOcr().setRetryOnTimeout(false);
+        assertFalse(retryPolicy.isRetryable(timeout));
+        assertFalse(retryPolicy.isRetryable(new TesseractException("cancelled", timeout)));
+    }
+
+    @Test
+    @DisplayName("Retry budget → allowed until max-retries is reached")
+    void canRetry_HonoursMaxRetries() {
+        assertTrue(retryPolicy.canRetry(0));
+        assertTrue(retryPolicy.canRetry(2));
+        assertFalse(retryPolicy.canRetry(3));
+    }
+
+    @Test
+    @DisplayName("Backoff → doubles per retry within ±20% jitter, capped at max-backoff")
+    void backoff_ExponentialWithCap() {
+        for (int i = 0; i < 50; i++) {
+            long first = retryPolicy.backoff(1).toMillis();
+            long second = retryPolicy.backoff(2).toMillis();
+            long tenth = retryPolicy.backoff(10).toMillis();
+
+            assertTrue(first >= 8_000 && first <= 12_000, "first retry: " + first);
+            assertTrue(second >= 16_000 && second <= 24_000, "second retry: " + second);
+            assertTrue(tenth >= 48_000 && tenth <= 60_000, "capped retry: " + tenth);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.repository.KycRequestRepository;
+import com.example.kyc_system.service.impl.KycProcessingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link KycWorker} startup and shutdown draining (single
+ * worker thread).
+ *
+ * Covers:
+ * - Startup → no poll until the application runners (OCR warm-up) have finished
+ * - Idle pool → stops at once, nothing handed back
+ * - In-flight request finishing before the deadline → acknowledged, not handed back
+ * - In-flight request still running at the deadline → handed back to the queue
+ * - Request claimed just as draining starts → handed back, then its claim acknowledged
+ * - Tenant gate refuses a claimed request → acknowledged, not processed
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KycWorkerTest {
+
+    @Mock
+    private KycQueueService queueService;
+
+    @Mock
+    private TenantDispatchGate tenantDispatchGate;
+
+    @Mock
+    private KycProcessingService processingService;
+
+    @Mock
+    private KycRequestRepository kycRequestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private KycProperties properties;
+    private KycWorker worker;
+    private final CountDownLatch processingStarted = new CountDownLatch(1);
+    private final CountDownLatch finishProcessing = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        properties = new KycProperties();
+        properties.getWorker().setPoolSize(1);
+        when(tenantDispatchGate.admit(anyLong())).thenReturn(true);
+        worker = new KycWorker(queueService, tenantDispatchGate, processingService, kycRequestRepository,
+                new TransactionTemplate(transactionManager), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        finishProcessing.countDown();
+    }
+
+    /** First poll returns request 7, later polls block until interrupted. */
+    private void stubOneRequest() throws InterruptedException {
+        when(queueService.poll()).thenReturn(7L).thenAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return null;
+        });
+        doAnswer(invocation -> {
+            processingStarted.countDown();
+            finishProcessing.await();
+            return null;
+        }).when(processingService).processAsync(7L);
+    }
+
+    @Test
+    @DisplayName("Startup → worker polls only after the application runners (OCR warm-up) finished")
+    void start_AfterRunners_NoPollDuringWarmUp() throws InterruptedException {
+        when(queueService.poll()).thenAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return null;
+        });
+        AtomicInteger pollsDuringWarmUp = new AtomicInteger(-1);
+        ApplicationRunner warmUp = args -> {
+            Thread.sleep(200);
+            pollsDuringWarmUp.set(mockingDetails(queueService).getInvocations().size());
+        };
+        SpringApplication application = new SpringApplication(Object.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.addInitializers(context -> {
+            context.getBeanFactory().registerSingleton("kycWorker", worker);
+            context.getBeanFactory().registerSingleton("ocrWarmUp", warmUp);
+        });
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            assertEquals(0, pollsDuringWarmUp.get());
+            verify(queueService, timeout(1_000)).poll();
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Idle pool → stops at once, nothing handed back")
+    void stop_Idle_NothingHandedBack() throws InterruptedException {
+        when(queueService.poll()).thenAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return null;
+        });
+        worker.start();
+        verify(queueService, timeout(1_000)).poll();
+
+        long start = System.nanoTime();
+        worker.stop();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        verifyNoInteractions(kycRequestRepository);
+    }
+
+    @Test
+    @DisplayName("In-flight request done before the deadline → acknowledged, not handed back")
+    void stop_FinishesBeforeDeadline_Acknowledged() throws InterruptedException {
+        stubOneRequest();
+        worker.start();
+        assertTrue(processingStarted.await(1, TimeUnit.SECONDS));
+
+        Thread stopper = new Thread(worker::stop);
+        stopper.start();
+        Thread.sleep(100);
+        assertTrue(stopper.isAlive(), "stop() should wait for the in-flight request");
+        finishProcessing.countDown();
+        stopper.join(5_000);
+
+        assertFalse(stopper.isAlive());
+        verify(queueService).acknowledge(7L);
+        verify(queueService).complete(7L);
+        verifyNoInteractions(kycRequestRepository);
+    }
+
+    @Test
+    @DisplayName("Request claimed as draining starts → handed back, claim acknowledged and completed")
+    void stop_ClaimedWhileDraining_HandedBackThenAcknowledged() throws InterruptedException {
+        when(queueService.poll()).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+                return null;
+            } catch (InterruptedException e) {
+                // The claim completes although the worker was interrupted by stop()
+                return 9L;
+            }
+        });
+        worker.start();
+        verify(queueService, timeout(1_000)).poll();
+
+        worker.stop();
+
+        InOrder inOrder = inOrder(kycRequestRepository, queueService);
+        inOrder.verify(kycRequestRepository).handBackUnfinished(List.of(9L));
+        inOrder.verify(queueService).acknowledge(9L);
+        inOrder.verify(queueService).complete(9L);
+        verify(processingService, never()).processAsync(anyLong());
+    }
+
+    @Test
+    @DisplayName("Tenant gate refuses the request → claim acknowledged, not processed")
+    void runLoop_TenantAtLimit_AcknowledgedNotProcessed() throws InterruptedException {
+        stubOneRequest();
+        when(tenantDispatchGate.admit(7L)).thenReturn(false);
+        worker.start();
+
+        verify(queueService, timeout(1_000)).acknowledge(7L);
+        verify(queueService, timeout(1_000).times(2)).poll();
+        verify(processingService, never()).processAsync(anyLong());
+        worker.stop();
+    }
+
+    @Test
+    @DisplayName("In-flight request past the deadline → handed back to the queue")
+    void stop_DeadlinePassed_HandedBack() throws InterruptedException {
+        properties.getWorker().setShutdownTimeout(Duration.ofMillis(100));
+        stubOneRequest();
+        worker.start();
+        assertTrue(processingStarted.await(1, TimeUnit.SECONDS));
+
+        worker.stop();
+
+        verify(kycRequestRepository).handBackUnfinished(List.of(7L));
+        verify(queueService, never()).acknowledge(anyLong());
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.repository.KycJobRepository;
+import com.example.kyc_system.util.EncryptionUtil;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link KycJobRepository} and {@link PostgresKycQueueService}
+ * against a real Postgres (skipped without Docker). Every statement commits
+ * on its own, as it does in the queue service.
+ *
+ * Covers:
+ * - Consumers claiming concurrently never get the same job
+ * - A claim older than the claim timeout is picked up by another node
+ * - deleteClaimed removes the job only for the node holding the claim
+ * - release makes claimed jobs READY for any node
+ * - Push (idempotent) → poll → acknowledge; buffered jobs released on shutdown
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(EncryptionUtil.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresKycQueueServiceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void dynamicProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static final long CLAIM_SECONDS = 300;
+
+    @Autowired
+    private KycJobRepository jobRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        jobRepository.deleteAll();
+    }
+
+    private void enqueue(long... requestIds) {
+        for (long requestId : requestIds) {
+            tx.execute(status -> jobRepository.enqueue(requestId));
+        }
+    }
+
+    private List<Long> claim(String owner, int batchSize) {
+        return tx.execute(status -> jobRepository.claimBatch(owner, batchSize, CLAIM_SECONDS));
+    }
+
+    private int deleteClaimed(Long requestId, String owner) {
+        Integer deleted = tx.execute(status -> jobRepository.deleteClaimed(requestId, owner));
+        return deleted == null ? 0 : deleted;
+    }
+
+    private int release(Long requestId) {
+        Integer released = tx.execute(status -> jobRepository.release(List.of(requestId)));
+        return released == null ? 0 : released;
+    }
+
+    private long countReady() {
+        return jobRepository.countReady();
+    }
+
+    @Test
+    @DisplayName("Concurrent consumers → every job claimed exactly once")
+    void claimBatch_Concurrent_NeverSameJob() throws Exception {
+        int jobs = 200;
+        for (long id = 1; id <= jobs; id++) {
+            enqueue(id);
+        }
+
+        int consumers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(consumers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                String owner = "node-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    List<Long> mine = new ArrayList<>();
+                    List<Long> batch;
+                    while (!(batch = claim(owner, 5)).isEmpty()) {
+                        mine.addAll(batch);
+                    }
+                    return mine;
+                }));
+            }
+            start.countDown();
+
+            List<Long> claimed = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                claimed.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+            Set<Long> distinct = new HashSet<>(claimed);
+            assertEquals(claimed.size(), distinct.size(), "a job was claimed twice");
+            assertEquals(jobs, distinct.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Claim older than the claim timeout → picked up again by another node")
+    void claimBatch_ExpiredClaim_ClaimedAgain() {
+        enqueue(7L);
+        assertEquals(List.of(7L), claim("node-a", 1));
+        assertTrue(claim("node-b", 1).isEmpty());
+
+        jdbcTemplate.update("UPDATE kyc_jobs SET claimed_at = now() - make_interval(secs => ?) WHERE request_id = 7",
+                CLAIM_SECONDS + 1);
+
+        assertEquals(List.of(7L), claim("node-b", 1));
+        assertEquals("node-b", jobRepository.findAll().get(0).getClaimedBy());
+    }
+
+    @Test
+    @DisplayName("deleteClaimed → only the node holding the claim removes the job")
+    void deleteClaimed_OwnerCheck() {
+        enqueue(7L);
+        claim("node-a", 1);
+
+        assertEquals(0, deleteClaimed(7L, "node-b"));
+        assertEquals(1, jobRepository.count());
+
+        assertEquals(1, deleteClaimed(7L, "node-a"));
+        assertEquals(0, jobRepository.count());
+    }
+
+    @Test
+    @DisplayName("deleteClaimed after the job was reclaimed → stale owner keeps its hands off")
+    void deleteClaimed_Reclaimed_StaleOwnerIgnored() {
+        enqueue(7L);
+        claim("node-a", 1);
+        jdbcTemplate.update("UPDATE kyc_jobs SET claimed_at = now() - make_interval(secs => ?) WHERE request_id = 7",
+                CLAIM_SECONDS + 1);
+        claim("node-b", 1);
+
+        assertEquals(0, deleteClaimed(7L, "node-a"));
+        assertEquals(1, jobRepository.count());
+    }
+
+    @Test
+    @DisplayName("release → job READY again and claimable by any node; not deletable by its old owner")
+    void release_ReadyAgain() {
+        enqueue(7L, 8L);
+        claim("node-a", 2);
+        assertEquals(0, countReady());
+
+        assertEquals(1, release(7L));
+
+        assertEquals(1, countReady());
+        assertEquals(0, deleteClaimed(7L, "node-a"));
+        assertEquals(List.of(7L), claim("node-b", 5));
+    }
+
+    @Test
+    @DisplayName("Queue service: duplicate push queued once, poll → acknowledge removes the job")
+    void service_PushPollAcknowledge() throws InterruptedException {
+        PostgresKycQueueService queue = newQueueService(5);
+
+        assertTrue(queue.push(7L, "T1"));
+        assertTrue(queue.push(7L, "T1"));
+        assertEquals(1, queue.size());
+
+        assertEquals(7L, queue.poll());
+        queue.acknowledge(7L);
+
+        assertEquals(0, jobRepository.count());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Queue service: buffered but unstarted jobs released on shutdown")
+    void service_ReleaseBuffered() throws InterruptedException {
+        PostgresKycQueueService queue = newQueueService(5);
+        queue.push(7L, "T1");
+        queue.push(8L, "T1");
+
+        assertEquals(7L, queue.poll());
+        queue.releaseBuffered();
+
+        assertEquals(1, countReady());
+        assertEquals(List.of(8L), claim("node-b", 5));
+    }
+
+    private PostgresKycQueueService newQueueService(int batchSize) {
+        KycProperties properties = new KycProperties();
+        properties.getQueue().setBatchSize(batchSize);
+        properties.getQueue().setClaimTimeout(Duration.ofSeconds(CLAIM_SECONDS));
+        properties.getQueue().setPollInterval(Duration.ofMillis(50));
+        return new PostgresKycQueueService(jobRepository, properties, transactionManager);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.redis.testcontainers.RedisContainer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RedisStreamKycQueueService} against a real Redis (skipped
+ * without Docker). Every test uses its own stream.
+ *
+ * Covers:
+ * - Push → polled, acknowledged entry removed from the stream and the pending list
+ * - Same request pushed twice → both deliveries acknowledged, nothing left pending
+ * - Entry left unacknowledged past the claim timeout → reclaimed by another consumer
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisStreamKycQueueServiceTest {
+
+    @Container
+    static final RedisContainer redis = new RedisContainer("redis:7-alpine");
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private KycProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        properties = new KycProperties();
+        properties.getQueue().setStreamKey("kyc:queue:" + UUID.randomUUID());
+        properties.getQueue().setPollInterval(Duration.ofMillis(100));
+        properties.getQueue().setClaimTimeout(Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    private RedisStreamKycQueueService newConsumer() {
+        RedisStreamKycQueueService queue = new RedisStreamKycQueueService(redisTemplate, properties);
+        queue.createConsumerGroup();
+        return queue;
+    }
+
+    private long pending() {
+        return redisTemplate.opsForStream()
+                .pending(properties.getQueue().getStreamKey(), properties.getQueue().getConsumerGroup())
+                .getTotalPendingMessages();
+    }
+
+    private long streamLength() {
+        return redisTemplate.opsForStream().size(properties.getQueue().getStreamKey());
+    }
+
+    @Test
+    @DisplayName("Push → polled, acknowledge removes the entry from stream and pending list")
+    void pushPollAcknowledge() throws InterruptedException {
+        RedisStreamKycQueueService queue = newConsumer();
+
+        assertTrue(queue.push(7L, "T1"));
+        assertEquals(1, queue.size());
+
+        assertEquals(7L, queue.poll());
+        assertEquals(1, pending());
+
+        queue.acknowledge(7L);
+
+        assertEquals(0, pending());
+        assertEquals(0, streamLength());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Same request pushed twice → each delivery acknowledged, nothing left pending")
+    void duplicateDeliveries_AllAcknowledged() throws InterruptedException {
+        RedisStreamKycQueueService queue = newConsumer();
+        queue.push(7L, "T1");
+        queue.push(7L, "T1");
+
+        assertEquals(7L, queue.poll());
+        assertEquals(7L, queue.poll());
+        assertEquals(2, pending());
+
+        queue.acknowledge(7L);
+        assertEquals(1, pending());
+        queue.acknowledge(7L);
+
+        assertEquals(0, pending());
+        assertEquals(0, streamLength());
+    }
+
+    @Test
+    @DisplayName("Entry unacknowledged past the claim timeout → reclaimed and acknowledged by another consumer")
+    void abandonedEntry_Reclaimed() throws InterruptedException {
+        RedisStreamKycQueueService crashed = newConsumer();
+        crashed.push(7L, "T1");
+        assertEquals(7L, crashed.poll());
+
+        Thread.sleep(properties.getQueue().getClaimTimeout().toMillis() + 100);
+        RedisStreamKycQueueService survivor = newConsumer();
+
+        assertEquals(7L, survivor.poll());
+        survivor.acknowledge(7L);
+
+        assertEquals(0, pending());
+        assertEquals(0, streamLength());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.repository.KycRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TenantDispatchGate}.
+ *
+ * Covers:
+ * - Memory backend → always admitted, nothing read
+ * - Durable backend, tenant without a limit → admitted without counting
+ * - Durable backend, tenant below its limit → admitted
+ * - Durable backend, tenant at its limit → deferred through the outbox, counted
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantDispatchGateTest {
+
+    @Mock
+    private KycQueueService queueService;
+
+    @Mock
+    private KycQueueOutbox queueOutbox;
+
+    @Mock
+    private KycRequestRepository kycRequestRepository;
+
+    @Mock
+    private TenantQueuePolicy tenantQueuePolicy;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantDispatchGate gate;
+
+    @BeforeEach
+    void setUp() {
+        KycProperties properties = new KycProperties();
+        properties.getWorker().setTenantLimitDelay(Duration.ofSeconds(7));
+        meterRegistry = new SimpleMeterRegistry();
+        gate = new TenantDispatchGate(queueService, queueOutbox, kycRequestRepository, tenantQueuePolicy,
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Memory backend → admitted, limit enforced by the queue itself")
+    void admit_MemoryBackend_Admitted() {
+        assertTrue(gate.admit(7L));
+
+        verifyNoInteractions(kycRequestRepository, tenantQueuePolicy, queueOutbox);
+    }
+
+    @Test
+    @DisplayName("No limit for the tenant → admitted without counting")
+    void admit_NoLimit_AdmittedWithoutCount() {
+        when(queueService.isDurable()).thenReturn(true);
+        when(kycRequestRepository.findTenantIdById(7L)).thenReturn(Optional.of("T1"));
+        when(tenantQueuePolicy.maxConcurrentOf("T1")).thenReturn(0);
+
+        assertTrue(gate.admit(7L));
+
+        verify(kycRequestRepository, never()).countByTenantIdAndStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("Tenant below its limit → admitted")
+    void admit_BelowLimit_Admitted() {
+        when(queueService.isDurable()).thenReturn(true);
+        when(kycRequestRepository.findTenantIdById(7L)).thenReturn(Optional.of("T1"));
+        when(tenantQueuePolicy.maxConcurrentOf("T1")).thenReturn(2);
+        when(kycRequestRepository.countByTenantIdAndStatus("T1", "PROCESSING")).thenReturn(1L);
+
+        assertTrue(gate.admit(7L));
+
+        verifyNoInteractions(queueOutbox);
+    }
+
+    @Test
+    @DisplayName("Tenant at its limit → written back to the outbox with the configured delay")
+    void admit_AtLimit_Deferred() {
+        when(queueService.isDurable()).thenReturn(true);
+        when(kycRequestRepository.findTenantIdById(7L)).thenReturn(Optional.of("T1"));
+        when(tenantQueuePolicy.maxConcurrentOf("T1")).thenReturn(2);
+        when(kycRequestRepository.countByTenantIdAndStatus("T1", "PROCESSING")).thenReturn(2L);
+
+        assertFalse(gate.admit(7L));
+
+        verify(queueOutbox).addDelayed(7L, "T1", Duration.ofSeconds(7));
+        assertEquals(1, meterRegistry.get("kyc.worker.tenant-deferred").counter().count());
+    }
+}
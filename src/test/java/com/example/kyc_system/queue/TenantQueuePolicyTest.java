@@ -0,0 +1,73 @@
+package com.example.kyc_system.queue;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.entity.Tenant;
+import com.example.kyc_system.repository.TenantRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TenantQueuePolicy}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantQueuePolicyTest {
+
+    @Mock
+    private TenantRepository tenantRepository;
+
+    private TenantQueuePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new TenantQueuePolicy(tenantRepository, new KycProperties());
+    }
+
+    @Test
+    @DisplayName("Plan with configured weight → that weight, cached afterwards")
+    void weightOf_KnownPlan_ReturnsWeightAndCaches() {
+        when(tenantRepository.findByTenantId("T1"))
+                .thenReturn(Optional.of(Tenant.builder().tenantId("T1").plan("premium").build()));
+
+        assertEquals(4, policy.weightOf("T1"));
+        assertEquals(4, policy.weightOf("T1"));
+        verify(tenantRepository, times(1)).findByTenantId("T1");
+    }
+
+    @Test
+    @DisplayName("Tenant limit set → used, otherwise the global default")
+    void maxConcurrentOf_TenantOverridesDefault() {
+        KycProperties properties = new KycProperties();
+        properties.getWorker().setMaxConcurrentPerTenant(2);
+        policy = new TenantQueuePolicy(tenantRepository, properties);
+        when(tenantRepository.findByTenantId("T1"))
+                .thenReturn(Optional.of(Tenant.builder().tenantId("T1").maxConcurrentProcessing(5).build()));
+        when(tenantRepository.findByTenantId("T2"))
+                .thenReturn(Optional.of(Tenant.builder().tenantId("T2").build()));
+
+        assertEquals(5, policy.maxConcurrentOf("T1"));
+        assertEquals(2, policy.maxConcurrentOf("T2"));
+        assertEquals(2, policy.maxConcurrentOf(null));
+    }
+
+    @Test
+    @DisplayName("Unknown plan, unknown tenant or no tenant → default weight")
+    void weightOf_Unknown_DefaultWeight() {
+        when(tenantRepository.findByTenantId("T2"))
+                .thenReturn(Optional.of(Tenant.builder().tenantId("T2").plan("CUSTOM").build()));
+        when(tenantRepository.findByTenantId("T3")).thenReturn(Optional.empty());
+
+        assertEquals(1, policy.weightOf("T2"));
+        assertEquals(1, policy.weightOf("T3"));
+        assertEquals(1, policy.weightOf(null));
+    }
+}
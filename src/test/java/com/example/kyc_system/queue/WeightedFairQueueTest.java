@@ -0,0 +1,90 @@
+package com.example.kyc_system.queue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link WeightedFairQueue}.
+ *
+ * Covers:
+ * - Single tenant → plain FIFO
+ * - Bulk tenant ahead of a small tenant → small tenant served in the first round
+ * - Weights → proportional share per round
+ * - Capacity bound
+ */
+class WeightedFairQueueTest {
+
+    @Test
+    @DisplayName("Single tenant → FIFO order")
+    void take_SingleTenant_Fifo() throws InterruptedException {
+        WeightedFairQueue queue = new WeightedFairQueue(10);
+        queue.offer("T1", 1L, 1);
+        queue.offer("T1", 2L, 1);
+        queue.offer("T1", 3L, 1);
+
+        assertEquals(List.of(1L, 2L, 3L), takeAll(queue));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    @DisplayName("Bulk tenant queued first → other tenant isn't starved")
+    void take_BulkTenantFirst_OtherTenantServedInFirstRound() throws InterruptedException {
+        WeightedFairQueue queue = new WeightedFairQueue(100);
+        for (long id = 1; id <= 50; id++) {
+            queue.offer("BULK", id, 1);
+        }
+        queue.offer("SMALL", 1000L, 1);
+
+        assertEquals(1L, queue.take());
+        assertEquals(1000L, queue.take());
+        assertEquals(2L, queue.take());
+    }
+
+    @Test
+    @DisplayName("Weights → tenant with weight 3 gets three requests per round")
+    void take_Weighted_ProportionalShare() throws InterruptedException {
+        WeightedFairQueue queue = new WeightedFairQueue(100);
+        for (long id = 1; id <= 6; id++) {
+            queue.offer("PREMIUM", id, 3);
+            queue.offer("BASIC", 100 + id, 1);
+        }
+
+        List<Long> firstTwoRounds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            firstTwoRounds.add(queue.take());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 101L, 4L, 5L, 6L, 102L), firstTwoRounds);
+        assertEquals(List.of(103L, 104L, 105L, 106L), takeAll(queue));
+    }
+
+    @Test
+    @DisplayName("Null tenant → served from the default sub-queue")
+    void offer_NullTenant_Accepted() throws InterruptedException {
+        WeightedFairQueue queue = new WeightedFairQueue(10);
+        assertTrue(queue.offer(null, 7L, 1));
+        assertEquals(7L, queue.take());
+    }
+
+    @Test
+    @DisplayName("Capacity reached → offer rejected")
+    void offer_Full_Rejected() {
+        WeightedFairQueue queue = new WeightedFairQueue(2);
+        assertTrue(queue.offer("T1", 1L, 1));
+        assertTrue(queue.offer("T2", 2L, 1));
+        assertFalse(queue.offer("T3", 3L, 1));
+        assertEquals(2, queue.size());
+    }
+
+    private static List<Long> takeAll(WeightedFairQueue queue) throws InterruptedException {
+        List<Long> taken = new ArrayList<>();
+        while (queue.size() > 0) {
+            taken.add(queue.take());
+        }
+        return taken;
+    }
+}
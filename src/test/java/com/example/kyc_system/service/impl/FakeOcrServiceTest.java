@@ -0,0 +1,161 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.config.KycProperties.FakeOcr.InjectedError;
+import com.example.kyc_system.config.KycProperties.FakeOcr.LatencyDistribution;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FakeOcrService.
+ *
+ * Tests cover:
+ * - Canned result per document type
+ * - Same seed and document → same outcome, across instances
+ * - Error rate honoured; injected errors shaped like the real engine's
+ * - Latency distributions: fixed, uniform bounds, log-normal median and p99
+ */
+@DisplayName("FakeOcrService Unit Tests")
+class FakeOcrServiceTest {
+
+    private KycProperties kycProperties;
+    private KycProperties.FakeOcr fake;
+    private FakeOcrService service;
+
+    @BeforeEach
+    void setUp() {
+        kycProperties = new KycProperties();
+        fake = kycProperties.getOcr().getFake();
+        service = new FakeOcrService(kycProperties);
+    }
+
+    @Test
+    @DisplayName("Should return the canned result of the document type")
+    void extract_ReturnsCannedResult() {
+        OcrResult pan = service.extract(new File("a.png"), DocumentType.PAN);
+        OcrResult aadhaar = service.extract(new File("a.png"), DocumentType.AADHAAR);
+
+        assertEquals("ABCDE1234F", pan.getDocumentNumber());
+        assertEquals("RAHUL SHARMA", pan.getName());
+        assertEquals("234567890123", aadhaar.getDocumentNumber());
+        assertEquals("fake", pan.getRawResponse().get("engine"));
+    }
+
+    @Test
+    @DisplayName("Should fail about error-rate of the documents, the same ones on every instance")
+    void extract_ErrorRate_Deterministic() {
+        fake.setErrorRate(0.3);
+        FakeOcrService other = new FakeOcrService(kycProperties);
+
+        long failed = IntStream.range(0, 1_000).filter(i -> {
+            File file = new File("doc-" + i + ".png");
+            boolean fails = fails(service, file);
+            assertEquals(fails, fails(other, file));
+            return fails;
+        }).count();
+
+        assertTrue(failed > 240 && failed < 360, "failed=" + failed);
+    }
+
+    @Test
+    @DisplayName("Should inject each configured error as the real engine would raise it")
+    void extract_ErrorMix() {
+        fake.setErrorRate(1.0);
+        Map<Class<?>, Integer> seen = new HashMap<>();
+        Map<InjectedError, Double> mix = new EnumMap<>(InjectedError.class);
+        mix.put(InjectedError.TRANSIENT, 1.0);
+        mix.put(InjectedError.TIMEOUT, 1.0);
+        mix.put(InjectedError.INVALID, 1.0);
+        fake.setErrorMix(mix);
+
+        for (int i = 0; i < 300; i++) {
+            File file = new File("doc-" + i + ".png");
+            RuntimeException ex = assertThrows(RuntimeException.class, () -> service.extract(file, DocumentType.PAN));
+            Class<?> kind = ex instanceof OcrTimeoutException ? OcrTimeoutException.class
+                    : ex.getCause() instanceof TesseractException ? TesseractException.class
+                    : RuntimeException.class;
+            if (kind == RuntimeException.class) {
+                assertTrue(ex.getMessage().startsWith("Invalid document"));
+            }
+            seen.merge(kind, 1, Integer::sum);
+        }
+
+        assertEquals(3, seen.size());
+        seen.values().forEach(count -> assertTrue(count > 60, "count=" + count));
+    }
+
+    @Test
+    @DisplayName("Should wait the fixed latency before answering")
+    void extract_FixedLatency() {
+        fake.setLatencyMedian(Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        service.extract(new File("a.png"), DocumentType.PAN);
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should keep uniform latency between min and 2 × median − min")
+    void latency_Uniform_Bounds() {
+        fake.setLatencyDistribution(LatencyDistribution.UNIFORM);
+        fake.setLatencyMin(Duration.ofMillis(10));
+        fake.setLatencyMedian(Duration.ofMillis(30));
+
+        long[] samples = sample(10_000);
+
+        assertTrue(samples[0] >= Duration.ofMillis(10).toNanos());
+        assertTrue(samples[samples.length - 1] < Duration.ofMillis(50).toNanos());
+        assertEquals(30, samples[samples.length / 2] / 1_000_000.0, 1.5);
+    }
+
+    @Test
+    @DisplayName("Should match the log-normal median and p99")
+    void latency_LogNormal_Percentiles() {
+        fake.setLatencyDistribution(LatencyDistribution.LOG_NORMAL);
+        fake.setLatencyMin(Duration.ofMillis(100));
+        fake.setLatencyMedian(Duration.ofMillis(400));
+        fake.setLatencyP99(Duration.ofMillis(2_000));
+
+        long[] samples = sample(20_000);
+
+        assertTrue(samples[0] >= Duration.ofMillis(100).toNanos());
+        assertEquals(400, samples[samples.length / 2] / 1_000_000.0, 20);
+        assertEquals(2_000, samples[(int) (samples.length * 0.99)] / 1_000_000.0, 200);
+    }
+
+    private long[] sample(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = service.latencyNanos(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static boolean fails(FakeOcrService service, File file) {
+        try {
+            service.extract(file, DocumentType.PAN);
+            return false;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+}
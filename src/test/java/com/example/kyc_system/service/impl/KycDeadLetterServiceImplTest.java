@@ -0,0 +1,130 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.dto.KycDeadLetterDTO;
+import com.example.kyc_system.entity.KycDeadLetter;
+import com.example.kyc_system.entity.KycRequest;
+import com.example.kyc_system.enums.KycStatus;
+import com.example.kyc_system.exception.BusinessException;
+import com.example.kyc_system.queue.KycQueueOutbox;
+import com.example.kyc_system.repository.KycDeadLetterRepository;
+import com.example.kyc_system.repository.KycRequestRepository;
+import com.example.kyc_system.service.AuditLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KycDeadLetterServiceImpl.
+ *
+ * Covers:
+ * - record(): stores request, tenant, error type/message and retry count
+ * - replay(): FAILED request → SUBMITTED with fresh retry budget, re-queued
+ * - replay(): already replayed or request no longer FAILED → BusinessException
+ */
+@DisplayName("KycDeadLetterServiceImpl Unit Tests")
+class KycDeadLetterServiceImplTest {
+
+    @Mock
+    private KycDeadLetterRepository deadLetterRepository;
+    @Mock
+    private KycRequestRepository kycRequestRepository;
+    @Mock
+    private KycQueueOutbox queueOutbox;
+    @Mock
+    private AuditLogService auditLogService;
+
+    @InjectMocks
+    private KycDeadLetterServiceImpl deadLetterService;
+
+    private KycDeadLetter deadLetter;
+    private KycRequest failedRequest;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
+        deadLetter = KycDeadLetter.builder()
+                .id(1L)
+                .requestId(100L)
+                .tenantId("T1")
+                .retryCount(3)
+                .createdAt(LocalDateTime.now())
+                .build();
+        failedRequest = KycRequest.builder()
+                .id(100L)
+                .tenantId("T1")
+                .status(KycStatus.FAILED.name())
+                .retryCount(3)
+                .failureReason("Processing error: file locked")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should record error details and retry count")
+    void record_StoresErrorDetails() {
+        deadLetterService.record(100L, "T1", new IOException("file locked"), 3);
+
+        ArgumentCaptor<KycDeadLetter> captor = ArgumentCaptor.forClass(KycDeadLetter.class);
+        verify(deadLetterRepository).save(captor.capture());
+        KycDeadLetter saved = captor.getValue();
+        assertEquals(100L, saved.getRequestId());
+        assertEquals("T1", saved.getTenantId());
+        assertEquals(IOException.class.getName(), saved.getErrorType());
+        assertEquals("file locked", saved.getErrorMessage());
+        assertEquals(3, saved.getRetryCount());
+        assertNull(saved.getReplayedAt());
+    }
+
+    @Test
+    @DisplayName("Should resubmit FAILED request with a fresh retry budget")
+    void replay_FailedRequest_Resubmits() {
+        when(deadLetterRepository.findById(1L)).thenReturn(Optional.of(deadLetter));
+        when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(failedRequest));
+
+        KycDeadLetterDTO result = deadLetterService.replay(1L);
+
+        assertEquals(KycStatus.SUBMITTED.name(), failedRequest.getStatus());
+        assertEquals(0, failedRequest.getRetryCount());
+        assertNull(failedRequest.getFailureReason());
+        verify(queueOutbox).add(100L, "T1");
+        assertNotNull(result.getReplayedAt());
+        assertEquals("SYSTEM", result.getReplayedBy());
+        verify(auditLogService).logAction(eq("REPLAY_DEAD_LETTER"), eq("KycRequest"), eq(100L), anyString(),
+                eq("SYSTEM"));
+    }
+
+    @Test
+    @DisplayName("Should reject replaying a dead letter twice")
+    void replay_AlreadyReplayed_Throws() {
+        deadLetter.setReplayedAt(LocalDateTime.now());
+        when(deadLetterRepository.findById(1L)).thenReturn(Optional.of(deadLetter));
+
+        assertThrows(BusinessException.class, () -> deadLetterService.replay(1L));
+        verifyNoInteractions(queueOutbox);
+    }
+
+    @Test
+    @DisplayName("Should reject replay when the user already resubmitted the request")
+    void replay_RequestNoLongerFailed_Throws() {
+        failedRequest.setStatus(KycStatus.PROCESSING.name());
+        when(deadLetterRepository.findById(1L)).thenReturn(Optional.of(deadLetter));
+        when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(failedRequest));
+
+        assertThrows(BusinessException.class, () -> deadLetterService.replay(1L));
+        verifyNoInteractions(queueOutbox);
+        assertNull(deadLetter.getReplayedAt());
+    }
+}
@@ -59,6 +59,9 @@ class KycExtractionServiceImplTest {
                     .name("John Doe")
                     .dob("1990-01-15")
                     .documentNumber("ABCDE1234F")
+                    .nameConfidence(91.5f)
+                    .dobConfidence(72f)
+                    .documentNumberConfidence(96f)
                     .rawResponse(Map.of("text", "raw ocr output"))
                     .build();
 
@@ -71,6 +74,9 @@ class KycExtractionServiceImplTest {
             assertEquals("John Doe", result.getExtractedName());
             assertEquals(LocalDate.of(1990, 1, 15), result.getExtractedDob());
             assertEquals("ABCDE1234F", result.getExtractedDocumentNumber());
+            assertEquals(91.5f, result.getNameConfidence());
+            assertEquals(72f, result.getDobConfidence());
+            assertEquals(96f, result.getDocumentNumberConfidence());
             assertEquals(mockDocument, result.getKycDocument());
             assertNotNull(result.getCreatedAt());
             assertNotNull(result.getRawOcrResponse());
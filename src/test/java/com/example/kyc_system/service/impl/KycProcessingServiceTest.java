@@ -0,0 +1,382 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.entity.*;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.KycStatus;
+import com.example.kyc_system.queue.KycQueueOutbox;
+import com.example.kyc_system.queue.KycRetryPolicy;
+import com.example.kyc_system.repository.KycRequestRepository;
+import com.example.kyc_system.service.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KycProcessingService.
+ *
+ * Tests cover:
+ * processAsync()
+ * - Happy path: CAS succeeds, OCR runs, extraction + verification + status
+ * update called
+ * - CAS returns 0 (already processing): method exits early, OCR never called
+ * - OCR throws exception: status set to FAILED with error message
+ * - Transient error with retries left: back to SUBMITTED, delayed re-queue
+ * - Transient error with retries exhausted: FAILED and dead-lettered
+ * - Request handed back while OCR ran: result discarded, status untouched
+ * - Request re-claimed by a newer attempt while OCR ran: stale outcome discarded
+ * - Cached result for the document hash: OCR skipped; otherwise result cached
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("KycProcessingService Unit Tests")
+class KycProcessingServiceTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private KycQueueOutbox queueOutbox;
+    @Mock
+    private KycRequestRepository kycRequestRepository;
+    @Mock
+    private KycRequestService requestService;
+    @Mock
+    private OcrService ocrService;
+    @Mock
+    private OcrResultCache ocrResultCache;
+    @Mock
+    private KycExtractionService extractionService;
+    @Mock
+    private KycVerificationService verificationService;
+    @Mock
+    private KycRetryPolicy retryPolicy;
+    @Mock
+    private KycDeadLetterService deadLetterService;
+
+    @InjectMocks
+    private KycProcessingService processingService;
+
+    private KycRequest submittedRequest;
+    private KycDocument mockDocument;
+
+    @BeforeEach
+    void setUp() {
+        mockDocument = new KycDocument();
+        mockDocument.setId(1L);
+        mockDocument.setDocumentPath("uploads/test.jpg");
+        mockDocument.setDocumentType("PAN");
+        mockDocument.setDocumentHash("hash-1");
+
+        HashSet<KycDocument> docs = new HashSet<>();
+        docs.add(mockDocument);
+
+        submittedRequest = KycRequest.builder()
+                .id(100L)
+                .tenantId("default")
+                .status(KycStatus.SUBMITTED.name())
+                .build();
+        submittedRequest.setKycDocuments(docs);
+    }
+
+    // ─────────────────────────── processAsync() ───────────────────────────────
+
+    @Nested
+    @DisplayName("processAsync()")
+    class ProcessAsyncTests {
+
+        @BeforeEach
+        void markProcessing() {
+            // The stubbed CAS doesn't touch the entity; mirror what startProcessing does (attempt 1)
+            submittedRequest.setStatus(KycStatus.PROCESSING.name());
+            submittedRequest.setProcessingAttempt(1);
+        }
+
+        /**
+         * Helper: Make transactionTemplate.execute() immediately run the callback.
+         * For the CAS call, return the provided rowCount.
+         */
+        @SuppressWarnings({ "unchecked", "unused" })
+        private void stubCas(int rowCount) {
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(rowCount) // first call = CAS
+                    .thenAnswer(invocation -> { // second call = fetch processing data
+                        TransactionCallback<?> callback = invocation.getArgument(0);
+                        return callback.doInTransaction(null);
+                    })
+                    .thenAnswer(invocation -> { // third call = save & verify
+                        TransactionCallback<?> callback = invocation.getArgument(0);
+                        return callback.doInTransaction(null);
+                    });
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("CAS returns 0 (already PROCESSING) → should exit early, OCR never called")
+        void processAsync_CasReturnsZero_ExitsEarly() {
+            when(transactionTemplate.execute(any(TransactionCallback.class))).thenReturn(0);
+
+            processingService.processAsync(100L);
+
+            verifyNoInteractions(ocrService);
+            verifyNoInteractions(extractionService);
+            verifyNoInteractions(verificationService);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("CAS succeeds → OCR runs → extraction and verification called → status updated")
+        void processAsync_CasSucceeds_RunsFullPipeline() throws Exception {
+            OcrResult ocrResult = OcrResult.builder()
+                    .name("John Doe")
+                    .dob("1990-01-01")
+                    .documentNumber("DOC12345")
+                    .rawResponse(java.util.Map.of())
+                    .build();
+
+            KycExtractedData extracted = KycExtractedData.builder().id(1L).build();
+
+            KycVerificationResult verificationResult = KycVerificationResult.builder()
+                    .finalStatus(KycStatus.VERIFIED.name())
+                    .decisionReason("")
+                    .build();
+
+            // Stub: CAS returns 1 (success)
+            // fetch data returns anonymous object (we cannot easily stub due to anonymous
+            // class)
+            // So we test the CAS=0 and OCR exception paths, and verify interactions at a
+            // higher level
+
+            // This test verifies the CAS=1 path by confirming OCR is invoked
+            // when the first transactionTemplate call returns 1.
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(1) // CAS succeeds
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    })
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    });
+
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            when(ocrService.extract(any(File.class), any(DocumentType.class))).thenReturn(ocrResult);
+            when(extractionService.save(anyLong(), any(OcrResult.class))).thenReturn(extracted);
+            when(verificationService.verifyAndSave(anyLong(), any(KycExtractedData.class)))
+                    .thenReturn(verificationResult);
+
+            // Should not throw
+            assertDoesNotThrow(() -> processingService.processAsync(100L));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("Cached result for the same content → OCR skipped, cached result verified")
+        void processAsync_CacheHit_SkipsOcr() {
+            OcrResult cached = OcrResult.builder().name("John Doe").documentNumber("DOC12345").build();
+            KycExtractedData extracted = KycExtractedData.builder().id(1L).build();
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(1)
+                    .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            when(ocrResultCache.get("hash-1", DocumentType.PAN)).thenReturn(Optional.of(cached));
+            when(extractionService.save(1L, cached)).thenReturn(extracted);
+            when(verificationService.verifyAndSave(100L, extracted)).thenReturn(KycVerificationResult.builder()
+                    .finalStatus(KycStatus.VERIFIED.name()).decisionReason("").build());
+
+            processingService.processAsync(100L);
+
+            verifyNoInteractions(ocrService);
+            verify(ocrResultCache, never()).put(any(), any(), any());
+            verify(requestService).updateStatus(100L, KycStatus.VERIFIED);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("No cached result → OCR runs and its result is cached")
+        void processAsync_CacheMiss_CachesResult() {
+            OcrResult ocrResult = OcrResult.builder().name("John Doe").build();
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(1)
+                    .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            when(ocrResultCache.get("hash-1", DocumentType.PAN)).thenReturn(Optional.empty());
+            when(ocrService.extract(any(File.class), eq(DocumentType.PAN))).thenReturn(ocrResult);
+            when(extractionService.save(anyLong(), any(OcrResult.class))).thenReturn(KycExtractedData.builder().build());
+            when(verificationService.verifyAndSave(anyLong(), any(KycExtractedData.class))).thenReturn(
+                    KycVerificationResult.builder().finalStatus(KycStatus.VERIFIED.name()).decisionReason("").build());
+
+            processingService.processAsync(100L);
+
+            verify(ocrResultCache).put("hash-1", DocumentType.PAN, ocrResult);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("OCR throws exception → status should be set to FAILED in error handler transaction")
+        void processAsync_OcrThrows_SetsStatusToFailed() {
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(1) // CAS: success
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    })
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    });
+
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            when(ocrService.extract(any(File.class), any(DocumentType.class)))
+                    .thenThrow(new RuntimeException("OCR processing failed"));
+
+            // Should not propagate — error is caught inside processAsync
+            assertDoesNotThrow(() -> processingService.processAsync(100L));
+
+            // Verify the error-handling transaction was called (3rd transactionTemplate
+            // invocation)
+            verify(transactionTemplate, atLeast(2)).execute(any(TransactionCallback.class));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("OCR throws Error (e.g. UnsatisfiedLinkError) → status should be set to FAILED")
+        void processAsync_OcrThrowsError_SetsStatusToFailed() {
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(1) // CAS: success
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    })
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    });
+
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            // Simulate native library error
+            when(ocrService.extract(any(File.class), any(DocumentType.class)))
+                    .thenThrow(new UnsatisfiedLinkError("Native library tesseract not found"));
+
+            // Should not propagate — Error is now caught by Throwable catch block
+            assertDoesNotThrow(() -> processingService.processAsync(100L));
+
+            // Verify the error-handling transaction was called
+            verify(transactionTemplate, atLeast(2)).execute(any(TransactionCallback.class));
+            verify(requestService).updateStatus(eq(100L), eq(KycStatus.FAILED));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void stubAllTransactions() {
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenReturn(1) // CAS: success
+                    .thenAnswer(invocation -> {
+                        TransactionCallback<?> cb = invocation.getArgument(0);
+                        return cb.doInTransaction(null);
+                    });
+        }
+
+        @Test
+        @DisplayName("Transient error with retries left → SUBMITTED again and re-queued after backoff")
+        void processAsync_TransientError_SchedulesRetry() {
+            stubAllTransactions();
+            RuntimeException error = new RuntimeException(new IOException("file locked"));
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            when(ocrService.extract(any(File.class), any(DocumentType.class))).thenThrow(error);
+            when(retryPolicy.isRetryable(error)).thenReturn(true);
+            when(retryPolicy.canRetry(0)).thenReturn(true);
+            when(retryPolicy.backoff(1)).thenReturn(Duration.ofSeconds(10));
+
+            processingService.processAsync(100L);
+
+            assertEquals(1, submittedRequest.getRetryCount());
+            verify(requestService).updateStatus(100L, KycStatus.SUBMITTED);
+            verify(queueOutbox).addDelayed(100L, "default", Duration.ofSeconds(10));
+            verify(requestService, never()).updateStatus(100L, KycStatus.FAILED);
+            verifyNoInteractions(deadLetterService);
+        }
+
+        @Test
+        @DisplayName("Transient error with retries exhausted → FAILED and dead-lettered")
+        void processAsync_TransientErrorExhausted_DeadLetters() {
+            stubAllTransactions();
+            submittedRequest.setRetryCount(3);
+            RuntimeException error = new RuntimeException(new IOException("file locked"));
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(submittedRequest));
+            when(ocrService.extract(any(File.class), any(DocumentType.class))).thenThrow(error);
+            when(retryPolicy.isRetryable(error)).thenReturn(true);
+            when(retryPolicy.canRetry(3)).thenReturn(false);
+
+            processingService.processAsync(100L);
+
+            verify(requestService).updateStatus(100L, KycStatus.FAILED);
+            verify(deadLetterService).record(100L, "default", error, 3);
+            verify(queueOutbox, never()).addDelayed(anyLong(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Request handed back during OCR → result discarded, status untouched")
+        void processAsync_NoLongerProcessing_DiscardsResult() {
+            stubAllTransactions();
+            // First lookup fetches the document; by the time OCR is done the request was handed back
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenAnswer(invocation -> {
+                submittedRequest.setStatus(KycStatus.SUBMITTED.name());
+                return Optional.of(submittedRequest);
+            });
+            when(ocrService.extract(any(File.class), any(DocumentType.class)))
+                    .thenReturn(OcrResult.builder().rawResponse(java.util.Map.of()).build());
+
+            processingService.processAsync(100L);
+
+            verifyNoInteractions(extractionService, verificationService);
+            verify(requestService, never()).updateStatus(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("Request re-claimed by a newer attempt during OCR → stale result discarded")
+        void processAsync_ReclaimedByNewerAttempt_DiscardsResult() {
+            stubAllTransactions();
+            when(kycRequestRepository.findById(100L)).thenReturn(Optional.of(submittedRequest));
+            // Handed back and picked up again: PROCESSING, but under attempt 2
+            when(kycRequestRepository.findByIdForUpdate(100L)).thenAnswer(invocation -> {
+                submittedRequest.setProcessingAttempt(2);
+                return Optional.of(submittedRequest);
+            });
+            when(ocrService.extract(any(File.class), any(DocumentType.class)))
+                    .thenThrow(new RuntimeException("OCR processing failed"));
+
+            processingService.processAsync(100L);
+
+            verifyNoInteractions(extractionService, verificationService, deadLetterService);
+            verify(requestService, never()).updateStatus(anyLong(), any());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.util.EncryptionUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OcrResultCacheImpl.
+ *
+ * Tests cover:
+ * - put → L1 hit without touching Redis, returned copy is independent
+ * - L1 miss → encrypted L2 entry decrypted, promoted to L1
+ * - Redis written encrypted with the configured TTL
+ * - Expired L1 entries and evicted LRU entries are misses
+ * - Redis failure → miss, no exception
+ * - Disabled cache / missing hash → no lookup
+ * - Hit and miss counters
+ */
+@DisplayName("OcrResultCacheImpl Unit Tests")
+class OcrResultCacheImplTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOps;
+    private EncryptionUtil encryptionUtil;
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private OcrResultCacheImpl cache;
+
+    private final OcrResult result = OcrResult.builder()
+            .name("JOHN DOE")
+            .dob("1990-01-01")
+            .documentNumber("ABCDE1234F")
+            .rawResponse(Map.of("text", "INCOME TAX DEPARTMENT"))
+            .build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        encryptionUtil = mock(EncryptionUtil.class);
+        when(encryptionUtil.encrypt(anyString())).thenAnswer(invocation -> "enc:" + invocation.getArgument(0));
+        when(encryptionUtil.decrypt(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).substring(4));
+        kycProperties = new KycProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = newCache();
+    }
+
+    private OcrResultCacheImpl newCache() {
+        return new OcrResultCacheImpl(redisTemplate, encryptionUtil, new ObjectMapper(), kycProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should serve a stored result from memory without asking Redis")
+    void get_AfterPut_L1Hit() {
+        cache.put("hash", DocumentType.PAN, result);
+
+        Optional<OcrResult> cached = cache.get("hash", DocumentType.PAN);
+
+        assertTrue(cached.isPresent());
+        assertEquals(result, cached.get());
+        assertNotSame(result, cached.get());
+        verify(valueOps, never()).get(anyString());
+        assertEquals(1, meterRegistry.get("kyc.ocr.cache.hits").tag("level", "l1").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should write the encrypted result to Redis with the configured TTL")
+    void put_WritesEncryptedToRedis() {
+        cache.put("hash", DocumentType.PAN, result);
+
+        verify(valueOps).set(eq("OCR:PAN:hash"), startsWith("enc:{"), eq(Duration.ofHours(24)));
+    }
+
+    @Test
+    @DisplayName("Should fall back to Redis on another node and keep the result in memory")
+    void get_L1Miss_L2Hit() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(result);
+        when(valueOps.get("OCR:AADHAAR:hash")).thenReturn("enc:" + json);
+
+        assertEquals(Optional.of(result), cache.get("hash", DocumentType.AADHAAR));
+        assertEquals(Optional.of(result), cache.get("hash", DocumentType.AADHAAR));
+
+        verify(valueOps, times(1)).get("OCR:AADHAAR:hash");
+        assertEquals(1, meterRegistry.get("kyc.ocr.cache.hits").tag("level", "l2").counter().count());
+        assertEquals(1, meterRegistry.get("kyc.ocr.cache.hits").tag("level", "l1").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep results of different document types apart")
+    void get_OtherType_Miss() {
+        cache.put("hash", DocumentType.PAN, result);
+
+        assertTrue(cache.get("hash", DocumentType.AADHAAR).isEmpty());
+        assertEquals(1, meterRegistry.get("kyc.ocr.cache.misses").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should treat an expired entry as a miss")
+    void get_Expired_Miss() {
+        kycProperties.getOcr().getCache().setTtl(Duration.ZERO);
+        kycProperties.getOcr().getCache().setRedis(false);
+        cache.put("hash", DocumentType.PAN, result);
+
+        assertTrue(cache.get("hash", DocumentType.PAN).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry beyond local-max-entries")
+    void put_OverCapacity_EvictsLeastRecentlyUsed() {
+        kycProperties.getOcr().getCache().setLocalMaxEntries(2);
+        kycProperties.getOcr().getCache().setRedis(false);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = newCache();
+        cache.put("a", DocumentType.PAN, result);
+        cache.put("b", DocumentType.PAN, result);
+        cache.get("a", DocumentType.PAN);
+        cache.put("c", DocumentType.PAN, result);
+
+        assertTrue(cache.get("a", DocumentType.PAN).isPresent());
+        assertTrue(cache.get("b", DocumentType.PAN).isEmpty());
+        assertTrue(cache.get("c", DocumentType.PAN).isPresent());
+        assertEquals(2.0, meterRegistry.get("kyc.ocr.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should report a miss, not fail, when Redis is down")
+    void get_RedisDown_Miss() {
+        when(valueOps.get(anyString())).thenThrow(new RuntimeException("connection refused"));
+        doThrow(new RuntimeException("connection refused")).when(valueOps)
+                .set(anyString(), anyString(), any(Duration.class));
+
+        assertDoesNotThrow(() -> cache.put("hash", DocumentType.PAN, result));
+        assertTrue(cache.get("other", DocumentType.PAN).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled or the document has no hash")
+    void disabledOrNoHash_NoLookup() {
+        cache.put(null, DocumentType.PAN, result);
+        assertTrue(cache.get(null, DocumentType.PAN).isEmpty());
+
+        kycProperties.getOcr().getCache().setEnabled(false);
+        cache.put("hash", DocumentType.PAN, result);
+        assertTrue(cache.get("hash", DocumentType.PAN).isEmpty());
+
+        verifyNoInteractions(valueOps);
+    }
+}
@@ -1,18 +1,36 @@
 package com.example.kyc_system.service.impl;
 
+import com.example.kyc_system.config.KycProperties;
 import com.example.kyc_system.dto.OcrResult;
 import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.enums.OcrField;
+import com.example.kyc_system.ocr.DocumentClassifier;
+import com.example.kyc_system.ocr.DocumentTypeValidator;
+import com.example.kyc_system.ocr.ImagePreprocessor;
+import com.example.kyc_system.ocr.PageRecognizer;
+import com.example.kyc_system.ocr.RecognizedText;
+import com.example.kyc_system.ocr.RegionRecognizer;
+import com.example.kyc_system.ocr.TesseractEnginePool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.ITessAPI;
 import net.sourceforge.tess4j.ITesseract;
 import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -24,17 +42,29 @@ import static org.mockito.Mockito.*;
 /**
  * Unit tests for OcrServiceImpl.
  *
- * We spy on OcrServiceImpl to override getTesseractInstance() — this prevents
- * the real Tesseract binary from being needed during tests.
+ * The engine pool is mocked to lend a mocked ITesseract — this prevents
+ * the real Tesseract binary from being needed during tests. Preprocessing is
+ * off (mocked) unless a test enables it, and no document type has a region
+ * profile unless a test gives it one.
  *
  * Tests cover:
  * - PAN extraction (name, DOB, document number)
  * - Aadhaar extraction (standard, year-only DOB, with-spaces number)
  * - DOB fallback patterns (DD/MM/YYYY, DD-MM-YYYY)
  * - Document type validation (wrong doc type → exception)
+ * - Keywords found reported in rawResponse
  * - Blank/null OCR text → no exception, null fields
  * - Tesseract throws → RuntimeException propagated
  * - Generic fallback for unrecognized doc number patterns
+ * - Preprocessing enabled → preprocessed pages are recognised, not the raw file
+ * - Preprocessing off → PDFs still rendered and recognised page by page
+ * - Pre-pass detects another document type → rejected without full OCR
+ * - Region profile: all fields from regions → no full-page OCR
+ * - Region profile: missing field or failed validation → full-page fallback
+ * - Region profile: document type validated with the pre-pass header; passes timed
+ * - Field confidences from word confidences
+ * - Second pass: low-confidence field → enhanced images with its PSM, more
+ * confident read kept; confident or disabled → no second pass
  */
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -43,12 +73,32 @@ class OcrServiceImplTest {
 
     private OcrServiceImpl ocrService;
     private ITesseract tesseract;
+    private ImagePreprocessor preprocessor;
+    private RegionRecognizer regionRecognizer;
+    private PageRecognizer pageRecognizer;
+    private DocumentClassifier documentClassifier;
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
-    void setUp() {
-        ocrService = spy(new OcrServiceImpl());
-        ReflectionTestUtils.setField(ocrService, "dataPath", "/usr/share/tesseract-ocr/5/tessdata");
+    void setUp() throws TesseractException {
         tesseract = mock(ITesseract.class);
+        TesseractEnginePool enginePool = mock(TesseractEnginePool.class);
+        when(enginePool.execute(any())).thenAnswer(invocation -> invocation
+                .<TesseractEnginePool.EngineTask<?>>getArgument(0).run(tesseract));
+        preprocessor = mock(ImagePreprocessor.class);
+        regionRecognizer = mock(RegionRecognizer.class);
+        pageRecognizer = new PageRecognizer(enginePool, new KycProperties(), new SimpleMeterRegistry());
+        documentClassifier = mock(DocumentClassifier.class);
+        kycProperties = new KycProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        ocrService = new OcrServiceImpl(enginePool, preprocessor, regionRecognizer, pageRecognizer,
+                documentClassifier, new DocumentTypeValidator(new KycProperties()), kycProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pageRecognizer.shutdown();
     }
 
     // ─── PAN Card ─────────────────────────────────────────────────────────────
@@ -60,7 +110,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should extract name, DOB, and PAN number from standard PAN card OCR")
         void extract_StandardPanCard_ExtractsAllFields() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "INCOME TAX DEPARTMENT\n" +
                     "GOVT. OF INDIA\n" +
                     "KARAN GONDALIYA\n" +
@@ -81,7 +130,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should extract name above Father's Name label (primary PAN logic)")
         void extract_PanWithFathersNameLabel_ExtractsNameCorrectly() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Permanent Account Number Card\n" +
                     "JOHN DOE\n" +
                     "Father's Name\n" +
@@ -99,7 +147,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should throw when Aadhaar text is submitted as PAN")
         void extract_AadhaarTextAsPan_ThrowsWithSpecificMessage() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Government of India\nUnique Identification Authority of India\nAadhaar\n1234 5678 9012";
             when(tesseract.doOCR(any(File.class))).thenReturn(ocrText);
 
@@ -112,7 +159,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should throw with generic message for unrecognized document as PAN")
         void extract_UnrecognizedDocAsPan_ThrowsGenericMessage() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             when(tesseract.doOCR(any(File.class))).thenReturn("Random garbage text 12345");
 
             RuntimeException ex = assertThrows(RuntimeException.class,
@@ -131,7 +177,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should extract name, DOB (DD/MM/YYYY), and 12-digit Aadhaar number")
         void extract_StandardAadhaar_ExtractsAllFields() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Government of India\n" +
                     "Karan Gondaliya\n" +
                     "DOB: 14/10/1992\n" +
@@ -150,7 +195,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should extract year-only DOB (Year of Birth: YYYY) and append -01-01")
         void extract_AadhaarYearOnlyDob_ReturnsYearWithJanFirst() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Government of India\n" +
                     "Karan Gondaliya\n" +
                     "Year of Birth: 1990\n" +
@@ -167,7 +211,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should extract name from line above DOB label (positional fallback)")
         void extract_NameFallbackAboveDob_ExtractsCorrectly() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Government of India\nAadhaar\nJohn Doe\nDOB: 14-10-1992\nMale\n9876543210123";
             when(tesseract.doOCR(any(File.class))).thenReturn(ocrText);
 
@@ -179,7 +222,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should throw when PAN text is submitted as Aadhaar")
         void extract_PanTextAsAadhaar_ThrowsWithSpecificMessage() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Income Tax Department\nPermanent Account Number Card\nABCDE1234F";
             when(tesseract.doOCR(any(File.class))).thenReturn(ocrText);
 
@@ -192,7 +234,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should throw with generic message for unrecognized document as Aadhaar")
         void extract_UnrecognizedDocAsAadhaar_ThrowsGenericMessage() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             when(tesseract.doOCR(any(File.class))).thenReturn("Random garbage text 12345");
 
             RuntimeException ex = assertThrows(RuntimeException.class,
@@ -211,7 +252,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should parse DD-MM-YYYY format via fallback pattern")
         void extract_DobWithDashSeparator_ParsedCorrectly() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Permanent Account Number Card\n" +
                     "GOVT. OF INDIA\n" +
                     "JANE SMITH\n" +
@@ -229,7 +269,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should return null DOB when no recognizable date pattern found in text")
         void extract_NoDobInText_ReturnsNullDob() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             // Valid Aadhaar but no date at all
             String ocrText = "Government of India\nMale\n1234 5678 9012";
             when(tesseract.doOCR(any(File.class))).thenReturn(ocrText);
@@ -249,7 +288,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should return OcrResult with null fields when OCR returns blank text")
         void extract_BlankOcrText_ReturnsNullFields() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             when(tesseract.doOCR(any(File.class))).thenReturn("   ");
 
             // validateDocumentType exits early on blank — no exception thrown
@@ -270,7 +308,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should wrap TesseractException in RuntimeException with 'OCR failed' message")
         void extract_TesseractThrows_WrapsInRuntimeException() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             when(tesseract.doOCR(any(File.class))).thenThrow(new TesseractException("native error"));
 
             RuntimeException ex = assertThrows(RuntimeException.class,
@@ -290,7 +327,6 @@ class OcrServiceImplTest {
         @Test
         @DisplayName("Should populate rawResponse map with 'text' key containing full OCR output")
         void extract_RawResponseContainsFullText() throws TesseractException {
-            doReturn(tesseract).when(ocrService).getTesseractInstance();
             String ocrText = "Permanent Account Number Card\nGOVT. OF INDIA\nJOHN DOE\nFather's Name\nJANE DOE\nDOB: 01/01/1990\nABCDE1234F";
             when(tesseract.doOCR(any(File.class))).thenReturn(ocrText);
 
@@ -300,5 +336,274 @@ class OcrServiceImplTest {
             assertTrue(result.getRawResponse().containsKey("text"));
             assertEquals(ocrText, result.getRawResponse().get("text"));
         }
+
+        @Test
+        @DisplayName("Should report the document keywords found under 'keywords'")
+        void extract_RawResponseContainsKeywords() throws TesseractException {
+            when(tesseract.doOCR(any(File.class)))
+                    .thenReturn("Permanent Account Number Card\nGOVT. OF INDIA\nJOHN DOE\nABCDE1234F");
+
+            OcrResult result = ocrService.extract(new File("dummy.jpg"), DocumentType.PAN);
+
+            assertEquals(List.of("permanent account number card", "govt. of india"),
+                    result.getRawResponse().get("keywords"));
+        }
+    }
+
+    // ─── Preprocessing ────────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Image preprocessing")
+    class PreprocessingTests {
+
+        @Test
+        @DisplayName("Should OCR every preprocessed page instead of the raw file")
+        void extract_PreprocessingEnabled_RecognisesPages() throws Exception {
+            BufferedImage page1 = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+            BufferedImage page2 = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+            File file = new File("dummy.pdf");
+            when(preprocessor.isEnabled()).thenReturn(true);
+            when(preprocessor.preprocess(file)).thenReturn(List.of(page1, page2));
+            when(tesseract.doOCR(page1)).thenReturn("INCOME TAX DEPARTMENT\nJOHN DOE\nFather's Name\n");
+            when(tesseract.doOCR(page2)).thenReturn("ABCDE1234F\n");
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("JOHN DOE", result.getName());
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            verify(tesseract, never()).doOCR(any(File.class));
+        }
+
+        @Test
+        @DisplayName("Should render a PDF into pages even with preprocessing off")
+        void extract_PdfPreprocessingOff_RendersPages() throws Exception {
+            BufferedImage page = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+            File file = new File("scan.PDF");
+            when(preprocessor.decodePdf(file)).thenReturn(List.of(page));
+            when(tesseract.doOCR(page)).thenReturn("INCOME TAX DEPARTMENT\nJOHN DOE\nFather's Name\nABCDE1234F\n");
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            verify(preprocessor, never()).preprocess(any());
+            verify(tesseract, never()).doOCR(any(File.class));
+        }
+
+        @Test
+        @DisplayName("Should reject a document the pre-pass classifies as another type, without full OCR")
+        void extract_PrePassMismatch_RejectedEarly() throws Exception {
+            BufferedImage page = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+            File file = new File("aadhaar.png");
+            when(preprocessor.isEnabled()).thenReturn(true);
+            when(preprocessor.preprocess(file)).thenReturn(List.of(page));
+            when(documentClassifier.isEnabled()).thenReturn(true);
+            when(documentClassifier.classify(page, DocumentType.PAN)).thenReturn(
+                    new DocumentClassifier.Classification("Government of India", Optional.of(DocumentType.AADHAAR)));
+
+            RuntimeException ex = assertThrows(RuntimeException.class,
+                    () -> ocrService.extract(file, DocumentType.PAN));
+
+            assertEquals("Invalid document: Uploaded document appears to be an Aadhaar card, but PAN was expected.",
+                    ex.getMessage());
+            verify(tesseract, never()).doOCR(any(BufferedImage.class));
+        }
+
+        @Test
+        @DisplayName("Should run the full pass when the pre-pass can't tell the type")
+        void extract_PrePassUnknown_FullPass() throws Exception {
+            BufferedImage page = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+            File file = new File("pan.png");
+            when(preprocessor.isEnabled()).thenReturn(true);
+            when(preprocessor.preprocess(file)).thenReturn(List.of(page));
+            when(documentClassifier.isEnabled()).thenReturn(true);
+            when(documentClassifier.classify(page, DocumentType.PAN)).thenReturn(
+                    new DocumentClassifier.Classification("smudge", Optional.empty()));
+            when(tesseract.doOCR(page)).thenReturn("INCOME TAX DEPARTMENT\nABCDE1234F\n");
+
+            assertEquals("ABCDE1234F", ocrService.extract(file, DocumentType.PAN).getDocumentNumber());
+        }
+    }
+
+    private static Map<OcrField, RecognizedText> regionTexts(Map<OcrField, String> texts) {
+        Map<OcrField, RecognizedText> recognised = new EnumMap<>(OcrField.class);
+        texts.forEach((field, text) -> recognised.put(field, RecognizedText.of(text)));
+        return recognised;
+    }
+
+    // ─── Region-of-interest OCR ───────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Region-of-interest OCR")
+    class RegionTests {
+
+        private final BufferedImage page = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+        private final File file = new File("pan.png");
+        private final List<KycProperties.Region> profile = List.of(
+                new KycProperties.Region(OcrField.HEADER, 0, 0, 1, 0.2, 6, null));
+
+        @BeforeEach
+        void enableRegions() throws Exception {
+            when(preprocessor.isEnabled()).thenReturn(true);
+            when(preprocessor.preprocess(file)).thenReturn(List.of(page));
+            when(regionRecognizer.profile(DocumentType.PAN)).thenReturn(profile);
+        }
+
+        @Test
+        @DisplayName("Should take every field from the regions and skip full-page OCR")
+        void extract_AllFieldsInRegions_NoFullPageOcr() throws Exception {
+            when(regionRecognizer.recognize(page, profile)).thenReturn(regionTexts(Map.of(
+                    OcrField.HEADER, "INCOME TAX DEPARTMENT GOVT. OF INDIA",
+                    OcrField.NAME, "Name\nKARAN GONDALIYA\nFather's Name",
+                    OcrField.DOB, "01/01/1990",
+                    OcrField.DOCUMENT_NUMBER, "ABCDE1234F")));
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("KARAN GONDALIYA", result.getName());
+            assertEquals("1990-01-01", result.getDob());
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            assertNotNull(result.getRawResponse().get("regions"));
+            verify(tesseract, never()).doOCR(any(BufferedImage.class));
+        }
+
+        @Test
+        @DisplayName("Should validate the regions against the pre-pass header instead of a header region")
+        void extract_PrePassHeader_ValidatesRegions() throws Exception {
+            List<KycProperties.Region> fields = List.of(
+                    new KycProperties.Region(OcrField.NAME, 0, 0.36, 0.65, 0.16, 6, null));
+            when(regionRecognizer.profile(DocumentType.PAN)).thenReturn(fields);
+            when(documentClassifier.isEnabled()).thenReturn(true);
+            when(documentClassifier.classify(page, DocumentType.PAN)).thenReturn(new DocumentClassifier.Classification(
+                    "INCOME TAX DEPARTMENT GOVT. OF INDIA", Optional.of(DocumentType.PAN)));
+            when(regionRecognizer.recognize(page, fields)).thenReturn(regionTexts(Map.of(
+                    OcrField.NAME, "KARAN GONDALIYA",
+                    OcrField.DOB, "01/01/1990",
+                    OcrField.DOCUMENT_NUMBER, "ABCDE1234F")));
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            assertEquals("INCOME TAX DEPARTMENT GOVT. OF INDIA", result.getRawResponse().get("header"));
+            verify(tesseract, never()).doOCR(any(BufferedImage.class));
+            assertEquals(1, meterRegistry.get("kyc.ocr.pass").tag("pass", "regions").timer().count());
+            assertTrue(meterRegistry.find("kyc.ocr.pass").tag("pass", "full-page").timers().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should fill a field the regions missed from the full page")
+        void extract_FieldMissingInRegions_FallsBackToFullPage() throws Exception {
+            when(regionRecognizer.recognize(page, profile)).thenReturn(regionTexts(Map.of(
+                    OcrField.HEADER, "INCOME TAX DEPARTMENT",
+                    OcrField.NAME, "KARAN GONDALIYA",
+                    OcrField.DOB, "",
+                    OcrField.DOCUMENT_NUMBER, "ABCDE1234F")));
+            when(tesseract.doOCR(page)).thenReturn("INCOME TAX DEPARTMENT\nK GONDALIYA\nFather's Name\nDOB: 02/03/1991\n");
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("KARAN GONDALIYA", result.getName());
+            assertEquals("1991-03-02", result.getDob());
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            assertEquals(1, meterRegistry.get("kyc.ocr.pass").tag("pass", "regions").timer().count());
+            assertEquals(1, meterRegistry.get("kyc.ocr.pass").tag("pass", "full-page").timer().count());
+        }
+
+        @Test
+        @DisplayName("Should let the full page decide when the regions don't validate")
+        void extract_RegionsNotValidated_FullPageValidationApplies() throws Exception {
+            when(regionRecognizer.recognize(page, profile)).thenReturn(regionTexts(Map.of(
+                    OcrField.HEADER, "Unique Identification Authority of India")));
+            when(tesseract.doOCR(page)).thenReturn("Unique Identification Authority of India\nAadhaar\n");
+
+            RuntimeException ex = assertThrows(RuntimeException.class,
+                    () -> ocrService.extract(file, DocumentType.PAN));
+            assertTrue(ex.getMessage().contains("Aadhaar"));
+            verify(tesseract).doOCR(page);
+        }
+    }
+
+    // ─── Confidence and second pass ───────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Confidence and adaptive second pass")
+    class SecondPassTests {
+
+        private static final String PAN_TEXT =
+                "INCOME TAX DEPARTMENT\nRAHUL SHARMA\nFather's Name\nDOB: 01/01/1990\nABCDE1234F\n";
+
+        private final BufferedImage page = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+        private final BufferedImage enhanced = new BufferedImage(20, 20, BufferedImage.TYPE_BYTE_GRAY);
+        private final File file = new File("pan.png");
+
+        @BeforeEach
+        void enablePreprocessing() throws Exception {
+            when(preprocessor.isEnabled()).thenReturn(true);
+            when(preprocessor.preprocess(file)).thenReturn(List.of(page));
+            when(preprocessor.enhance(file)).thenReturn(List.of(enhanced));
+        }
+
+        private void recognise(BufferedImage image, String text, float numberConfidence) throws Exception {
+            when(tesseract.doOCR(image)).thenReturn(text);
+            when(tesseract.getWords(image, ITessAPI.TessPageIteratorLevel.RIL_WORD)).thenReturn(List.of(
+                    new Word("RAHUL", 93f, new Rectangle()),
+                    new Word("SHARMA", 91f, new Rectangle()),
+                    new Word("01/01/1990", 89f, new Rectangle()),
+                    new Word(text.contains("ABCDE1234F") ? "ABCDE1234F" : "ABCDE1Z34F", numberConfidence,
+                            new Rectangle())));
+        }
+
+        @Test
+        @DisplayName("Should score every field from the words it was read from")
+        void extract_FieldConfidences() throws Exception {
+            recognise(page, PAN_TEXT, 95f);
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals(91f, result.getNameConfidence());
+            assertEquals(89f, result.getDobConfidence());
+            assertEquals(95f, result.getDocumentNumberConfidence());
+            verify(preprocessor, never()).enhance(any());
+        }
+
+        @Test
+        @DisplayName("Should OCR a low-confidence document again and keep the more confident read")
+        void extract_LowConfidence_SecondPassWins() throws Exception {
+            recognise(page, PAN_TEXT.replace("ABCDE1234F", "ABCDE1Z34F"), 35f);
+            recognise(enhanced, PAN_TEXT, 92f);
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            assertEquals(92f, result.getDocumentNumberConfidence());
+            assertEquals("RAHUL SHARMA", result.getName());
+            verify(tesseract).setPageSegMode(11);
+            assertEquals(1, meterRegistry.get("kyc.ocr.second-pass").tag("outcome", "improved").counter().count());
+            assertNotNull(result.getRawResponse().get("secondPass"));
+        }
+
+        @Test
+        @DisplayName("Should keep the first read when the second pass is less confident")
+        void extract_SecondPassWorse_FirstKept() throws Exception {
+            recognise(page, PAN_TEXT, 50f);
+            recognise(enhanced, PAN_TEXT.replace("ABCDE1234F", "ABCDE1Z34F"), 30f);
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals("ABCDE1234F", result.getDocumentNumber());
+            assertEquals(50f, result.getDocumentNumberConfidence());
+            assertEquals(1, meterRegistry.get("kyc.ocr.second-pass").tag("outcome", "unchanged").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should not run a second pass when it is disabled")
+        void extract_SecondPassDisabled() throws Exception {
+            kycProperties.getOcr().getSecondPass().setEnabled(false);
+            recognise(page, PAN_TEXT, 20f);
+
+            OcrResult result = ocrService.extract(file, DocumentType.PAN);
+
+            assertEquals(20f, result.getDocumentNumberConfidence());
+            verify(preprocessor, never()).enhance(any());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package com.example.kyc_system.service.impl;
+
+import com.example.kyc_system.config.KycProperties;
+import com.example.kyc_system.dto.OcrResult;
+import com.example.kyc_system.enums.DocumentType;
+import com.example.kyc_system.exception.OcrTimeoutException;
+import com.example.kyc_system.ocr.OcrDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SupervisedOcrService.
+ *
+ * Tests cover:
+ * - Result and exceptions of the delegate passed through
+ * - Delegate runs under an OcrDeadline
+ * - Past the deadline: OcrTimeoutException, deadline cancelled, timeout counted
+ * - Per-document-type timeout overrides the default
+ * - Abandoned extraction tracked until it finishes
+ * - Extractions finishing right at the deadline → abandoned count back to 0
+ */
+@DisplayName("SupervisedOcrService Unit Tests")
+class SupervisedOcrServiceTest {
+
+    private OcrServiceImpl delegate;
+    private KycProperties kycProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private SupervisedOcrService service;
+    private final File file = new File("doc.png");
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(OcrServiceImpl.class);
+        kycProperties = new KycProperties();
+        kycProperties.getOcr().setTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new SupervisedOcrService(delegate, kycProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return the delegate's result, extracted under a deadline")
+    void extract_InTime_ReturnsResult() {
+        OcrResult result = OcrResult.builder().name("JOHN DOE").build();
+        AtomicReference<OcrDeadline> deadline = new AtomicReference<>();
+        when(delegate.extract(file, DocumentType.PAN)).thenAnswer(invocation -> {
+            deadline.set(OcrDeadline.current());
+            return result;
+        });
+
+        assertSame(result, service.extract(file, DocumentType.PAN));
+        assertNotNull(deadline.get());
+        assertFalse(deadline.get().isExpired());
+    }
+
+    @Test
+    @DisplayName("Should pass the delegate's exceptions through unchanged")
+    void extract_DelegateThrows_SameException() {
+        RuntimeException invalid = new RuntimeException("Invalid document");
+        when(delegate.extract(any(), any())).thenThrow(invalid);
+
+        assertSame(invalid, assertThrows(RuntimeException.class, () -> service.extract(file, DocumentType.PAN)));
+    }
+
+    @Test
+    @DisplayName("Should give up at the deadline, cancel the work and count the timeout")
+    void extract_TooSlow_TimesOut() throws Exception {
+        AtomicReference<OcrDeadline> deadline = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        when(delegate.extract(file, DocumentType.AADHAAR)).thenAnswer(invocation -> {
+            deadline.set(OcrDeadline.current());
+            try {
+                // Behaves like a native call: ignores interrupts, overruns its deadline
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            } finally {
+                finished.countDown();
+            }
+        });
+
+        long start = System.nanoTime();
+        OcrTimeoutException ex = assertThrows(OcrTimeoutException.class,
+                () -> service.extract(file, DocumentType.AADHAAR));
+
+        assertEquals(DocumentType.AADHAAR, ex.getDocumentType());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+        assertTrue(deadline.get().isExpired());
+        assertEquals(1, meterRegistry.get("kyc.ocr.timeouts").tag("documentType", "AADHAAR").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should use the document type's own timeout where configured")
+    void extract_PerTypeTimeout() {
+        kycProperties.getOcr().getTimeouts().put(DocumentType.PAN, Duration.ofSeconds(5));
+        when(delegate.extract(file, DocumentType.PAN)).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return OcrResult.builder().build();
+        });
+
+        assertDoesNotThrow(() -> service.extract(file, DocumentType.PAN));
+        assertThrows(OcrTimeoutException.class, () -> {
+            when(delegate.extract(file, DocumentType.AADHAAR)).thenAnswer(invocation -> {
+                Thread.sleep(400);
+                return null;
+            });
+            service.extract(file, DocumentType.AADHAAR);
+        });
+    }
+
+    @Test
+    @DisplayName("Should track a timed-out extraction until it actually stops")
+    void extract_AbandonedUntilFinished() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.extract(any(), any())).thenAnswer(invocation -> {
+            // Ignores both the deadline and interrupts
+            while (release.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+            return null;
+        });
+
+        assertThrows(OcrTimeoutException.class, () -> service.extract(file, DocumentType.PAN));
+        assertEquals(1.0, meterRegistry.get("kyc.ocr.abandoned").gauge().value());
+
+        release.countDown();
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (meterRegistry.get("kyc.ocr.abandoned").gauge().value() > 0 && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+        assertEquals(0.0, meterRegistry.get("kyc.ocr.abandoned").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should leave no abandoned count behind when extractions finish right at the deadline")
+    void extract_FinishingAtDeadline_AbandonedBalanced() throws Exception {
+        kycProperties.getOcr().setTimeout(Duration.ofMillis(5));
+        AtomicInteger running = new AtomicInteger();
+        when(delegate.extract(any(), any())).thenAnswer(invocation -> {
+            running.incrementAndGet();
+            try {
+                // Ignores the deadline; ends around the moment the caller gives up
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5);
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 200; i++) {
+            try {
+                service.extract(file, DocumentType.PAN);
+            } catch (RuntimeException timedOutOrNoThreadFree) {
+                // Either outcome is fine; only the count matters
+            }
+        }
+
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (running.get() > 0 && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals(0.0, meterRegistry.get("kyc.ocr.abandoned").gauge().value());
+    }
+}